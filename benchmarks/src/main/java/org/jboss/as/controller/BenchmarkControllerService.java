@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
+import org.jboss.as.controller.access.management.ManagementSecurityIdentitySupplier;
+import org.jboss.as.controller.audit.AuditLogger;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+
+/**
+ * A {@code Service<ModelController>} for the benchmarks, booted from a given list of operations against
+ * the {@link SyntheticModel}.
+ */
+final class BenchmarkControllerService extends AbstractControllerService {
+
+    private final List<ModelNode> bootOperations;
+    private final CountDownLatch latch = new CountDownLatch(2);
+    private volatile ServiceContainer container;
+    private volatile boolean bootSucceeded;
+
+    private BenchmarkControllerService(final List<ModelNode> bootOperations) {
+        super(null, null, ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(),
+                new ControlledProcessState(true),
+                ResourceBuilder.Factory.create(PathElement.pathElement("root"), NonResolvingResourceDescriptionResolver.INSTANCE).build(),
+                null, ExpressionResolver.TEST_RESOLVER, AuditLogger.NO_OP_LOGGER, new DelegatingConfigurableAuthorizer(),
+                new ManagementSecurityIdentitySupplier(), new CapabilityRegistry(true));
+        this.bootOperations = bootOperations;
+    }
+
+    /**
+     * Installs a controller in a new service container and waits for it to boot.
+     *
+     * @param bootOperations the operations to boot with
+     * @return the started service. Will not be {@code null}
+     * @throws InterruptedException if interrupted while waiting for the boot
+     */
+    static BenchmarkControllerService start(final List<ModelNode> bootOperations) throws InterruptedException {
+        final BenchmarkControllerService service = new BenchmarkControllerService(bootOperations);
+        final ServiceContainer container = ServiceContainer.Factory.create("benchmark");
+        service.container = container;
+        container.subTarget().addService(ServiceName.of("ModelController")).setInstance(service).install();
+        if (!service.latch.await(5, TimeUnit.MINUTES)) {
+            service.stop();
+            throw new IllegalStateException("Failed to boot in timely fashion");
+        }
+        if (!service.bootSucceeded) {
+            service.stop();
+            throw new IllegalStateException("Boot failed");
+        }
+        return service;
+    }
+
+    /**
+     * Shuts down the service container the controller was installed in.
+     *
+     * @throws InterruptedException if interrupted while waiting for the shutdown
+     */
+    void stop() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    ModelControllerImpl getControllerImpl() {
+        return (ModelControllerImpl) getValue();
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+        ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        rootRegistration.registerOperationHandler(CompositeOperationHandler.DEFINITION, CompositeOperationHandler.INSTANCE);
+        SyntheticModel.registerDefinitions(rootRegistration);
+    }
+
+    @Override
+    protected void boot(BootContext context) throws ConfigurationPersistenceException {
+        bootSucceeded = boot(new ArrayList<>(bootOperations), false);
+        finishBoot();
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        latch.countDown();
+    }
+
+    @Override
+    protected void bootThreadDone() {
+        super.bootThreadDone();
+        latch.countDown();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of single management operations executed through {@link ModelControllerImpl}, against
+ * a synthetic model of 10,000 resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagementOperationBenchmark {
+
+    // 100 subsystems with 99 items each, 10,000 resources in total
+    private static final int SUBSYSTEMS = 100;
+    private static final int ITEMS = 99;
+    private static final int COMPOSITE_STEPS = 10;
+
+    private BenchmarkControllerService service;
+    private ModelController controller;
+    private ModelNode readAttributeOp;
+    private ModelNode writeAttributeOp;
+    private ModelNode compositeOp;
+    private ModelNode readResourceOp;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        service = BenchmarkControllerService.start(SyntheticModel.createAddOperations(SUBSYSTEMS, ITEMS));
+        controller = service.getValue();
+
+        PathAddress item = SyntheticModel.itemAddress(SUBSYSTEMS / 2, ITEMS / 2);
+        readAttributeOp = Util.getReadAttributeOperation(item, SyntheticModel.VALUE.getName());
+        writeAttributeOp = Util.getWriteAttributeOperation(item, SyntheticModel.VALUE.getName(), 0);
+
+        compositeOp = Util.createEmptyOperation(CompositeOperationHandler.NAME, PathAddress.EMPTY_ADDRESS);
+        ModelNode steps = compositeOp.get(STEPS).setEmptyList();
+        for (int i = 0; i < COMPOSITE_STEPS; i++) {
+            steps.add(Util.getWriteAttributeOperation(SyntheticModel.itemAddress(i, i), SyntheticModel.VALUE.getName(), 0));
+        }
+
+        readResourceOp = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        readResourceOp.get(RECURSIVE).set(true);
+        readResourceOp.get(INCLUDE_RUNTIME).set(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Benchmark
+    public ModelNode readAttribute() {
+        return execute(readAttributeOp);
+    }
+
+    @Benchmark
+    public ModelNode writeAttribute() {
+        // Always write a new value, so the model really changes and gets published
+        writeAttributeOp.get(VALUE).set(++counter);
+        return execute(writeAttributeOp);
+    }
+
+    @Benchmark
+    public ModelNode composite() {
+        int value = ++counter;
+        ModelNode steps = compositeOp.get(STEPS);
+        for (int i = 0; i < COMPOSITE_STEPS; i++) {
+            steps.get(i).get(VALUE).set(value);
+        }
+        return execute(compositeOp);
+    }
+
+    @Benchmark
+    public ModelNode readResourceRecursive() {
+        return execute(readResourceOp);
+    }
+
+    private ModelNode execute(ModelNode op) {
+        return ReadWithConcurrentWritesBenchmark.checkSuccess(controller.execute(op, null, null, null));
+    }
+}
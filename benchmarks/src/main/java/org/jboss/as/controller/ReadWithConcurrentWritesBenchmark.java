@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the recursive {@code read-resource} calls made by monitoring agents, alone and
+ * while other threads keep writing to the model.
+ * <p>
+ * Read-only operations run against a snapshot of the published model, so the {@code readWithWriters} readers
+ * should come close to the {@code readOnly} ones.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadWithConcurrentWritesBenchmark {
+
+    private static final int SUBSYSTEMS = 10;
+    private static final int ITEMS = 100;
+
+    @Param({"false", "true"})
+    public boolean scopedWriteLocks;
+
+    private BenchmarkControllerService service;
+    private ModelController controller;
+    private ModelNode readOp;
+    private ModelNode writeOp;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        System.setProperty(ModelControllerImpl.SCOPED_WRITE_LOCKS_PROPERTY, String.valueOf(scopedWriteLocks));
+        service = BenchmarkControllerService.start(SyntheticModel.createAddOperations(SUBSYSTEMS, ITEMS));
+        controller = service.getValue();
+
+        readOp = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SyntheticModel.subsystemAddress(0));
+        readOp.get(RECURSIVE).set(true);
+        readOp.get(INCLUDE_RUNTIME).set(true);
+        writeOp = Util.getWriteAttributeOperation(SyntheticModel.itemAddress(SUBSYSTEMS - 1, 0), SyntheticModel.VALUE.getName(), 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        service.stop();
+        System.clearProperty(ModelControllerImpl.SCOPED_WRITE_LOCKS_PROPERTY);
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(4)
+    public ModelNode readOnly() {
+        return checkSuccess(controller.execute(readOp, null, null, null));
+    }
+
+    @Benchmark
+    @Group("readWithWriters")
+    @GroupThreads(3)
+    public ModelNode read() {
+        return checkSuccess(controller.execute(readOp, null, null, null));
+    }
+
+    @Benchmark
+    @Group("readWithWriters")
+    @GroupThreads(1)
+    public ModelNode write() {
+        // Only this thread touches counter and writeOp
+        writeOp.get(VALUE).set(counter++);
+        return checkSuccess(controller.execute(writeOp, null, null, null));
+    }
+
+    static ModelNode checkSuccess(ModelNode response) {
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            throw new IllegalStateException(response.toString());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * A synthetic management model for the benchmarks: a number of {@code subsystem=bench-<n>} resources,
+ * each with a number of {@code item=<n>} children. Every resource has a writable {@code value} and
+ * {@code name} attribute, which are only stored in the model.
+ */
+final class SyntheticModel {
+
+    static final String SUBSYSTEM = "subsystem";
+    static final String ITEM = "item";
+
+    static final SimpleAttributeDefinition VALUE = new SimpleAttributeDefinitionBuilder("value", ModelType.INT)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .build();
+    static final SimpleAttributeDefinition NAME = new SimpleAttributeDefinitionBuilder("name", ModelType.STRING)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .build();
+
+    private SyntheticModel() {
+    }
+
+    /**
+     * Registers the resource definitions of the synthetic model.
+     *
+     * @param root the root resource registration
+     */
+    static void registerDefinitions(ManagementResourceRegistration root) {
+        ManagementResourceRegistration subsystem = root.registerSubModel(new ModelOnlyResourceDefinition(
+                PathElement.pathElement(SUBSYSTEM), NonResolvingResourceDescriptionResolver.INSTANCE, VALUE, NAME));
+        subsystem.registerSubModel(new ModelOnlyResourceDefinition(
+                PathElement.pathElement(ITEM), NonResolvingResourceDescriptionResolver.INSTANCE, VALUE, NAME));
+    }
+
+    /**
+     * Creates the {@code add} operations that populate the model with {@code subsystems * (1 + items)} resources.
+     *
+     * @param subsystems the number of subsystem resources
+     * @param items the number of item children of each subsystem
+     * @return the operations, in the order they must be executed
+     */
+    static List<ModelNode> createAddOperations(int subsystems, int items) {
+        List<ModelNode> ops = new ArrayList<>(subsystems * (items + 1));
+        for (int i = 0; i < subsystems; i++) {
+            PathAddress subsystemAddress = subsystemAddress(i);
+            ops.add(createAddOperation(subsystemAddress, i));
+            for (int j = 0; j < items; j++) {
+                ops.add(createAddOperation(itemAddress(i, j), j));
+            }
+        }
+        return ops;
+    }
+
+    static PathAddress subsystemAddress(int subsystem) {
+        return PathAddress.pathAddress(SUBSYSTEM, "bench-" + subsystem);
+    }
+
+    static PathAddress itemAddress(int subsystem, int item) {
+        return subsystemAddress(subsystem).append(ITEM, String.valueOf(item));
+    }
+
+    private static ModelNode createAddOperation(PathAddress address, int value) {
+        ModelNode op = Util.createAddOperation(address);
+        op.get(VALUE.getName()).set(value);
+        op.get(NAME.getName()).set(address.getLastElement().getValue());
+        return op;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing a record with the file audit log handlers, as the audit logger does for each logged operation.
+ * <p>
+ * With a {@code syncInterval} of {@code 0} every record is synced before the write returns. Otherwise the file is
+ * kept open and the records are synced in groups by a {@link GroupCommitAuditLogFile}, at most every
+ * {@code syncInterval} ms or every 1000 records. The files are written to the temporary directory, so it should be on
+ * the kind of disk the audit log is meant for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileAuditLogHandlerBenchmark {
+
+    private static final String RECORD = "2022-01-01 00:00:00 - {\"type\" : \"core\", \"r/o\" : true, \"booting\" : false,"
+            + " \"version\" : \"17.0.0.Beta1-SNAPSHOT\", \"user\" : \"admin\", \"domainUUID\" : null, \"access\" : \"HTTP\","
+            + " \"remote-address\" : \"127.0.0.1/127.0.0.1\", \"success\" : true, \"ops\" : [{\"operation\" : \"read-resource\","
+            + " \"address\" : [{\"subsystem\" : \"logging\"}], \"recursive\" : false, \"operation-headers\" : {\"caller-type\" : \"user\","
+            + " \"access-mechanism\" : \"HTTP\"}}]}";
+
+    @Param({"file", "size-rotating"})
+    public String handler;
+
+    @Param({"0", "100"})
+    public int syncInterval;
+
+    private File dir;
+    private AbstractFileAuditLogHandler auditLogHandler;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("audit-log-benchmark").toFile();
+        final String path = new File(dir, "audit-log.log").getPath();
+        System.setProperty(GroupCommitAuditLogFile.SYNC_INTERVAL, Integer.toString(syncInterval));
+        try {
+            if ("file".equals(handler)) {
+                auditLogHandler = new FileAuditLogHandler("benchmark", "json", 0, new BenchmarkPathManager(), path, null, false);
+            } else {
+                auditLogHandler = new SizeRotatingFileAuditLogHandler("benchmark", "json", 0, new BenchmarkPathManager(), path, null,
+                        10 * 1024 * 1024, 1);
+            }
+        } finally {
+            System.clearProperty(GroupCommitAuditLogFile.SYNC_INTERVAL);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditLogHandler.stop();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    public void writeRecord() throws IOException {
+        auditLogHandler.initialize();
+        auditLogHandler.writeLogItem(RECORD);
+    }
+
+    private static final class BenchmarkPathManager extends PathManagerService {
+    }
+}
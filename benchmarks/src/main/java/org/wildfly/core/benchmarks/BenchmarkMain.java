@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of the benchmarks jar. Runs JMH with the given command line, enabling the {@code gc} profiler
+ * so that allocation rates are always reported along with the scores.
+ * <p>
+ * Pass {@code -Dwildfly.benchmarks.gc-profiler=false} to run without the profiler.
+ */
+public final class BenchmarkMain {
+
+    private static final String GC_PROFILER_PROPERTY = "wildfly.benchmarks.gc-profiler";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> command = new ArrayList<>(Arrays.asList(args));
+        if (Boolean.parseBoolean(System.getProperty(GC_PROFILER_PROPERTY, "true")) && !hasGcProfiler(command)) {
+            command.add(0, "-prof");
+            command.add(1, "gc");
+        }
+        Main.main(command.toArray(new String[0]));
+    }
+
+    private static boolean hasGcProfiler(List<String> command) {
+        for (int i = 0; i < command.size() - 1; i++) {
+            if ("-prof".equals(command.get(i)) && command.get(i + 1).startsWith("gc")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.event.logger;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting an event with the {@link JsonEventFormatter}, which builds a JSON-P object for each event, and
+ * with the {@link StreamingJsonEventFormatter}, which writes the event directly.
+ * <p>
+ * {@code format} returns the event as a string. {@code formatTo} appends it to a reused builder, as the
+ * {@link StdoutEventWriter} does, so the streaming formatter allocates little more than the date and time it renders
+ * once per second. The events are a millisecond apart, with the data of a typical audit log record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventFormatterBenchmark {
+
+    private static final int EVENTS = 1024;
+
+    @Param({"json", "streaming"})
+    public String formatter;
+
+    private EventFormatter eventFormatter;
+    private final Event[] events = new Event[EVENTS];
+    private final StringBuilder builder = new StringBuilder(1024);
+    private int next;
+
+    @Setup
+    public void setup() {
+        if ("json".equals(formatter)) {
+            eventFormatter = JsonEventFormatter.builder()
+                    .setZoneId(ZoneOffset.UTC)
+                    .addMetaData("host", "localhost")
+                    .build();
+        } else {
+            eventFormatter = StreamingJsonEventFormatter.builder()
+                    .setZoneId(ZoneOffset.UTC)
+                    .addMetaData("host", "localhost")
+                    .build();
+        }
+        final Instant start = Instant.parse("2022-01-01T00:00:00Z");
+        for (int i = 0; i < EVENTS; i++) {
+            final Map<String, Object> data = new LinkedHashMap<>();
+            data.put("type", "core");
+            data.put("r/o", false);
+            data.put("booting", false);
+            data.put("version", "17.0.0.Beta1-SNAPSHOT");
+            data.put("user", "admin");
+            data.put("domainUUID", null);
+            data.put("access", "HTTP");
+            data.put("remote-address", "127.0.0.1/127.0.0.1");
+            data.put("success", true);
+            data.put("id", i);
+            data.put("duration", new BigDecimal("1.25"));
+            data.put("address", Arrays.asList("subsystem", "logging"));
+            events[i] = new BenchmarkEvent(start.plusMillis(i), data);
+        }
+    }
+
+    @Benchmark
+    public String format() {
+        return eventFormatter.format(nextEvent());
+    }
+
+    @Benchmark
+    public int formatTo() {
+        final StringBuilder builder = this.builder;
+        builder.setLength(0);
+        eventFormatter.formatTo(nextEvent(), builder);
+        return builder.length();
+    }
+
+    private Event nextEvent() {
+        return events[next++ & (EVENTS - 1)];
+    }
+
+    private static final class BenchmarkEvent implements Event {
+        private final Instant instant;
+        private final Map<String, Object> data;
+
+        private BenchmarkEvent(final Instant instant, final Map<String, Object> data) {
+            this.instant = instant;
+            this.data = data;
+        }
+
+        @Override
+        public String getSource() {
+            return "benchmark";
+        }
+
+        @Override
+        public Instant getInstant() {
+            return instant;
+        }
+
+        @Override
+        public Map<String, Object> getData() {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scheduling and then cancelling the timeout of a queued task while many other timeouts are pending, as
+ * happens when the request controller queues tasks under overload and most of them run before they time out.
+ * <p>
+ * {@code timer} uses the {@link Timer} the request controller used before: each operation is O(log n), and a
+ * cancelled task stays in the timer's queue until it would have expired, so the queue keeps growing for the whole
+ * measurement. {@code wheel} uses the {@link TimeoutWheel}, where both steps take constant time and nothing is
+ * retained.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class QueuedTaskTimeoutBenchmark {
+
+    private static final long TIMEOUT = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"timer", "wheel"})
+    public String scheduler;
+
+    @Param({"0", "100000"})
+    public int pending;
+
+    private Timer timer;
+    private TimeoutWheel wheel;
+    private final List<Object> pendingTimeouts = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("timer".equals(scheduler)) {
+            timer = new Timer(true);
+        } else {
+            wheel = new TimeoutWheel("benchmark", 10, TimeUnit.MILLISECONDS, 512);
+            wheel.start();
+        }
+        for (int i = 0; i < pending; i++) {
+            pendingTimeouts.add(schedule());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (timer != null) {
+            timer.cancel();
+        } else {
+            wheel.stop();
+        }
+        pendingTimeouts.clear();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        Object timeout = schedule();
+        if (timeout instanceof TimerTask) {
+            return ((TimerTask) timeout).cancel();
+        }
+        return ((TimeoutWheel.Timeout) timeout).cancelTimeout();
+    }
+
+    private Object schedule() {
+        if (timer != null) {
+            TimerTask task = new TimerTask() {
+                @Override
+                public void run() {
+                }
+            };
+            timer.schedule(task, TIMEOUT);
+            return task;
+        }
+        TimeoutWheel.Timeout timeout = new TimeoutWheel.Timeout() {
+            @Override
+            void expire() {
+            }
+        };
+        wheel.schedule(timeout, TIMEOUT, TimeUnit.MILLISECONDS);
+        return timeout;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a {@link ControlPoint#beginRequest()} and {@link ControlPoint#requestComplete()} pair made
+ * by many threads at once through a single control point, the way every web request passes through the request
+ * controller.
+ * <p>
+ * With the default counting all threads update the same two counters; with {@code stripedCounting} they should
+ * scale with the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RequestControllerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stripedCounting;
+
+    @Param({"false", "true"})
+    public boolean trackIndividualControlPoints;
+
+    private ControlPoint controlPoint;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RequestController controller = new RequestController(trackIndividualControlPoints, stripedCounting);
+        controlPoint = controller.getControlPoint("benchmark.war", "web");
+    }
+
+    @Benchmark
+    public RunResult beginAndComplete() throws Exception {
+        RunResult result = controlPoint.beginRequest();
+        if (result == RunResult.RUN) {
+            controlPoint.requestComplete();
+        }
+        return result;
+    }
+}
@@ -631,9 +631,17 @@ public abstract class AbstractControllerService implements Service<ModelControll
                     stopAsynchronous(context);
                 } finally {
                     try {
-                        authorizer.shutdown();
+                        configurationPersister.shutdown();
                     } finally {
-                        context.complete();
+                        try {
+                            auditLogger.shutdown();
+                        } finally {
+                            try {
+                                authorizer.shutdown();
+                            } finally {
+                                context.complete();
+                            }
+                        }
                     }
                 }
             }
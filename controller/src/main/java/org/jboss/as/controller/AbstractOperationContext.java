@@ -251,6 +251,35 @@ abstract class AbstractOperationContext implements OperationContext {
      */
     abstract Resource readResourceFromRoot(final ManagementModel model, final PathAddress address, final boolean recursive);
 
+    /**
+     * Gets the recorder of this execution's timings.
+     *
+     * @return the recorder, or {@code null} if this context does not record them
+     */
+    OperationMetrics getOperationMetrics() {
+        return null;
+    }
+
+    /**
+     * Gets the statistics of the operations executed by the controller this context belongs to.
+     *
+     * @return the statistics, or {@code null} if this context does not belong to a controller that keeps them
+     */
+    OperationStatistics getOperationStatistics() {
+        return null;
+    }
+
+    /**
+     * Switches the {@link #getOperationMetrics() recorded} phase of the execution, if metrics are being recorded.
+     *
+     * @param phase the phase that starts now
+     * @return the phase that was current until now, or {@code null} if metrics are not being recorded
+     */
+    final OperationMetrics.Phase enterMetricsPhase(OperationMetrics.Phase phase) {
+        final OperationMetrics metrics = getOperationMetrics();
+        return metrics == null ? null : metrics.enterPhase(phase);
+    }
+
     @Override
     public boolean isBooting() {
         return booting;
@@ -746,6 +775,7 @@ abstract class AbstractOperationContext implements OperationContext {
                     if (currentStage == Stage.VERIFY) {
                         // a change was made to the runtime. Thus, we must wait
                         // for stability before resuming in to verify.
+                        enterMetricsPhase(OperationMetrics.Phase.CONTAINER_STABILITY);
                         try {
                             awaitServiceContainerStability();
                         } catch (InterruptedException e) {
@@ -763,6 +793,7 @@ abstract class AbstractOperationContext implements OperationContext {
                             return;
                         }
                     }
+                    enterMetricsPhase(OperationMetrics.Phase.forStage(currentStage));
                 }
             } else {
                 // The response to the first step is what goes to the outside caller
@@ -852,6 +883,7 @@ abstract class AbstractOperationContext implements OperationContext {
             // Prepare persistence of any configuration changes
             ConfigurationPersister.PersistenceResource persistenceResource = null;
             if (resultAction != ResultAction.ROLLBACK) {
+                OperationMetrics.Phase previousPhase = enterMetricsPhase(OperationMetrics.Phase.PERSISTENCE);
                 try {
                     persistenceResource = createPersistenceResource();
                 } catch (ConfigurationPersistenceException e) {
@@ -861,6 +893,8 @@ abstract class AbstractOperationContext implements OperationContext {
                     resultAction = ResultAction.ROLLBACK;
                     executeResultHandlerPhase(null);
                     return;
+                } finally {
+                    enterMetricsPhase(previousPhase);
                 }
             }
 
@@ -885,10 +919,15 @@ abstract class AbstractOperationContext implements OperationContext {
 
             // Commit the persistence of any configuration changes
             if (persistenceResource != null) {
-                if (resultAction == ResultAction.ROLLBACK) {
-                    persistenceResource.rollback();
-                } else {
-                    persistenceResource.commit();
+                OperationMetrics.Phase previousPhase = enterMetricsPhase(OperationMetrics.Phase.PERSISTENCE);
+                try {
+                    if (resultAction == ResultAction.ROLLBACK) {
+                        persistenceResource.rollback();
+                    } else {
+                        persistenceResource.commit();
+                    }
+                } finally {
+                    enterMetricsPhase(previousPhase);
                 }
             }
         } catch (Throwable t) {
@@ -901,6 +940,7 @@ abstract class AbstractOperationContext implements OperationContext {
 
     private void executeResultHandlerPhase(Throwable toThrow) {
         respectInterruption = false;
+        enterMetricsPhase(OperationMetrics.Phase.COMPLETION);
         try {
             logAuditRecord();
             emitNotifications();
@@ -1039,6 +1079,10 @@ abstract class AbstractOperationContext implements OperationContext {
 
         step.predecessor = this.activeStep;
         this.activeStep = step;
+        final OperationMetrics metrics = getOperationMetrics();
+        if (metrics != null) {
+            metrics.stepExecuted();
+        }
 
         try {
             try {
@@ -0,0 +1,420 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.LifecycleEvent;
+import org.jboss.msc.service.LifecycleListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Records when services and deployment unit processors run during boot, and produces a report of the critical path
+ * through the service graph and of the time spent by each subsystem.
+ * <p>
+ * Recording only happens between calls to {@link #start()} and {@link #complete()}. Outside of that window the
+ * recording methods return immediately, so the profiler can be called unconditionally.
+ * <p>
+ * A service's start is considered to begin when both it has been installed and the last of its dependencies has
+ * come up, and to end when it comes up itself. The critical path is found by walking back from the last service to
+ * come up, through whichever of its dependencies came up last, until a service is reached that was installed after
+ * all of its dependencies were up.
+ */
+public final class BootProfiler {
+
+    private static final BootProfiler INSTANCE = new BootProfiler();
+    private static final int SLOWEST_COUNT = 20;
+
+    private static final String CRITICAL_PATH = "critical-path";
+    private static final String DEPLOYMENT = "deployment";
+    private static final String DURATION = "duration";
+    private static final String END = "end";
+    private static final String GROUP = "group";
+    private static final String NAME = "name";
+    private static final String PHASE = "phase";
+    private static final String PROCESSOR = "processor";
+    private static final String PROCESSOR_TIME = "processor-time";
+    private static final String PROCESSORS = "processors";
+    private static final String SERVICE_TIME = "service-time";
+    private static final String SERVICES = "services";
+    private static final String SLOWEST_PROCESSORS = "slowest-processors";
+    private static final String SLOWEST_SERVICES = "slowest-services";
+    private static final String START = "start";
+    private static final String START_TIME = "start-time";
+    private static final String SUBSYSTEMS = "subsystems";
+    private static final String TOTAL_TIME = "total-time";
+
+    private volatile Recording recording;
+    private volatile ModelNode report;
+
+    private BootProfiler() {
+    }
+
+    /**
+     * Gets the process wide profiler.
+     *
+     * @return the profiler. Will not return {@code null}
+     */
+    public static BootProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts recording, discarding anything recorded or reported for a previous boot.
+     */
+    public void start() {
+        report = null;
+        recording = new Recording();
+    }
+
+    /**
+     * Gets whether the profiler is currently recording.
+     *
+     * @return {@code true} if between calls to {@link #start()} and {@link #complete()}
+     */
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Records the installation of a service.
+     *
+     * @param controller the controller of the installed service. Cannot be {@code null}
+     * @param address the address of the resource whose management operation installed the service. Cannot be {@code null}
+     */
+    public void serviceInstalled(final ServiceController<?> controller, final PathAddress address) {
+        final Recording current = recording;
+        if (current != null) {
+            current.track(controller, getGroup(address));
+        }
+    }
+
+    /**
+     * Records that a service has begun starting. Used for services that are not installed by management operations,
+     * for which the start is therefore timed from this call.
+     *
+     * @param controller the controller of the starting service. Cannot be {@code null}
+     * @param group the name under which the service's time should be reported. Cannot be {@code null}
+     */
+    public void serviceStarting(final ServiceController<?> controller, final String group) {
+        final Recording current = recording;
+        if (current != null) {
+            current.track(controller, group);
+        }
+    }
+
+    /**
+     * Records the execution of a deployment unit processor.
+     *
+     * @param deployment the name of the deployment unit
+     * @param phase the deployment phase
+     * @param processor the processor
+     * @param subsystem the name of the subsystem that registered the processor. May be {@code null}
+     * @param startNanos the value of {@link System#nanoTime()} when the processor was called
+     */
+    public void processorExecuted(final String deployment, final String phase, final Object processor, final String subsystem, final long startNanos) {
+        final Recording current = recording;
+        if (current != null) {
+            current.processors.add(new ProcessorRecord(deployment, phase, processor.getClass().getName(),
+                    subsystem == null ? "root" : subsystem, startNanos, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Stops recording and produces the report for what was recorded.
+     *
+     * @return the report, or {@code null} if the profiler was not recording
+     */
+    public ModelNode complete() {
+        final Recording current = recording;
+        if (current == null) {
+            return null;
+        }
+        recording = null;
+        final ModelNode result = current.createReport();
+        report = result;
+        return result;
+    }
+
+    /**
+     * Gets the report for the current or most recent boot.
+     *
+     * @return the report, or {@code null} if the profiler was never started
+     */
+    public ModelNode getReport() {
+        final Recording current = recording;
+        return current != null ? current.createReport() : report;
+    }
+
+    private static String getGroup(final PathAddress address) {
+        if (address.size() == 0) {
+            return "root";
+        }
+        for (PathElement element : address) {
+            if (SUBSYSTEM.equals(element.getKey())) {
+                return element.getValue();
+            }
+        }
+        return address.getElement(0).getKey();
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static final class Recording {
+        private final long startTime = System.currentTimeMillis();
+        private final long origin = System.nanoTime();
+        private final Map<ServiceName, ServiceRecord> services = new ConcurrentHashMap<>();
+        private final Collection<ProcessorRecord> processors = new ConcurrentLinkedQueue<>();
+
+        void track(final ServiceController<?> controller, final String group) {
+            final ServiceRecord record = new ServiceRecord(controller.getName(), group, System.nanoTime());
+            services.put(record.name, record);
+            final LifecycleListener listener = new LifecycleListener() {
+                @Override
+                public void handleEvent(final ServiceController<?> controller, final LifecycleEvent event) {
+                    switch (event) {
+                        case UP:
+                        case FAILED:
+                            record.up(controller.requires());
+                            controller.removeListener(this);
+                            break;
+                        case REMOVED:
+                            controller.removeListener(this);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            };
+            controller.addListener(listener);
+            //a service without dependencies can come up before the listener is added, in which case it never sees
+            //the event
+            switch (controller.getState()) {
+                case UP:
+                case START_FAILED:
+                    record.up(controller.requires());
+                    controller.removeListener(listener);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ModelNode createReport() {
+            final List<ServiceRecord> started = new ArrayList<>();
+            long end = origin;
+            ServiceRecord last = null;
+            for (ServiceRecord record : services.values()) {
+                if (record.upNanos != 0) {
+                    started.add(record);
+                    if (record.upNanos > end) {
+                        end = record.upNanos;
+                        last = record;
+                    }
+                }
+            }
+            for (ProcessorRecord record : processors) {
+                end = Math.max(end, record.endNanos);
+            }
+
+            final ModelNode result = new ModelNode();
+            result.get(START_TIME).set(startTime);
+            result.get(TOTAL_TIME).set(toMillis(end - origin));
+            result.get(SERVICES).set(started.size());
+            result.get(PROCESSORS).set(processors.size());
+
+            final ModelNode path = result.get(CRITICAL_PATH).setEmptyList();
+            for (ServiceRecord record : getCriticalPath(last)) {
+                path.add(describe(record));
+            }
+
+            final Map<String, long[]> subsystems = new TreeMap<>();
+            for (ServiceRecord record : started) {
+                final long[] times = subsystems.computeIfAbsent(record.group, k -> new long[2]);
+                times[0] += record.upNanos - getReadyNanos(record);
+            }
+            for (ProcessorRecord record : processors) {
+                final long[] times = subsystems.computeIfAbsent(record.subsystem, k -> new long[2]);
+                times[1] += record.endNanos - record.startNanos;
+            }
+            final ModelNode subsystemTimes = result.get(SUBSYSTEMS).setEmptyObject();
+            for (Map.Entry<String, long[]> entry : subsystems.entrySet()) {
+                final ModelNode times = subsystemTimes.get(entry.getKey());
+                times.get(SERVICE_TIME).set(toMillis(entry.getValue()[0]));
+                times.get(PROCESSOR_TIME).set(toMillis(entry.getValue()[1]));
+            }
+
+            started.sort(Comparator.comparingLong((ServiceRecord record) -> record.upNanos - getReadyNanos(record)).reversed());
+            final ModelNode slowestServices = result.get(SLOWEST_SERVICES).setEmptyList();
+            for (ServiceRecord record : started.subList(0, Math.min(SLOWEST_COUNT, started.size()))) {
+                slowestServices.add(describe(record));
+            }
+
+            final List<ProcessorRecord> executed = new ArrayList<>(processors);
+            executed.sort(Comparator.comparingLong((ProcessorRecord record) -> record.endNanos - record.startNanos).reversed());
+            final ModelNode slowestProcessors = result.get(SLOWEST_PROCESSORS).setEmptyList();
+            for (ProcessorRecord record : executed.subList(0, Math.min(SLOWEST_COUNT, executed.size()))) {
+                final ModelNode node = new ModelNode();
+                node.get(PROCESSOR).set(record.processor);
+                node.get(SUBSYSTEM).set(record.subsystem);
+                node.get(DEPLOYMENT).set(record.deployment);
+                node.get(PHASE).set(record.phase);
+                node.get(START).set(toMillis(record.startNanos - origin));
+                node.get(DURATION).set(toMillis(record.endNanos - record.startNanos));
+                slowestProcessors.add(node);
+            }
+            return result;
+        }
+
+        private List<ServiceRecord> getCriticalPath(final ServiceRecord last) {
+            final List<ServiceRecord> path = new ArrayList<>();
+            final Set<ServiceName> visited = new HashSet<>();
+            ServiceRecord current = last;
+            while (current != null && visited.add(current.name)) {
+                path.add(current);
+                final ServiceRecord dependency = getLastDependency(current);
+                current = dependency != null && dependency.upNanos > current.installNanos ? dependency : null;
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        private ServiceRecord getLastDependency(final ServiceRecord record) {
+            ServiceRecord result = null;
+            for (ServiceName name : record.requires) {
+                final ServiceRecord dependency = services.get(name);
+                if (dependency != null && dependency.upNanos != 0 && (result == null || dependency.upNanos > result.upNanos)) {
+                    result = dependency;
+                }
+            }
+            return result;
+        }
+
+        private long getReadyNanos(final ServiceRecord record) {
+            final ServiceRecord dependency = getLastDependency(record);
+            return dependency == null ? record.installNanos : Math.min(record.upNanos, Math.max(record.installNanos, dependency.upNanos));
+        }
+
+        private ModelNode describe(final ServiceRecord record) {
+            final long ready = getReadyNanos(record);
+            final ModelNode node = new ModelNode();
+            node.get(NAME).set(record.name.getCanonicalName());
+            node.get(GROUP).set(record.group);
+            node.get(START).set(toMillis(ready - origin));
+            node.get(END).set(toMillis(record.upNanos - origin));
+            node.get(DURATION).set(toMillis(record.upNanos - ready));
+            return node;
+        }
+    }
+
+    private static final class ServiceRecord {
+        private final ServiceName name;
+        private final String group;
+        private final long installNanos;
+        private volatile long upNanos;
+        private volatile Collection<ServiceName> requires = Collections.emptySet();
+
+        private ServiceRecord(final ServiceName name, final String group, final long installNanos) {
+            this.name = name;
+            this.group = group;
+            this.installNanos = installNanos;
+        }
+
+        synchronized void up(final Collection<ServiceName> requires) {
+            //the listener and the state check in track can both see the service come up
+            if (upNanos == 0) {
+                this.requires = requires;
+                this.upNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private static final class ProcessorRecord {
+        private final String deployment;
+        private final String phase;
+        private final String processor;
+        private final String subsystem;
+        private final long startNanos;
+        private final long endNanos;
+
+        private ProcessorRecord(final String deployment, final String phase, final String processor, final String subsystem,
+                                final long startNanos, final long endNanos) {
+            this.deployment = deployment;
+            this.phase = phase;
+            this.processor = processor;
+            this.subsystem = subsystem;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+    }
+
+    /**
+     * Handler for the {@code read-boot-profile} operation.
+     */
+    public static final class ReadBootProfileHandler implements OperationStepHandler {
+
+        public static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder("read-boot-profile",
+                ControllerResolver.getResolver("boot-profile"))
+                .setReadOnly()
+                .setRuntimeOnly()
+                .setReplyType(ModelType.OBJECT)
+                .build();
+
+        public static final OperationStepHandler INSTANCE = new ReadBootProfileHandler();
+
+        private ReadBootProfileHandler() {
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final ModelNode report = BootProfiler.getInstance().getReport();
+                    if (report != null) {
+                        context.getResult().set(report);
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+    }
+}
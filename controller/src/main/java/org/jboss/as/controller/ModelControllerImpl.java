@@ -34,6 +34,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIME_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_METRICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
@@ -61,6 +62,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -85,6 +87,7 @@ import org.jboss.as.controller.notification.NotificationSupport;
 import org.jboss.as.controller.operations.global.ReadResourceHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -98,6 +101,7 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Default {@link ModelController} implementation.
@@ -106,6 +110,15 @@ import org.wildfly.security.auth.server.SecurityIdentity;
  */
 class ModelControllerImpl implements ModelController {
 
+    /**
+     * Name of the system property that enables subtree scoped write locking on servers. When enabled, a write
+     * operation whose model changes are confined to a single child of the root resource (e.g. one subsystem)
+     * only locks that subtree, so it can run concurrently with writes to other subtrees. Operations touching the root
+     * resource, the capability registry, the resource registrations or the service container still take the
+     * exclusive controller lock.
+     */
+    static final String SCOPED_WRITE_LOCKS_PROPERTY = "jboss.as.management.scoped-write-locks";
+
     private static final String INITIAL_BOOT_OPERATION = "initial-boot-operation";
     private static final String POST_EXTENSION_BOOT_OPERATION = "post-extension-boot-operation";
     static final ModelNode EMPTY_ADDRESS = new ModelNode().setEmptyList();
@@ -120,6 +133,16 @@ class ModelControllerImpl implements ModelController {
     private final ServiceRegistry serviceRegistry;
     private final ServiceTarget serviceTarget;
     private final ModelControllerLock controllerLock = new ModelControllerLock();
+    /**
+     * Locks for the subtrees of the root resource, used if {@link #scopedWriteLocks} is enabled. A lock is removed
+     * once no operation holds it or is trying to acquire it, so the map does not grow with every child ever written.
+     */
+    private final ConcurrentMap<PathElement, SubtreeLock> subtreeLocks = new ConcurrentHashMap<>();
+    /** Serializes publication of models written under a subtree lock */
+    private final Semaphore scopedCommitPermit = new Semaphore(1);
+    private final boolean scopedWriteLocks;
+    /** Latency, step count and allocation histograms of completed operations, per operation name */
+    private final OperationStatistics operationStatistics = new OperationStatistics();
     private final ContainerStateMonitor stateMonitor;
     private final AtomicReference<ManagementModelImpl> managementModel = new AtomicReference<>();
     private final ConfigurationPersister persister;
@@ -182,6 +205,8 @@ class ModelControllerImpl implements ModelController {
         this.persister = persister;
         assert processType != null;
         this.processType = processType;
+        this.scopedWriteLocks = processType.isServer()
+                && Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SCOPED_WRITE_LOCKS_PROPERTY, "false"));
         assert runningModeControl != null;
         this.runningModeControl = runningModeControl;
         assert notificationSupport != null;
@@ -419,13 +444,18 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        // Read-only operations outside of boot run against an immutable snapshot of the published model,
+        // so they see a consistent view no matter what writes get published while they execute
+        final boolean snapshotRead = !attemptLock && !forBoot && !bootingFlag.get() && isReadOnlyOperation(operation);
+
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
             final Integer operationID = random.nextInt();
+            final ManagementModelImpl model = snapshotRead ? managementModel.get().snapshot() : managementModel.get();
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, runningModeControl.getRunningMode(),
-                    headers, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
+                    headers, handler, attachments, model, originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), forBoot, hostServerGroupTracker, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel, securityIdentitySupplier);
             // Try again if the operation-id is already taken
@@ -435,12 +465,16 @@ class ModelControllerImpl implements ModelController {
                 boolean shouldUnlock = false;
                 try {
                     if (attemptLock) {
-                        if (!controllerLock.detectDeadlockAndGetLock(operationID)) {
+                        context.enterMetricsPhase(OperationMetrics.Phase.LOCK_WAIT);
+                        final boolean locked = controllerLock.detectDeadlockAndGetLock(operationID);
+                        context.enterMetricsPhase(OperationMetrics.Phase.MODEL);
+                        if (!locked) {
                             responseNode.get(OUTCOME).set(FAILED);
                             responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.cannotGetControllerLock());
                             return OperationResponse.Factory.createSimple(responseNode);
                         }
                         shouldUnlock = true;
+                        context.disableScopedWriteLocking();
                     }
 
                     context.addStep(responseNode, operation, prepareStep, OperationContext.Stage.MODEL);
@@ -471,6 +505,7 @@ class ModelControllerImpl implements ModelController {
                     if (shouldUnlock) {
                         controllerLock.unlock(operationID);
                     }
+                    recordOperationMetrics(context, operation.get(OP).asString(), responseNode);
                     activeOperations.remove(operationID);
                     //noinspection deprecation
                     CurrentOperationIdHolder.setCurrentOperationID(null);
@@ -485,6 +520,17 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    private void recordOperationMetrics(OperationContextImpl context, String operationName, ModelNode responseNode) {
+        final OperationMetrics metrics = context.getOperationMetrics();
+        if (metrics != null) {
+            metrics.complete();
+            operationStatistics.record(operationName, metrics);
+            if (context.operationHeaders.isIncludeMetrics()) {
+                responseNode.get(RESPONSE_HEADERS, OPERATION_METRICS).set(metrics.toModelNode());
+            }
+        }
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -740,8 +786,45 @@ class ModelControllerImpl implements ModelController {
     ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl model, final Set<PathAddress> affectedAddresses,
                                                           final boolean resourceTreeModified, final boolean capabilityRegistryModified,
                                                           final boolean resourceRegistrationModified) throws ConfigurationPersistenceException {
+        return writeModel(model, affectedAddresses, resourceTreeModified, capabilityRegistryModified, resourceRegistrationModified, null);
+    }
+
+    /**
+     * Variant of {@link #writeModel(ManagementModelImpl, Set, boolean, boolean, boolean)} for a model that was
+     * modified while only holding the subtree lock for {@code writeLockScope}. Other subtrees may have been changed
+     * since the model was copied, so what gets persisted and published is the currently published model with
+     * the {@code writeLockScope} subtree replaced by the one in {@code original}.
+     */
+    ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl original, final Set<PathAddress> affectedAddresses,
+                                                          final boolean resourceTreeModified, final boolean capabilityRegistryModified,
+                                                          final boolean resourceRegistrationModified,
+                                                          final PathElement writeLockScope) throws ConfigurationPersistenceException {
+        final ManagementModelImpl model;
+        if (resourceTreeModified && writeLockScope != null) {
+            // No other scoped write may publish until we commit or roll back
+            scopedCommitPermit.acquireUninterruptibly();
+            original.holdsScopedCommitPermit = true;
+            original.sealRootResource();
+            model = original.rebase(writeLockScope);
+        } else {
+            model = original;
+        }
+        try {
+            return writeModel(original, model, affectedAddresses, resourceTreeModified, capabilityRegistryModified, resourceRegistrationModified);
+        } catch (ConfigurationPersistenceException | RuntimeException e) {
+            releaseScopedCommitPermit(original);
+            throw e;
+        }
+    }
+
+    private ConfigurationPersister.PersistenceResource writeModel(final ManagementModelImpl original, final ManagementModelImpl model,
+                                                                  final Set<PathAddress> affectedAddresses,
+                                                                  final boolean resourceTreeModified, final boolean capabilityRegistryModified,
+                                                                  final boolean resourceRegistrationModified) throws ConfigurationPersistenceException {
         final ConfigurationPersister.PersistenceResource delegate;
         if (resourceTreeModified) {
+            // No further changes to the tree are allowed once we get here
+            model.sealRootResource();
             // Don't do an expensive Resource.Tools.readModel if the persister isn't going to use the result
             if (persister.isPersisting()) {
                 ControllerLogger.MGMT_OP_LOGGER.tracef("persisting %s from %s", model.rootResource, model);
@@ -759,23 +842,31 @@ class ModelControllerImpl implements ModelController {
 
             @Override
             public void commit() {
-                // Discard the tracker first, so if there's any race the new OperationContextImpl
-                // gets a cleared tracker
-                if (hostServerGroupTracker != null) {
-                    hostServerGroupTracker.invalidate();
-                }
-                // Publish capability registry mods if the caller knows it modified it
-                // or if it modified the resource reg tree, as the registrations may
-                // have modified the cap reg without the caller knowing
-                if ((capabilityRegistryModified || resourceRegistrationModified)
-                        && model.capabilityRegistry.isModified()) {
-                    model.capabilityRegistry.publish();
-                }
-                if (resourceTreeModified) {
-                    model.publish();
-                    if (delegate != null) {
-                        delegate.commit();
+                try {
+                    // Discard the tracker first, so if there's any race the new OperationContextImpl
+                    // gets a cleared tracker
+                    if (hostServerGroupTracker != null) {
+                        hostServerGroupTracker.invalidate();
+                    }
+                    // Publish capability registry mods if the caller knows it modified it
+                    // or if it modified the resource reg tree, as the registrations may
+                    // have modified the cap reg without the caller knowing
+                    if ((capabilityRegistryModified || resourceRegistrationModified)
+                            && model.capabilityRegistry.isModified()) {
+                        model.capabilityRegistry.publish();
                     }
+                    if (resourceTreeModified) {
+                        model.publish();
+                        if (original != model) {
+                            // Further reads against the caller's model should see what we published
+                            original.discard();
+                        }
+                        if (delegate != null) {
+                            delegate.commit();
+                        }
+                    }
+                } finally {
+                    releaseScopedCommitPermit(original);
                 }
             }
 
@@ -783,8 +874,12 @@ class ModelControllerImpl implements ModelController {
             public void rollback() {
                 // Don't discard the model here; let that happen via finally block calls to MCI.discardModel
                 //model.discard();
-                if (delegate != null) {
-                    delegate.rollback();
+                try {
+                    if (delegate != null) {
+                        delegate.rollback();
+                    }
+                } finally {
+                    releaseScopedCommitPermit(original);
                 }
             }
         };
@@ -801,8 +896,120 @@ class ModelControllerImpl implements ModelController {
             model.capabilityRegistry.rollback();
         }
         if (resourceTreeModified) {
+            model.sealRootResource();
             model.discard();
         }
+        releaseScopedCommitPermit(model);
+    }
+
+    private void releaseScopedCommitPermit(final ManagementModelImpl model) {
+        if (model.holdsScopedCommitPermit) {
+            model.holdsScopedCommitPermit = false;
+            scopedCommitPermit.release();
+        }
+    }
+
+    /**
+     * Gets whether write operations may lock only the subtree of the model they modify.
+     *
+     * @return {@code true} if {@link #SCOPED_WRITE_LOCKS_PROPERTY} is enabled on a server
+     */
+    boolean isScopedWriteLocking() {
+        return scopedWriteLocks;
+    }
+
+    OperationStatistics getOperationStatistics() {
+        return operationStatistics;
+    }
+
+    /**
+     * Acquires the lock for the given child of the root resource, along with the controller lock in shared mode
+     * so no operation holding the exclusive controller lock can run concurrently.
+     * <p>
+     * To avoid deadlocking with operations that hold a subtree lock and are waiting for the exclusive controller
+     * lock, this never blocks waiting for the subtree lock while holding the shared controller lock.
+     */
+    void acquireScopedWriteLock(Integer permit, PathElement scope, final boolean interruptibly) throws InterruptedException {
+        final ModelControllerLock subtreeLock = referenceSubtreeLock(scope);
+        boolean acquired = false;
+        try {
+            for (;;) {
+                acquireReadLock(permit, interruptibly);
+                if (subtreeLock.detectDeadlockAndGetLock(permit)) {
+                    acquired = true;
+                    return;
+                }
+                controllerLock.unlockShared(permit);
+                if (interruptibly) {
+                    //noinspection LockAcquiredButNotSafelyReleased
+                    subtreeLock.lockInterruptibly(permit);
+                } else {
+                    //noinspection LockAcquiredButNotSafelyReleased
+                    subtreeLock.lock(permit);
+                }
+                if (controllerLock.lockShared(permit, 0, TimeUnit.NANOSECONDS)) {
+                    acquired = true;
+                    return;
+                }
+                subtreeLock.unlock(permit);
+            }
+        } finally {
+            if (!acquired) {
+                dereferenceSubtreeLock(scope);
+            }
+        }
+    }
+
+    void releaseScopedWriteLock(Integer permit, PathElement scope) {
+        try {
+            controllerLock.unlockShared(permit);
+        } finally {
+            releaseSubtreeLock(permit, scope);
+        }
+    }
+
+    /**
+     * Attempts to get the lock for the given child of the root resource without blocking. Used by callers that
+     * already hold the exclusive controller lock; if the subtree lock is held by someone else it must be an
+     * operation waiting for the exclusive lock, so blocking would deadlock.
+     *
+     * @return {@code true} if the lock was acquired
+     */
+    boolean detectDeadlockAndGetSubtreeLock(Integer permit, PathElement scope) {
+        if (referenceSubtreeLock(scope).detectDeadlockAndGetLock(permit)) {
+            return true;
+        }
+        dereferenceSubtreeLock(scope);
+        return false;
+    }
+
+    void releaseSubtreeLock(Integer permit, PathElement scope) {
+        try {
+            subtreeLocks.get(scope).lock.unlock(permit);
+        } finally {
+            dereferenceSubtreeLock(scope);
+        }
+    }
+
+    /**
+     * Gets the lock for the given subtree, creating it if needed, and counts a reference to it that must be
+     * dropped by {@link #dereferenceSubtreeLock(PathElement)} once the lock is released or could not be acquired.
+     */
+    private ModelControllerLock referenceSubtreeLock(PathElement scope) {
+        return subtreeLocks.compute(scope, (key, existing) -> {
+            final SubtreeLock subtreeLock = existing == null ? new SubtreeLock() : existing;
+            subtreeLock.references++;
+            return subtreeLock;
+        }).lock;
+    }
+
+    private void dereferenceSubtreeLock(PathElement scope) {
+        subtreeLocks.computeIfPresent(scope, (key, existing) -> --existing.references == 0 ? null : existing);
+    }
+
+    /** Number of subtree locks currently held or being acquired, for tests */
+    int getSubtreeLockCount() {
+        return subtreeLocks.size();
     }
 
     void acquireWriteLock(Integer permit, final boolean interruptibly) throws InterruptedException {
@@ -1052,12 +1259,22 @@ class ModelControllerImpl implements ModelController {
             final String operationName = operation.get(OP).asString();
             return STD_READ_OPS.contains(operationName) ||
                     "read-boot-errors".equals(operationName) ||
+                    "read-boot-profile".equals(operationName) ||
                     "find-non-progressing-operation".equals(operationName) ||
                     "whoami".equals(operationName) ||
                     "read-log-file".equals(operationName);
         }
     }
 
+    /**
+     * The lock for a subtree of the root resource, along with the number of acquisitions of it that are held or in
+     * progress. The count is only accessed while computing the lock's {@link #subtreeLocks} entry.
+     */
+    private static final class SubtreeLock {
+        private final ModelControllerLock lock = new ModelControllerLock();
+        private int references;
+    }
+
     private static final class BootOperations {
         private final List<ParsedBootOp> initialOps;
         private final List<ParsedBootOp> postExtensionOps;
@@ -1161,14 +1378,30 @@ class ModelControllerImpl implements ModelController {
         private final Resource delegatingResource;
         // The capability registry
         private final CapabilityRegistry capabilityRegistry;
+        // The copy-on-write tree backing rootResource, if it is a local copy
+        private final CopyOnWriteResourceTree resourceTree;
 
         private volatile boolean published;
+        // Whether writeModel acquired the scopedCommitPermit for this model
+        private volatile boolean holdsScopedCommitPermit;
+        // Whether we expose our own rootResource even once published
+        private final boolean snapshot;
 
         ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
                             final Resource rootResource,
                             final CapabilityRegistry capabilityRegistry) {
+            this(resourceRegistration, rootResource, capabilityRegistry, null, false);
+        }
+
+        private ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
+                                    final Resource rootResource,
+                                    final CapabilityRegistry capabilityRegistry,
+                                    final CopyOnWriteResourceTree resourceTree,
+                                    final boolean snapshot) {
             this.resourceRegistration = resourceRegistration;
             this.rootResource = rootResource;
+            this.resourceTree = resourceTree;
+            this.snapshot = snapshot;
             assert capabilityRegistry != null;
             this.capabilityRegistry = capabilityRegistry;
             // What we expose depends on the state of our 'published' field. If 'true' we've been published
@@ -1194,7 +1427,7 @@ class ModelControllerImpl implements ModelController {
                 @Override
                 public Resource getDelegateResource() {
                     Resource result;
-                    if (published) {
+                    if (published && !snapshot) {
                         result = ModelControllerImpl.this.managementModel.get().rootResource;
                     } else {
                         result = rootResource;
@@ -1252,10 +1485,13 @@ class ModelControllerImpl implements ModelController {
         */
 
         /**
-         * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link Resource}.
+         * Creates a new {@code ManagementModelImpl} that uses a copy of this one's root {@link Resource}.
          * The caller can safely modify that {@code Resource} without changes being exposed
          * to other callers. Use {@link ModelControllerImpl#writeModel(ManagementModelImpl, Set, boolean, boolean, boolean)}
          * to publish changes.
+         * <p>
+         * The copy is a {@link CopyOnWriteResourceTree}, so only the resources the caller actually navigates to
+         * get copied; the rest of the tree is shared with this model.
          *
          * @return the new {@code ManagementModelImpl}. Will not return {@code null}
          */
@@ -1277,12 +1513,57 @@ class ModelControllerImpl implements ModelController {
                 currentResource = rootResource;
                 currentCaps = capabilityRegistry;
             }
-            Resource clone = currentResource.clone();
-            ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps);
+            CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(currentResource);
+            Resource clone = tree.getRootResource();
+            ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps, tree, false);
             ControllerLogger.MGMT_OP_LOGGER.tracef("cloned to %s to create %s and %s", currentResource, clone, result);
             return result;
         }
 
+        /**
+         * Creates a view of this model whose root {@link Resource} stays pinned to this model's root, even after
+         * another model is published. Published root resources are sealed {@link CopyOnWriteResourceTree}s that are
+         * never modified, so the snapshot can be read without holding any lock.
+         * <p>
+         * The snapshot itself counts as published, so a caller that unexpectedly needs to write gets a
+         * {@link #cloneRootResource() clone} of the current model rather than of the snapshot.
+         *
+         * @return the snapshot. Will not return {@code null}
+         */
+        ManagementModelImpl snapshot() {
+            ManagementModelImpl result = new ManagementModelImpl(resourceRegistration, rootResource, capabilityRegistry, null, true);
+            result.published = true;
+            return result;
+        }
+
+        /**
+         * Creates a new {@code ManagementModelImpl} based on the currently published one, but with the
+         * {@code scope} child of the root resource taken from this model. Only valid for a model created by
+         * {@link #cloneRootResource()} whose changes were confined to that subtree by holding its lock.
+         *
+         * @param scope the child of the root resource whose subtree should be taken from this model
+         * @return the new {@code ManagementModelImpl}. Will not return {@code null}
+         */
+        ManagementModelImpl rebase(PathElement scope) {
+            assert resourceTree != null;
+            ManagementModelImpl currentPublished = ModelControllerImpl.this.managementModel.get();
+            CopyOnWriteResourceTree tree = resourceTree.rebase(currentPublished.rootResource, scope);
+            ManagementModelImpl result = new ManagementModelImpl(currentPublished.resourceRegistration, tree.getRootResource(),
+                    currentPublished.capabilityRegistry, tree, false);
+            ControllerLogger.MGMT_OP_LOGGER.tracef("rebased %s onto %s for %s to create %s", this, currentPublished, scope, result);
+            return result;
+        }
+
+        /**
+         * Stops any further copy-on-write activity in our local root resource, so it can safely be
+         * read by other threads once published.
+         */
+        private void sealRootResource() {
+            if (resourceTree != null) {
+                resourceTree.seal();
+            }
+        }
+
         /**
          * Compares the registered requirements to the registered capabilities, returning any missing
          * or inconsistent requirements.
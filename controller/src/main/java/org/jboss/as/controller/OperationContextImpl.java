@@ -100,6 +100,7 @@ import org.jboss.as.controller.operations.global.ReadResourceHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -184,6 +185,12 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile boolean affectsRuntime;
     /** The step that acquired the write lock */
     private Step lockStep;
+    /** Whether writes may only lock the subtree of the model they modify. See {@link ModelControllerImpl#SCOPED_WRITE_LOCKS_PROPERTY} */
+    private boolean scopedWriteLocking;
+    /** The child of the root resource whose subtree lock, rather than the exclusive lock, was acquired by {@code lockStep} */
+    private PathElement writeLockScope;
+    /** Subtree locks acquired in addition to the exclusive lock, or retained when escalating to it */
+    private final Set<PathElement> subtreeLocks = new HashSet<>();
     /** The step that acquired the container monitor  */
     private Step containerMonitorStep;
     private boolean notifiedModificationBegun;
@@ -204,6 +211,8 @@ final class OperationContextImpl extends AbstractOperationContext {
     private final boolean capabilitiesAlreadyBroken;
     private final boolean partialModel;
     private final boolean forBoot;
+    /** Timings of this execution; not recorded during boot */
+    private final OperationMetrics operationMetrics;
 
     private volatile ExecutionStatus executionStatus = ExecutionStatus.EXECUTING;
 
@@ -243,6 +252,8 @@ final class OperationContextImpl extends AbstractOperationContext {
         this.activeOperationResource = new ActiveOperationResource();
         this.accessAuditContext = accessAuditContext;
         this.partialModel = partialModel;
+        this.scopedWriteLocking = modelController.isScopedWriteLocking() && !booting;
+        this.operationMetrics = booting ? null : new OperationMetrics();
         if(runningMode == RunningMode.ADMIN_ONLY) {
             boolean hostXmlOnly = booting && !processType.isServer() && partialModel;
             CapabilityRegistry.CapabilityValidation validation = managementModel.validateCapabilityRegistry(true, hostXmlOnly);
@@ -272,6 +283,24 @@ final class OperationContextImpl extends AbstractOperationContext {
         return managementModel;
     }
 
+    @Override
+    OperationMetrics getOperationMetrics() {
+        return operationMetrics;
+    }
+
+    @Override
+    OperationStatistics getOperationStatistics() {
+        return modelController.getOperationStatistics();
+    }
+
+    /**
+     * Prevents this context using subtree scoped write locks, for callers that have already acquired
+     * the exclusive controller lock for it.
+     */
+    void disableScopedWriteLocking() {
+        scopedWriteLocking = false;
+    }
+
     @Override
     boolean isBootOperation() {
         return forBoot;
@@ -283,6 +312,12 @@ final class OperationContextImpl extends AbstractOperationContext {
             return true;
         }
 
+        if (writeLockScope != null) {
+            // Only the resource tree was modified, as anything else requires the exclusive lock,
+            // so the capability registry has not changed
+            return true;
+        }
+
         // Validate that all required capabilities are available and fail any steps that broke this
         boolean hostXmlOnly = !getProcessType().isServer() && partialModel;
         CapabilityRegistry.CapabilityValidation validation = managementModel.validateCapabilityRegistry(false, hostXmlOnly);
@@ -546,7 +581,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         return
             (affectsResourceTree || affectsCapabilityRegistry || affectsResourceRegistration)
                 ? modelController.writeModel(managementModel, affectsModel.keySet(), affectsResourceTree,
-                    affectsCapabilityRegistry, affectsResourceRegistration)
+                    affectsCapabilityRegistry, affectsResourceRegistration, writeLockScope)
                 : null;
     }
 
@@ -803,6 +838,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw ControllerLogger.ROOT_LOGGER.invalidModificationAfterCompletedStep();
             }
             ExecutionStatus originalStatus = executionStatus;
+            OperationMetrics.Phase originalPhase = enterMetricsPhase(OperationMetrics.Phase.LOCK_WAIT);
             try {
                 executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
                 // BES 2014/04/22 Ignore blocking timeout here. We risk some bug causing the
@@ -828,7 +864,91 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
             } finally {
                 executionStatus = originalStatus;
+                enterMetricsPhase(originalPhase);
+            }
+        } else if (writeLockScope != null) {
+            escalateScopedWriteLock();
+        }
+    }
+
+    /**
+     * Takes the lock needed to modify the resource at the given address. With scoped write locking this is only
+     * the lock for the subtree of the root resource containing the address, unless the exclusive lock is required
+     * or is already held.
+     */
+    private void takeWriteLock(PathAddress address) {
+        final PathElement scope = scopedWriteLocking && address.size() > 0 && !address.getElement(0).isMultiTarget()
+                ? address.getElement(0) : null;
+        if (scope == null) {
+            takeWriteLock();
+        } else if (lockStep == null) {
+            takeScopedWriteLock(scope);
+        } else if (writeLockScope != null && !writeLockScope.equals(scope)) {
+            escalateScopedWriteLock();
+        }
+        if (scope != null && writeLockScope == null && !subtreeLocks.contains(scope)) {
+            // We hold the exclusive lock, so whoever else holds this subtree's lock is waiting for us
+            if (!modelController.detectDeadlockAndGetSubtreeLock(operationId, scope)) {
+                throw ControllerLogger.ROOT_LOGGER.subtreeLockedByConcurrentOperation(PathAddress.pathAddress(scope).toCLIStyleString());
+            }
+            subtreeLocks.add(scope);
+        }
+    }
+
+    private void takeScopedWriteLock(PathElement scope) {
+        if (currentStage == Stage.DONE) {
+            throw ControllerLogger.ROOT_LOGGER.invalidModificationAfterCompletedStep();
+        }
+        ExecutionStatus originalStatus = executionStatus;
+        OperationMetrics.Phase originalPhase = enterMetricsPhase(OperationMetrics.Phase.LOCK_WAIT);
+        try {
+            executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
+            modelController.acquireScopedWriteLock(operationId, scope, respectInterruption);
+            exclusiveStartTime = System.nanoTime();
+            lockStep = activeStep;
+            writeLockScope = scope;
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
+        } finally {
+            executionStatus = originalStatus;
+            enterMetricsPhase(originalPhase);
+        }
+    }
+
+    /**
+     * Converts a subtree scoped write lock into the exclusive lock, retaining the subtree lock so no one else
+     * can modify what we already have.
+     */
+    private void escalateScopedWriteLock() {
+        final PathElement scope = writeLockScope;
+        ExecutionStatus originalStatus = executionStatus;
+        OperationMetrics.Phase originalPhase = enterMetricsPhase(OperationMetrics.Phase.LOCK_WAIT);
+        try {
+            executionStatus = ExecutionStatus.AWAITING_OTHER_OPERATION;
+            // Let concurrent scoped writes finish; they can't be waiting on us as they never wait
+            // for a subtree lock while holding the shared lock
+            modelController.releaseReadLock(operationId);
+            writeLockScope = null;
+            subtreeLocks.add(scope);
+            try {
+                modelController.acquireWriteLock(operationId, respectInterruption);
+            } catch (InterruptedException e) {
+                releaseSubtreeLocks();
+                exclusiveStartTime = -1;
+                lockStep = null;
+                cancelled = true;
+                Thread.currentThread().interrupt();
+                throw ControllerLogger.ROOT_LOGGER.operationCancelledAsynchronously();
+            }
+            if (affectsResourceTree) {
+                // Other scoped writes may have been published since we copied the model
+                managementModel = managementModel.rebase(scope);
             }
+        } finally {
+            executionStatus = originalStatus;
+            enterMetricsPhase(originalPhase);
         }
     }
 
@@ -843,6 +963,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 containerMonitorStep = activeStep;
                 int timeout = getBlockingTimeout().getLocalBlockingTimeout();
                 ExecutionStatus origStatus = executionStatus;
+                OperationMetrics.Phase originalPhase = enterMetricsPhase(OperationMetrics.Phase.CONTAINER_STABILITY);
                 try {
                     executionStatus = ExecutionStatus.AWAITING_STABILITY;
                     modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, respectInterruption);
@@ -872,6 +993,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                     throw new OperationFailedRuntimeException(ControllerLogger.ROOT_LOGGER.timeoutAwaitingInitialStability());
                 } finally {
                     executionStatus = origStatus;
+                    enterMetricsPhase(originalPhase);
                 }
             }
         } else if (!notifiedModificationBegun) {
@@ -986,14 +1108,14 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(address);
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
-        ensureLocalRootResource();
+        ensureLocalRootResource(address);
         affectsModel.put(address, NULL);
         Resource resource = this.managementModel.getRootResource();
         for (PathElement element : address) {
             if (element.isMultiTarget()) {
                 throw ControllerLogger.ROOT_LOGGER.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            resource = requireChildForUpdate(resource, element, address);
         }
         return resource;
     }
@@ -1066,7 +1188,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(absoluteAddress);
         authorizeAdd(runtimeOnly);
-        ensureLocalRootResource();
+        ensureLocalRootResource(absoluteAddress);
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.managementModel.getRootResource();
         final Iterator<PathElement> i = absoluteAddress.iterator();
@@ -1093,7 +1215,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = CopyOnWriteResourceTree.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -1129,7 +1251,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
         checkHostServerGroupTracker(address);
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
-        ensureLocalRootResource();
+        ensureLocalRootResource(address);
         affectsModel.put(address, NULL);
         Resource model = this.managementModel.getRootResource();
         final Iterator<PathElement> i = address.iterator();
@@ -1141,7 +1263,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (!i.hasNext()) {
                 model = model.removeChild(element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
 
@@ -1215,6 +1337,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 // Any subsequent step that calls getServiceRegistry/getServiceTarget/removeService
                 // is going to have to await the monitor uninterruptibly anyway before proceeding.
                 long timeout = getBlockingTimeout().getLocalBlockingTimeout();
+                OperationMetrics.Phase originalPhase = enterMetricsPhase(OperationMetrics.Phase.CONTAINER_STABILITY);
                 try {
                     modelController.awaitContainerStability(timeout, TimeUnit.MILLISECONDS, true);
                 }  catch (InterruptedException e) {
@@ -1234,6 +1357,8 @@ final class OperationContextImpl extends AbstractOperationContext {
                     // it's almost certain we never stabilized during execution or we are rolling back and destabilized there.
                     // Either one means there is already a failure message associated with this op.
                     MGMT_OP_LOGGER.timeoutCompletingOperation(timeout / 1000, activeStep.operationId.name, activeStep.operationId.address);
+                } finally {
+                    enterMetricsPhase(originalPhase);
                 }
             }
 
@@ -1255,9 +1380,25 @@ final class OperationContextImpl extends AbstractOperationContext {
     }
 
     private void releaseModelControllerLock() {
-        modelController.releaseWriteLock(operationId);
-        exclusiveStartTime = -1;
-        lockStep = null;
+        try {
+            if (writeLockScope != null) {
+                modelController.releaseScopedWriteLock(operationId, writeLockScope);
+            } else {
+                modelController.releaseWriteLock(operationId);
+            }
+        } finally {
+            releaseSubtreeLocks();
+            writeLockScope = null;
+            exclusiveStartTime = -1;
+            lockStep = null;
+        }
+    }
+
+    private void releaseSubtreeLocks() {
+        for (PathElement scope : subtreeLocks) {
+            modelController.releaseSubtreeLock(operationId, scope);
+        }
+        subtreeLocks.clear();
     }
 
     private void resetContainerStateChanges() {
@@ -1279,15 +1420,27 @@ final class OperationContextImpl extends AbstractOperationContext {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
         } else {
-            PathAddress missing = PathAddress.EMPTY_ADDRESS;
-            for (PathElement search : fullAddress) {
-                missing = missing.append(search);
-                if (search.equals(childPath)) {
-                    break;
-                }
+            throw managementResourceNotFound(childPath, fullAddress);
+        }
+    }
+
+    private static Resource requireChildForUpdate(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
+        final Resource child = resource.hasChild(childPath) ? CopyOnWriteResourceTree.getChildForUpdate(resource, childPath) : null;
+        if (child == null) {
+            throw managementResourceNotFound(childPath, fullAddress);
+        }
+        return child;
+    }
+
+    private static Resource.NoSuchResourceException managementResourceNotFound(final PathElement childPath, final PathAddress fullAddress) {
+        PathAddress missing = PathAddress.EMPTY_ADDRESS;
+        for (PathElement search : fullAddress) {
+            missing = missing.append(search);
+            if (search.equals(childPath)) {
+                break;
             }
-            throw ControllerLogger.ROOT_LOGGER.managementResourceNotFound(missing);
         }
+        return ControllerLogger.ROOT_LOGGER.managementResourceNotFound(missing);
     }
 
     @Override
@@ -1953,9 +2106,9 @@ final class OperationContextImpl extends AbstractOperationContext {
         return blockingTimeout;
     }
 
-    private synchronized void ensureLocalRootResource() {
+    private synchronized void ensureLocalRootResource(PathAddress address) {
+        takeWriteLock(address);
         if (!affectsResourceTree) {
-            takeWriteLock();
             managementModel = managementModel.cloneRootResource();
             affectsResourceTree = true;
         }
@@ -2055,6 +2208,7 @@ final class OperationContextImpl extends AbstractOperationContext {
 
                 ServiceController<T> controller = builder.install();
                 step.serviceAdded(controller);
+                BootProfiler.getInstance().serviceInstalled(controller, step.address);
                 return controller;
             } finally {
                 if (intr) {
@@ -23,6 +23,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_METRICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WARNING_LEVEL;
@@ -58,7 +59,12 @@ final class OperationHeaders {
             .setRequired(false)
             .build();
 
-    private static final OperationHeaders INTERNAL = new OperationHeaders(EnumSet.noneOf(OperationContextImpl.ContextFlag.class), null, null, null, null);
+    private static final AttributeDefinition METRICS = SimpleAttributeDefinitionBuilder.create(OPERATION_METRICS, ModelType.BOOLEAN)
+            .setRequired(false)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
+    private static final OperationHeaders INTERNAL = new OperationHeaders(EnumSet.noneOf(OperationContextImpl.ContextFlag.class), null, null, null, null, false);
 
     /**
      * Gets a headers object for use by internal calls where the caller knows there will be none of the
@@ -76,6 +82,7 @@ final class OperationHeaders {
         String warningLevel = null;
         String domainUUID = null;
         AccessMechanism accessMechanism = null;
+        boolean includeMetrics = false;
         if (operation.hasDefined(OPERATION_HEADERS)) {
             final ModelNode headers = operation.get(OPERATION_HEADERS).clone();
 
@@ -100,18 +107,19 @@ final class OperationHeaders {
             warningLevel = headers.hasDefined(WARNING_LEVEL) ? headers.get(WARNING_LEVEL).asString() : null;
             domainUUID = headers.hasDefined(DOMAIN_UUID) ? headers.get(DOMAIN_UUID).asString() : null;
             accessMechanism = headers.hasDefined(ACCESS_MECHANISM) ? AccessMechanism.valueOf(headers.get(ACCESS_MECHANISM).asString()) : null;
+            includeMetrics = METRICS.resolveModelAttribute(ExpressionResolver.REJECTING, headers).asBoolean();
         } else {
             contextFlags = EnumSet.of(AbstractOperationContext.ContextFlag.ROLLBACK_ON_FAIL);
         }
 
-        return new OperationHeaders(contextFlags, blockingTimeout, warningLevel, domainUUID, accessMechanism);
+        return new OperationHeaders(contextFlags, blockingTimeout, warningLevel, domainUUID, accessMechanism, includeMetrics);
     }
 
     static OperationHeaders forBoot(boolean rollbackOnRuntimeFailure) {
         EnumSet<OperationContextImpl.ContextFlag> contextFlags = rollbackOnRuntimeFailure
                 ? EnumSet.of(AbstractOperationContext.ContextFlag.ROLLBACK_ON_FAIL)
                 : EnumSet.noneOf(OperationContextImpl.ContextFlag.class);
-        return new OperationHeaders(contextFlags, null, null, null, null);
+        return new OperationHeaders(contextFlags, null, null, null, null, false);
     }
 
     static OperationResponse fromFailure(OperationFailedException ofe) {
@@ -126,14 +134,16 @@ final class OperationHeaders {
     private final String warningLevel;
     private final String domainUUID;
     private final AccessMechanism accessMechanism;
+    private final boolean includeMetrics;
 
     private OperationHeaders(EnumSet<AbstractOperationContext.ContextFlag> contextFlags, Integer blockingTimeout,
-                             String warningLevel, String domainUUID, AccessMechanism accessMechanism) {
+                             String warningLevel, String domainUUID, AccessMechanism accessMechanism, boolean includeMetrics) {
         this.contextFlags = contextFlags;
         this.blockingTimeout = blockingTimeout;
         this.warningLevel = warningLevel;
         this.domainUUID = domainUUID;
         this.accessMechanism = accessMechanism;
+        this.includeMetrics = includeMetrics;
     }
 
     EnumSet<AbstractOperationContext.ContextFlag> getContextFlags() {
@@ -155,4 +165,13 @@ final class OperationHeaders {
     AccessMechanism getAccessMechanism() {
         return  accessMechanism;
     }
+
+    /**
+     * Gets whether the {@link OperationMetrics} of the operation should be added to the response headers.
+     *
+     * @return {@code true} if the {@code operation-metrics} header was set
+     */
+    boolean isIncludeMetrics() {
+        return includeMetrics;
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.lang.management.ManagementFactory;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records where the time of a single operation execution went, along with the number of steps it executed
+ * and the number of bytes it allocated.
+ * <p>
+ * The execution is split into {@link Phase phases}; at any time exactly one phase is current and accumulates
+ * the elapsed time, so the phase times add up to the total time. Not thread safe; only the thread controlling
+ * the operation may use an instance. Allocations are only counted on that thread.
+ */
+final class OperationMetrics {
+
+    /** The parts of an operation's execution that are timed separately. */
+    enum Phase {
+        /** Waiting for a controller lock held by another operation */
+        LOCK_WAIT("lock-wait-time"),
+        /** Executing {@link OperationContext.Stage#MODEL} steps */
+        MODEL("model-time"),
+        /** Executing {@link OperationContext.Stage#RUNTIME} steps */
+        RUNTIME("runtime-time"),
+        /** Waiting for the service container to become stable */
+        CONTAINER_STABILITY("container-stability-time"),
+        /** Executing {@link OperationContext.Stage#VERIFY} steps */
+        VERIFY("verify-time"),
+        /** Executing {@link OperationContext.Stage#DOMAIN} steps */
+        DOMAIN("domain-time"),
+        /** Storing the configuration */
+        PERSISTENCE("persistence-time"),
+        /** Everything after the steps have run except persistence, such as result handlers and audit logging */
+        COMPLETION("completion-time");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name under which the time spent in this phase is reported.
+         *
+         * @return the name. Will not be {@code null}
+         */
+        String getName() {
+            return name;
+        }
+
+        static Phase forStage(OperationContext.Stage stage) {
+            switch (stage) {
+                case MODEL:
+                    return MODEL;
+                case RUNTIME:
+                    return RUNTIME;
+                case VERIFY:
+                    return VERIFY;
+                case DOMAIN:
+                    return DOMAIN;
+                default:
+                    return COMPLETION;
+            }
+        }
+    }
+
+    static final String TOTAL_TIME = "total-time";
+    static final String STEPS = "steps";
+    static final String ALLOCATED_BYTES = "allocated-bytes";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_TRACKER = getAllocationTracker();
+
+    private final long startTime;
+    private final long startAllocatedBytes;
+    private final long[] phaseTimes = new long[PHASES.length];
+    private Phase currentPhase = Phase.MODEL;
+    private long phaseStartTime;
+    private int steps;
+    private long totalTime = -1;
+    private long allocatedBytes = -1;
+
+    OperationMetrics() {
+        this.startAllocatedBytes = currentThreadAllocatedBytes();
+        this.startTime = this.phaseStartTime = System.nanoTime();
+    }
+
+    /**
+     * Makes the given phase the current one.
+     *
+     * @param phase the phase that starts now
+     * @return the phase that was current until now, so the caller can restore it
+     */
+    Phase enterPhase(Phase phase) {
+        final long now = System.nanoTime();
+        phaseTimes[currentPhase.ordinal()] += now - phaseStartTime;
+        phaseStartTime = now;
+        final Phase previous = currentPhase;
+        currentPhase = phase;
+        return previous;
+    }
+
+    void stepExecuted() {
+        steps++;
+    }
+
+    /**
+     * Stops recording. Has no effect if already called.
+     */
+    void complete() {
+        if (totalTime < 0) {
+            enterPhase(currentPhase);
+            totalTime = phaseStartTime - startTime;
+            if (startAllocatedBytes >= 0) {
+                allocatedBytes = currentThreadAllocatedBytes() - startAllocatedBytes;
+            }
+        }
+    }
+
+    /**
+     * Gets the time spent in a phase, in nanoseconds.
+     *
+     * @param phase the phase
+     * @return the time
+     */
+    long getPhaseTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Gets the total execution time in nanoseconds, or {@code -1} if recording is not {@link #complete() complete}.
+     *
+     * @return the time
+     */
+    long getTotalTime() {
+        return totalTime;
+    }
+
+    int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the controlling thread, or {@code -1} if the JVM does not
+     * support measuring this or recording is not {@link #complete() complete}.
+     *
+     * @return the number of bytes
+     */
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Gets the recorded values, in the form used for the {@code operation-metrics} response header.
+     *
+     * @return the values. Will not be {@code null}
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.get(TOTAL_TIME).set(totalTime);
+        for (Phase phase : PHASES) {
+            result.get(phase.getName()).set(phaseTimes[phase.ordinal()]);
+        }
+        result.get(STEPS).set(steps);
+        result.get(ALLOCATED_BYTES).set(allocatedBytes);
+        return result;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ALLOCATION_TRACKER == null ? -1 : ALLOCATION_TRACKER.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationTracker() {
+        try {
+            final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean tracker = (com.sun.management.ThreadMXBean) bean;
+                if (tracker.isThreadAllocatedMemorySupported() && tracker.isThreadAllocatedMemoryEnabled()) {
+                    return tracker;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            MGMT_OP_LOGGER.debugf(e, "Allocation tracking of management operations is not available");
+        }
+        return null;
+    }
+}
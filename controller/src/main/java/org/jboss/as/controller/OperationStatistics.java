@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Aggregates the {@link OperationMetrics} of completed operations into histograms, per operation name.
+ * <p>
+ * To bound memory use, only the first {@value #MAX_OPERATION_NAMES} distinct operation names are tracked.
+ */
+public final class OperationStatistics {
+
+    static final int MAX_OPERATION_NAMES = 512;
+
+    static final String COUNT = "count";
+    static final String MEAN = "mean";
+    static final String MAX = "max";
+    static final String P50 = "50th-percentile";
+    static final String P90 = "90th-percentile";
+    static final String P99 = "99th-percentile";
+    private static final String HISTOGRAM = "histogram";
+
+    private static final OperationMetrics.Phase[] PHASES = OperationMetrics.Phase.values();
+
+    /**
+     * The runtime attribute that exposes the statistics of the controller, keyed by operation name.
+     */
+    public static final AttributeDefinition ATTRIBUTE = ObjectMapAttributeDefinition.Builder.of(
+                    ModelDescriptionConstants.OPERATION_STATISTICS, createOperationType())
+            .setRequired(false)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    /**
+     * Reads {@link #ATTRIBUTE} from the statistics of the controller executing the operation.
+     */
+    public static final OperationStepHandler READ_HANDLER = new ReadHandler();
+
+    private final ConcurrentMap<String, OperationEntry> entries = new ConcurrentHashMap<>();
+
+    OperationStatistics() {
+    }
+
+    void record(String operationName, OperationMetrics metrics) {
+        OperationEntry entry = entries.get(operationName);
+        if (entry == null) {
+            if (entries.size() >= MAX_OPERATION_NAMES) {
+                return;
+            }
+            entry = entries.computeIfAbsent(operationName, name -> new OperationEntry());
+        }
+        entry.record(metrics);
+    }
+
+    /**
+     * Gets the statistics of all operations, keyed by operation name. For each operation this includes a
+     * histogram of the total time, of the time of each {@link OperationMetrics.Phase phase}, of the number of
+     * steps and, if available, of the number of allocated bytes.
+     *
+     * @return the statistics. Will not be {@code null}
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        // Sort by name so the output is stable
+        for (Map.Entry<String, OperationEntry> entry : new TreeMap<>(entries).entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    private static ObjectTypeAttributeDefinition createOperationType() {
+        final List<AttributeDefinition> fields = new ArrayList<>();
+        fields.add(createLongField(COUNT));
+        fields.add(createHistogramType(OperationMetrics.TOTAL_TIME));
+        for (OperationMetrics.Phase phase : PHASES) {
+            fields.add(createHistogramType(phase.getName()));
+        }
+        fields.add(createHistogramType(OperationMetrics.STEPS));
+        fields.add(createHistogramType(OperationMetrics.ALLOCATED_BYTES));
+        return ObjectTypeAttributeDefinition.Builder.of(ModelDescriptionConstants.OPERATION_STATISTICS,
+                fields.toArray(new AttributeDefinition[fields.size()])).build();
+    }
+
+    private static ObjectTypeAttributeDefinition createHistogramType(String name) {
+        // All histograms share the descriptions of their fields
+        return ObjectTypeAttributeDefinition.Builder.of(name,
+                createLongField(COUNT), createLongField(MEAN), createLongField(MAX),
+                createLongField(P50), createLongField(P90), createLongField(P99))
+                .setRequired(false)
+                .setSuffix(HISTOGRAM)
+                .build();
+    }
+
+    private static AttributeDefinition createLongField(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG).build();
+    }
+
+    private static final class ReadHandler extends AbstractRuntimeOnlyHandler {
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return true;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) {
+            assert context instanceof AbstractOperationContext;
+            final OperationStatistics statistics = ((AbstractOperationContext) context).getOperationStatistics();
+            if (statistics != null) {
+                context.getResult().set(statistics.toModelNode());
+            }
+        }
+    }
+
+    private static final class OperationEntry {
+        private final Histogram totalTime = new Histogram();
+        private final Histogram[] phaseTimes = new Histogram[PHASES.length];
+        private final Histogram steps = new Histogram();
+        private final Histogram allocatedBytes = new Histogram();
+
+        private OperationEntry() {
+            for (int i = 0; i < phaseTimes.length; i++) {
+                phaseTimes[i] = new Histogram();
+            }
+        }
+
+        void record(OperationMetrics metrics) {
+            totalTime.record(metrics.getTotalTime());
+            for (OperationMetrics.Phase phase : PHASES) {
+                phaseTimes[phase.ordinal()].record(metrics.getPhaseTime(phase));
+            }
+            steps.record(metrics.getSteps());
+            allocatedBytes.record(metrics.getAllocatedBytes());
+        }
+
+        ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get(COUNT).set(totalTime.getCount());
+            result.get(OperationMetrics.TOTAL_TIME).set(totalTime.toModelNode());
+            for (OperationMetrics.Phase phase : PHASES) {
+                result.get(phase.getName()).set(phaseTimes[phase.ordinal()].toModelNode());
+            }
+            result.get(OperationMetrics.STEPS).set(steps.toModelNode());
+            if (allocatedBytes.getCount() > 0) {
+                result.get(OperationMetrics.ALLOCATED_BYTES).set(allocatedBytes.toModelNode());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A histogram of non-negative values with power of two bucket boundaries. Percentiles are reported as the
+     * upper bound of the bucket holding them, so they are accurate to within a factor of two.
+     */
+    static final class Histogram {
+        // Bucket i holds the values whose highest set bit is bit i - 1; bucket 0 holds 0
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+        /**
+         * Records a value. Negative values mean the value is not known, and are ignored.
+         *
+         * @param value the value
+         */
+        void record(long value) {
+            if (value >= 0) {
+                buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+                count.increment();
+                sum.add(value);
+                max.accumulate(value);
+            }
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        ModelNode toModelNode() {
+            // Read the buckets first, so the total is never less than what they hold
+            final long[] snapshot = new long[buckets.length()];
+            long total = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            final long maxValue = max.get();
+            final ModelNode result = new ModelNode();
+            result.get(COUNT).set(total);
+            result.get(MEAN).set(total == 0 ? 0 : sum.sum() / Math.max(total, count.sum()));
+            result.get(MAX).set(maxValue);
+            result.get(P50).set(percentile(snapshot, total, 0.5, maxValue));
+            result.get(P90).set(percentile(snapshot, total, 0.9, maxValue));
+            result.get(P99).set(percentile(snapshot, total, 0.99, maxValue));
+            return result;
+        }
+
+        private static long percentile(long[] snapshot, long total, double percentile, long maxValue) {
+            if (total == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    final long upperBound = i == 0 ? 0 : (i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upperBound, maxValue);
+                }
+            }
+            return maxValue;
+        }
+    }
+}
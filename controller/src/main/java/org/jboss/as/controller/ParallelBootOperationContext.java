@@ -437,6 +437,11 @@ class ParallelBootOperationContext extends AbstractOperationContext {
         return primaryContext.isReadOnly();
     }
 
+    @Override
+    OperationStatistics getOperationStatistics() {
+        return primaryContext.getOperationStatistics();
+    }
+
     @Override
     ManagementResourceRegistration getRootResourceRegistrationForUpdate() {
         return primaryContext.getRootResourceRegistrationForUpdate();
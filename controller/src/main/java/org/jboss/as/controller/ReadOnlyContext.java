@@ -121,6 +121,11 @@ class ReadOnlyContext extends AbstractOperationContext {
         return true;
     }
 
+    @Override
+    OperationStatistics getOperationStatistics() {
+        return primaryContext.getOperationStatistics();
+    }
+
     @Override
     ManagementResourceRegistration getRootResourceRegistrationForUpdate() {
         throw readOnlyContext();
@@ -34,6 +34,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -47,13 +49,20 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
     private final String path;
     private final String relativeTo;
 
+    private final int syncInterval;
+    private final int syncRecords;
+
     private volatile File file;
+    /** Only used if records are synced in groups, see {@link GroupCommitAuditLogFile} */
+    private GroupCommitAuditLogFile groupCommitFile;
 
     public AbstractFileAuditLogHandler(String name, String formatterName, int maxFailureCount, PathManagerService pathManager, String path, String relativeTo) {
         super(name, formatterName, maxFailureCount);
         this.pathManager = pathManager;
         this.path = path;
         this.relativeTo = relativeTo;
+        this.syncInterval = Util.getIntProperty(GroupCommitAuditLogFile.SYNC_INTERVAL, 0);
+        this.syncRecords = Util.getIntProperty(GroupCommitAuditLogFile.SYNC_RECORDS, GroupCommitAuditLogFile.DEFAULT_SYNC_RECORDS);
     }
 
     @Override
@@ -86,16 +95,46 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
 
     @Override
     void stop() {
+        closeLogFile();
         file = null;
     }
 
+    /**
+     * Closes the log file if it is kept open between writes. This must be called before the file is rotated.
+     */
+    protected void closeLogFile() {
+        final GroupCommitAuditLogFile groupCommitFile = this.groupCommitFile;
+        if (groupCommitFile != null) {
+            this.groupCommitFile = null;
+            try {
+                groupCommitFile.close();
+            } catch (IOException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToSyncAuditLogFile(e, groupCommitFile.getFile().getAbsolutePath());
+            }
+        }
+    }
+
     @Override
     void writeLogItem(String formattedItem) throws IOException {
+        writeLogItemBatch(Collections.singletonList(formattedItem));
+    }
+
+    @Override
+    void writeLogItemBatch(List<String> formattedItems) throws IOException {
+        if (syncInterval > 0) {
+            if (groupCommitFile == null) {
+                groupCommitFile = GroupCommitAuditLogFile.open(file, syncInterval, syncRecords);
+            }
+            groupCommitFile.write(formattedItems);
+            return;
+        }
         final FileOutputStream fos = new FileOutputStream(file, true);
         final BufferedOutputStream output = new BufferedOutputStream(fos);
         try {
-            output.write(formattedItem.getBytes(StandardCharsets.UTF_8));
-            output.write(LINE_TERMINATOR);
+            for (String formattedItem : formattedItems) {
+                output.write(formattedItem.getBytes(StandardCharsets.UTF_8));
+                output.write(LINE_TERMINATOR);
+            }
 
             //Flush and force the file to sync
             output.flush();
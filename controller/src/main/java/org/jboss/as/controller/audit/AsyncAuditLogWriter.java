@@ -0,0 +1,343 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes audit log items on a dedicated thread, so that slow handlers do not delay the management operations and
+ * JMX invocations being logged. Items wait in a bounded queue and are written in batches, so that file handlers only
+ * sync once per batch.
+ * <p>
+ * Items are only taken from the queue with the write lock taken, whether by the writer thread or by a caller
+ * {@linkplain #flush() flushing} the queue, so they are always written in the order they were queued. The writer
+ * thread is started when the first item is queued, and stops once it has written all queued items after
+ * {@link #shutdown()}.
+ *
+ * @param <T> the type of the queued items
+ */
+final class AsyncAuditLogWriter<T> {
+
+    /** What to do with an item logged while the queue is full */
+    enum OverflowPolicy {
+        /** The logging thread waits until there is room in the queue */
+        BLOCK,
+        /** The item is discarded */
+        DISCARD,
+    }
+
+    /** The number of items which can be queued. If not set, or not greater than zero, items are written synchronously */
+    static final String QUEUE_LENGTH = "jboss.management.audit-log.queue-length";
+    /** {@code block} or {@code discard}, see {@link OverflowPolicy} */
+    static final String OVERFLOW_POLICY = "jboss.management.audit-log.overflow-policy";
+    /** The time in milliseconds to wait for queued items to be written when stopping, or {@code -1} to wait for all */
+    static final String SHUTDOWN_TIMEOUT = "jboss.management.audit-log.shutdown-timeout";
+
+    private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+    private static final int DEFAULT_SHUTDOWN_TIMEOUT = 30000;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final String THREAD_NAME = "management-audit-log-writer";
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long shutdownTimeout;
+    private final Lock writeLock;
+    private final Consumer<List<T>> batchWriter;
+    private final AuditLogWriteStatistics statistics;
+
+    private final Lock queueLock = new ReentrantLock();
+    private final Condition notEmpty = queueLock.newCondition();
+    private final Condition notFull = queueLock.newCondition();
+    private final Condition writerStopped = queueLock.newCondition();
+    /** Guarded by queueLock */
+    private final ArrayDeque<QueuedItem<T>> queue;
+    /** Guarded by queueLock */
+    private Thread writer;
+    /** Guarded by queueLock */
+    private boolean stopping;
+    /** Guarded by queueLock - whether a full queue has been reported since the queue was last emptied */
+    private boolean overflowReported;
+
+    private final LongAdder droppedItems = new LongAdder();
+
+    /** Guarded by the write lock */
+    private final List<QueuedItem<T>> batch = new ArrayList<>();
+    /** Guarded by the write lock */
+    private final List<T> batchItems = new ArrayList<>();
+
+    /**
+     * Creates a new writer.
+     *
+     * @param capacity        the maximum number of queued items
+     * @param overflowPolicy  what to do with items logged while the queue is full
+     * @param shutdownTimeout the time in milliseconds {@link #shutdown()} waits for the queued items to be written, or
+     *                        {@code -1} to wait until all have been written
+     * @param writeLock       the lock taken while writing items
+     * @param batchWriter     writes a batch of items, called with the write lock taken
+     * @param statistics      the statistics updated as items are written
+     */
+    AsyncAuditLogWriter(int capacity, OverflowPolicy overflowPolicy, long shutdownTimeout, Lock writeLock,
+                        Consumer<List<T>> batchWriter, AuditLogWriteStatistics statistics) {
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.shutdownTimeout = shutdownTimeout;
+        this.writeLock = writeLock;
+        this.batchWriter = batchWriter;
+        this.statistics = statistics;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Creates a writer configured by the {@link #QUEUE_LENGTH}, {@link #OVERFLOW_POLICY} and {@link #SHUTDOWN_TIMEOUT}
+     * system properties.
+     *
+     * @return the writer, or {@code null} if items should be written synchronously
+     */
+    static <T> AsyncAuditLogWriter<T> create(Lock writeLock, Consumer<List<T>> batchWriter, AuditLogWriteStatistics statistics) {
+        final int capacity = Util.getIntProperty(QUEUE_LENGTH, 0);
+        if (capacity <= 0) {
+            return null;
+        }
+        OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+        final String policyValue = WildFlySecurityManager.getPropertyPrivileged(OVERFLOW_POLICY, null);
+        if (policyValue != null) {
+            try {
+                overflowPolicy = OverflowPolicy.valueOf(policyValue.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                ControllerLogger.MGMT_OP_LOGGER.invalidSystemPropertyValueUsingDefault(policyValue, OVERFLOW_POLICY,
+                        DEFAULT_OVERFLOW_POLICY.toString().toLowerCase(Locale.ENGLISH));
+            }
+        }
+        final int shutdownTimeout = Util.getIntProperty(SHUTDOWN_TIMEOUT, DEFAULT_SHUTDOWN_TIMEOUT);
+        return new AsyncAuditLogWriter<>(capacity, overflowPolicy, shutdownTimeout < 0 ? -1 : shutdownTimeout,
+                writeLock, batchWriter, statistics);
+    }
+
+    /**
+     * Queues an item to be written. Must not be called with the write lock taken, since the item may have to wait for
+     * the writer thread to make room in the queue.
+     *
+     * @param item the item
+     * @return {@code true} if the item was queued, {@code false} if it was discarded
+     */
+    boolean queue(T item) {
+        queueLock.lock();
+        try {
+            while (queue.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DISCARD) {
+                    discarded();
+                    return false;
+                }
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discarded();
+                    return false;
+                }
+            }
+            queue.addLast(new QueuedItem<>(item, System.nanoTime()));
+            if (writer == null) {
+                startWriter();
+            } else {
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /** Call with queueLock taken */
+    private void discarded() {
+        droppedItems.increment();
+        if (!overflowReported) {
+            overflowReported = true;
+            ControllerLogger.MGMT_OP_LOGGER.auditLogQueueFull(capacity);
+        }
+    }
+
+    /** Call with queueLock taken */
+    private void startWriter() {
+        stopping = false;
+        final Thread writer = new Thread(this::run, THREAD_NAME);
+        writer.setDaemon(true);
+        this.writer = writer;
+        writer.start();
+    }
+
+    /**
+     * Writes all queued items on the calling thread. Call with the write lock taken.
+     */
+    void flush() {
+        while (writeBatch() > 0) {
+            // keep going until the queue is empty
+        }
+    }
+
+    /**
+     * Waits for the queued items to be written, for at most the shutdown timeout, and stops the writer thread.
+     * Items which have not been written by then are discarded. Queuing another item starts a new writer thread.
+     */
+    void shutdown() {
+        queueLock.lock();
+        try {
+            if (writer == null) {
+                return;
+            }
+            stopping = true;
+            notEmpty.signal();
+            long remaining = TimeUnit.MILLISECONDS.toNanos(shutdownTimeout);
+            while (writer != null) {
+                if (shutdownTimeout < 0) {
+                    writerStopped.await();
+                } else if (remaining > 0) {
+                    remaining = writerStopped.awaitNanos(remaining);
+                } else {
+                    // The writer is stuck, most likely on an unresponsive handler. It stops on its own once the
+                    // handler returns, or writes any items queued in the meantime first.
+                    final int count = queue.size();
+                    queue.clear();
+                    notFull.signalAll();
+                    if (count > 0) {
+                        droppedItems.add(count);
+                        ControllerLogger.MGMT_OP_LOGGER.auditLogItemsNotWritten(count, shutdownTimeout);
+                    }
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void run() {
+        for (;;) {
+            queueLock.lock();
+            try {
+                while (queue.isEmpty()) {
+                    overflowReported = false;
+                    if (stopping) {
+                        writer = null;
+                        writerStopped.signalAll();
+                        return;
+                    }
+                    notEmpty.awaitUninterruptibly();
+                }
+            } finally {
+                queueLock.unlock();
+            }
+            writeLock.lock();
+            try {
+                writeBatch();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@link #MAX_BATCH_SIZE} items from the queue and writes them. Call with the write lock taken.
+     *
+     * @return the number of items written
+     */
+    private int writeBatch() {
+        final List<QueuedItem<T>> batch = this.batch;
+        queueLock.lock();
+        try {
+            QueuedItem<T> queued;
+            while (batch.size() < MAX_BATCH_SIZE && (queued = queue.pollFirst()) != null) {
+                batch.add(queued);
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            notFull.signalAll();
+        } finally {
+            queueLock.unlock();
+        }
+        final List<T> batchItems = this.batchItems;
+        try {
+            for (QueuedItem<T> queued : batch) {
+                batchItems.add(queued.item);
+            }
+            batchWriter.accept(batchItems);
+            final long now = System.nanoTime();
+            for (QueuedItem<T> queued : batch) {
+                statistics.itemWritten(now - queued.queueTime);
+            }
+            return batch.size();
+        } catch (RuntimeException e) {
+            // Failures of individual handlers are dealt with by the batch writer, so this is unexpected
+            ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            return batch.size();
+        } finally {
+            batch.clear();
+            batchItems.clear();
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    int getQueueDepth() {
+        queueLock.lock();
+        try {
+            return queue.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    long getDroppedItems() {
+        return droppedItems.sum();
+    }
+
+    private static final class QueuedItem<T> {
+        private final T item;
+        private final long queueTime;
+
+        private QueuedItem(T item, long queueTime) {
+            this.item = item;
+            this.queueTime = queueTime;
+        }
+    }
+}
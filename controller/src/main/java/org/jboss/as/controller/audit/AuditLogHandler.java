@@ -42,7 +42,7 @@ abstract class AuditLogHandler {
     private volatile int maxFailureCount = 10;
 
     /** The number of consecutive failures writing to the log */
-    private int failureCount;
+    private volatile int failureCount;
 
 
     protected final String name;
@@ -88,6 +88,51 @@ abstract class AuditLogHandler {
         }
     }
 
+    /**
+     * Formats an item for a later {@link #writeLogItems(List)}. If formatting fails this counts as a failure of the
+     * handler.
+     *
+     * @param item the log item
+     * @return the formatted item, or {@code null} if it could not be formatted
+     */
+    String formatLogItem(AuditLogItem item) {
+        try {
+            return item.format(formatter);
+        } catch (Throwable t) {
+            getFailureCountHandler().failure(t);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a batch of formatted items. A failure to write the batch counts as a single failure of the handler.
+     *
+     * @param formattedItems the formatted items, in the order they were logged
+     */
+    void writeLogItems(List<String> formattedItems) {
+        FailureCountHandler fch = getFailureCountHandler();
+        try {
+            initialize();
+            writeLogItemBatch(formattedItems);
+            fch.success();
+        } catch (Throwable t) {
+            fch.failure(t);
+        }
+    }
+
+    /**
+     * Writes a batch of formatted items. Handlers which can write several items more efficiently than one at a time
+     * should override this. The default implementation writes each item in turn.
+     *
+     * @param formattedItems the formatted items, in the order they were logged
+     * @throws IOException if an error occurs
+     */
+    void writeLogItemBatch(List<String> formattedItems) throws IOException {
+        for (String formattedItem : formattedItems) {
+            writeLogItem(formattedItem);
+        }
+    }
+
     void recycle() {
         this.failureCount = 0;
         stop();
@@ -36,7 +36,7 @@ import org.jboss.dmr.ModelNode;
  */
 abstract class AuditLogItem {
 
-    private final Date date = new Date();
+    private final Date date;
     private final String asVersion;
     protected final boolean readOnly;
     protected final boolean booting;
@@ -47,6 +47,7 @@ abstract class AuditLogItem {
 
     AuditLogItem(String asVersion, boolean readOnly, boolean booting, String userId, String domainUUID, AccessMechanism accessMechanism,
             InetAddress remoteAddress) {
+        this.date = new Date();
         this.asVersion = asVersion;
         this.readOnly = readOnly;
         this.booting = booting;
@@ -56,6 +57,17 @@ abstract class AuditLogItem {
         this.remoteAddress = remoteAddress;
     }
 
+    AuditLogItem(AuditLogItem original) {
+        this.date = original.date;
+        this.asVersion = original.asVersion;
+        this.readOnly = original.readOnly;
+        this.booting = original.booting;
+        this.userId = original.userId;
+        this.domainUUID = original.domainUUID;
+        this.accessMechanism = original.accessMechanism;
+        this.remoteAddress = original.remoteAddress;
+    }
+
     static AuditLogItem createModelControllerItem(String asVersion, boolean readOnly, boolean booting, ResultAction resultAction, String userId,
                 String domainUUID, AccessMechanism accessMechanism, InetAddress remoteAddress, Resource resultantModel,
                 List<ModelNode> operations) {
@@ -71,6 +83,14 @@ abstract class AuditLogItem {
 
     abstract String format(AuditLogItemFormatter formatter);
 
+    /**
+     * Creates a copy of this item that only holds what the formatters use, in a form that does not change after the
+     * call that created the item returns. Used for items that are kept to be written later.
+     *
+     * @return the copy, or this item if it already is one
+     */
+    abstract AuditLogItem snapshot();
+
     /**
      * Get the asVersion
      * @return the asVersion
@@ -150,11 +170,26 @@ abstract class AuditLogItem {
             this.operations = operations;
         }
 
+        private ModelControllerAuditLogItem(ModelControllerAuditLogItem original) {
+            super(original);
+            this.resultAction = original.resultAction;
+            this.resultantModel = null;
+            this.operations = original.operations;
+        }
+
         @Override
         String format(AuditLogItemFormatter formatter) {
             return formatter.formatAuditLogItem(this);
         }
 
+        /**
+         * Drops the resultant model, which no formatter uses, so a queued item does not keep it reachable.
+         */
+        @Override
+        AuditLogItem snapshot() {
+            return resultantModel == null ? this : new ModelControllerAuditLogItem(this);
+        }
+
         /**
          * Get the resultAction
          * @return the resultAction
@@ -196,11 +231,44 @@ abstract class AuditLogItem {
             this.error = error;
         }
 
+        private JmxAccessAuditLogItem(JmxAccessAuditLogItem original, Object[] methodParams, Throwable error) {
+            super(original);
+            this.methodName = original.methodName;
+            this.methodSignature = original.methodSignature.clone();
+            this.methodParams = methodParams;
+            this.error = error;
+        }
+
         @Override
         String format(AuditLogItemFormatter formatter) {
             return formatter.formatAuditLogItem(this);
         }
 
+        /**
+         * Replaces the method parameters with their string values, as the formatters write them, and the error with
+         * one that only has its message.
+         */
+        @Override
+        AuditLogItem snapshot() {
+            final Object[] params = new Object[methodParams.length];
+            for (int i = 0; i < params.length; i++) {
+                final Object param = methodParams[i];
+                if (param instanceof Object[]) {
+                    final Object[] arrayParams = (Object[]) param;
+                    final String[] strings = new String[arrayParams.length];
+                    for (int j = 0; j < strings.length; j++) {
+                        strings[j] = arrayParams[j] == null ? null : arrayParams[j].toString();
+                    }
+                    params[i] = strings;
+                } else if (param != null && !param.getClass().isArray()) {
+                    params[i] = param.toString();
+                } else {
+                    params[i] = param;
+                }
+            }
+            return new JmxAccessAuditLogItem(this, params, error == null ? null : new ErrorSnapshot(error.getMessage()));
+        }
+
         /**
          * Get the methodName
          * @return the methodName
@@ -233,4 +301,15 @@ abstract class AuditLogItem {
             return error;
         }
     }
+
+    /**
+     * Stands in for the error of a {@link JmxAccessAuditLogItem#snapshot() snapshot}, keeping only its message.
+     */
+    private static final class ErrorSnapshot extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        ErrorSnapshot(String message) {
+            super(message, null, false, false);
+        }
+    }
 }
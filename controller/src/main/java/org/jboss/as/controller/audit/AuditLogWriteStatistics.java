@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of the audit log items written, whether synchronously or by an {@link AsyncAuditLogWriter}. The latency
+ * of an item is the time from it being logged until it has been written by all handlers.
+ * <p>
+ * Only updated with the audit log write lock taken, so there is only one writer at a time.
+ */
+final class AuditLogWriteStatistics {
+
+    private volatile long writtenItems;
+    private volatile long totalLatency;
+    private volatile long maxLatency;
+
+    /** Call with the write lock taken */
+    void itemWritten(long latencyNanos) {
+        writtenItems++;
+        totalLatency += latencyNanos;
+        if (latencyNanos > maxLatency) {
+            maxLatency = latencyNanos;
+        }
+    }
+
+    long getWrittenItems() {
+        return writtenItems;
+    }
+
+    /**
+     * @return the average latency in microseconds, or {@code 0} if no items have been written
+     */
+    long getAverageLatency() {
+        final long written = writtenItems;
+        return written == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency / written);
+    }
+
+    /**
+     * @return the maximum latency in microseconds
+     */
+    long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatency);
+    }
+}
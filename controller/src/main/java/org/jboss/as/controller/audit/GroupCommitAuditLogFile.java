@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+
+/**
+ * An audit log file which is kept open between writes, and which is synced once for a group of records rather than
+ * once for every write. Records are synced as soon as {@code syncRecords} of them have been written since the last
+ * sync, and otherwise at most {@code syncInterval} ms after they were written.
+ * <p>
+ * Records which have been written but not synced yet survive a failure of the process, since they have been handed
+ * to the operating system, but may be lost if the operating system fails before they are synced.
+ * <p>
+ * All methods synchronize on the file, since the sync may be done by the timer thread.
+ */
+final class GroupCommitAuditLogFile {
+
+    /** The maximum time in milliseconds before written records are synced. If not greater than zero, every write is synced */
+    static final String SYNC_INTERVAL = "jboss.management.audit-log.file.sync-interval";
+    /** The number of written records which causes a sync before the interval has elapsed, or {@code 0} for no limit */
+    static final String SYNC_RECORDS = "jboss.management.audit-log.file.sync-records";
+
+    static final int DEFAULT_SYNC_RECORDS = 1000;
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String THREAD_NAME = "management-audit-log-sync";
+
+    private static ScheduledThreadPoolExecutor syncTimer;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long syncInterval;
+    private final int syncRecords;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private int unsyncedRecords;
+    private ScheduledFuture<?> scheduledSync;
+    private boolean closed;
+
+    private GroupCommitAuditLogFile(File file, FileChannel channel, long syncInterval, int syncRecords) {
+        this.file = file;
+        this.channel = channel;
+        this.syncInterval = syncInterval;
+        this.syncRecords = syncRecords;
+    }
+
+    /**
+     * Opens an existing file to append records to it.
+     *
+     * @param file         the file
+     * @param syncInterval the maximum time in milliseconds before written records are synced
+     * @param syncRecords  the number of written records which causes a sync, or {@code 0} for no limit
+     * @return the opened file
+     * @throws IOException if the file could not be opened
+     */
+    static GroupCommitAuditLogFile open(File file, long syncInterval, int syncRecords) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new GroupCommitAuditLogFile(file, channel, syncInterval, syncRecords);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends records to the file, each followed by a line terminator.
+     *
+     * @param formattedItems the records
+     * @throws IOException if the records could not be written
+     */
+    synchronized void write(List<String> formattedItems) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        for (String formattedItem : formattedItems) {
+            put(formattedItem.getBytes(StandardCharsets.UTF_8));
+            put(AbstractFileAuditLogHandler.LINE_TERMINATOR);
+        }
+        drain();
+        unsyncedRecords += formattedItems.size();
+        if (syncRecords > 0 && unsyncedRecords >= syncRecords) {
+            sync();
+        } else if (scheduledSync == null) {
+            scheduledSync = getSyncTimer().schedule(this::scheduledSync, syncInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Syncs the records written since the last sync.
+     *
+     * @throws IOException if the file could not be synced
+     */
+    synchronized void sync() throws IOException {
+        if (scheduledSync != null) {
+            scheduledSync.cancel(false);
+            scheduledSync = null;
+        }
+        if (unsyncedRecords > 0) {
+            channel.force(true);
+            unsyncedRecords = 0;
+        }
+    }
+
+    /**
+     * Syncs the records written since the last sync and closes the file.
+     *
+     * @throws IOException if the file could not be synced or closed
+     */
+    synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    synchronized int getUnsyncedRecords() {
+        return unsyncedRecords;
+    }
+
+    private synchronized void scheduledSync() {
+        scheduledSync = null;
+        if (closed) {
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            // The records stay unsynced, and the next write schedules another attempt
+            ControllerLogger.MGMT_OP_LOGGER.failedToSyncAuditLogFile(e, file.getAbsolutePath());
+        }
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            drain();
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getSyncTimer() {
+        if (syncTimer == null) {
+            final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Do not keep a thread around while nothing is waiting to be synced
+            timer.setKeepAliveTime(60, TimeUnit.SECONDS);
+            timer.allowCoreThreadTimeOut(true);
+            timer.setRemoveOnCancelPolicy(true);
+            syncTimer = timer;
+        }
+        return syncTimer;
+    }
+}
@@ -210,6 +210,70 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     void bootDone();
 
+    /**
+     * Callback for the controller to call when it is stopping, either for a shutdown or a reload. Loggers which write
+     * asynchronously should write the items queued so far before this method returns.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Gets whether items are queued and written by a separate thread
+     *
+     * @return {@code true} if items are written asynchronously
+     */
+    default boolean isAsynchronous() {
+        return false;
+    }
+
+    /**
+     * Gets the number of items waiting to be written
+     *
+     * @return the number of queued items, always {@code 0} if items are written synchronously
+     */
+    default int getQueuedItemCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of items discarded because the queue was full, or because they could not be written before the
+     * logger stopped
+     *
+     * @return the number of discarded items
+     */
+    default long getDroppedItemCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of items written
+     *
+     * @return the number of items written
+     */
+    default long getWrittenItemCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the average time from an item being logged until it has been written to all handlers
+     *
+     * @return the average latency in microseconds
+     */
+    default long getAverageWriteLatency() {
+        return 0;
+    }
+
+    /**
+     * Gets the longest time from an item being logged until it has been written to all handlers
+     *
+     * @return the maximum latency in microseconds
+     */
+    default long getMaxWriteLatency() {
+        return 0;
+    }
+
     /**
      * <p>The audit log handler updater. Additive changes will be used for the audit log record as a result of
      * management operations causing updates here. Removals and updates will not take effect until the current audit log
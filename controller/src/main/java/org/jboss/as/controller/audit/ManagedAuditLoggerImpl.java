@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -92,7 +93,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
-        config.lock();
+        config.lockForLogging();
         try {
             if (skipLogging(readOnly)) {
                 return;
@@ -103,8 +104,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         } catch (Exception e) {
             handleLoggingException(e);
         } finally {
-            applyHandlerUpdates();
-            config.unlock();
+            applyLoggedHandlerUpdates();
+            config.unlockForLogging();
         }
     }
 
@@ -114,7 +115,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
-        config.lock();
+        config.lockForLogging();
         try {
             if (skipLogging(readOnly)) {
                 return;
@@ -125,14 +126,15 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         } catch (Exception e) {
             handleLoggingException(e);
         } finally {
-            applyHandlerUpdates();
-            config.unlock();
+            applyLoggedHandlerUpdates();
+            config.unlockForLogging();
         }
     }
 
+    /** protected by config's audit lock */
     private boolean skipLogging(boolean readOnly) {
-        if (config.isBooting() && !isLogBoot() || readOnly && !isLogReadOnly()) {
-            if (getLoggerStatus() == Status.DISABLED) {
+        if (config.isBooting() && !config.isLogBoot() || readOnly && !config.isLogReadOnly()) {
+            if (config.getLoggerStatus() == Status.DISABLED) {
                 // switch to the fast path for the next event
                 runDisabledFastPath.set(true);
             }
@@ -240,15 +242,15 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
     /** protected by config's audit lock */
     private void storeLogItem(AuditLogItem item) throws IOException {
-        switch (getLoggerStatus()) {
+        switch (config.getLoggerStatus()) {
             case QUEUEING:
-                queuedItems.add(item);
+                queuedItems.add(item.snapshot());
                 break;
             case LOGGING:
-                writeLogItem(item);
+                logItem(item);
                 break;
             case DISABLE_NEXT:
-                writeLogItem(item);
+                logItem(item);
                 config.setLoggerStatus(Status.DISABLED);
             case DISABLED:
                 // switch to the fast path for the next event
@@ -258,13 +260,22 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
     /** protected by config's audit lock */
+    private void logItem(AuditLogItem item) throws IOException {
+        if (!config.queueLogItem(item)) {
+            writeLogItem(item);
+        }
+    }
+
+    /** protected by config's audit and write locks */
     private void writeLogItem(AuditLogItem item) throws IOException{
         Set<String> formatterNames = new HashSet<String>();
+        final long start = System.nanoTime();
         try {
             for (AuditLogHandler handler : config.getHandlersForLogging()) {
                 formatterNames.add(handler.getFormatterName());
                 handler.writeLogItem(item);
             }
+            config.itemWritten(System.nanoTime() - start);
         } finally {
             for (String formatterName : formatterNames) {
                 config.getFormatter(formatterName).clear();
@@ -386,9 +397,23 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /** Call with the lock for logging taken */
+    private void applyLoggedHandlerUpdates() {
+        if (handlerUpdateTask != null) {
+            config.lockWriter();
+            try {
+                applyHandlerUpdates();
+            } finally {
+                config.unlockWriter();
+            }
+        }
+    }
+
     /** Call with lock taken */
     private void applyHandlerUpdates() {
         if (handlerUpdateTask != null) {
+            // Removed and changed handlers must still write the items logged before the changes
+            config.flushQueuedItems();
             handlerUpdateTask.applyChanges();
             handlerUpdateTask = null;
         }
@@ -529,6 +554,47 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    @Override
+    public boolean isAsynchronous() {
+        return config.getAsyncWriter() != null;
+    }
+
+    @Override
+    public int getQueuedItemCount() {
+        final AsyncAuditLogWriter<QueuedLogItem> writer = config.getAsyncWriter();
+        return writer == null ? 0 : writer.getQueueDepth();
+    }
+
+    @Override
+    public long getDroppedItemCount() {
+        final AsyncAuditLogWriter<QueuedLogItem> writer = config.getAsyncWriter();
+        return writer == null ? 0 : writer.getDroppedItems();
+    }
+
+    @Override
+    public long getWrittenItemCount() {
+        return config.getStatistics().getWrittenItems();
+    }
+
+    @Override
+    public long getAverageWriteLatency() {
+        return config.getStatistics().getAverageLatency();
+    }
+
+    @Override
+    public long getMaxWriteLatency() {
+        return config.getStatistics().getMaxLatency();
+    }
+
+    @Override
+    public void shutdown() {
+        // Not under any lock, since the writer thread needs the write lock to write the queued items
+        final AsyncAuditLogWriter<QueuedLogItem> writer = config.getAsyncWriter();
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
 
     /**
      * Abstract base class for core and new configuration
@@ -588,6 +654,58 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             sharedConfiguration.unlock();
         }
 
+        void lockForLogging() {
+            sharedConfiguration.lockForLogging();
+        }
+
+        void unlockForLogging() {
+            sharedConfiguration.unlockForLogging();
+        }
+
+        void lockWriter() {
+            sharedConfiguration.lockWriter();
+        }
+
+        void unlockWriter() {
+            sharedConfiguration.unlockWriter();
+        }
+
+        /**
+         * Call with the audit lock taken. Queues a {@link AuditLogItem#snapshot() snapshot} of the item to be written to
+         * the current handlers, if items are written asynchronously.
+         *
+         * @return {@code true} if the item was queued or discarded, {@code false} if it must be written synchronously
+         */
+        boolean queueLogItem(AuditLogItem item) {
+            final AsyncAuditLogWriter<QueuedLogItem> writer = sharedConfiguration.getAsyncWriter();
+            if (writer == null) {
+                return false;
+            }
+            writer.queue(new QueuedLogItem(item.snapshot(), getHandlersForLogging()));
+            return true;
+        }
+
+        /** Call with the write lock taken */
+        void flushQueuedItems() {
+            final AsyncAuditLogWriter<QueuedLogItem> writer = sharedConfiguration.getAsyncWriter();
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        /** Call with the write lock taken */
+        void itemWritten(long latencyNanos) {
+            sharedConfiguration.getStatistics().itemWritten(latencyNanos);
+        }
+
+        AsyncAuditLogWriter<QueuedLogItem> getAsyncWriter() {
+            return sharedConfiguration.getAsyncWriter();
+        }
+
+        AuditLogWriteStatistics getStatistics() {
+            return sharedConfiguration.getStatistics();
+        }
+
         String getAsVersion() {
             return sharedConfiguration.getAsVersion();
         }
@@ -735,12 +853,20 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
     /**
      * Configuration shared among all the configurations and all access to methods will take place with the lock taken.
+     * <p>
+     * The lock consists of the audit lock, which guards the configuration, and the write lock, which guards the
+     * handlers and formatters while items are written. If items are written asynchronously, logging only takes the
+     * audit lock, and the writer thread only takes the write lock. The audit lock is always taken first.
      */
     private static class SharedConfiguration {
         /** Should be fair to maintain order. Shared among all configurations */
         private final Lock auditLock = new ReentrantLock(true);
+        private final Lock writeLock = new ReentrantLock();
         private final String asVersion;
         private final boolean server;
+        private final AuditLogWriteStatistics statistics = new AuditLogWriteStatistics();
+        /** {@code null} if items are written synchronously */
+        private final AsyncAuditLogWriter<QueuedLogItem> asyncWriter;
 
         /** Guarded by auditLock - the formatters configured in the global json-formatters section */
         private final Map<String, AuditLogItemFormatter> formatters = new HashMap<String, AuditLogItemFormatter>();
@@ -755,6 +881,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         SharedConfiguration(String asVersion, boolean server) {
             this.asVersion = asVersion;
             this.server = server;
+            this.asyncWriter = AsyncAuditLogWriter.create(writeLock, this::writeQueuedItems, statistics);
         }
 
         public void recycleHandler(String name) {
@@ -764,12 +891,75 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
         void lock() {
             auditLock.lock();
+            writeLock.lock();
         }
 
         void unlock() {
+            writeLock.unlock();
+            auditLock.unlock();
+        }
+
+        void lockForLogging() {
+            auditLock.lock();
+            if (asyncWriter == null) {
+                writeLock.lock();
+            }
+        }
+
+        void unlockForLogging() {
+            if (asyncWriter == null) {
+                writeLock.unlock();
+            }
             auditLock.unlock();
         }
 
+        void lockWriter() {
+            writeLock.lock();
+        }
+
+        void unlockWriter() {
+            writeLock.unlock();
+        }
+
+        AsyncAuditLogWriter<QueuedLogItem> getAsyncWriter() {
+            return asyncWriter;
+        }
+
+        AuditLogWriteStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Called with the write lock taken. Formats each item once per formatter, as synchronous writes do, and
+         * then writes all the items of the batch to each handler at once.
+         */
+        private void writeQueuedItems(List<QueuedLogItem> items) {
+            final Map<AuditLogHandler, List<String>> formattedItems = new LinkedHashMap<>();
+            final Set<String> formatterNames = new HashSet<>();
+            for (QueuedLogItem queued : items) {
+                try {
+                    for (AuditLogHandler handler : queued.handlers) {
+                        // The handler may have been disabled by failures since the item was queued
+                        if (handler.isActive()) {
+                            formatterNames.add(handler.getFormatterName());
+                            final String formattedItem = handler.formatLogItem(queued.item);
+                            if (formattedItem != null) {
+                                formattedItems.computeIfAbsent(handler, h -> new ArrayList<>()).add(formattedItem);
+                            }
+                        }
+                    }
+                } finally {
+                    for (String formatterName : formatterNames) {
+                        getFormatter(formatterName).clear();
+                    }
+                    formatterNames.clear();
+                }
+            }
+            for (Map.Entry<AuditLogHandler, List<String>> entry : formattedItems.entrySet()) {
+                entry.getKey().writeLogItems(entry.getValue());
+            }
+        }
+
         String getAsVersion() {
             return asVersion;
         }
@@ -817,6 +1007,19 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    /**
+     * An item waiting to be written asynchronously, with the handlers it was logged to.
+     */
+    private static final class QueuedLogItem {
+        private final AuditLogItem item;
+        private final List<AuditLogHandler> handlers;
+
+        QueuedLogItem(AuditLogItem item, List<AuditLogHandler> handlers) {
+            this.item = item;
+            this.handlers = handlers;
+        }
+    }
+
     /**
      * When we add a handler(reference) we want that to be part of the current write.
      * If we remove/change and handler, and or reference, we don't want that to take effect until the next write.
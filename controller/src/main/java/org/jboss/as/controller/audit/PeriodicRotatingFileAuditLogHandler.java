@@ -107,6 +107,7 @@ public class PeriodicRotatingFileAuditLogHandler extends AbstractFileAuditLogHan
     }
 
     private void rollOver(final File file) {
+        closeLogFile();
         final File backup = new File(file.getParentFile(), file.getName() + nextSuffix);
         try {
             rename(file, backup);
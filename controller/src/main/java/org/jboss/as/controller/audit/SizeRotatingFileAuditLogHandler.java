@@ -27,6 +27,7 @@ import org.jboss.as.controller.services.path.PathManagerService;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -55,6 +56,7 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     protected void rotateLogFile(final File file) {
         if (currentSize > this.rotateSize) {
             // rotate
+            closeLogFile();
             if (maxBackupIndex > 0) {
                 // first, drop the max file (if any), then move each file to the next higher slot.
                 new File(file.getAbsolutePath() + "." + maxBackupIndex).delete();
@@ -84,10 +86,12 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     }
 
     @Override
-    void writeLogItem(String formattedItem) throws IOException {
-        super.writeLogItem(formattedItem);
-        currentSize += formattedItem.getBytes(StandardCharsets.UTF_8).length;
-        currentSize += LINE_TERMINATOR.length;
+    void writeLogItemBatch(List<String> formattedItems) throws IOException {
+        super.writeLogItemBatch(formattedItems);
+        for (String formattedItem : formattedItems) {
+            currentSize += formattedItem.getBytes(StandardCharsets.UTF_8).length;
+            currentSize += LINE_TERMINATOR.length;
+        }
     }
 
     @Override
@@ -25,6 +25,9 @@ package org.jboss.as.controller.audit;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
 /**
  * @author John Bailey
  */
@@ -38,4 +41,15 @@ final class Util {
         }
     };
 
+    static int getIntProperty(String name, int defaultValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                ControllerLogger.MGMT_OP_LOGGER.invalidSystemPropertyValue(value, name, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
 }
@@ -356,7 +356,9 @@ public class ModelDescriptionConstants {
     public static final String OPERATION_DATE = "operation-date";
     public static final String OPERATION_HEADERS = "operation-headers";
     public static final String OPERATION_ID = "operation-id";
+    public static final String OPERATION_METRICS = "operation-metrics";
     public static final String OPERATION_NAME = "operation-name";
+    public static final String OPERATION_STATISTICS = "operation-statistics";
     public static final String OP_PARAMS = "op-params";
     public static final String OP_PARAMS_MAPPING = "op-params-mapping";
     public static final String OPERATIONS = "operations";
@@ -3652,4 +3652,52 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 483, value = "Charset '%s' is not supported in this instance of the Java Virtual Machine")
     OperationFailedException unsupportedCharset(String charset);
 
+    @Message(id = 484, value = "Cannot modify '%s' as it is locked by a concurrent operation that is waiting for this one to complete. Please retry")
+    OperationFailedRuntimeException subtreeLockedByConcurrentOperation(String subtree);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 485, value = "Failed to append to the configuration write log %s; configuration changes will be written to %s synchronously")
+    void failedToAppendToConfigurationWriteLog(@Cause Throwable cause, File writeLog, String name);
+
+    @LogMessage(level = INFO)
+    @Message(id = 486, value = "Restored configuration changes to %s from write log %s")
+    void restoredConfigurationFromWriteLog(File file, File writeLog);
+
+    @Message(id = 487, value = "Failed to restore configuration changes from write log %s")
+    ConfigurationPersistenceException failedToRestoreConfigurationFromWriteLog(@Cause Throwable cause, File writeLog);
+
+    /**
+     * Creates an exception indicating the boot thread was interrupted while waiting for a subsystem to be parsed.
+     *
+     * @param element the subsystem element
+     *
+     * @return a {@link XMLStreamException} for the error.
+     */
+    @Message(id = 488, value = "Interrupted awaiting parsing of %s")
+    XMLStreamException subsystemParsingInterrupted(String element);
+
+    @LogMessage(level = INFO)
+    @Message(id = 489, value = "Loaded %d boot operations from %s in %d ms; parsing the configuration previously took %d ms")
+    void loadedBootOperationsFromCache(int count, String cacheFile, long loadTime, long parseTime);
+
+    @LogMessage(level = WARN)
+    @Message(id = 490, value = "Failed to store boot operation cache %s")
+    void failedToStoreBootOperationCache(@Cause Throwable cause, String cacheFile);
+
+    @LogMessage(level = WARN)
+    @Message(id = 491, value = "The audit log queue of %d items is full; audit log items are being discarded")
+    void auditLogQueueFull(int capacity);
+
+    @LogMessage(level = WARN)
+    @Message(id = 492, value = "%d audit log items could not be written within %d ms of the audit logger stopping")
+    void auditLogItemsNotWritten(int count, long timeout);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 493, value = "Invalid value %s for system property %s -- using default value [%s]")
+    void invalidSystemPropertyValueUsingDefault(String value, String name, String defaultValue);
+
+    @LogMessage(level = WARN)
+    @Message(id = 494, value = "Failed to sync audit log file %s")
+    void failedToSyncAuditLogFile(@Cause Throwable cause, String file);
+
 }
@@ -130,6 +130,15 @@ public class DeferredExtensionContext {
         }
     }
 
+    /**
+     * Gets the executor used to load extensions, which may also be used for other boot time parsing work.
+     *
+     * @return the executor, or {@code null} if parsing should be done from the calling thread
+     */
+    public ExecutorService getBootExecutor() {
+        return bootExecutor;
+    }
+
     public void addExtension(String moduleName, XMLMapper xmlMapper) {
         extensions.add(new ExtensionData(moduleName, xmlMapper));
     }
@@ -0,0 +1,322 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.parsing;
+
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.ENTITY_REFERENCE;
+import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Parses the {@code subsystem} elements of a profile, using the boot executor to parse them concurrently.
+ * <p>
+ * The booting thread still reads the whole document, but for each subsystem it only copies the element into a
+ * standalone fragment, which is then handed to the boot executor to be parsed by the subsystem's reader. The
+ * fragment is padded so that line numbers reported while parsing it match those of the original document.
+ * The lists returned by {@link #parse(XMLExtendedStreamReader)} are only populated once {@link #complete()} has
+ * returned, and failures are reported in document order, so the result is the same as if the subsystems had
+ * been parsed one after the other.
+ * <p>
+ * If no boot executor is available, or the {@value #PARALLEL_SUBSYSTEM_PARSING} system property is set to
+ * {@code false}, subsystems are parsed directly by the calling thread.
+ */
+public final class SubsystemParsingContext {
+
+    /** System property that can be set to {@code false} to parse all subsystems from the booting thread. */
+    public static final String PARALLEL_SUBSYSTEM_PARSING = "jboss.as.parallel-subsystem-parsing";
+
+    private final ExecutorService executor;
+    private final boolean lenient;
+    private final List<ParseTask> tasks = new ArrayList<>();
+
+    /**
+     * Creates a new context.
+     *
+     * @param bootExecutor the executor to use to parse subsystems. May be {@code null}
+     * @param lenient {@code true} if a subsystem that cannot be parsed should be logged and ignored rather than
+     *                failing the whole parse
+     */
+    public SubsystemParsingContext(final ExecutorService bootExecutor, final boolean lenient) {
+        this.executor = bootExecutor != null
+                && Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PARALLEL_SUBSYSTEM_PARSING, "true"))
+                ? bootExecutor : null;
+        this.lenient = lenient;
+    }
+
+    /**
+     * Parses the subsystem element the reader is positioned on. On return the reader is positioned on the
+     * element's end tag.
+     *
+     * @param reader the reader, positioned on the start tag of a {@code subsystem} element
+     * @return the list that will hold the subsystem's operations once {@link #complete()} has returned
+     * @throws XMLStreamException if the subsystem was parsed from the calling thread and failed, or if the
+     *                            element could not be read
+     */
+    public List<ModelNode> parse(final XMLExtendedStreamReader reader) throws XMLStreamException {
+        final List<ModelNode> operations = new ArrayList<>();
+        final QName element = reader.getName();
+        if (executor == null) {
+            try {
+                reader.handleAny(operations);
+            } catch (XMLStreamException e) {
+                if (!lenient) {
+                    throw e;
+                }
+                ControllerLogger.ROOT_LOGGER.failedToParseElementLenient(e, element.toString());
+                reader.discardRemainder();
+            }
+        } else {
+            final byte[] fragment = copyElement(reader);
+            final XMLMapper mapper = reader.getXMLMapper();
+            final ClassLoader tccl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            // parsed into a list of its own, as the returned one must not change until complete() is called
+            final List<ModelNode> parsed = new ArrayList<>();
+            final Future<Void> future = executor.submit(() -> parseFragment(mapper, fragment, tccl, parsed));
+            tasks.add(new ParseTask(element, operations, parsed, future));
+        }
+        return operations;
+    }
+
+    /**
+     * Waits for all subsystems passed to {@link #parse(XMLExtendedStreamReader)} to be parsed, and populates
+     * the lists it returned. If lenient, a subsystem that failed keeps the operations parsed before the failure,
+     * as when subsystems are parsed from the calling thread.
+     *
+     * @throws XMLStreamException the first failure, in document order, if not lenient
+     */
+    public void complete() throws XMLStreamException {
+        for (ParseTask task : tasks) {
+            try {
+                task.future.get();
+                task.operations.addAll(task.parsed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ControllerLogger.ROOT_LOGGER.subsystemParsingInterrupted(task.element.toString());
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof XMLStreamException) {
+                    if (!lenient) {
+                        throw (XMLStreamException) cause;
+                    }
+                    ControllerLogger.ROOT_LOGGER.failedToParseElementLenient((XMLStreamException) cause, task.element.toString());
+                    task.operations.addAll(task.parsed);
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+        tasks.clear();
+    }
+
+    private static Void parseFragment(final XMLMapper mapper, final byte[] fragment, final ClassLoader tccl,
+                                      final List<ModelNode> operations) throws XMLStreamException {
+        final ClassLoader old = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(tccl);
+        try {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(fragment));
+            try {
+                mapper.parseDocument(operations, reader);
+            } finally {
+                reader.close();
+            }
+            return null;
+        } finally {
+            WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(old);
+        }
+    }
+
+    /**
+     * Copies the element the reader is positioned on into a standalone document, leaving the reader positioned
+     * on the element's end tag. Namespaces declared on enclosing elements are redeclared where they are used.
+     */
+    static byte[] copyElement(final XMLStreamReader reader) throws XMLStreamException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(bytes, StandardCharsets.UTF_8.name());
+        final Deque<Map<String, String>> scopes = new ArrayDeque<>();
+        int line = 1;
+        int depth = 0;
+        do {
+            final int event = reader.getEventType();
+            if (event == START_ELEMENT) {
+                // Keep start tags on the same line as in the original, so errors reference the right location.
+                // Padding is only ever added between elements, so text content is not affected
+                final int target = reader.getLocation().getLineNumber();
+                for (; line < target; line++) {
+                    writer.writeCharacters("\n");
+                }
+            }
+            switch (event) {
+                case START_ELEMENT: {
+                    final Map<String, String> scope = new HashMap<>();
+                    final String prefix = nonNull(reader.getPrefix());
+                    writer.writeStartElement(prefix, reader.getLocalName(), nonNull(reader.getNamespaceURI()));
+                    for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                        declare(writer, scope, nonNull(reader.getNamespacePrefix(i)), nonNull(reader.getNamespaceURI(i)));
+                    }
+                    scopes.push(scope);
+                    ensureDeclared(writer, scopes, prefix, nonNull(reader.getNamespaceURI()));
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        final String attributePrefix = nonNull(reader.getAttributePrefix(i));
+                        if (attributePrefix.isEmpty()) {
+                            writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                        } else {
+                            final String attributeNamespace = nonNull(reader.getAttributeNamespace(i));
+                            ensureDeclared(writer, scopes, attributePrefix, attributeNamespace);
+                            writer.writeAttribute(attributePrefix, attributeNamespace, reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                        }
+                    }
+                    depth++;
+                    break;
+                }
+                case END_ELEMENT: {
+                    writer.writeEndElement();
+                    scopes.pop();
+                    depth--;
+                    break;
+                }
+                case CHARACTERS:
+                case SPACE: {
+                    final String text = reader.getText();
+                    writer.writeCharacters(text);
+                    line += countLines(text);
+                    break;
+                }
+                case CDATA: {
+                    final String text = reader.getText();
+                    writer.writeCData(text);
+                    line += countLines(text);
+                    break;
+                }
+                case COMMENT: {
+                    final String text = reader.getText();
+                    writer.writeComment(text);
+                    line += countLines(text);
+                    break;
+                }
+                case ENTITY_REFERENCE: {
+                    writer.writeEntityRef(reader.getLocalName());
+                    break;
+                }
+                case PROCESSING_INSTRUCTION: {
+                    writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                    break;
+                }
+                default:
+                    break;
+            }
+        } while (depth > 0 && reader.next() > 0);
+        writer.writeEndDocument();
+        writer.close();
+        return bytes.toByteArray();
+    }
+
+    private static void ensureDeclared(final XMLStreamWriter writer, final Deque<Map<String, String>> scopes,
+                                       final String prefix, final String namespaceURI) throws XMLStreamException {
+        String bound = null;
+        for (Map<String, String> scope : scopes) {
+            bound = scope.get(prefix);
+            if (bound != null) {
+                break;
+            }
+        }
+        // No default namespace in scope is the same as the default namespace being the empty namespace
+        if (bound == null && prefix.isEmpty()) {
+            bound = "";
+        }
+        if (!namespaceURI.equals(bound)) {
+            declare(writer, scopes.peek(), prefix, namespaceURI);
+        }
+    }
+
+    private static void declare(final XMLStreamWriter writer, final Map<String, String> scope,
+                                final String prefix, final String namespaceURI) throws XMLStreamException {
+        if (prefix.isEmpty()) {
+            writer.writeDefaultNamespace(namespaceURI);
+        } else {
+            writer.writeNamespace(prefix, namespaceURI);
+        }
+        scope.put(prefix, namespaceURI);
+    }
+
+    private static int countLines(final String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String nonNull(final String value) {
+        return value == null ? "" : value;
+    }
+
+    private static final class ParseTask {
+        private final QName element;
+        private final List<ModelNode> operations;
+        private final List<ModelNode> parsed;
+        private final Future<Void> future;
+
+        private ParseTask(final QName element, final List<ModelNode> operations, final List<ModelNode> parsed,
+                          final Future<Void> future) {
+            this.element = element;
+            this.operations = operations;
+            this.parsed = parsed;
+            this.future = future;
+        }
+    }
+}
@@ -27,11 +27,13 @@ import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamWriter;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
@@ -47,6 +49,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final ConcurrentHashMap<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemWriters = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Supplier<XMLElementWriter<SubsystemMarshallingContext>>> subsystemWriterSuppliers = new ConcurrentHashMap<>();
+    private final SubsystemXmlCache subsystemXmlCache = new SubsystemXmlCache();
 
     /**
      * Construct a new instance.
@@ -59,23 +62,54 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
     @Override
     public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
-        subsystemWriters.putIfAbsent(name, writer);
+        if (subsystemWriters.putIfAbsent(name, writer) == null) {
+            subsystemXmlCache.invalidate(name);
+        }
     }
 
     @Override
     public void registerSubsystemWriter(String name, Supplier<XMLElementWriter<SubsystemMarshallingContext>> writer) {
-        subsystemWriterSuppliers.putIfAbsent(name, writer);
+        if (subsystemWriterSuppliers.putIfAbsent(name, writer) == null) {
+            subsystemXmlCache.invalidate(name);
+        }
     }
 
     @Override
     public void unregisterSubsystemWriter(String name) {
         subsystemWriters.remove(name);
         subsystemWriterSuppliers.remove(name);
+        subsystemXmlCache.invalidate(name);
     }
 
     /** {@inheritDoc} */
     @Override
     public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        marshallAsXml(model, output, null);
+    }
+
+    /**
+     * Marshals a model that is about to be persisted, reusing the XML written the last time a model was persisted
+     * for the subsystems not affected by any of {@code affectedAddresses}.
+     *
+     * @param model the model to marshal
+     * @param affectedAddresses the addresses of the resources changed since the last model was persisted
+     * @param output the stream to write to
+     * @return the cache update, which must be {@link SubsystemXmlCache.Update#commit() committed} if the model is
+     *         persisted and otherwise {@link SubsystemXmlCache.Update#discard() discarded}
+     * @throws ConfigurationPersistenceException if marshalling fails
+     */
+    SubsystemXmlCache.Update marshallAsXml(final ModelNode model, final Set<PathAddress> affectedAddresses, final OutputStream output) throws ConfigurationPersistenceException {
+        final SubsystemXmlCache.Update update = subsystemXmlCache.update(affectedAddresses);
+        try {
+            marshallAsXml(model, output, update);
+        } catch (ConfigurationPersistenceException | RuntimeException e) {
+            update.discard();
+            throw e;
+        }
+        return update;
+    }
+
+    private void marshallAsXml(final ModelNode model, final OutputStream output, final SubsystemXmlCache.Update update) throws ConfigurationPersistenceException {
         final XMLMapper mapper = XMLMapper.Factory.create();
         final Map<String, XMLElementWriter<SubsystemMarshallingContext>> localSubsystemWriters = new HashMap<>(subsystemWriters);
         try {
@@ -100,7 +134,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
                                 localSubsystemWriters.put(extensionName, result);
                             }
                         }
-                        return result;
+                        return result == null || update == null ? result : update.wrap(extensionName, result);
                     }
                 };
                 mapper.deparseDocument(rootDeparser, extensibleModel, streamWriter);
@@ -26,7 +26,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
@@ -37,21 +39,46 @@ import org.xnio.IoUtils;
  */
 public abstract class AbstractFilePersistenceResource implements ConfigurationPersister.PersistenceResource {
     private volatile ExposedByteArrayOutputStream marshalled;
+    private final SubsystemXmlCache.Update subsystemXmlCacheUpdate;
 
     protected AbstractFilePersistenceResource(final ModelNode model, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        this(model, null, persister);
+    }
+
+    /**
+     * Creates a new resource, marshalling the model.
+     *
+     * @param model the model to persist
+     * @param affectedAddresses the addresses of the resources changed since the last model was persisted, which
+     *                          allows XML marshalled for other subsystems to be reused. May be {@code null}, in
+     *                          which case everything is marshalled
+     * @param persister the persister
+     * @throws ConfigurationPersistenceException if marshalling fails
+     */
+    protected AbstractFilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses,
+                                              final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
         marshalled = new ExposedByteArrayOutputStream(1024 * 8);
+        SubsystemXmlCache.Update update = null;
         try {
             try {
                 BufferedOutputStream output = new BufferedOutputStream(marshalled);
-                persister.marshallAsXml(model, output);
+                if (affectedAddresses == null) {
+                    persister.marshallAsXml(model, output);
+                } else {
+                    update = persister.marshallAsXml(model, affectedAddresses, output);
+                }
                 output.close();
                 marshalled.close();
             } finally {
                 IoUtils.safeClose(marshalled);
             }
         } catch (Exception e) {
+            if (update != null) {
+                update.discard();
+            }
             throw ControllerLogger.ROOT_LOGGER.failedToMarshalConfiguration(e);
         }
+        subsystemXmlCacheUpdate = update;
     }
 
     @Override
@@ -59,6 +86,9 @@ public abstract class AbstractFilePersistenceResource implements ConfigurationPe
         if (marshalled == null) {
             throw ControllerLogger.ROOT_LOGGER.rollbackAlreadyInvoked();
         }
+        if (subsystemXmlCacheUpdate != null) {
+            subsystemXmlCacheUpdate.commit();
+        }
         try(InputStream in = getMarshalledInputStream()) {
             doCommit(in);
         } catch (IOException ioex) {
@@ -69,11 +99,18 @@ public abstract class AbstractFilePersistenceResource implements ConfigurationPe
     @Override
     public void rollback() {
         marshalled = null;
+        if (subsystemXmlCacheUpdate != null) {
+            subsystemXmlCacheUpdate.discard();
+        }
     }
 
     protected InputStream getMarshalledInputStream() {
         return marshalled.getInputStream();
     }
 
+    ExposedByteArrayOutputStream getMarshalled() {
+        return marshalled;
+    }
+
     protected abstract void doCommit(InputStream marshalled);
 }
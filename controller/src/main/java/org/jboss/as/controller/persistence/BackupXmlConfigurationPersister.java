@@ -22,8 +22,10 @@
 
 package org.jboss.as.controller.persistence;
 
+import java.io.File;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.xml.namespace.QName;
@@ -42,6 +44,9 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
     private ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final BatchedConfigurationFileWriter batchedWriter;
+    private final boolean suppressLoad;
+    private volatile BootOperationCache bootOperationCache;
 
     /**
      * Construct a new instance.
@@ -54,6 +59,8 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser, final boolean suppressLoad) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, suppressLoad);
         this.configurationFile = file;
+        this.batchedWriter = null;
+        this.suppressLoad = suppressLoad;
     }
 
     /**
@@ -68,8 +75,30 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
      */
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser,
                                            final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty) {
+        this(file, rootElement, rootParser, rootDeparser, reload, allowEmpty, 0);
+    }
+
+    /**
+     * Construct a new instance.
+     *  @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     * @param reload {@code true} if this is a reload
+     * @param allowEmpty {@code true} if {@code true} it is ok for this file to be 0 bytes
+     *                               otherwise this is an error
+     * @param flushInterval if greater than zero, the maximum time in milliseconds between a change being committed
+     *                      and the configuration file being written. Changes committed within that time are coalesced,
+     *                      and are made durable in a write log before their commit completes. If zero or less the
+     *                      configuration file is written as part of each commit
+     */
+    public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser,
+                                           final XMLElementWriter<ModelMarshallingContext> rootDeparser, boolean reload, boolean allowEmpty,
+                                           long flushInterval) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser, isSuppressLoad(file, reload, allowEmpty));
         this.configurationFile = file;
+        this.batchedWriter = flushInterval > 0 ? new BatchedConfigurationFileWriter(file, flushInterval) : null;
+        this.suppressLoad = isSuppressLoad(file, reload, allowEmpty);
     }
 
     private static boolean isSuppressLoad(ConfigurationFile configurationFile, boolean reload, boolean allowEmpty) {
@@ -89,10 +118,43 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
 
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        // Changes that were only ever written to the write log before the process stopped must not be lost
+        BatchedConfigurationFileWriter.restore(configurationFile);
+        final BootOperationCache cache = bootOperationCache;
+        if (cache == null || suppressLoad) {
+            return super.load();
+        }
+        final File bootFile = configurationFile.getBootFile();
+        final List<ModelNode> cached = cache.load(bootFile);
+        if (cached != null) {
+            return cached;
+        }
+        final long start = System.nanoTime();
+        final List<ModelNode> operations = super.load();
+        cache.prepare(bootFile, operations, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return operations;
+    }
+
+    /**
+     * Sets the cache to use to avoid parsing the configuration file on boot if it has not changed since the last
+     * successful boot. Must be called before {@link #load()}.
+     *
+     * @param bootOperationCache the cache, or {@code null} if the configuration file should always be parsed
+     */
+    public void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
     @Override
     public void successfulBoot() throws ConfigurationPersistenceException {
         if(successfulBoot.compareAndSet(false, true)) {
             configurationFile.successfulBoot();
+            final BootOperationCache cache = bootOperationCache;
+            if (cache != null) {
+                cache.store();
+            }
         }
     }
 
@@ -117,11 +179,25 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
-        return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        if (batchedWriter != null) {
+            return new BatchedConfigurationFilePersistenceResource(model, affectedAddresses, batchedWriter, this);
+        }
+        return new ConfigurationFilePersistenceResource(model, affectedAddresses, configurationFile, this);
+    }
+
+    @Override
+    public void shutdown() {
+        if (batchedWriter != null) {
+            batchedWriter.close();
+        }
     }
 
     @Override
     public String snapshot(String name, String comment) throws ConfigurationPersistenceException {
+        if (batchedWriter != null) {
+            // The snapshot is a copy of the configuration file, so it must be up to date
+            batchedWriter.flush();
+        }
         return configurationFile.snapshot(name, comment);
     }
 
@@ -0,0 +1,349 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Writes the marshalled configuration of a {@link ConfigurationFile} in the background, coalescing changes
+ * committed in quick succession so the configuration file is rewritten at most once per flush interval.
+ * <p>
+ * Before {@link #write(ExposedByteArrayOutputStream)} returns, the marshalled configuration is appended to a
+ * write log and synced to disk, so a change that has been committed is never lost even if the process dies
+ * before the configuration file is written. The log is truncated each time the configuration file has been
+ * written, and any configuration it still holds when the process is next started is restored by
+ * {@link #restore(ConfigurationFile)}. If the write log cannot be written, changes are written to the
+ * configuration file synchronously.
+ */
+final class BatchedConfigurationFileWriter {
+
+    /** Each write log entry starts with the length of the content and the CRC-32 checksum of the content */
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup("configuration-writer-thread"), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
+
+    private final ConfigurationFile configurationFile;
+    private final File writeLog;
+    private final long flushInterval;
+    /** Guards the pending configuration and the write log */
+    private final Object lock = new Object();
+    /** Serializes writes of the configuration file */
+    private final Object flushLock = new Object();
+
+    private ExposedByteArrayOutputStream pending;
+    private long flushDeadline;
+    private FileChannel logChannel;
+    private boolean logFailed;
+    /** Whether the last attempt to write the configuration file failed, so the write log must be kept */
+    private boolean writeFailed;
+    private boolean closed;
+    private Thread writerThread;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param configurationFile the configuration file to write
+     * @param flushInterval the maximum time in milliseconds between a change being committed and the
+     *                      configuration file being written. Must be greater than zero
+     */
+    BatchedConfigurationFileWriter(final ConfigurationFile configurationFile, final long flushInterval) {
+        assert flushInterval > 0;
+        this.configurationFile = configurationFile;
+        this.writeLog = configurationFile.getWriteLogFile();
+        this.flushInterval = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+    }
+
+    /**
+     * Queues the given configuration to be written to the configuration file, replacing any configuration
+     * that has been queued but not yet written. When this method returns the configuration is durable.
+     *
+     * @param marshalled the marshalled configuration
+     */
+    void write(final ExposedByteArrayOutputStream marshalled) {
+        synchronized (lock) {
+            final boolean logged = !closed && appendToLog(marshalled);
+            if (pending == null) {
+                flushDeadline = System.nanoTime() + flushInterval;
+            }
+            pending = marshalled;
+            if (logged) {
+                if (writerThread == null) {
+                    writerThread = THREAD_FACTORY.newThread(this::runWriter);
+                    writerThread.start();
+                }
+                lock.notifyAll();
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes any queued configuration to the configuration file before returning.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            for (;;) {
+                final ExposedByteArrayOutputStream toWrite;
+                synchronized (lock) {
+                    toWrite = pending;
+                    pending = null;
+                }
+                if (toWrite == null) {
+                    return;
+                }
+                final boolean written = ConfigurationFilePersistenceResource.writeConfigurationFile(configurationFile, toWrite.getInputStream());
+                synchronized (lock) {
+                    writeFailed = !written;
+                    if (!written) {
+                        // Leave the write log as it is, so the change can still be restored by the next boot
+                        return;
+                    }
+                    // The write log only needs to hold whatever was committed after what we just wrote
+                    if (resetLog() || pending == null) {
+                        return;
+                    }
+                }
+                // Whatever is pending is no longer in the write log, so write it now
+            }
+        }
+    }
+
+    /**
+     * Writes any queued configuration to the configuration file and stops the background writer. Any
+     * configuration written after this method is called is written synchronously.
+     */
+    void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        flush();
+        synchronized (lock) {
+            if (logChannel != null) {
+                closeLog();
+                if (pending == null && !writeFailed) {
+                    deleteLog();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the last complete configuration found in the write log of the given configuration file, if there is
+     * one, to the configuration file's main file, then removes the write log. Entries that were only partially
+     * written, i.e. whose commit never completed, are ignored.
+     *
+     * @param configurationFile the configuration file
+     * @throws ConfigurationPersistenceException if the write log exists but the configuration could not be restored
+     */
+    static void restore(final ConfigurationFile configurationFile) throws ConfigurationPersistenceException {
+        final File writeLog = configurationFile.getWriteLogFile();
+        if (writeLog == null || !writeLog.exists()) {
+            return;
+        }
+        try {
+            final byte[] latest;
+            try (FileChannel channel = FileChannel.open(writeLog.toPath(), StandardOpenOption.READ)) {
+                latest = readLastEntry(channel);
+            }
+            if (latest != null) {
+                final File mainFile = configurationFile.getMainFile();
+                final File tempFile = FilePersistenceUtils.createTempFile(mainFile);
+                FilePersistenceUtils.writeToTempFile(new ByteArrayInputStream(latest), tempFile, mainFile);
+                FilePersistenceUtils.moveTempFileToMain(tempFile, mainFile);
+                ROOT_LOGGER.restoredConfigurationFromWriteLog(mainFile, writeLog);
+            }
+            Files.delete(writeLog.toPath());
+        } catch (IOException e) {
+            throw ROOT_LOGGER.failedToRestoreConfigurationFromWriteLog(e, writeLog);
+        }
+    }
+
+    private static byte[] readLastEntry(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+        final CRC32 crc = new CRC32();
+        byte[] last = null;
+        for (;;) {
+            header.clear();
+            if (!readFully(channel, header)) {
+                return last;
+            }
+            header.flip();
+            final int length = header.getInt();
+            final int checksum = header.getInt();
+            if (length < 0 || length > channel.size() - channel.position()) {
+                return last;
+            }
+            final ByteBuffer content = ByteBuffer.allocate(length);
+            if (!readFully(channel, content)) {
+                return last;
+            }
+            crc.reset();
+            crc.update(content.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                return last;
+            }
+            last = content.array();
+        }
+    }
+
+    private static boolean readFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void runWriter() {
+        try {
+            for (;;) {
+                synchronized (lock) {
+                    for (;;) {
+                        if (closed) {
+                            return;
+                        }
+                        if (pending == null) {
+                            lock.wait();
+                        } else {
+                            final long remaining = flushDeadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                break;
+                            }
+                            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        }
+                    }
+                }
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (lock) {
+                writerThread = null;
+            }
+        }
+    }
+
+    // Must be called holding lock
+    private boolean appendToLog(final ExposedByteArrayOutputStream marshalled) {
+        if (writeLog == null) {
+            // Changes are not meant to survive a restart, so there is nothing to log
+            return true;
+        }
+        if (logFailed) {
+            return false;
+        }
+        try {
+            if (logChannel == null) {
+                Files.createDirectories(writeLog.getParentFile().toPath());
+                logChannel = FileChannel.open(writeLog.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            final ByteBuffer content = marshalled.getByteBuffer();
+            final CRC32 crc = new CRC32();
+            crc.update(content.array(), content.arrayOffset() + content.position(), content.remaining());
+            final ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+            header.putInt(content.remaining()).putInt((int) crc.getValue()).flip();
+            final ByteBuffer[] entry = {header, content};
+            while (header.hasRemaining() || content.hasRemaining()) {
+                logChannel.write(entry);
+            }
+            logChannel.force(false);
+            return true;
+        } catch (IOException e) {
+            abandonLog(e);
+            return false;
+        }
+    }
+
+    // Must be called holding lock
+    private boolean resetLog() {
+        if (logChannel == null) {
+            return !logFailed;
+        }
+        try {
+            logChannel.truncate(0);
+            logChannel.position(0);
+        } catch (IOException e) {
+            abandonLog(e);
+            return false;
+        }
+        return pending == null || appendToLog(pending);
+    }
+
+    /**
+     * Stops using the write log. From now on changes are written synchronously, so the log must not be left
+     * behind to be restored over them by the next boot. Must be called holding {@code lock}.
+     */
+    private void abandonLog(final IOException cause) {
+        MGMT_OP_LOGGER.failedToAppendToConfigurationWriteLog(cause, writeLog, configurationFile.getMainFile().getName());
+        logFailed = true;
+        closeLog();
+        deleteLog();
+    }
+
+    // Must be called holding lock
+    private void deleteLog() {
+        try {
+            Files.deleteIfExists(writeLog.toPath());
+        } catch (IOException e) {
+            MGMT_OP_LOGGER.cannotDeleteTempFile(writeLog.getName());
+            writeLog.deleteOnExit();
+        }
+    }
+
+    // Must be called holding lock
+    private void closeLog() {
+        if (logChannel != null) {
+            try {
+                logChannel.close();
+            } catch (IOException e) {
+                MGMT_OP_LOGGER.failedToCloseResource(e, logChannel);
+            }
+            logChannel = null;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.HashUtil;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+
+/**
+ * A cache of the operations parsed from a configuration file, used to avoid parsing the file again on the next boot
+ * if neither it nor the extensions it uses have changed.
+ * <p>
+ * Once the operations parsed from the file have been used to boot successfully they are {@link #store() stored} in
+ * a compact binary form, along with a digest of the file's content, an identifier of the environment that parsed
+ * it, and a fingerprint of each extension module the operations add. On the next boot {@link #load(File)} returns the
+ * stored operations only if all of these still match; otherwise it returns {@code null} and the file must be parsed.
+ */
+public final class BootOperationCache {
+
+    private static final int MAGIC = 0x4a424f43;
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION_SERVICES = "META-INF/services/" + Extension.class.getName();
+
+    private final File cacheFile;
+    private final String environment;
+    private final Function<String, String> extensionFingerprint;
+    private byte[] pending;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheFile the file in which the operations are stored. Cannot be {@code null}
+     * @param environment an identifier of the environment that parses the configuration, e.g. the server version.
+     *                    A change of environment invalidates the cache. Cannot be {@code null}
+     * @param moduleLoader the loader of the extension modules added by the operations. Cannot be {@code null}
+     */
+    public BootOperationCache(final File cacheFile, final String environment, final ModuleLoader moduleLoader) {
+        this(cacheFile, environment, name -> getModuleFingerprint(moduleLoader, name));
+    }
+
+    BootOperationCache(final File cacheFile, final String environment, final Function<String, String> extensionFingerprint) {
+        this.cacheFile = cacheFile;
+        this.environment = environment;
+        this.extensionFingerprint = extensionFingerprint;
+    }
+
+    /**
+     * Gets the operations stored for the given configuration file, if they are still valid.
+     *
+     * @param configurationFile the configuration file. Cannot be {@code null}
+     * @return the operations, or {@code null} if none are stored or they are no longer valid for the file
+     */
+    List<ModelNode> load(final File configurationFile) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        final long start = System.nanoTime();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return miss("unknown format");
+            }
+            if (!environment.equals(input.readUTF())) {
+                return miss("environment changed");
+            }
+            if (!digest(configurationFile).equals(input.readUTF())) {
+                return miss(configurationFile.getName() + " changed");
+            }
+            for (int i = input.readInt(); i > 0; i--) {
+                final String module = input.readUTF();
+                if (!input.readUTF().equals(extensionFingerprint.apply(module))) {
+                    return miss("extension module " + module + " changed");
+                }
+            }
+            final long parseTime = input.readLong();
+            final int count = input.readInt();
+            final List<ModelNode> operations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(input);
+                operations.add(operation);
+            }
+            ROOT_LOGGER.loadedBootOperationsFromCache(operations.size(), cacheFile.getAbsolutePath(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), parseTime);
+            return operations;
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Failed to read boot operation cache %s", cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Records the operations parsed from the given configuration file, ready to be {@link #store() stored} once
+     * they have been used to boot successfully. The operations are copied, so they can be modified afterwards.
+     *
+     * @param configurationFile the configuration file. Cannot be {@code null}
+     * @param operations the operations parsed from the file. Cannot be {@code null}
+     * @param parseTime the time in milliseconds it took to parse the file
+     */
+    void prepare(final File configurationFile, final List<ModelNode> operations, final long parseTime) {
+        pending = null;
+        try {
+            final Map<String, String> extensions = new TreeMap<>();
+            for (ModelNode operation : operations) {
+                final String module = getAddedExtension(operation);
+                if (module != null) {
+                    final String fingerprint = extensionFingerprint.apply(module);
+                    if (fingerprint == null) {
+                        // Not a usable extension, so the boot is going to fail anyway
+                        return;
+                    }
+                    extensions.put(module, fingerprint);
+                }
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(operations.size() * 256);
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(environment);
+            output.writeUTF(digest(configurationFile));
+            output.writeInt(extensions.size());
+            for (Map.Entry<String, String> entry : extensions.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+            output.writeLong(parseTime);
+            output.writeInt(operations.size());
+            for (ModelNode operation : operations) {
+                operation.writeExternal(output);
+            }
+            output.flush();
+            pending = bytes.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Failed to prepare boot operation cache %s", cacheFile);
+        }
+    }
+
+    /**
+     * Stores the operations recorded by the last call to {@link #prepare(File, List, long)}, if any.
+     */
+    void store() {
+        final byte[] content = pending;
+        if (content == null) {
+            return;
+        }
+        pending = null;
+        final File tmp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            try (BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                output.write(content);
+            }
+            Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ROOT_LOGGER.failedToStoreBootOperationCache(e, cacheFile.getAbsolutePath());
+            tmp.delete();
+        }
+    }
+
+    private List<ModelNode> miss(final String reason) {
+        ROOT_LOGGER.debugf("Not using boot operation cache %s: %s", cacheFile, reason);
+        return null;
+    }
+
+    private static String getAddedExtension(final ModelNode operation) {
+        if (!ADD.equals(operation.get(OP).asString())) {
+            return null;
+        }
+        final List<Property> address = operation.hasDefined(OP_ADDR) ? operation.get(OP_ADDR).asPropertyList() : Collections.emptyList();
+        if (address.size() == 1 && EXTENSION.equals(address.get(0).getName())) {
+            return address.get(0).getValue().asString();
+        }
+        return null;
+    }
+
+    private static String digest(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream input = new FileInputStream(file)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Identifies the version of an extension module from its declared version and from the location, size and
+     * modification time of the jars that provide its extensions, so replacing or patching them is detected.
+     */
+    private static String getModuleFingerprint(final ModuleLoader moduleLoader, final String name) {
+        try {
+            final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(name));
+            final StringBuilder fingerprint = new StringBuilder(String.valueOf(module.getVersion()));
+            final List<URL> resources = Collections.list(module.getClassLoader().getResources(EXTENSION_SERVICES));
+            for (URL resource : resources) {
+                fingerprint.append('|').append(resource);
+                final URLConnection connection = resource.openConnection();
+                final URL location = connection instanceof JarURLConnection ? ((JarURLConnection) connection).getJarFileURL() : resource;
+                if ("file".equals(location.getProtocol())) {
+                    final File file = new File(location.toURI());
+                    fingerprint.append(':').append(file.length()).append(':').append(file.lastModified());
+                }
+            }
+            return fingerprint.toString();
+        } catch (ModuleLoadException | IOException | URISyntaxException | RuntimeException e) {
+            ROOT_LOGGER.debugf(e, "Cannot identify the version of extension module %s", name);
+            return null;
+        }
+    }
+}
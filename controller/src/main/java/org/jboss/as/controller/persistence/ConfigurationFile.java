@@ -503,6 +503,15 @@ public class ConfigurationFile {
         return this.serverTempDir;
     }
 
+    /**
+     * Gets the file in which changes that have not yet been written to the main file are logged, if
+     * configuration changes are written asynchronously. Will be {@code null} if changes are not persisted
+     * across restarts, i.e. if the interaction policy is {@link InteractionPolicy#isReadOnly() read only}.
+     */
+    File getWriteLogFile() {
+        return interactionPolicy.isReadOnly() ? null : new File(historyRoot, mainFile.getName() + ".journal");
+    }
+
     /** Notification that boot has completed successfully and the configuration history should be updated */
     void successfulBoot() throws ConfigurationPersistenceException {
         synchronized (this) {
@@ -26,7 +26,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Set;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -43,13 +45,30 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     ConfigurationFilePersistenceResource(final ModelNode model, final ConfigurationFile configurationFile,
                                          final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
-        super(model, persister);
+        this(model, null, configurationFile, persister);
+    }
+
+    ConfigurationFilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses, final ConfigurationFile configurationFile,
+                                         final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        super(model, affectedAddresses, persister);
         this.configurationFile = configurationFile;
         this.fileName = configurationFile.getMainFile();
     }
 
     @Override
     protected void doCommit(InputStream in) {
+        writeConfigurationFile(configurationFile, in);
+    }
+
+    /**
+     * Writes the given content to the main file of a configuration file, backing up the previous version.
+     *
+     * @param configurationFile the configuration file. Cannot be {@code null}
+     * @param in the new content. Cannot be {@code null}
+     * @return {@code true} if the main file was written, {@code false} if writing it failed and the failure was logged
+     */
+    static boolean writeConfigurationFile(ConfigurationFile configurationFile, InputStream in) {
+        final File fileName = configurationFile.getMainFile();
         final File tempFileName;
 
         if ( FilePersistenceUtils.isParentFolderWritable(fileName) ){
@@ -65,7 +84,7 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 FilePersistenceUtils.writeToTempFile(in, tempFileName, fileName);
             } catch (Exception e) {
                 MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
-                return;
+                return false;
             }
             try {
                 configurationFile.backup();
@@ -73,8 +92,10 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
                 configurationFile.commitTempFile(tempFileName);
             }
             configurationFile.fileWritten();
+            return true;
         } catch (ConfigurationPersistenceException e) {
            MGMT_OP_LOGGER.errorf(e, e.toString());
+           return false;
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
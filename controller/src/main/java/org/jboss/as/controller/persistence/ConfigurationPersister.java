@@ -106,6 +106,16 @@ public interface ConfigurationPersister {
      */
     void successfulBoot() throws ConfigurationPersistenceException;
 
+    /**
+     * Callback to indicate that the controller using this persister is stopping, either for a shutdown or a
+     * reload. Persisters that write changes asynchronously must have written all changes committed so far
+     * before this method returns.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void shutdown() {
+    }
+
     /**
      * Take a snapshot of the current configuration
      *
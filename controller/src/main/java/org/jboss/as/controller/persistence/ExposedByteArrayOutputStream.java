@@ -24,6 +24,7 @@ package org.jboss.as.controller.persistence;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * TODO class javadoc.
@@ -40,4 +41,8 @@ class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
         return new ByteArrayInputStream(buf, 0, count);
     }
 
+    ByteBuffer getByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
 }
@@ -26,7 +26,9 @@ import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.Set;
 
+import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -39,9 +41,13 @@ public class FilePersistenceResource extends AbstractFilePersistenceResource {
     protected final File fileName;
 
     FilePersistenceResource(final ModelNode model, final File fileName, final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
-        super(model, persister);
-        this.fileName = fileName;
+        this(model, null, fileName, persister);
+    }
 
+    FilePersistenceResource(final ModelNode model, final Set<PathAddress> affectedAddresses, final File fileName,
+                            final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        super(model, affectedAddresses, persister);
+        this.fileName = fileName;
     }
 
     @Override
@@ -0,0 +1,302 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * Cache of the XML written for each subsystem the last time a configuration was persisted, so a subsystem that
+ * has not changed since does not need to be marshalled again.
+ * <p>
+ * What is cached is the sequence of calls each subsystem's {@link XMLElementWriter} made on the stream writer,
+ * rather than the resulting bytes. Replaying the calls is much cheaper than running the subsystem writer against
+ * the model, and leaves formatting and namespace handling to the stream writer of the document being written.
+ * <p>
+ * A subsystem's entry is reused unless the subsystem, or a resource that may contain subsystems, is among the
+ * addresses affected by the change being persisted. Each marshalling is done through an {@link Update} that only
+ * becomes the cache's content once the change is committed, so XML written for a change that is rolled back
+ * is never reused.
+ */
+final class SubsystemXmlCache {
+
+    /** Entries keyed by subsystem name and the number of previous occurrences of that name in the document */
+    private Map<String, RecordedXml> entries = Collections.emptyMap();
+    /** Incremented each time the entries change */
+    private long generation;
+    /** The number of updates that are neither committed nor discarded */
+    private int outstanding;
+
+    /**
+     * Starts marshalling a configuration.
+     *
+     * @param affectedAddresses the addresses of the resources changed since the last configuration was persisted
+     * @return the update through which subsystem writers must be {@link Update#wrap(String, XMLElementWriter) wrapped}.
+     *         Must be either {@link Update#commit() committed} or {@link Update#discard() discarded}
+     */
+    synchronized Update update(final Set<PathAddress> affectedAddresses) {
+        Map<String, RecordedXml> reusable = Collections.emptyMap();
+        // If another update is in progress, we can't know which of them will be committed first
+        if (outstanding == 0 && !entries.isEmpty()) {
+            final Set<String> affectedSubsystems = getAffectedSubsystems(affectedAddresses);
+            if (affectedSubsystems != null) {
+                reusable = new HashMap<>(entries);
+                reusable.values().removeIf(recorded -> affectedSubsystems.contains(recorded.subsystemName));
+            }
+        }
+        outstanding++;
+        return new Update(generation, reusable);
+    }
+
+    /**
+     * Discards any cached XML for the given subsystem, e.g. because its writer has been replaced.
+     *
+     * @param subsystemName the name of the subsystem
+     */
+    synchronized void invalidate(final String subsystemName) {
+        final Map<String, RecordedXml> remaining = new HashMap<>(entries);
+        remaining.values().removeIf(recorded -> recorded.subsystemName.equals(subsystemName));
+        entries = remaining;
+        generation++;
+    }
+
+    /**
+     * Gets the names of the subsystems that may be affected by changes to the given addresses.
+     *
+     * @return the names, or {@code null} if all subsystems may be affected
+     */
+    private static Set<String> getAffectedSubsystems(final Set<PathAddress> affectedAddresses) {
+        final Set<String> result = new HashSet<>();
+        for (PathAddress address : affectedAddresses) {
+            boolean found = false;
+            for (PathElement element : address) {
+                if (SUBSYSTEM.equals(element.getKey())) {
+                    if (element.isWildcard()) {
+                        return null;
+                    }
+                    result.add(element.getValue());
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                final int size = address.size();
+                if (size == 0) {
+                    return null;
+                }
+                final String key = address.getElement(size - 1).getKey();
+                if (PROFILE.equals(key) || HOST.equals(key)) {
+                    // Containers of subsystems; adding or removing them changes the order in which subsystems are written
+                    return null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void complete(final Update update, final boolean committed) {
+        outstanding--;
+        if (committed) {
+            // If anything else changed the cache since the update started, what it recorded may be stale
+            entries = update.generation == generation ? update.recorded : Collections.emptyMap();
+            generation++;
+        }
+    }
+
+    /**
+     * The marshalling of one configuration.
+     */
+    final class Update {
+
+        private final long generation;
+        private final Map<String, RecordedXml> reusable;
+        private final Map<String, RecordedXml> recorded = new HashMap<>();
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private boolean done;
+
+        private Update(final long generation, final Map<String, RecordedXml> reusable) {
+            this.generation = generation;
+            this.reusable = reusable;
+        }
+
+        /**
+         * Wraps a subsystem writer so that it is only invoked if no reusable XML is cached for the subsystem,
+         * and so that what it writes is recorded.
+         *
+         * @param subsystemName the name of the subsystem
+         * @param writer the subsystem's writer
+         * @return the wrapped writer
+         */
+        XMLElementWriter<SubsystemMarshallingContext> wrap(final String subsystemName, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+            return (streamWriter, context) -> {
+                final Integer previous = occurrences.get(subsystemName);
+                occurrences.put(subsystemName, previous == null ? 1 : previous + 1);
+                final String key = previous == null ? subsystemName : subsystemName + '#' + previous;
+                RecordedXml xml = reusable.get(key);
+                if (xml != null) {
+                    xml.replay(streamWriter);
+                } else {
+                    final RecordingHandler handler = new RecordingHandler(streamWriter);
+                    final XMLExtendedStreamWriter recordingWriter = (XMLExtendedStreamWriter) Proxy.newProxyInstance(
+                            XMLExtendedStreamWriter.class.getClassLoader(), new Class<?>[]{XMLExtendedStreamWriter.class}, handler);
+                    writer.writeContent(recordingWriter, new SubsystemMarshallingContext(context.getModelNode(), recordingWriter));
+                    xml = new RecordedXml(subsystemName, handler.calls);
+                }
+                recorded.put(key, xml);
+            };
+        }
+
+        /**
+         * Makes what was written through this update available for reuse, once the configuration it was written
+         * for has been committed.
+         */
+        void commit() {
+            if (!done) {
+                done = true;
+                complete(this, true);
+            }
+        }
+
+        /**
+         * Discards what was written through this update.
+         */
+        void discard() {
+            if (!done) {
+                done = true;
+                complete(this, false);
+            }
+        }
+    }
+
+    private static final class RecordedXml {
+        private final String subsystemName;
+        private final List<RecordedCall> calls;
+
+        private RecordedXml(final String subsystemName, final List<RecordedCall> calls) {
+            this.subsystemName = subsystemName;
+            this.calls = calls;
+        }
+
+        void replay(final XMLExtendedStreamWriter writer) throws XMLStreamException {
+            for (RecordedCall call : calls) {
+                call.replay(writer);
+            }
+        }
+    }
+
+    private static final class RecordedCall {
+        private final Method method;
+        private final Object[] args;
+
+        private RecordedCall(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        void replay(final XMLExtendedStreamWriter writer) throws XMLStreamException {
+            try {
+                method.invoke(writer, args);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof XMLStreamException) {
+                    throw (XMLStreamException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new XMLStreamException(cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Forwards calls to the real stream writer, recording those that write or change its state.
+     */
+    private static final class RecordingHandler implements InvocationHandler {
+        private final XMLExtendedStreamWriter delegate;
+        private final List<RecordedCall> calls = new ArrayList<>();
+
+        private RecordingHandler(final XMLExtendedStreamWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.startsWith("write") || name.startsWith("set")) {
+                calls.add(new RecordedCall(method, copy(args)));
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /** Copies mutable arguments, as the caller may reuse them once the call returns */
+        private static Object[] copy(final Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            final Object[] result = args.clone();
+            for (int i = 0; i < result.length; i++) {
+                final Object arg = result[i];
+                if (arg instanceof char[]) {
+                    result[i] = ((char[]) arg).clone();
+                } else if (arg instanceof String[]) {
+                    result[i] = ((String[]) arg).clone();
+                } else if (arg instanceof Iterable) {
+                    final List<Object> list = new ArrayList<>();
+                    for (Object value : (Iterable<?>) arg) {
+                        list.add(value);
+                    }
+                    result[i] = list;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -51,6 +51,10 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     private final Map<String, ResourceProvider> children = new LinkedHashMap<String, ResourceProvider>();
     private final boolean runtimeOnly;
     private final Set<String> orderedChildTypes;
+    /** The copy-on-write generation this resource was copied into, or {@code null} if this is not a copy-on-write copy. */
+    private CopyOnWriteResourceTree.Generation copyOnWriteGeneration;
+    /** The child types whose provider is still shared with the resource this one was copied from. */
+    private Set<String> sharedChildTypes = Collections.emptySet();
 
     protected AbstractModelResource() {
         this(false);
@@ -100,6 +104,23 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         return provider.get(address.getValue());
     }
 
+    /**
+     * Gets a child in order to modify it, first replacing it with a copy if it is still shared with
+     * the resource this one was {@link #copyOnWrite(CopyOnWriteResourceTree.Generation) copied} from.
+     *
+     * @see CopyOnWriteResourceTree#getChildForUpdate(Resource, PathElement)
+     */
+    Resource getChildForUpdate(final PathElement address) {
+        final ResourceProvider provider = getProviderForUpdate(address.getKey());
+        if(provider == null) {
+            return null;
+        }
+        if (provider instanceof DefaultResourceProvider) {
+            return ((DefaultResourceProvider) provider).getForUpdate(address.getValue());
+        }
+        return provider.get(address.getValue());
+    }
+
     @Override
     public boolean hasChild(final PathElement address) {
         final ResourceProvider provider = getProvider(address.getKey());
@@ -194,7 +215,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     @Override
     public Resource removeChild(PathElement address) {
         synchronized (children) {
-            final ResourceProvider provider = getProvider(address.getKey());
+            final ResourceProvider provider = getProviderForUpdate(address.getKey());
             if(provider == null) {
                 return null;
             }
@@ -207,6 +228,28 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
     }
 
+    /**
+     * Replaces the child at the given address, keeping its position amongst its siblings if it already exists.
+     *
+     * @param address the address of the child
+     * @param resource the new child, or {@code null} if the child should just be removed
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        synchronized (children) {
+            if (resource == null) {
+                removeChild(address);
+            } else {
+                final ResourceProvider provider = getOrCreateProvider(address.getKey());
+                if (provider instanceof DefaultResourceProvider) {
+                    ((DefaultResourceProvider) provider).replace(address.getValue(), resource);
+                } else {
+                    provider.remove(address.getValue());
+                    provider.register(address.getValue(), resource);
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isProxy() {
         return false;
@@ -239,7 +282,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
     protected ResourceProvider getOrCreateProvider(final String type) {
         synchronized (children) {
-            final ResourceProvider provider = children.get(type);
+            final ResourceProvider provider = getProviderForUpdate(type);
             if(provider != null) {
                 return provider;
             } else {
@@ -250,9 +293,51 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
     }
 
+    /**
+     * Gets the provider for the given child type, first replacing it with a copy if it is still shared
+     * with the resource this one was {@link #copyOnWrite(CopyOnWriteResourceTree.Generation) copied} from.
+     */
+    private ResourceProvider getProviderForUpdate(final String type) {
+        synchronized (children) {
+            ResourceProvider provider = children.get(type);
+            if (provider != null && copyOnWriteGeneration != null && sharedChildTypes.remove(type)) {
+                if (copyOnWriteGeneration.isSealed()) {
+                    // Nothing is shared any more; drop the references to the generation
+                    copyOnWriteGeneration = null;
+                    sharedChildTypes = Collections.emptySet();
+                } else {
+                    provider = copyOnWriteGeneration.copy(provider);
+                    children.put(type, provider);
+                }
+            }
+            return provider;
+        }
+    }
+
     @Override
     public abstract Resource clone();
 
+    /**
+     * Creates a copy of this resource for use in the given copy-on-write tree. The default implementation
+     * returns a full {@link #clone() clone}; implementations that can share their children with the copy
+     * should create a new instance with a copy of their own model and then call
+     * {@link #copyProvidersOnWrite(AbstractModelResource, CopyOnWriteResourceTree.Generation)}.
+     *
+     * @param generation the generation the copy belongs to. Will not be {@code null}
+     * @return the copy. Will not return {@code null}
+     */
+    Resource copyOnWrite(CopyOnWriteResourceTree.Generation generation) {
+        return clone();
+    }
+
+    void copyProvidersOnWrite(AbstractModelResource copy, CopyOnWriteResourceTree.Generation generation) {
+        synchronized (children) {
+            copy.children.putAll(children);
+            copy.sharedChildTypes = new HashSet<>(children.keySet());
+            copy.copyOnWriteGeneration = generation;
+        }
+    }
+
     protected void cloneProviders(AbstractModelResource clone) {
         synchronized (children) {
             for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
@@ -261,11 +346,62 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
     }
 
-    private static class DefaultResourceProvider implements ResourceProvider {
+    static class DefaultResourceProvider implements ResourceProvider {
 
         private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        /** The copy-on-write generation this provider was copied into, or {@code null} if this is not a copy-on-write copy. */
+        private CopyOnWriteResourceTree.Generation copyOnWriteGeneration;
+        /** The names of the children still shared with the provider this one was copied from. */
+        private Set<String> sharedChildren;
 
         protected DefaultResourceProvider() {
+            this.copyOnWriteGeneration = null;
+            this.sharedChildren = Collections.emptySet();
+        }
+
+        private DefaultResourceProvider(DefaultResourceProvider original, CopyOnWriteResourceTree.Generation generation) {
+            this.copyOnWriteGeneration = generation;
+            synchronized (original.children) {
+                this.children.putAll(original.children);
+            }
+            this.sharedChildren = new HashSet<>(children.keySet());
+        }
+
+        /**
+         * Creates a copy of this provider whose children are shared with this one until they are obtained
+         * for update or removed from the copy.
+         */
+        ResourceProvider copyOnWrite(CopyOnWriteResourceTree.Generation generation) {
+            return new DefaultResourceProvider(this, generation);
+        }
+
+        /**
+         * Replaces the child with the given name with a copy if it is still shared with the provider
+         * this one was copied from. Must be called while holding the {@code children} monitor.
+         */
+        private Resource unshare(String name, Resource resource) {
+            if (resource != null && copyOnWriteGeneration != null && sharedChildren.remove(name)) {
+                if (copyOnWriteGeneration.isSealed()) {
+                    // Nothing is shared any more; drop the references to the generation
+                    copyOnWriteGeneration = null;
+                    sharedChildren = Collections.emptySet();
+                } else {
+                    final Resource copy = copyOnWriteGeneration.copy(resource);
+                    children.put(name, copy);
+                    return copy;
+                }
+            }
+            return resource;
+        }
+
+        /**
+         * Gets a child in order to modify it, first replacing it with a copy if it is still shared with
+         * the provider this one was copied from.
+         */
+        Resource getForUpdate(String name) {
+            synchronized (children) {
+                return unshare(name, children.get(name));
+            }
         }
 
         @Override
@@ -335,10 +471,19 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             }
         }
 
+        void replace(String name, Resource resource) {
+            synchronized (children) {
+                sharedChildren.remove(name);
+                children.put(name, resource);
+            }
+        }
+
         @Override
         public Resource remove(String name) {
             synchronized (children) {
-                return children.remove(name);
+                final Resource removed = unshare(name, children.get(name));
+                children.remove(name);
+                return removed;
             }
         }
 
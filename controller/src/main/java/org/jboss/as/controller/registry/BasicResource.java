@@ -30,8 +30,9 @@ import org.jboss.dmr.ModelNode;
 /**
  * Standard {@link Resource} implementation.
  *
- * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
- * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
+ * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method, or a
+ * {@link CopyOnWriteResourceTree}, to obtain its own copy of the resource. That instance cannot be made visible
+ * to other threads until all writes are complete.</p>
  *
  * @author Emanuel Muckenhuber
  */
@@ -77,17 +78,29 @@ class BasicResource extends AbstractModelResource implements Resource {
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     @Override
     public Resource clone() {
-        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
+        final BasicResource clone = copyModel();
+        cloneProviders(clone);
+        return clone;
+    }
+
+    @Override
+    Resource copyOnWrite(CopyOnWriteResourceTree.Generation generation) {
+        final BasicResource copy = copyModel();
+        copyProvidersOnWrite(copy, generation);
+        return copy;
+    }
+
+    private BasicResource copyModel() {
+        final BasicResource copy = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
         for (;;) {
             try {
-                clone.writeModel(model);
+                copy.writeModel(model);
                 break;
             } catch (ConcurrentModificationException ignore) {
                 // TODO horrible hack :(
             }
         }
-        cloneProviders(clone);
-        return clone;
+        return copy;
     }
 
 }
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.wildfly.common.Assert.checkNotNullParam;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A copy of a {@link Resource} tree that uses path copying rather than a full {@link Resource#clone() clone}.
+ * <p>
+ * Only the root resource is copied when the tree is created. The children of a copied resource remain shared
+ * with the original tree until they are obtained for update through {@link #getChildForUpdate(Resource, PathElement)},
+ * or registered or removed, at which point they are themselves copied. So the cost of producing a modifiable copy
+ * of the tree is proportional to the number of resources on the paths that are actually modified, rather than to
+ * the size of the whole tree. Children reached through plain navigation, such as {@link Resource#getChild(PathElement)}
+ * or {@link Resource#navigate(org.jboss.as.controller.PathAddress)}, may still be shared and must not be modified.
+ * <p>
+ * Once all modifications are complete the tree must be {@link #seal() sealed} before it is made visible to
+ * other threads. A sealed tree no longer copies anything, so concurrent readers never modify it.
+ * <p>
+ * Structural sharing is only applied to resources based on the standard {@link AbstractModelResource}
+ * child handling; any other {@code Resource} implementation is copied using {@link Resource#clone()}.
+ */
+public final class CopyOnWriteResourceTree {
+
+    private final Generation generation;
+    private final Resource rootResource;
+
+    private CopyOnWriteResourceTree(final Resource root, final Generation predecessor) {
+        this.generation = new Generation(predecessor);
+        this.rootResource = generation.copy(root);
+    }
+
+    /**
+     * Creates a copy-on-write copy of the tree rooted at {@code root}.
+     *
+     * @param root the root of the tree to copy. Cannot be {@code null}
+     * @return the copy. Will not return {@code null}
+     */
+    public static CopyOnWriteResourceTree copyOf(final Resource root) {
+        return new CopyOnWriteResourceTree(checkNotNullParam("root", root), null);
+    }
+
+    /**
+     * Creates a copy-on-write copy of the tree rooted at {@code base}, replacing its child at {@code rootChild}
+     * with this tree's child at the same path, or removing it if this tree has no such child. Iteration order
+     * of the base's children is preserved.
+     * <p>
+     * This is used to re-apply changes that are known to be confined to a single subtree on top of a more recent
+     * version of the tree than the one this tree was copied from. The returned tree shares resources with this one,
+     * so sealing it also seals this tree.
+     *
+     * @param base the root of the tree to copy. Cannot be {@code null}
+     * @param rootChild the path of the child of the root whose content should be taken from this tree. Cannot be {@code null}
+     * @return the new tree. Will not return {@code null}
+     */
+    public CopyOnWriteResourceTree rebase(final Resource base, final PathElement rootChild) {
+        checkNotNullParam("base", base);
+        checkNotNullParam("rootChild", rootChild);
+        final CopyOnWriteResourceTree result = new CopyOnWriteResourceTree(base, generation);
+        final Resource child = rootResource.getChild(rootChild);
+        final Resource root = result.rootResource;
+        if (root instanceof AbstractModelResource) {
+            ((AbstractModelResource) root).replaceChild(rootChild, child);
+        } else {
+            root.removeChild(rootChild);
+            if (child != null) {
+                root.registerChild(rootChild, child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the child of a resource in order to modify it. If {@code parent} belongs to an unsealed copy-on-write
+     * tree and the child is still shared with the tree it was copied from, the child is first replaced by a copy.
+     * Otherwise this is the same as {@link Resource#getChild(PathElement)}.
+     *
+     * @param parent the parent resource. Cannot be {@code null}
+     * @param element the path of the child. Cannot be {@code null}
+     * @return the child, or {@code null} if there is no such child
+     */
+    public static Resource getChildForUpdate(final Resource parent, final PathElement element) {
+        if (parent instanceof AbstractModelResource) {
+            return ((AbstractModelResource) parent).getChildForUpdate(element);
+        }
+        return parent.getChild(element);
+    }
+
+    /**
+     * Gets the root of the copied tree.
+     *
+     * @return the root resource. Will not return {@code null}
+     */
+    public Resource getRootResource() {
+        return rootResource;
+    }
+
+    /**
+     * Marks the tree as complete. After this call the tree no longer copies shared resources,
+     * making it safe to expose the tree to concurrent readers.
+     */
+    public void seal() {
+        generation.seal();
+    }
+
+    /**
+     * Gets whether {@link #seal()} has been called.
+     *
+     * @return {@code true} if the tree is sealed
+     */
+    public boolean isSealed() {
+        return generation.isSealed();
+    }
+
+    /**
+     * Identifies the resources copied for a single tree. Copied resources reference their generation rather than
+     * the tree itself, so that once a tree is sealed and replaced its resources don't keep its root, or the roots
+     * of the trees it was derived from, reachable.
+     */
+    static final class Generation {
+
+        /** A generation some of whose resources were grafted into this one, and which must be sealed along with it. */
+        private Generation predecessor;
+        private volatile boolean sealed;
+
+        private Generation(final Generation predecessor) {
+            this.predecessor = predecessor;
+        }
+
+        void seal() {
+            sealed = true;
+            final Generation predecessor = this.predecessor;
+            this.predecessor = null;
+            if (predecessor != null) {
+                predecessor.seal();
+            }
+        }
+
+        boolean isSealed() {
+            return sealed;
+        }
+
+        Resource copy(final Resource resource) {
+            if (resource instanceof AbstractModelResource) {
+                return ((AbstractModelResource) resource).copyOnWrite(this);
+            }
+            return resource.clone();
+        }
+
+        ResourceProvider copy(final ResourceProvider provider) {
+            if (provider instanceof AbstractModelResource.DefaultResourceProvider) {
+                return ((AbstractModelResource.DefaultResourceProvider) provider).copyOnWrite(this);
+            }
+            return provider.clone();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.Service;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link BootProfiler}.
+ */
+public class BootProfilerTestCase {
+
+    private static final ServiceName SLOW = ServiceName.of("slow");
+    private static final ServiceName FAST = ServiceName.of("fast");
+    private static final ServiceName DEPENDENT = ServiceName.of("dependent");
+
+    private ServiceContainer container;
+
+    @Before
+    public void setUp() {
+        container = ServiceContainer.Factory.create("test");
+    }
+
+    @After
+    public void tearDown() {
+        BootProfiler.getInstance().complete();
+        container.shutdown();
+    }
+
+    @Test
+    public void testCriticalPath() throws Exception {
+        BootProfiler profiler = BootProfiler.getInstance();
+        profiler.start();
+        assertTrue(profiler.isRecording());
+
+        install(SLOW, 100, PathAddress.pathAddress("subsystem", "a"));
+        install(FAST, 10, PathAddress.pathAddress("subsystem", "b"));
+        install(DEPENDENT, 0, PathAddress.pathAddress("subsystem", "b"), SLOW, FAST);
+        container.awaitStability();
+
+        profiler.processorExecuted("test.war", "INSTALL", new Object(), "a", System.nanoTime() - 5_000_000);
+
+        ModelNode report = profiler.complete();
+        assertFalse(profiler.isRecording());
+        assertEquals(report, profiler.getReport());
+
+        assertEquals(3, report.get("services").asInt());
+        assertEquals(1, report.get("processors").asInt());
+        List<ModelNode> path = report.get("critical-path").asList();
+        assertEquals(2, path.size());
+        assertEquals(SLOW.getCanonicalName(), path.get(0).get("name").asString());
+        assertEquals("a", path.get(0).get("group").asString());
+        assertTrue(path.get(0).get("duration").asLong() >= 100);
+        assertEquals(DEPENDENT.getCanonicalName(), path.get(1).get("name").asString());
+
+        ModelNode subsystems = report.get("subsystems");
+        assertTrue(subsystems.get("a", "service-time").asLong() >= 100);
+        assertTrue(subsystems.get("a", "processor-time").asLong() >= 5);
+        assertTrue(subsystems.get("b", "service-time").asLong() < 100);
+        assertEquals(SLOW.getCanonicalName(), report.get("slowest-services").get(0).get("name").asString());
+        assertEquals("test.war", report.get("slowest-processors").get(0).get("deployment").asString());
+    }
+
+    @Test
+    public void testServiceUpBeforeTracked() throws Exception {
+        BootProfiler profiler = BootProfiler.getInstance();
+        profiler.start();
+        ServiceBuilder<?> builder = container.addService(FAST);
+        builder.setInitialMode(ServiceController.Mode.ACTIVE);
+        ServiceController<?> controller = builder.install();
+        container.awaitStability();
+        profiler.serviceInstalled(controller, PathAddress.pathAddress("subsystem", "a"));
+
+        ModelNode report = profiler.complete();
+        assertEquals(1, report.get("services").asInt());
+        assertEquals(FAST.getCanonicalName(), report.get("critical-path").get(0).get("name").asString());
+    }
+
+    @Test
+    public void testNotRecording() throws Exception {
+        BootProfiler profiler = BootProfiler.getInstance();
+        profiler.complete();
+        install(SLOW, 0, PathAddress.EMPTY_ADDRESS);
+        container.awaitStability();
+        assertNull(profiler.complete());
+    }
+
+    private void install(ServiceName name, long startMillis, PathAddress address, ServiceName... dependencies) {
+        ServiceBuilder<?> builder = container.addService(name);
+        for (ServiceName dependency : dependencies) {
+            builder.requires(dependency);
+        }
+        builder.setInstance(new Service() {
+            @Override
+            public void start(StartContext context) {
+                if (startMillis > 0) {
+                    try {
+                        Thread.sleep(startMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void stop(StopContext context) {
+            }
+        });
+        builder.setInitialMode(ServiceController.Mode.ACTIVE);
+        ServiceController<?> controller = builder.install();
+        BootProfiler.getInstance().serviceInstalled(controller, address);
+    }
+}
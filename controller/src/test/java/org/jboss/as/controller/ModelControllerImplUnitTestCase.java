@@ -35,6 +35,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_METRICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RESTART;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
@@ -67,9 +68,14 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.notification.Notification;
@@ -164,6 +170,50 @@ public class ModelControllerImplUnitTestCase {
         notificationHandler.validate(0);
     }
 
+    @Test
+    public void testSnapshotIsNotAffectedByLaterWrites() throws Exception {
+        ModelControllerImpl impl = (ModelControllerImpl) controller;
+        ModelControllerImpl.ManagementModelImpl snapshot = ((ModelControllerImpl.ManagementModelImpl) impl.getManagementModel()).snapshot();
+
+        ModelNode result = controller.execute(getOperation("good", "attr1", 7), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        assertEquals(1, snapshot.getRootResource().getModel().get("attr1").asInt());
+        assertEquals(7, impl.getManagementModel().getRootResource().getModel().get("attr1").asInt());
+
+        // Reads now see the write
+        ModelNode read = Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr1");
+        result = controller.execute(read, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(7, result.get(RESULT).asInt());
+    }
+
+    @Test
+    public void testOperationMetrics() throws Exception {
+        ModelNode op = getOperation("good", "attr1", 5);
+        ModelNode result = controller.execute(op, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertFalse(result.get(RESPONSE_HEADERS).hasDefined(OPERATION_METRICS));
+
+        op.get(OPERATION_HEADERS, OPERATION_METRICS).set(true);
+        result = controller.execute(op, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        ModelNode metrics = result.get(RESPONSE_HEADERS, OPERATION_METRICS);
+        assertTrue(metrics.toString(), metrics.isDefined());
+        assertTrue(metrics.toString(), metrics.get(OperationMetrics.STEPS).asInt() >= 1);
+        long total = metrics.get(OperationMetrics.TOTAL_TIME).asLong();
+        long phases = 0;
+        for (OperationMetrics.Phase phase : OperationMetrics.Phase.values()) {
+            phases += metrics.get(phase.getName()).asLong();
+        }
+        assertEquals(metrics.toString(), total, phases);
+
+        ModelControllerImpl impl = (ModelControllerImpl) controller;
+        ModelNode statistics = impl.getOperationStatistics().toModelNode().get("good");
+        assertEquals(statistics.toString(), 2, statistics.get(OperationStatistics.COUNT).asInt());
+        assertEquals(statistics.toString(), 2, statistics.get(OperationMetrics.TOTAL_TIME, OperationStatistics.COUNT).asInt());
+    }
+
     /**
      * Test successfully updating the model but then having the caller roll back the transaction.
      */
@@ -776,6 +826,136 @@ public class ModelControllerImplUnitTestCase {
         Assert.assertEquals(rspString, childWarning, validateDeprecatedWarning(compositeResponse.get(RESULT, "step-2"), childAddr));
     }
 
+    @Test
+    public void testScopedWritesToDifferentSubtreesRunConcurrently() throws Exception {
+        ModelControllerImpl impl = setupScopedWriteLockingController();
+        BlockingWriteHandler.entered = new CountDownLatch(2);
+        BlockingWriteHandler.proceed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ModelNode> one = executor.submit(() -> controller.execute(getOperation("blocking-write", CHILD_ONE, "attribute1", 10), null, null, null));
+            Future<ModelNode> two = executor.submit(() -> controller.execute(getOperation("blocking-write", CHILD_TWO, "attribute2", 20), null, null, null));
+            // Both hold the lock of their subtree at the same time
+            assertTrue(BlockingWriteHandler.entered.await(10, TimeUnit.SECONDS));
+            BlockingWriteHandler.proceed.countDown();
+            assertEquals(SUCCESS, one.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+            assertEquals(SUCCESS, two.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        } finally {
+            BlockingWriteHandler.proceed.countDown();
+            executor.shutdownNow();
+        }
+
+        // Whichever committed last was rebased onto the model published by the other
+        Resource root = impl.getManagementModel().getRootResource();
+        assertEquals(10, root.navigate(CHILD_ONE).getModel().get("attribute1").asInt());
+        assertEquals(20, root.navigate(CHILD_TWO).getModel().get("attribute2").asInt());
+        assertEquals(1, root.getModel().get("attr1").asInt());
+        // Locks of subtrees no one is writing to are not kept
+        assertEquals(0, impl.getSubtreeLockCount());
+    }
+
+    @Test
+    public void testScopedWriteEscalatesToExclusiveLock() throws Exception {
+        ModelControllerImpl impl = setupScopedWriteLockingController();
+        int value = 10;
+        for (String touch : new String[] {"capability", "registration"}) {
+            BlockingWriteHandler.entered = new CountDownLatch(1);
+            BlockingWriteHandler.proceed = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                ModelNode op = getOperation("blocking-write", CHILD_ONE, "attribute1", ++value);
+                op.get("touch").set(touch);
+                Future<ModelNode> escalating = executor.submit(() -> controller.execute(op, null, null, null));
+                assertTrue(touch, BlockingWriteHandler.entered.await(10, TimeUnit.SECONDS));
+
+                // A write to another subtree now has to wait for the exclusive lock
+                Future<ModelNode> other = executor.submit(() -> controller.execute(getOperation("good", CHILD_TWO, "attribute2", 20), null, null, null));
+                Thread.sleep(200);
+                assertFalse(touch, other.isDone());
+
+                BlockingWriteHandler.proceed.countDown();
+                assertEquals(touch, SUCCESS, escalating.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+                assertEquals(touch, SUCCESS, other.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+            } finally {
+                BlockingWriteHandler.proceed.countDown();
+                executor.shutdownNow();
+            }
+            Resource root = impl.getManagementModel().getRootResource();
+            assertEquals(touch, value, root.navigate(CHILD_ONE).getModel().get("attribute1").asInt());
+            assertEquals(touch, 20, root.navigate(CHILD_TWO).getModel().get("attribute2").asInt());
+        }
+    }
+
+    @Test
+    public void testExclusiveWriteFailsOnSubtreeLockedByWaitingOperation() throws Exception {
+        ModelControllerImpl impl = setupScopedWriteLockingController();
+        // As held by a scoped write that is waiting to escalate to the exclusive lock
+        Integer waiting = -1;
+        PathElement scope = CHILD_ONE.getElement(0);
+        assertTrue(impl.detectDeadlockAndGetSubtreeLock(waiting, scope));
+        try {
+            ModelNode result = controller.execute(getOperation("write-root-and-child", "attribute1", 10), null, null, null);
+            assertEquals(FAILED, result.get(OUTCOME).asString());
+            assertTrue(result.toString(), result.get(FAILURE_DESCRIPTION).asString().contains("WFLYCTL0484"));
+        } finally {
+            impl.releaseSubtreeLock(waiting, scope);
+        }
+        Resource root = impl.getManagementModel().getRootResource();
+        assertEquals(1, root.getModel().get("attr1").asInt());
+        assertEquals(1, root.navigate(CHILD_ONE).getModel().get("attribute1").asInt());
+
+        ModelNode result = controller.execute(getOperation("write-root-and-child", "attribute1", 10), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        root = impl.getManagementModel().getRootResource();
+        assertEquals(10, root.getModel().get("attr1").asInt());
+        assertEquals(10, root.navigate(CHILD_ONE).getModel().get("attribute1").asInt());
+        assertEquals(0, impl.getSubtreeLockCount());
+    }
+
+    @Test
+    public void testScopedWriteRollbackKeepsConcurrentWrite() throws Exception {
+        ModelControllerImpl impl = setupScopedWriteLockingController();
+        BlockingWriteHandler.entered = new CountDownLatch(1);
+        BlockingWriteHandler.proceed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ModelNode op = getOperation("blocking-write", CHILD_ONE, "attribute1", 10);
+            op.get("fail").set(true);
+            Future<ModelNode> failing = executor.submit(() -> controller.execute(op, null, null, null));
+            assertTrue(BlockingWriteHandler.entered.await(10, TimeUnit.SECONDS));
+
+            // Published while the failing write still holds the lock of its own subtree
+            ModelNode result = controller.execute(getOperation("good", CHILD_TWO, "attribute2", 20), null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+            BlockingWriteHandler.proceed.countDown();
+            assertEquals(FAILED, failing.get(10, TimeUnit.SECONDS).get(OUTCOME).asString());
+        } finally {
+            BlockingWriteHandler.proceed.countDown();
+            executor.shutdownNow();
+        }
+
+        Resource root = impl.getManagementModel().getRootResource();
+        assertEquals(1, root.navigate(CHILD_ONE).getModel().get("attribute1").asInt());
+        assertEquals(20, root.navigate(CHILD_TWO).getModel().get("attribute2").asInt());
+    }
+
+    /**
+     * Replaces the controller with one that uses subtree scoped write locks.
+     */
+    private ModelControllerImpl setupScopedWriteLockingController() throws InterruptedException {
+        shutdownServiceContainer();
+        System.setProperty(ModelControllerImpl.SCOPED_WRITE_LOCKS_PROPERTY, "true");
+        try {
+            setupController();
+        } finally {
+            System.clearProperty(ModelControllerImpl.SCOPED_WRITE_LOCKS_PROPERTY);
+        }
+        ModelControllerImpl impl = (ModelControllerImpl) controller;
+        assertTrue(impl.isScopedWriteLocking());
+        return impl;
+    }
+
     private static ModelNode validateDeprecatedWarning(ModelNode response, PathAddress address) {
         String rspString = response.toString();
         Assert.assertTrue(rspString, response.hasDefined(RESPONSE_HEADERS, WARNINGS));
@@ -844,6 +1024,8 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler(getOD("remove-dependent-service"), new ModelControllerImplUnitTestCase.RemoveDependentServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("read-wildcards"), new ModelControllerImplUnitTestCase.WildcardReadHandler(),true);
             rootRegistration.registerOperationHandler(getOD("invalid-service-update"), new ModelControllerImplUnitTestCase.InvalidServiceUpdateHandler(),true);
+            rootRegistration.registerOperationHandler(getOD("blocking-write"), new ModelControllerImplUnitTestCase.BlockingWriteHandler(),true);
+            rootRegistration.registerOperationHandler(getOD("write-root-and-child"), new ModelControllerImplUnitTestCase.RootAndChildWriteHandler(),true);
             rootRegistration.registerOperationHandler(getODBuilder("deprecated-op").setDeprecated(ModelVersion.create(1)).build(), new DeprecatedHandler(), true);
 
             GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
@@ -903,6 +1085,52 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    /**
+     * Writes an attribute, optionally touching the capability registry or the resource registrations, then waits
+     * until {@link #proceed} is released before completing, or failing if requested.
+     */
+    public static class BlockingWriteHandler implements OperationStepHandler {
+
+        static volatile CountDownLatch entered = new CountDownLatch(0);
+        static volatile CountDownLatch proceed = new CountDownLatch(0);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String name = operation.require(NAME).asString();
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get(name).set(operation.require(VALUE));
+
+            String touch = operation.hasDefined("touch") ? operation.get("touch").asString() : null;
+            if ("capability".equals(touch)) {
+                context.registerCapability(RuntimeCapability.Builder.of("org.wildfly.test.blocking-write").build());
+            } else if ("registration".equals(touch)) {
+                context.getResourceRegistrationForUpdate();
+            }
+
+            entered.countDown();
+            try {
+                proceed.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (operation.hasDefined("fail") && operation.get("fail").asBoolean()) {
+                throw new OperationFailedException("this write fails");
+            }
+        }
+    }
+
+    /**
+     * Writes an attribute of both the root resource and {@link #CHILD_ONE}.
+     */
+    public static class RootAndChildWriteHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) {
+            ModelNode value = operation.require(VALUE);
+            context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel().get("attr1").set(value);
+            context.readResourceForUpdate(CHILD_ONE).getModel().get(operation.require(NAME).asString()).set(value);
+        }
+    }
+
     public static class ModelStageFailsHandler implements OperationStepHandler {
 
         @Override
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AsyncAuditLogWriter}.
+ */
+public class AsyncAuditLogWriterTestCase {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AuditLogWriteStatistics statistics = new AuditLogWriteStatistics();
+    private final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testItemsWrittenInOrder() {
+        AsyncAuditLogWriter<Integer> writer = createWriter(16, AsyncAuditLogWriter.OverflowPolicy.BLOCK, -1, written::addAll);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(writer.queue(i));
+        }
+        writer.shutdown();
+
+        Assert.assertEquals(1000, written.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, written.get(i).intValue());
+        }
+        Assert.assertEquals(0, writer.getQueueDepth());
+        Assert.assertEquals(0, writer.getDroppedItems());
+        Assert.assertEquals(1000, statistics.getWrittenItems());
+    }
+
+    @Test
+    public void testDiscardWhenFull() {
+        AsyncAuditLogWriter<Integer> writer = createWriter(2, AsyncAuditLogWriter.OverflowPolicy.DISCARD, -1, written::addAll);
+        // The writer thread cannot take items from the queue while the write lock is held
+        writeLock.lock();
+        try {
+            Assert.assertTrue(writer.queue(1));
+            Assert.assertTrue(writer.queue(2));
+            Assert.assertFalse(writer.queue(3));
+            Assert.assertEquals(2, writer.getQueueDepth());
+            Assert.assertEquals(1, writer.getDroppedItems());
+        } finally {
+            writeLock.unlock();
+        }
+        writer.shutdown();
+
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals(1, writer.getDroppedItems());
+    }
+
+    @Test
+    public void testFlush() {
+        final List<Thread> writingThreads = Collections.synchronizedList(new ArrayList<>());
+        AsyncAuditLogWriter<Integer> writer = createWriter(16, AsyncAuditLogWriter.OverflowPolicy.BLOCK, -1, items -> {
+            writingThreads.add(Thread.currentThread());
+            written.addAll(items);
+        });
+        writeLock.lock();
+        try {
+            for (int i = 0; i < 10; i++) {
+                writer.queue(i);
+            }
+            writer.flush();
+            Assert.assertEquals(0, writer.getQueueDepth());
+            Assert.assertEquals(10, written.size());
+            Assert.assertEquals(Collections.singletonList(Thread.currentThread()), writingThreads);
+        } finally {
+            writeLock.unlock();
+        }
+        writer.shutdown();
+    }
+
+    @Test
+    public void testShutdownTimeout() throws InterruptedException {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        AsyncAuditLogWriter<Integer> writer = createWriter(16, AsyncAuditLogWriter.OverflowPolicy.BLOCK, 100, items -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(items);
+        });
+        try {
+            writer.queue(1);
+            Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+            writer.queue(2);
+            writer.queue(3);
+            writer.shutdown();
+
+            Assert.assertEquals(0, writer.getQueueDepth());
+            Assert.assertEquals(2, writer.getDroppedItems());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private AsyncAuditLogWriter<Integer> createWriter(int capacity, AsyncAuditLogWriter.OverflowPolicy overflowPolicy,
+                                                      long shutdownTimeout, Consumer<List<Integer>> batchWriter) {
+        return new AsyncAuditLogWriter<>(capacity, overflowPolicy, shutdownTimeout, writeLock, batchWriter, statistics);
+    }
+}
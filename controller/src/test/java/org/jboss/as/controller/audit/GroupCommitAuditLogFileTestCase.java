@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link GroupCommitAuditLogFile}, and of the file handlers using it.
+ */
+public class GroupCommitAuditLogFileTestCase {
+
+    private final File dir = createTempDir();
+    private final File logFile = new File(dir, "audit-log.log");
+
+    @After
+    public void cleanup() {
+        System.clearProperty(GroupCommitAuditLogFile.SYNC_INTERVAL);
+        System.clearProperty(GroupCommitAuditLogFile.SYNC_RECORDS);
+        for (String fileName : dir.list()) {
+            new File(dir, fileName).delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testRecordsAppended() throws IOException {
+        Files.write(logFile.toPath(), Collections.singletonList("existing"), StandardCharsets.UTF_8);
+        GroupCommitAuditLogFile file = GroupCommitAuditLogFile.open(logFile, 60000, 0);
+        try {
+            file.write(Arrays.asList("one", "two"));
+            file.write(Collections.singletonList(largeRecord()));
+            file.write(Collections.singletonList("three"));
+        } finally {
+            file.close();
+        }
+        Assert.assertEquals(Arrays.asList("existing", "one", "two", largeRecord(), "three"), readLines(logFile));
+    }
+
+    @Test
+    public void testSyncAfterRecords() throws IOException {
+        GroupCommitAuditLogFile file = GroupCommitAuditLogFile.open(createLogFile(), 60000, 5);
+        try {
+            file.write(Arrays.asList("1", "2", "3"));
+            Assert.assertEquals(3, file.getUnsyncedRecords());
+            file.write(Arrays.asList("4", "5"));
+            Assert.assertEquals(0, file.getUnsyncedRecords());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testSyncAfterInterval() throws Exception {
+        GroupCommitAuditLogFile file = GroupCommitAuditLogFile.open(createLogFile(), 50, 0);
+        try {
+            file.write(Arrays.asList("1", "2", "3"));
+            final long end = System.currentTimeMillis() + 10000;
+            while (file.getUnsyncedRecords() > 0 && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(0, file.getUnsyncedRecords());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testSizeRotation() throws IOException {
+        System.setProperty(GroupCommitAuditLogFile.SYNC_INTERVAL, "60000");
+        SizeRotatingFileAuditLogHandler handler = new SizeRotatingFileAuditLogHandler("name", "formatter", 0,
+                new PathManagerServiceStub(), logFile.getPath(), null, 100, 2);
+        List<String> written = new ArrayList<>();
+        try {
+            for (int i = 0; i < 30; i++) {
+                final String record = "record-" + i;
+                handler.initialize();
+                handler.writeLogItemBatch(Collections.singletonList(record));
+                written.add(record);
+            }
+        } finally {
+            handler.stop();
+        }
+
+        List<String> lines = new ArrayList<>(readLines(new File(logFile.getPath() + ".2")));
+        lines.addAll(readLines(new File(logFile.getPath() + ".1")));
+        lines.addAll(readLines(logFile));
+        Assert.assertEquals(written.subList(written.size() - lines.size(), written.size()), lines);
+        Assert.assertTrue(new File(logFile.getPath() + ".1").length() > 100);
+    }
+
+    private File createLogFile() throws IOException {
+        Assert.assertTrue(logFile.createNewFile());
+        return logFile;
+    }
+
+    private static String largeRecord() {
+        final char[] chars = new char[10000];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static File createTempDir() {
+        try {
+            File tempFile = File.createTempFile("test-config", "");
+            if (!tempFile.delete() || !tempFile.mkdir()) {
+                throw new IOException("Couldn't create temp directory.");
+            }
+            return tempFile;
+        } catch (Exception e) {
+            throw new RuntimeException("Couldn't create temp directory.", e);
+        }
+    }
+
+    private static class PathManagerServiceStub extends PathManagerService {}
+}
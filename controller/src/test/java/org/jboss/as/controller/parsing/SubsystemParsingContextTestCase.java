@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.parsing;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link SubsystemParsingContext}.
+ */
+public class SubsystemParsingContextTestCase {
+
+    private static final String SERVER_NAMESPACE = "urn:test:server";
+
+    private static final String DOCUMENT = "<server xmlns=\"" + SERVER_NAMESPACE + "\" xmlns:t=\"urn:test:attributes\">\n" +
+            "    <subsystem xmlns=\"urn:test:a\" name=\"a\">\n" +
+            "        <child t:value=\"1\"/>\n" +
+            "        <child t:value=\"2\"/>\n" +
+            "    </subsystem>\n" +
+            "    <!-- comment -->\n" +
+            "    <subsystem xmlns=\"urn:test:b\" name=\"b\">\n" +
+            "        <child t:value=\"3\"/>\n" +
+            "    </subsystem>\n" +
+            "</server>";
+
+    private static final String INVALID_DOCUMENT = "<server xmlns=\"" + SERVER_NAMESPACE + "\" xmlns:t=\"urn:test:attributes\">\n" +
+            "    <subsystem xmlns=\"urn:test:a\" name=\"a\"/>\n" +
+            "    <subsystem xmlns=\"urn:test:b\" name=\"b\">\n" +
+            "\n" +
+            "        <invalid/>\n" +
+            "    </subsystem>\n" +
+            "</server>";
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelParsing() throws Exception {
+        assertEquals(expectedOperations(), parse(DOCUMENT, executor, false));
+    }
+
+    @Test
+    public void testSequentialParsing() throws Exception {
+        assertEquals(expectedOperations(), parse(DOCUMENT, null, false));
+    }
+
+    @Test
+    public void testFailureLocation() throws Exception {
+        try {
+            parse(INVALID_DOCUMENT, executor, false);
+            fail("Invalid subsystem was parsed");
+        } catch (XMLStreamException e) {
+            assertEquals(5, e.getLocation().getLineNumber());
+        }
+    }
+
+    @Test
+    public void testLenientFailure() throws Exception {
+        List<ModelNode> operations = parse(INVALID_DOCUMENT, executor, true);
+        // the operation of the failed subsystem was added before the failure, so it is kept as in sequential parsing
+        assertEquals(2, operations.size());
+        assertEquals("a", operations.get(0).get("name").asString());
+        assertTrue(operations.get(0).get("values").asList().isEmpty());
+        assertEquals("b", operations.get(1).get("name").asString());
+        assertTrue(operations.get(1).get("values").asList().isEmpty());
+    }
+
+    private static List<ModelNode> expectedOperations() {
+        List<ModelNode> expected = new ArrayList<>();
+        ModelNode a = new ModelNode();
+        a.get("name").set("a");
+        a.get("values").add("1").add("2");
+        expected.add(a);
+        ModelNode b = new ModelNode();
+        b.get("name").set("b");
+        b.get("values").add("3");
+        expected.add(b);
+        return expected;
+    }
+
+    private static List<ModelNode> parse(String document, ExecutorService executor, boolean lenient) throws XMLStreamException {
+        XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(SERVER_NAMESPACE, "server"), (XMLExtendedStreamReader reader, List<ModelNode> list) -> {
+            SubsystemParsingContext context = new SubsystemParsingContext(executor, lenient);
+            List<List<ModelNode>> subsystems = new ArrayList<>();
+            while (reader.nextTag() != END_ELEMENT) {
+                subsystems.add(context.parse(reader));
+            }
+            context.complete();
+            subsystems.forEach(list::addAll);
+        });
+        mapper.registerRootElement(new QName("urn:test:a", "subsystem"), SubsystemParsingContextTestCase::readSubsystem);
+        mapper.registerRootElement(new QName("urn:test:b", "subsystem"), SubsystemParsingContextTestCase::readSubsystem);
+
+        List<ModelNode> operations = new ArrayList<>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(document)));
+        return operations;
+    }
+
+    private static void readSubsystem(XMLExtendedStreamReader reader, List<ModelNode> list) throws XMLStreamException {
+        ModelNode operation = new ModelNode();
+        operation.get("name").set(reader.getAttributeValue(null, "name"));
+        operation.get("values").setEmptyList();
+        list.add(operation);
+        while (reader.nextTag() != END_ELEMENT) {
+            if (!reader.getLocalName().equals("child")) {
+                throw ParseUtils.unexpectedElement(reader);
+            }
+            operation.get("values").add(reader.getAttributeValue("urn:test:attributes", "value"));
+            ParseUtils.requireNoContent(reader);
+        }
+    }
+}
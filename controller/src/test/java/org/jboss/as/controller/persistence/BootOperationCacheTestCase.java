@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private File dir;
+    private File configFile;
+    private File cacheFile;
+    private final Map<String, String> fingerprints = new HashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("boot-cache").toFile();
+        configFile = new File(dir, "standalone.xml");
+        cacheFile = new File(new File(dir, "kernel"), "standalone.xml.boot-ops");
+        Files.write(configFile.toPath(), "<server/>".getBytes(StandardCharsets.UTF_8));
+        fingerprints.put("org.test.extension", "1.0");
+    }
+
+    @After
+    public void tearDown() {
+        cacheFile.delete();
+        cacheFile.getParentFile().delete();
+        configFile.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testCachedOperationsAreUsed() {
+        List<ModelNode> operations = createOperations();
+        storeOperations(operations);
+
+        assertEquals(operations, createCache("1").load(configFile));
+    }
+
+    @Test
+    public void testStoreRequiresPrepare() {
+        BootOperationCache cache = createCache("1");
+        cache.store();
+        assertFalse(cacheFile.exists());
+        assertNull(cache.load(configFile));
+    }
+
+    @Test
+    public void testOperationsModifiedDuringBootAreNotCached() {
+        List<ModelNode> operations = createOperations();
+        List<ModelNode> expected = createOperations();
+        BootOperationCache cache = createCache("1");
+        cache.prepare(configFile, operations, 10);
+        operations.get(1).get("operation-headers", "test").set(true);
+        cache.store();
+
+        assertEquals(expected, createCache("1").load(configFile));
+    }
+
+    @Test
+    public void testChangedConfigurationIsNotUsed() throws IOException {
+        storeOperations(createOperations());
+        Files.write(configFile.toPath(), "<server></server>".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(createCache("1").load(configFile));
+    }
+
+    @Test
+    public void testChangedExtensionIsNotUsed() {
+        storeOperations(createOperations());
+        fingerprints.put("org.test.extension", "1.1");
+
+        assertNull(createCache("1").load(configFile));
+    }
+
+    @Test
+    public void testChangedEnvironmentIsNotUsed() {
+        storeOperations(createOperations());
+
+        assertNull(createCache("2").load(configFile));
+    }
+
+    private void storeOperations(List<ModelNode> operations) {
+        BootOperationCache cache = createCache("1");
+        cache.prepare(configFile, operations, 10);
+        cache.store();
+    }
+
+    private BootOperationCache createCache(String environment) {
+        return new BootOperationCache(cacheFile, environment, fingerprints::get);
+    }
+
+    private static List<ModelNode> createOperations() {
+        List<ModelNode> operations = new ArrayList<>();
+        ModelNode extensionAdd = new ModelNode();
+        extensionAdd.get(OP).set(ADD);
+        extensionAdd.get(OP_ADDR).set(PathAddress.pathAddress(EXTENSION, "org.test.extension").toModelNode());
+        operations.add(extensionAdd);
+        ModelNode subsystemAdd = new ModelNode();
+        subsystemAdd.get(OP).set(ADD);
+        subsystemAdd.get(OP_ADDR).set(PathAddress.pathAddress(SUBSYSTEM, "test").toModelNode());
+        subsystemAdd.get("value").set("${test.value:default}");
+        operations.add(subsystemAdd);
+        return operations;
+    }
+}
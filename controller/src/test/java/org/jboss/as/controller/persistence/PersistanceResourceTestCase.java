@@ -32,7 +32,9 @@ import static org.junit.Assert.assertThat;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,6 +53,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
@@ -880,6 +883,62 @@ public class PersistanceResourceTestCase {
         return builder.toString();
     }
 
+    @Test
+    public void testBatchedConfigurationFile() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        configurationFile.successfulBoot();
+        File writeLog = configurationFile.getWriteLogFile();
+        BatchedConfigurationFileWriter writer = new BatchedConfigurationFileWriter(configurationFile, TimeUnit.HOURS.toMillis(1));
+        TestBatchedConfigurationFilePersister persister = new TestBatchedConfigurationFilePersister(writer);
+
+        store(persister, "One");
+        store(persister, "Two");
+        // Nothing is written to the configuration file until the flush interval has passed
+        checkFiles(null, "std", "std", "std", "std");
+        Assert.assertTrue(writeLog.exists());
+
+        writer.flush();
+        // Both changes were written at once, so there is only one new version in the history
+        checkFiles(null, "Two", "std", "std", "Two", "std");
+        Assert.assertEquals(0, writeLog.length());
+
+        store(persister, "Three");
+        writer.close();
+        checkFiles(null, "Three", "std", "std", "Three", "std", "Two");
+        Assert.assertFalse(writeLog.exists());
+
+        // Once closed, changes are written synchronously
+        store(persister, "Four");
+        checkFiles(null, "Four", "std", "std", "Four", "std", "Two", "Three");
+    }
+
+    @Test
+    public void testBatchedConfigurationFileRestoredAfterCrash() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        configurationFile.successfulBoot();
+        File writeLog = configurationFile.getWriteLogFile();
+        BatchedConfigurationFileWriter writer = new BatchedConfigurationFileWriter(configurationFile, TimeUnit.HOURS.toMillis(1));
+        TestBatchedConfigurationFilePersister persister = new TestBatchedConfigurationFilePersister(writer);
+
+        store(persister, "One");
+        store(persister, "Two");
+        assertFileContents(standardFile, "std");
+        // Simulate a crash while the next change was being logged
+        try (OutputStream out = new FileOutputStream(writeLog, true)) {
+            out.write(new byte[] {0, 0, 0, 10, 1, 2});
+        }
+
+        // "Reboot"
+        configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        BatchedConfigurationFileWriter.restore(configurationFile);
+        assertFileContents(standardFile, "Two");
+        Assert.assertFalse(writeLog.exists());
+
+        // Nothing to restore
+        BatchedConfigurationFileWriter.restore(configurationFile);
+        assertFileContents(standardFile, "Two");
+    }
+
     private void checkFiles(String mainFileName, String main, String initial, String boot, String last, String... versions) throws Exception {
         File mainFile = this.standardFile;
         File bootFile = this.bootFile;
@@ -976,6 +1035,20 @@ public class PersistanceResourceTestCase {
         }
     }
 
+    private class TestBatchedConfigurationFilePersister extends TestConfigurationPersister {
+
+        private final BatchedConfigurationFileWriter writer;
+
+        TestBatchedConfigurationFilePersister(BatchedConfigurationFileWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        PersistenceResource create(ModelNode model) throws ConfigurationPersistenceException {
+            return new BatchedConfigurationFilePersistenceResource(model, null, writer, this);
+        }
+    }
+
     private class TestConfigurationFilePersister extends TestConfigurationPersister {
 
         private final ConfigurationFile configurationFile;
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the reuse of marshalled subsystem XML by {@link AbstractConfigurationPersister}.
+ */
+public class SubsystemXmlCacheTestCase {
+
+    private static final XMLElementWriter<ModelMarshallingContext> ROOT_WRITER = (writer, context) -> {
+        writer.writeStartDocument();
+        writer.writeStartElement("server");
+        final ModelNode model = context.getModelNode();
+        for (String name : model.get(SUBSYSTEM).keys()) {
+            final XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = context.getSubsystemWriter(name);
+            subsystemWriter.writeContent(writer, new SubsystemMarshallingContext(model.get(SUBSYSTEM, name), writer));
+        }
+        writer.writeEndElement();
+        writer.writeEndDocument();
+    };
+
+    private final AtomicInteger aWrites = new AtomicInteger();
+    private final AtomicInteger bWrites = new AtomicInteger();
+    private TestPersister persister;
+
+    @Before
+    public void setUp() {
+        persister = new TestPersister();
+        persister.registerSubsystemWriter("a", new TestSubsystemWriter("urn:test:a", aWrites));
+        persister.registerSubsystemWriter("b", () -> new TestSubsystemWriter("urn:test:b", bWrites));
+    }
+
+    @Test
+    public void testUnaffectedSubsystemsAreReused() throws Exception {
+        marshal(model(1, 1), Collections.emptySet()).commit();
+        assertWrites(1, 1);
+
+        ModelNode model = model(2, 1);
+        String xml = toString(model, address("a"));
+        assertWrites(2, 1);
+        assertEquals(marshalWithoutCache(model), xml);
+
+        model = model(2, 2);
+        xml = toString(model, address("b"));
+        assertWrites(2, 2);
+        assertEquals(marshalWithoutCache(model), xml);
+
+        // A change to the root may affect any subsystem
+        xml = toString(model, PathAddress.EMPTY_ADDRESS);
+        assertWrites(3, 3);
+        assertEquals(marshalWithoutCache(model), xml);
+    }
+
+    @Test
+    public void testDiscardedXmlIsNotReused() throws Exception {
+        marshal(model(1, 1), Collections.emptySet()).commit();
+        marshal(model(2, 1), Collections.singleton(address("a"))).discard();
+        assertWrites(2, 1);
+
+        ModelNode model = model(1, 2);
+        String xml = toString(model, address("b"));
+        assertWrites(2, 2);
+        assertEquals(marshalWithoutCache(model), xml);
+    }
+
+    @Test
+    public void testConcurrentUpdatesDoNotReuse() throws Exception {
+        marshal(model(1, 1), Collections.emptySet()).commit();
+        SubsystemXmlCache.Update first = marshal(model(2, 1), Collections.singleton(address("a")));
+        SubsystemXmlCache.Update second = marshal(model(2, 2), Collections.singleton(address("b")));
+        assertWrites(3, 2);
+        first.commit();
+        second.commit();
+
+        // The second update started before the first was committed, so nothing recorded can be trusted
+        ModelNode model = model(2, 3);
+        toString(model, address("b"));
+        assertWrites(4, 3);
+    }
+
+    @Test
+    public void testReregisteredWriterInvalidates() throws Exception {
+        marshal(model(1, 1), Collections.emptySet()).commit();
+        persister.unregisterSubsystemWriter("a");
+        AtomicInteger newAWrites = new AtomicInteger();
+        persister.registerSubsystemWriter("a", new TestSubsystemWriter("urn:test:a2", newAWrites));
+
+        ModelNode model = model(1, 2);
+        String xml = toString(model, address("b"));
+        assertEquals(1, newAWrites.get());
+        assertEquals(marshalWithoutCache(model), xml);
+    }
+
+    private void assertWrites(int a, int b) {
+        assertEquals(a, aWrites.get());
+        assertEquals(b, bWrites.get());
+    }
+
+    private String toString(ModelNode model, PathAddress affected) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, Collections.singleton(affected), output).commit();
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private SubsystemXmlCache.Update marshal(ModelNode model, Set<PathAddress> affected) throws Exception {
+        return persister.marshallAsXml(model, affected, new ByteArrayOutputStream());
+    }
+
+    private String marshalWithoutCache(ModelNode model) throws Exception {
+        int a = aWrites.get();
+        int b = bWrites.get();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, output);
+        aWrites.set(a);
+        bWrites.set(b);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static PathAddress address(String subsystem) {
+        return PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, subsystem), PathElement.pathElement("child", "x"));
+    }
+
+    private static ModelNode model(int a, int b) {
+        ModelNode model = new ModelNode();
+        model.get(SUBSYSTEM, "a", "value").set(a);
+        model.get(SUBSYSTEM, "b", "value").set(b);
+        model.get(SUBSYSTEM, "b", "items").add("one").add("two");
+        return model;
+    }
+
+    private static class TestPersister extends AbstractConfigurationPersister {
+
+        TestPersister() {
+            super(ROOT_WRITER);
+        }
+
+        @Override
+        public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class TestSubsystemWriter implements XMLElementWriter<SubsystemMarshallingContext> {
+        private final String namespace;
+        private final AtomicInteger writes;
+
+        TestSubsystemWriter(String namespace, AtomicInteger writes) {
+            this.namespace = namespace;
+            this.writes = writes;
+        }
+
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
+            writes.incrementAndGet();
+            ModelNode model = context.getModelNode();
+            context.startSubsystemElement(namespace, false);
+            writer.writeAttribute("value", model.get("value").asString());
+            if (model.hasDefined("items")) {
+                for (ModelNode item : model.get("items").asList()) {
+                    writer.writeStartElement("item");
+                    writer.writeCharacters(item.asString());
+                    writer.writeEndElement();
+                }
+            }
+            writer.writeEndElement();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.jboss.as.controller.registry.CopyOnWriteResourceTree.getChildForUpdate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteResourceTree}.
+ */
+public class CopyOnWriteResourceTreeTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement CHILD_1 = PathElement.pathElement("child", "one");
+    private static final PathElement CHILD_2 = PathElement.pathElement("child", "two");
+
+    private Resource root;
+
+    @Before
+    public void setUp() {
+        root = Resource.Factory.create();
+        root.getModel().get("name").set("root");
+        Resource a = Resource.Factory.create(false, Collections.singleton("child"));
+        a.getModel().get("attr").set("a");
+        root.registerChild(SUBSYSTEM_A, a);
+        Resource b = Resource.Factory.create();
+        b.getModel().get("attr").set("b");
+        root.registerChild(SUBSYSTEM_B, b);
+        Resource one = Resource.Factory.create();
+        one.getModel().get("attr").set(1);
+        a.registerChild(CHILD_1, one);
+        Resource two = Resource.Factory.create();
+        two.getModel().get("attr").set(2);
+        a.registerChild(CHILD_2, two);
+    }
+
+    @Test
+    public void testWriteDoesNotAffectOriginal() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(root);
+        Resource copy = tree.getRootResource();
+
+        copy.getModel().get("name").set("copy");
+        getChildForUpdate(getChildForUpdate(copy, SUBSYSTEM_A), CHILD_1).getModel().get("attr").set(10);
+        getChildForUpdate(copy, SUBSYSTEM_A).removeChild(CHILD_2);
+        copy.registerChild(PathElement.pathElement("subsystem", "c"), Resource.Factory.create());
+        tree.seal();
+
+        assertEquals("root", root.getModel().get("name").asString());
+        assertEquals(1, root.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_1)).getModel().get("attr").asInt());
+        assertTrue(root.requireChild(SUBSYSTEM_A).hasChild(CHILD_2));
+        assertFalse(root.hasChild(PathElement.pathElement("subsystem", "c")));
+
+        assertEquals("copy", copy.getModel().get("name").asString());
+        assertEquals(10, copy.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_1)).getModel().get("attr").asInt());
+        assertFalse(copy.requireChild(SUBSYSTEM_A).hasChild(CHILD_2));
+        assertTrue(copy.hasChild(PathElement.pathElement("subsystem", "c")));
+    }
+
+    @Test
+    public void testUntouchedSubtreesAreShared() {
+        Resource originalB = root.requireChild(SUBSYSTEM_B);
+        Resource originalA = root.requireChild(SUBSYSTEM_A);
+
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(root);
+        Resource copy = tree.getRootResource();
+        assertNotSame(root, copy);
+
+        // Plain reads don't copy
+        assertSame(originalA, copy.requireChild(SUBSYSTEM_A));
+        assertSame(originalB, copy.requireChild(SUBSYSTEM_B));
+        assertSame(originalA.requireChild(CHILD_1), copy.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_1)));
+        assertEquals(2, copy.getChildren("subsystem").size());
+        assertSame(originalA, copy.requireChild(SUBSYSTEM_A));
+
+        Resource copiedA = getChildForUpdate(copy, SUBSYSTEM_A);
+        assertNotSame(originalA, copiedA);
+        assertSame(copiedA, getChildForUpdate(copy, SUBSYSTEM_A));
+        copiedA.getModel().get("attr").set("modified");
+        tree.seal();
+
+        // Once sealed, updates no longer copy, so anything not obtained for update before is still the original
+        assertSame(originalB, getChildForUpdate(copy, SUBSYSTEM_B));
+        assertSame(originalA.requireChild(CHILD_2), copiedA.requireChild(CHILD_2));
+        assertSame(copiedA, copy.requireChild(SUBSYSTEM_A));
+    }
+
+    @Test
+    public void testCopyOfCopy() {
+        CopyOnWriteResourceTree first = CopyOnWriteResourceTree.copyOf(root);
+        getChildForUpdate(first.getRootResource(), SUBSYSTEM_B).getModel().get("attr").set("first");
+        first.seal();
+
+        CopyOnWriteResourceTree second = CopyOnWriteResourceTree.copyOf(first.getRootResource());
+        getChildForUpdate(second.getRootResource(), SUBSYSTEM_B).getModel().get("attr").set("second");
+        second.seal();
+
+        assertEquals("b", root.requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+        assertEquals("first", first.getRootResource().requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+        assertEquals("second", second.getRootResource().requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+        assertSame(root.requireChild(SUBSYSTEM_A), second.getRootResource().requireChild(SUBSYSTEM_A));
+    }
+
+    @Test
+    public void testOrderedChildren() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(root);
+        Resource copiedA = getChildForUpdate(tree.getRootResource(), SUBSYSTEM_A);
+        getChildForUpdate(copiedA, CHILD_2).getModel().get("attr").set(20);
+        copiedA.registerChild(PathElement.pathElement("child", "zero"), 0, Resource.Factory.create());
+        tree.seal();
+
+        Iterator<String> names = copiedA.getChildrenNames("child").iterator();
+        assertEquals("zero", names.next());
+        assertEquals("one", names.next());
+        assertEquals("two", names.next());
+        assertFalse(names.hasNext());
+
+        assertEquals(Arrays.asList("one", "two"), Arrays.asList(root.requireChild(SUBSYSTEM_A).getChildrenNames("child").toArray()));
+    }
+
+    @Test
+    public void testRebase() {
+        CopyOnWriteResourceTree first = CopyOnWriteResourceTree.copyOf(root);
+        getChildForUpdate(first.getRootResource(), SUBSYSTEM_A).getModel().get("attr").set("first");
+
+        // Meanwhile some other subtree gets changed and published
+        CopyOnWriteResourceTree other = CopyOnWriteResourceTree.copyOf(root);
+        getChildForUpdate(other.getRootResource(), SUBSYSTEM_B).getModel().get("attr").set("other");
+        other.seal();
+
+        CopyOnWriteResourceTree rebased = first.rebase(other.getRootResource(), SUBSYSTEM_A);
+        Resource rebasedA = getChildForUpdate(rebased.getRootResource(), SUBSYSTEM_A);
+        getChildForUpdate(rebasedA, CHILD_1).getModel().get("attr").set(100);
+        rebased.seal();
+        assertTrue(first.isSealed());
+
+        Resource merged = rebased.getRootResource();
+        assertEquals("first", merged.requireChild(SUBSYSTEM_A).getModel().get("attr").asString());
+        assertEquals(100, merged.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_1)).getModel().get("attr").asInt());
+        assertEquals("other", merged.requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(merged.getChildrenNames("subsystem").toArray()));
+
+        assertEquals("a", root.requireChild(SUBSYSTEM_A).getModel().get("attr").asString());
+        assertEquals("a", other.getRootResource().requireChild(SUBSYSTEM_A).getModel().get("attr").asString());
+
+        // A subtree removed in the rebased tree is removed from the result
+        CopyOnWriteResourceTree removing = CopyOnWriteResourceTree.copyOf(merged);
+        removing.getRootResource().removeChild(SUBSYSTEM_B);
+        CopyOnWriteResourceTree removed = removing.rebase(merged, SUBSYSTEM_B);
+        removed.seal();
+        assertFalse(removed.getRootResource().hasChild(SUBSYSTEM_B));
+        assertTrue(merged.hasChild(SUBSYSTEM_B));
+    }
+
+    @Test
+    public void testRemoveReturnsPrivateCopy() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(root);
+        Resource removed = tree.getRootResource().removeChild(SUBSYSTEM_B);
+        removed.getModel().get("attr").set("removed");
+        tree.seal();
+
+        assertNull(tree.getRootResource().getChild(SUBSYSTEM_B));
+        assertEquals("b", root.requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testReplacedTreesCanBeCollected() throws InterruptedException {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.copyOf(root);
+        getChildForUpdate(tree.getRootResource(), SUBSYSTEM_B).getModel().get("attr").set(0);
+        tree.seal();
+        final WeakReference<Resource> firstRoot = new WeakReference<>(tree.getRootResource());
+
+        // Each write copies a different subtree, so the later trees still share resources copied by the earlier ones
+        for (int i = 1; i <= 5; i++) {
+            final CopyOnWriteResourceTree next = CopyOnWriteResourceTree.copyOf(tree.getRootResource());
+            final Resource a = getChildForUpdate(next.getRootResource(), SUBSYSTEM_A);
+            getChildForUpdate(a, i % 2 == 0 ? CHILD_1 : CHILD_2).getModel().get("attr").set(i);
+            tree = next.rebase(next.getRootResource(), SUBSYSTEM_A);
+            tree.seal();
+        }
+        assertEquals(0, tree.getRootResource().requireChild(SUBSYSTEM_B).getModel().get("attr").asInt());
+        assertEquals(5, tree.getRootResource().navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD_2)).getModel().get("attr").asInt());
+
+        for (int i = 0; i < 50 && firstRoot.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("The root of a replaced tree is still reachable from the current tree", firstRoot.get());
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.jboss.as.controller.BootErrorCollector;
+import org.jboss.as.controller.BootProfiler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
@@ -130,6 +131,9 @@ public class CoreManagementResourceDefinition extends SimpleResourceDefinition {
         super.registerOperations(resourceRegistration);
         if(bootErrorCollector != null) {
             resourceRegistration.registerOperationHandler(BootErrorCollector.ListBootErrorsHandler.DEFINITION, bootErrorCollector.getReadBootErrorsHandler());
+            if (environment == Environment.STANDALONE_SERVER) {
+                resourceRegistration.registerOperationHandler(BootProfiler.ReadBootProfileHandler.DEFINITION, BootProfiler.ReadBootProfileHandler.INSTANCE);
+            }
         }
     }
 
@@ -24,15 +24,23 @@ package org.jboss.as.domain.management.audit;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.domain.management._private.DomainManagementResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the management audit logging resource.
@@ -45,6 +53,45 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
 
     static final String DEPRECATED_MESSAGE_CATEGORY = "core.management.audit-log";
 
+    public static final SimpleAttributeDefinition ASYNCHRONOUS = new SimpleAttributeDefinitionBuilder("asynchronous", ModelType.BOOLEAN)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder("queue-depth", ModelType.INT)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(new ModelNode(0))
+            .build();
+
+    public static final SimpleAttributeDefinition DROPPED_ITEMS = new SimpleAttributeDefinitionBuilder("dropped-items", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+
+    public static final SimpleAttributeDefinition WRITTEN_ITEMS = new SimpleAttributeDefinitionBuilder("written-items", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+
+    public static final SimpleAttributeDefinition AVERAGE_WRITE_LATENCY = new SimpleAttributeDefinitionBuilder("average-write-latency", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .build();
+
+    public static final SimpleAttributeDefinition MAX_WRITE_LATENCY = new SimpleAttributeDefinitionBuilder("max-write-latency", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .build();
+
+    private static final AttributeDefinition[] METRICS = new AttributeDefinition[] {QUEUE_DEPTH, DROPPED_ITEMS, WRITTEN_ITEMS, AVERAGE_WRITE_LATENCY, MAX_WRITE_LATENCY};
+
     private final ManagedAuditLogger auditLogger;
     private final PathManagerService pathManager;
     private final EnvironmentNameReader environmentReader;
@@ -69,6 +116,15 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
         setDeprecated(ModelVersion.create(1, 7));
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        AuditLogRuntimeAttributeHandler handler = new AuditLogRuntimeAttributeHandler(auditLogger);
+        resourceRegistration.registerReadOnlyAttribute(ASYNCHRONOUS, handler);
+        for (AttributeDefinition def : METRICS) {
+            resourceRegistration.registerMetric(def, handler);
+        }
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerSubModel(new JsonAuditLogFormatterResourceDefinition(auditLogger));
@@ -83,5 +139,34 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    private static class AuditLogRuntimeAttributeHandler extends AbstractRuntimeOnlyHandler {
+        private final ManagedAuditLogger auditLogger;
+
+        AuditLogRuntimeAttributeHandler(ManagedAuditLogger auditLogger) {
+            this.auditLogger = auditLogger;
+        }
+
+        @Override
+        protected boolean requiresRuntime(OperationContext context) {
+            return true;
+        }
 
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (attr.equals(ASYNCHRONOUS.getName())) {
+                context.getResult().set(auditLogger.isAsynchronous());
+            } else if (attr.equals(QUEUE_DEPTH.getName())) {
+                context.getResult().set(auditLogger.getQueuedItemCount());
+            } else if (attr.equals(DROPPED_ITEMS.getName())) {
+                context.getResult().set(auditLogger.getDroppedItemCount());
+            } else if (attr.equals(WRITTEN_ITEMS.getName())) {
+                context.getResult().set(auditLogger.getWrittenItemCount());
+            } else if (attr.equals(AVERAGE_WRITE_LATENCY.getName())) {
+                context.getResult().set(auditLogger.getAverageWriteLatency());
+            } else if (attr.equals(MAX_WRITE_LATENCY.getName())) {
+                context.getResult().set(auditLogger.getMaxWriteLatency());
+            }
+        }
+    }
 }
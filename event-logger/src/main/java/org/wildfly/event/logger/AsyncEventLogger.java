@@ -42,6 +42,8 @@ class AsyncEventLogger extends AbstractEventLogger implements EventLogger, Runna
     private final EventWriter writer;
     private final Executor executor;
     private final Deque<Event> pendingMessages;
+    // Only accessed by the thread running this logger
+    private final List<Event> events = new ArrayList<>();
 
     AsyncEventLogger(final String id, final EventWriter writer, final Executor executor) {
         super(id);
@@ -66,7 +68,7 @@ class AsyncEventLogger extends AbstractEventLogger implements EventLogger, Runna
         if (!stateUpdater.compareAndSet(this, 1, 2)) {
             return;
         }
-        List<Event> events = new ArrayList<>();
+        final List<Event> events = this.events;
         Event event;
         // Only grab at most 1000 messages at a time
         for (int i = 0; i < 1000; ++i) {
@@ -76,24 +78,20 @@ class AsyncEventLogger extends AbstractEventLogger implements EventLogger, Runna
             }
             events.add(event);
         }
+        final boolean written = !events.isEmpty();
         try {
-            if (!events.isEmpty()) {
-                writeMessage(events);
+            if (written) {
+                writer.writeBatch(events);
             }
         } finally {
+            events.clear();
             stateUpdater.set(this, 0);
             // Check to see if there is still more messages and run again if there are
-            if (!events.isEmpty()) {
+            if (written) {
                 if (stateUpdater.compareAndSet(this, 0, 1)) {
                     executor.execute(this);
                 }
             }
         }
     }
-
-    private void writeMessage(final List<Event> events) {
-        for (Event event : events) {
-            writer.write(event);
-        }
-    }
 }
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+/**
+ * An asynchronous event logger whose queue of events waiting to be written has a fixed capacity.
+ *
+ * @see EventLogger#createAsyncLogger(String, EventWriter, java.util.concurrent.Executor, int, OverflowPolicy)
+ */
+public interface BoundedEventLogger extends EventLogger {
+
+    /**
+     * Returns the maximum number of events that can be waiting to be written.
+     *
+     * @return the capacity of the queue
+     */
+    int getCapacity();
+
+    /**
+     * Returns what happens to events logged while the queue is full.
+     *
+     * @return the overflow policy
+     */
+    OverflowPolicy getOverflowPolicy();
+
+    /**
+     * Returns an estimate of the number of events waiting to be written.
+     *
+     * @return the queue depth
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of events which were dropped because of the {@linkplain #getOverflowPolicy() overflow policy}.
+     *
+     * @return the number of dropped events
+     */
+    long getDroppedEventCount();
+}
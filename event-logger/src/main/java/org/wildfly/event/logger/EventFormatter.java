@@ -34,4 +34,18 @@ public interface EventFormatter {
      * @return the formatted string
      */
     String format(Event event);
+
+    /**
+     * Formats the event, appending the result to the builder. Formatters which can write the event directly should
+     * override this to avoid creating an intermediate string.
+     * <p>
+     * The default implementation appends the result of {@link #format(Event)}.
+     * </p>
+     *
+     * @param event   the event to format
+     * @param builder the builder to append the formatted event to
+     */
+    default void formatTo(final Event event, final StringBuilder builder) {
+        builder.append(format(event));
+    }
 }
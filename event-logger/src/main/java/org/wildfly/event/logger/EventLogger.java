@@ -85,6 +85,23 @@ public interface EventLogger {
         return new AsyncEventLogger(eventSource, writer, executor);
     }
 
+    /**
+     * Creates a new asynchronous event logger which queues at most {@code capacity} events. The queue is allocated
+     * up front, and events are written to the writer in {@linkplain EventWriter#writeBatch(java.util.List) batches}.
+     *
+     * @param eventSource    the identifier for the source of the event this logger is used for
+     * @param writer         the writer this logger will write to
+     * @param executor       the executor to execute the threads in
+     * @param capacity       the capacity of the queue, rounded up to the next power of two
+     * @param overflowPolicy what to do with events logged while the queue is full
+     *
+     * @return a new event logger
+     */
+    static BoundedEventLogger createAsyncLogger(final String eventSource, final EventWriter writer, final Executor executor,
+                                                final int capacity, final OverflowPolicy overflowPolicy) {
+        return new RingBufferEventLogger(eventSource, writer, executor, capacity, overflowPolicy);
+    }
+
     /**
      * Logs the event.
      *
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue of events for many producers and a single consumer.
+ * <p>
+ * The slots are allocated up front. Each slot has a sequence number which tells producers when the slot is free for a
+ * given position and tells the consumer when the event for a position has been published, so neither side allocates
+ * when an event is queued or drained.
+ * </p>
+ */
+final class EventRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the consumer
+    private volatile long head;
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param capacity the minimum capacity, rounded up to the next power of two
+     */
+    EventRingBuffer(final int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an event to the buffer. Can be called by any thread.
+     *
+     * @param event the event to add
+     *
+     * @return {@code true} if the event was added or {@code false} if the buffer is full
+     */
+    boolean offer(final Event event) {
+        long position = tail.get();
+        for (;;) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, event);
+                    // Publishes the event to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not yet taken the event from the previous lap
+                return false;
+            } else {
+                // Another producer took this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves published events to the list. Must only be called by the single consumer.
+     *
+     * @param events the list to add the events to
+     * @param max    the maximum number of events to move
+     *
+     * @return the number of events moved
+     */
+    int drainTo(final List<Event> events, final int max) {
+        long position = head;
+        int count = 0;
+        while (count < max) {
+            final int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            events.add(slots.get(index));
+            slots.lazySet(index, null);
+            // Frees the slot for the producers of the next lap
+            sequences.set(index, position + capacity);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * Returns an estimate of the number of events in the buffer.
+     *
+     * @return the number of events
+     */
+    int size() {
+        final long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
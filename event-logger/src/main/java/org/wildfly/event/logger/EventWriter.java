@@ -19,6 +19,8 @@
 
 package org.wildfly.event.logger;
 
+import java.util.List;
+
 /**
  * A writer used to write events.
  *
@@ -32,4 +34,19 @@ public interface EventWriter extends AutoCloseable {
      * @param event the event to write
      */
     void write(Event event);
+
+    /**
+     * Writes a batch of events. Writers which flush after each event should override this to write the whole batch
+     * and flush once.
+     * <p>
+     * The default implementation {@linkplain #write(Event) writes} each event in turn.
+     * </p>
+     *
+     * @param events the events to write
+     */
+    default void writeBatch(final List<Event> events) {
+        for (Event event : events) {
+            write(event);
+        }
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+/**
+ * Defines what a {@linkplain BoundedEventLogger bounded event logger} does with an event that is logged while its
+ * queue is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The logging thread waits until there is room in the queue. If the thread is interrupted while waiting the event
+     * is dropped.
+     */
+    BLOCK,
+
+    /**
+     * The event is dropped.
+     */
+    DROP,
+
+    /**
+     * Once the queue is three quarters full only one in every ten events is queued, and the others are dropped. This
+     * keeps a sample of the events in the log while giving the writer a chance to catch up. Events are dropped if the
+     * queue is full.
+     */
+    SAMPLE
+}
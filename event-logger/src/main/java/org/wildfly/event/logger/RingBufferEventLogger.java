@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous event logger which queues events in a preallocated {@linkplain EventRingBuffer ring buffer} and
+ * writes them in batches.
+ */
+class RingBufferEventLogger extends AbstractEventLogger implements BoundedEventLogger, Runnable {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int SAMPLE_RATE = 10;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    //0 = not running
+    //1 = queued
+    //2 = running
+    @SuppressWarnings({"unused", "FieldMayBeFinal"})
+    private volatile int state = 0;
+
+    private static final AtomicIntegerFieldUpdater<RingBufferEventLogger> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(RingBufferEventLogger.class, "state");
+
+    private final EventWriter writer;
+    private final Executor executor;
+    private final EventRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleThreshold;
+    private final int batchSize;
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Only accessed by the thread running this logger
+    private final List<Event> events;
+
+    RingBufferEventLogger(final String id, final EventWriter writer, final Executor executor, final int capacity,
+                          final OverflowPolicy overflowPolicy) {
+        super(id);
+        this.writer = writer;
+        this.executor = executor;
+        this.buffer = new EventRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleThreshold = buffer.capacity() - (buffer.capacity() >> 2);
+        this.batchSize = Math.min(MAX_BATCH_SIZE, buffer.capacity());
+        this.events = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    void log(final Event event) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && buffer.size() >= sampleThreshold
+                && sampleCount.incrementAndGet() % SAMPLE_RATE != 0) {
+            dropped.increment();
+            return;
+        }
+        while (!buffer.offer(event)) {
+            if (overflowPolicy != OverflowPolicy.BLOCK || Thread.currentThread().isInterrupted()) {
+                dropped.increment();
+                return;
+            }
+            // Make sure the queue is being drained before waiting for it
+            schedule();
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        if (!stateUpdater.compareAndSet(this, 1, 2)) {
+            return;
+        }
+        final List<Event> events = this.events;
+        try {
+            if (buffer.drainTo(events, batchSize) > 0) {
+                writer.writeBatch(events);
+            }
+        } finally {
+            events.clear();
+            stateUpdater.set(this, 0);
+            // Check to see if there is still more messages and run again if there are
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    @Override
+    public long getDroppedEventCount() {
+        return dropped.sum();
+    }
+
+    private void schedule() {
+        if (stateUpdater.get(this) == 0 && stateUpdater.compareAndSet(this, 0, 1)) {
+            executor.execute(this);
+        }
+    }
+}
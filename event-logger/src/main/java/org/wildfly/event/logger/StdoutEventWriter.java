@@ -22,9 +22,20 @@ package org.wildfly.event.logger;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
 
 /**
  * An event writer which writes directly to {@code stdout}.
+ * <p>
+ * Events are {@linkplain EventFormatter#formatTo(Event, StringBuilder) formatted} into a builder and encoded into a
+ * byte buffer, both of which are reused for the next write, so formatters which write the event directly into the
+ * builder do not need to create a string for it.
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
@@ -32,10 +43,25 @@ public class StdoutEventWriter implements EventWriter {
 
     private static final PrintStream STDOUT = new PrintStream(new FileOutputStream(FileDescriptor.out), true);
 
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Buffers which have grown larger than this for a large event or batch are not kept for the next write.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
     private final EventFormatter formatter;
+    private final CharsetEncoder encoder;
+    private StringBuilder builder;
+    private ByteBuffer bytes;
 
     private StdoutEventWriter(final EventFormatter formatter) {
         this.formatter = formatter;
+        // The same charset and error handling a PrintStream uses
+        encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        builder = new StringBuilder(INITIAL_CAPACITY);
+        bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
     }
 
     /**
@@ -50,9 +76,48 @@ public class StdoutEventWriter implements EventWriter {
     }
 
     @Override
-    public void write(final Event event) {
+    public synchronized void write(final Event event) {
+        final StringBuilder builder = this.builder;
+        builder.setLength(0);
+        formatter.formatTo(event, builder);
+        builder.append(System.lineSeparator());
+        writeBuilder();
+    }
+
+    @Override
+    public synchronized void writeBatch(final List<Event> events) {
         final EventFormatter formatter = this.formatter;
-        STDOUT.println(formatter.format(event));
+        final StringBuilder builder = this.builder;
+        final String lineSeparator = System.lineSeparator();
+        builder.setLength(0);
+        for (Event event : events) {
+            formatter.formatTo(event, builder);
+            builder.append(lineSeparator);
+        }
+        // A single write flushes once for the whole batch
+        writeBuilder();
+    }
+
+    private void writeBuilder() {
+        final CharsetEncoder encoder = this.encoder;
+        final int required = (int) Math.ceil(builder.length() * (double) encoder.maxBytesPerChar());
+        if (bytes.capacity() < required) {
+            bytes = ByteBuffer.allocate(required);
+        }
+        final ByteBuffer bytes = this.bytes;
+        bytes.clear();
+        encoder.reset();
+        // The buffer is large enough for any input, so neither step can overflow
+        encoder.encode(CharBuffer.wrap(builder), bytes, true);
+        encoder.flush(bytes);
+        STDOUT.write(bytes.array(), 0, bytes.position());
+        STDOUT.flush();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            builder = new StringBuilder(INITIAL_CAPACITY);
+        }
+        if (bytes.capacity() > MAX_RETAINED_CAPACITY) {
+            this.bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
     }
 
     @Override
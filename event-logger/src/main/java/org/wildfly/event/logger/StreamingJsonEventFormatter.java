@@ -0,0 +1,491 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * A formatter which writes the event as JSON directly into a {@link StringBuilder}, without building an intermediate
+ * JSON structure. The output is the same as that of the {@link JsonEventFormatter}.
+ * <p>
+ * The keys and values of the meta-data are rendered once, when the formatter is built. The date and time of the
+ * timestamp is rendered once per second of the events, and only the fraction of the second is rendered for each
+ * event, if the default {@linkplain DateTimeFormatter#ISO_OFFSET_DATE_TIME ISO-8601} format is used. With any other
+ * format the last rendered timestamp is reused for events with the same instant.
+ * </p>
+ * <p>
+ * Writers should use {@link #formatTo(Event, StringBuilder)} with a builder they reuse. {@link #format(Event)} uses a
+ * builder reused by the calling thread, and only allocates the resulting string.
+ * </p>
+ */
+public class StreamingJsonEventFormatter implements EventFormatter {
+
+    private static final String EVENT_SOURCE_KEY = "eventSource";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    /**
+     * The length of {@code yyyy-MM-ddTHH:mm:ss} in an ISO-8601 timestamp with a four digit year.
+     */
+    private static final int ISO_SECONDS_LENGTH = 19;
+    /**
+     * Builders used by {@link #format(Event)} which have grown larger than this are not kept for the next event.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final FixedEntry[] fixedEntries;
+    private final Set<String> fixedKeys;
+    private final int timestampIndex;
+    private final DateTimeFormatter formatter;
+    private final boolean isoFormat;
+    private volatile CachedSecond cachedSecond;
+    private volatile CachedTimestamp cachedTimestamp;
+
+    private StreamingJsonEventFormatter(final Map<String, Object> metaData, final String timestampKey,
+                                        final DateTimeFormatter formatter, final boolean isoFormat,
+                                        final boolean includeTimestamp) {
+        this.formatter = formatter;
+        this.isoFormat = isoFormat;
+        // Keys added later replace the value, but not the position, of an earlier entry with the same key
+        final Map<String, String> entries = new LinkedHashMap<>();
+        entries.put(EVENT_SOURCE_KEY, null);
+        if (includeTimestamp) {
+            entries.put(timestampKey, null);
+        }
+        for (Map.Entry<String, Object> entry : metaData.entrySet()) {
+            final StringBuilder value = new StringBuilder();
+            appendValue(value, entry.getValue());
+            entries.put(entry.getKey(), value.toString());
+        }
+        fixedEntries = new FixedEntry[entries.size()];
+        int index = 0;
+        int timestampIndex = -1;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            final String key = entry.getKey();
+            if (includeTimestamp && key.equals(timestampKey)) {
+                timestampIndex = index;
+            }
+            final StringBuilder prefix = new StringBuilder();
+            if (index > 0) {
+                prefix.append(',');
+            }
+            appendString(prefix, key);
+            prefix.append(':');
+            fixedEntries[index++] = new FixedEntry(key, prefix.toString(), entry.getValue());
+        }
+        this.timestampIndex = timestampIndex;
+        fixedKeys = new HashSet<>(entries.keySet());
+    }
+
+    /**
+     * Creates a new builder to build a {@link StreamingJsonEventFormatter}.
+     *
+     * @return a new builder
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String format(final Event event) {
+        StringBuilder builder = BUILDER.get();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            builder = new StringBuilder(256);
+            BUILDER.set(builder);
+        }
+        builder.setLength(0);
+        formatTo(event, builder);
+        return builder.toString();
+    }
+
+    @Override
+    public void formatTo(final Event event, final StringBuilder builder) {
+        final Map<String, Object> data = event.getData();
+        int replaced = 0;
+        builder.append('{');
+        for (int i = 0; i < fixedEntries.length; i++) {
+            final FixedEntry entry = fixedEntries[i];
+            builder.append(entry.prefix);
+            if (!data.isEmpty() && data.containsKey(entry.key)) {
+                // The data of the event replaces the fixed value
+                appendValue(builder, data.get(entry.key));
+                replaced++;
+            } else if (entry.value != null) {
+                builder.append(entry.value);
+            } else if (i == timestampIndex) {
+                appendTimestamp(builder, event.getInstant());
+            } else {
+                appendString(builder, event.getSource());
+            }
+        }
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            final String key = entry.getKey();
+            if (replaced > 0 && fixedKeys.contains(key)) {
+                continue;
+            }
+            builder.append(',');
+            appendString(builder, key);
+            builder.append(':');
+            appendValue(builder, entry.getValue());
+        }
+        builder.append('}');
+    }
+
+    private void appendTimestamp(final StringBuilder builder, final Instant instant) {
+        builder.append('"');
+        if (isoFormat) {
+            final long epochSecond = instant.getEpochSecond();
+            CachedSecond cached = cachedSecond;
+            if (cached == null || cached.epochSecond != epochSecond) {
+                cached = new CachedSecond(epochSecond, formatter.format(Instant.ofEpochSecond(epochSecond)));
+                cachedSecond = cached;
+            }
+            if (cached.suffix != null) {
+                builder.append(cached.prefix);
+                appendFraction(builder, instant.getNano());
+                builder.append(cached.suffix);
+                builder.append('"');
+                return;
+            }
+        }
+        CachedTimestamp cached = cachedTimestamp;
+        if (cached == null || !cached.instant.equals(instant)) {
+            cached = new CachedTimestamp(instant, formatter.format(instant));
+            cachedTimestamp = cached;
+        }
+        appendEscaped(builder, cached.text);
+        builder.append('"');
+    }
+
+    /**
+     * Appends the fraction of the second as {@link DateTimeFormatter#ISO_LOCAL_TIME} does, with as few digits as
+     * needed and nothing at all for a whole second.
+     */
+    private static void appendFraction(final StringBuilder builder, final int nano) {
+        if (nano == 0) {
+            return;
+        }
+        int value = nano;
+        int divisor = 100_000_000;
+        while (value % 10 == 0) {
+            value /= 10;
+            divisor /= 10;
+        }
+        builder.append('.');
+        for (; divisor > 0; divisor /= 10) {
+            builder.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static void appendValue(final StringBuilder builder, final Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof String) {
+            appendString(builder, (String) value);
+        } else if (value instanceof Boolean) {
+            builder.append(((Boolean) value).booleanValue());
+        } else if (value instanceof Integer) {
+            builder.append(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            builder.append(((Long) value).longValue());
+        } else if (value instanceof Double) {
+            // JSON-P renders doubles as BigDecimal
+            builder.append(BigDecimal.valueOf((Double) value));
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            builder.append(value);
+        } else if (value instanceof Collection) {
+            appendArray(builder, (Collection<?>) value);
+        } else if (value instanceof Map) {
+            appendObject(builder, (Map<?, ?>) value);
+        } else if (value instanceof JsonValue) {
+            builder.append(value);
+        } else if (value instanceof JsonArrayBuilder) {
+            builder.append(((JsonArrayBuilder) value).build());
+        } else if (value instanceof JsonObjectBuilder) {
+            builder.append(((JsonObjectBuilder) value).build());
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            builder.append('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendValue(builder, array[i]);
+            }
+            builder.append(']');
+        } else {
+            appendString(builder, String.valueOf(value));
+        }
+    }
+
+    private static void appendArray(final StringBuilder builder, final Collection<?> values) {
+        builder.append('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                builder.append(',');
+            }
+            appendValue(builder, value);
+            first = false;
+        }
+        builder.append(']');
+    }
+
+    private static void appendObject(final StringBuilder builder, final Map<?, ?> values) {
+        builder.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            appendString(builder, String.valueOf(entry.getKey()));
+            builder.append(':');
+            appendValue(builder, entry.getValue());
+            first = false;
+        }
+        builder.append('}');
+    }
+
+    private static void appendString(final StringBuilder builder, final String value) {
+        builder.append('"');
+        appendEscaped(builder, value);
+        builder.append('"');
+    }
+
+    /**
+     * Escapes the value the same way JSON-P does: quotes, backslashes and control characters only.
+     */
+    private static void appendEscaped(final StringBuilder builder, final String value) {
+        final int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            builder.append(value, start, i);
+            start = i + 1;
+            builder.append('\\');
+            switch (c) {
+                case '"':
+                case '\\':
+                    builder.append(c);
+                    break;
+                case '\b':
+                    builder.append('b');
+                    break;
+                case '\f':
+                    builder.append('f');
+                    break;
+                case '\n':
+                    builder.append('n');
+                    break;
+                case '\r':
+                    builder.append('r');
+                    break;
+                case '\t':
+                    builder.append('t');
+                    break;
+                default:
+                    builder.append("u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+        }
+        builder.append(value, start, length);
+    }
+
+    private static final class FixedEntry {
+        private final String key;
+        /**
+         * The quoted key followed by a colon, and preceded by a comma for all but the first entry
+         */
+        private final String prefix;
+        /**
+         * The rendered value of a meta-data entry, {@code null} for the event source and timestamp
+         */
+        private final String value;
+
+        private FixedEntry(final String key, final String prefix, final String value) {
+            this.key = key;
+            this.prefix = prefix;
+            this.value = value;
+        }
+    }
+
+    private static final class CachedSecond {
+        private final long epochSecond;
+        private final String prefix;
+        /**
+         * The offset following the time, or {@code null} if the rendered timestamp cannot be split
+         */
+        private final String suffix;
+
+        private CachedSecond(final long epochSecond, final String text) {
+            this.epochSecond = epochSecond;
+            // A whole second is rendered without a fraction, which is inserted in between the seconds and the offset
+            if (text.length() > ISO_SECONDS_LENGTH && text.charAt(4) == '-' && text.charAt(ISO_SECONDS_LENGTH - 3) == ':') {
+                prefix = text.substring(0, ISO_SECONDS_LENGTH);
+                suffix = text.substring(ISO_SECONDS_LENGTH);
+            } else {
+                prefix = null;
+                suffix = null;
+            }
+        }
+    }
+
+    private static final class CachedTimestamp {
+        private final Instant instant;
+        private final String text;
+
+        private CachedTimestamp(final Instant instant, final String text) {
+            this.instant = instant;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Builder used to create the {@link StreamingJsonEventFormatter}.
+     */
+    @SuppressWarnings({"unused", "WeakerAccess"})
+    public static class Builder {
+        private Map<String, Object> metaData;
+        private String timestampKey;
+        private DateTimeFormatter formatter;
+        private ZoneId zoneId;
+        private boolean includeTimestamp = true;
+
+        private Builder() {
+            metaData = new LinkedHashMap<>();
+        }
+
+        /**
+         * Adds meta-data to the final output.
+         *
+         * @param key   the key to add
+         * @param value the value for the key
+         *
+         * @return this builder
+         */
+        public Builder addMetaData(final String key, final Object value) {
+            if (metaData == null) {
+                metaData = new LinkedHashMap<>();
+            }
+            metaData.put(key, value);
+            return this;
+        }
+
+        /**
+         * Adds meta-data to the final output.
+         *
+         * @param metaData the meta-data to add
+         *
+         * @return this builder
+         */
+        public Builder addMetaData(final Map<String, Object> metaData) {
+            if (this.metaData == null) {
+                this.metaData = new LinkedHashMap<>();
+            }
+            this.metaData.putAll(metaData);
+            return this;
+        }
+
+        /**
+         * Sets the key for the timestamp for the event. The default is {@code timestamp}.
+         *
+         * @param timestampKey the key name or {@code null} to revert to the default
+         *
+         * @return this builder
+         */
+        public Builder setTimestampKey(final String timestampKey) {
+            this.timestampKey = timestampKey;
+            return this;
+        }
+
+        /**
+         * Set the formatter used to format the timestamp on the event. The default is
+         * {@linkplain DateTimeFormatter#ISO_OFFSET_DATE_TIME ISO-8601}, which is the only format that is rendered
+         * once per second.
+         * <p>
+         * Note the {@linkplain #setZoneId(ZoneId) zone id} is {@linkplain DateTimeFormatter#withZone(ZoneId) zone id}
+         * on the formatter.
+         * </p>
+         *
+         * @param formatter the formatter to use or {@code null} to revert to the default.
+         *
+         * @return this builder
+         */
+        public Builder setTimestampFormatter(final DateTimeFormatter formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        /**
+         * Set the zone id for the timestamp. The default is {@link ZoneId#systemDefault()}.
+         *
+         * @param zoneId the zone id to use or {@code null} to revert to the default
+         *
+         * @return this builder
+         */
+        public Builder setZoneId(final ZoneId zoneId) {
+            this.zoneId = zoneId;
+            return this;
+        }
+
+        /**
+         * Sets whether or not the timestamp should be added to the output. The default is {@code true}. If set to
+         * {@code false} the {@linkplain #setZoneId(ZoneId) zone id} and
+         * {@linkplain #setTimestampFormatter(DateTimeFormatter) format} are ignored.
+         *
+         * @param includeTimestamp {@code true} to include the timestamp or {@code false} to leave the timestamp off
+         *
+         * @return this builder
+         */
+        public Builder setIncludeTimestamp(final boolean includeTimestamp) {
+            this.includeTimestamp = includeTimestamp;
+            return this;
+        }
+
+        /**
+         * Creates the {@link StreamingJsonEventFormatter}.
+         *
+         * @return the newly created formatter
+         */
+        public StreamingJsonEventFormatter build() {
+            final Map<String, Object> metaData = (this.metaData == null ? Collections.emptyMap() : new LinkedHashMap<>(this.metaData));
+            final String timestampKey = (this.timestampKey == null ? "timestamp" : this.timestampKey);
+            final boolean isoFormat = (this.formatter == null || this.formatter == DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            final DateTimeFormatter formatter = (this.formatter == null ? DateTimeFormatter.ISO_OFFSET_DATE_TIME : this.formatter);
+            final ZoneId zoneId = (this.zoneId == null ? ZoneId.systemDefault() : this.zoneId);
+            return new StreamingJsonEventFormatter(metaData, timestampKey, formatter.withZone(zoneId), isoFormat, includeTimestamp);
+        }
+    }
+}
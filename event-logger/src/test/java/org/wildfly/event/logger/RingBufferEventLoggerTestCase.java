@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the logger returned by {@link EventLogger#createAsyncLogger(String, EventWriter, java.util.concurrent.Executor, int, OverflowPolicy)}.
+ */
+@SuppressWarnings("MagicNumber")
+public class RingBufferEventLoggerTestCase extends AbstractEventLoggerTestCase {
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void shutdownExecutor() throws InterruptedException {
+        executor.shutdown();
+        Assert.assertTrue(String.format("Executed did not complete within %d seconds", TIMEOUT),
+                executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLogger() throws Exception {
+        final QueuedJsonWriter writer = new QueuedJsonWriter();
+        final BoundedEventLogger logger = EventLogger.createAsyncLogger("test-ring-buffer-logger", writer, executor, 1000, OverflowPolicy.BLOCK);
+        Assert.assertEquals(1024, logger.getCapacity());
+        testLogger(logger, writer);
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        final BlockingWriter writer = new BlockingWriter();
+        writer.release();
+        final BoundedEventLogger logger = EventLogger.createAsyncLogger("test-block", writer, executor, 16, OverflowPolicy.BLOCK);
+        for (int i = 0; i < 10000; i++) {
+            logger.log(Collections.singletonMap("count", i));
+        }
+        writer.awaitEvents(10000);
+        Assert.assertEquals(0L, logger.getDroppedEventCount());
+        for (Integer size : writer.batches) {
+            Assert.assertTrue("Batch larger than the capacity: " + size, size <= 16);
+        }
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        final BlockingWriter writer = new BlockingWriter();
+        final BoundedEventLogger logger = EventLogger.createAsyncLogger("test-drop", writer, executor, 8, OverflowPolicy.DROP);
+        logger.log(Collections.singletonMap("count", 0));
+        writer.awaitWriting();
+        for (int i = 1; i <= 13; i++) {
+            logger.log(Collections.singletonMap("count", i));
+        }
+        Assert.assertEquals(8, logger.getQueueDepth());
+        Assert.assertEquals(5L, logger.getDroppedEventCount());
+
+        writer.release();
+        writer.awaitEvents(9);
+        // The queued events are written as a single batch
+        Assert.assertEquals(2, writer.batches.size());
+        Assert.assertEquals(8, writer.batches.get(1).intValue());
+        Assert.assertEquals(0, logger.getQueueDepth());
+    }
+
+    @Test
+    public void testSample() throws Exception {
+        final BlockingWriter writer = new BlockingWriter();
+        final BoundedEventLogger logger = EventLogger.createAsyncLogger("test-sample", writer, executor, 16, OverflowPolicy.SAMPLE);
+        logger.log(Collections.singletonMap("count", 0));
+        writer.awaitWriting();
+        // Sampling starts once the queue is three quarters full
+        for (int i = 1; i <= 12; i++) {
+            logger.log(Collections.singletonMap("count", i));
+        }
+        Assert.assertEquals(0L, logger.getDroppedEventCount());
+        for (int i = 13; i <= 32; i++) {
+            logger.log(Collections.singletonMap("count", i));
+        }
+        Assert.assertEquals(14, logger.getQueueDepth());
+        Assert.assertEquals(18L, logger.getDroppedEventCount());
+
+        writer.release();
+        writer.awaitEvents(15);
+    }
+
+    private static class BlockingWriter implements EventWriter {
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger written = new AtomicInteger();
+        final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void write(final Event event) {
+            written.incrementAndGet();
+        }
+
+        @Override
+        public void writeBatch(final List<Event> events) {
+            batches.add(events.size());
+            writing.countDown();
+            try {
+                Assert.assertTrue("Writer was not released", release.await(TIMEOUT, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            EventWriter.super.writeBatch(events);
+        }
+
+        void awaitWriting() throws InterruptedException {
+            Assert.assertTrue("Writer was not called", writing.await(TIMEOUT, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            release.countDown();
+        }
+
+        void awaitEvents(final int count) throws InterruptedException {
+            final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+            while (written.get() < count) {
+                Assert.assertTrue(String.format("Expected %d events but %d were written", count, written.get()), System.nanoTime() < end);
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assert.assertEquals(count, written.get());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
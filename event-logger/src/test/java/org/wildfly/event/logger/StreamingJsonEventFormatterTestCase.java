@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * Copyright 2022 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.event.logger;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link StreamingJsonEventFormatter} produces the same output as the {@link JsonEventFormatter}.
+ */
+@SuppressWarnings("MagicNumber")
+public class StreamingJsonEventFormatterTestCase {
+
+    private static final Instant INSTANT = Instant.parse("2022-03-14T15:09:26.535897932Z");
+
+    @Test
+    public void testValues() {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("key", "value");
+        nested.put(7, 7L);
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("testNull", null);
+        data.put("testBoolean", true);
+        data.put("testString", "Test string");
+        data.put("testEscaped", "\"quoted\" \\ / \t\n\r\b\f \u0001 \u00e9");
+        data.put("testInt", 33);
+        data.put("testLong", 138L);
+        data.put("testDouble", 6.50d);
+        data.put("testLargeDouble", 1.0e20d);
+        data.put("testDecimal", new BigDecimal("33.50"));
+        data.put("testBigInt", new BigInteger("8675309"));
+        data.put("testCollection", Arrays.asList("a", 1, null, Collections.singletonList(false)));
+        data.put("testArray", new Object[] {"b", 2L});
+        data.put("testMap", nested);
+        data.put("testOther", ZoneOffset.UTC);
+        data.put("key \"escaped\"", "value");
+        assertSameOutput(StreamingJsonEventFormatter.builder().setZoneId(ZoneOffset.UTC).build(),
+                JsonEventFormatter.builder().setZoneId(ZoneOffset.UTC).build(), event(INSTANT, data));
+
+        Assert.assertEquals("{\"eventSource\":\"test\",\"testEscaped\":\"\\\"a\\\" \\\\ / \\t \\u0001 \\u001f\"}",
+                StreamingJsonEventFormatter.builder().setIncludeTimestamp(false).build()
+                        .format(event(INSTANT, Collections.singletonMap("testEscaped", "\"a\" \\ / \t \u0001 \u001f"))));
+    }
+
+    @Test
+    public void testMetaData() {
+        final Map<String, Object> data = new LinkedHashMap<>();
+        data.put("value", 1);
+        data.put("host", "event-host");
+        final StreamingJsonEventFormatter streaming = StreamingJsonEventFormatter.builder()
+                .setZoneId(ZoneOffset.UTC)
+                .addMetaData("host", "localhost")
+                .addMetaData("tags", Arrays.asList("a", "b"))
+                .build();
+        final JsonEventFormatter json = JsonEventFormatter.builder()
+                .setZoneId(ZoneOffset.UTC)
+                .addMetaData("host", "localhost")
+                .addMetaData("tags", Arrays.asList("a", "b"))
+                .build();
+        assertSameOutput(streaming, json, event(INSTANT, data));
+        assertSameOutput(streaming, json, event(INSTANT, Collections.emptyMap()));
+        // Data with the same key as the event source or timestamp replaces the value in place
+        assertSameOutput(streaming, json, event(INSTANT, Collections.singletonMap("eventSource", "replaced")));
+        assertSameOutput(streaming, json, event(INSTANT, Collections.singletonMap("timestamp", 0)));
+    }
+
+    @Test
+    public void testTimestamp() {
+        final ZoneId zoneId = ZoneId.of("America/New_York");
+        final StreamingJsonEventFormatter streaming = StreamingJsonEventFormatter.builder()
+                .setZoneId(zoneId)
+                .setTimestampKey("@timestamp")
+                .build();
+        final JsonEventFormatter json = JsonEventFormatter.builder()
+                .setZoneId(zoneId)
+                .setTimestampKey("@timestamp")
+                .build();
+        final long second = INSTANT.getEpochSecond();
+        for (int nano : new int[] {0, 1, 10, 100_000, 120_000_000, 535_897_932, 999_999_999}) {
+            // Twice each, so the second event uses the rendering cached for the first
+            assertSameOutput(streaming, json, event(Instant.ofEpochSecond(second, nano), Collections.emptyMap()));
+            assertSameOutput(streaming, json, event(Instant.ofEpochSecond(second, nano), Collections.emptyMap()));
+            assertSameOutput(streaming, json, event(Instant.ofEpochSecond(second + 1, nano), Collections.emptyMap()));
+        }
+        // Across a change of the offset
+        final Instant transition = Instant.parse("2022-03-13T07:00:00Z");
+        assertSameOutput(streaming, json, event(transition.minusNanos(1), Collections.emptyMap()));
+        assertSameOutput(streaming, json, event(transition, Collections.emptyMap()));
+
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        final StreamingJsonEventFormatter custom = StreamingJsonEventFormatter.builder()
+                .setZoneId(zoneId)
+                .setTimestampFormatter(formatter)
+                .build();
+        Assert.assertEquals("{\"eventSource\":\"test\",\"timestamp\":\"2022-03-14 11:09:26.535\"}",
+                custom.format(event(INSTANT, Collections.emptyMap())));
+        Assert.assertEquals("{\"eventSource\":\"test\",\"timestamp\":\"2022-03-14 11:09:26.535\"}",
+                custom.format(event(INSTANT, Collections.emptyMap())));
+    }
+
+    @Test
+    public void testFormatTo() {
+        final StreamingJsonEventFormatter formatter = StreamingJsonEventFormatter.builder().setIncludeTimestamp(false).build();
+        final StringBuilder builder = new StringBuilder("[");
+        formatter.formatTo(event(INSTANT, Collections.singletonMap("count", 1)), builder);
+        builder.append(',');
+        formatter.formatTo(event(INSTANT, Collections.singletonMap("count", 2)), builder);
+        builder.append(']');
+        Assert.assertEquals("[{\"eventSource\":\"test\",\"count\":1},{\"eventSource\":\"test\",\"count\":2}]", builder.toString());
+    }
+
+    private static void assertSameOutput(final StreamingJsonEventFormatter streaming, final JsonEventFormatter json, final Event event) {
+        final String expected = json.format(event);
+        Assert.assertEquals(expected, streaming.format(event));
+        final StringBuilder builder = new StringBuilder();
+        streaming.formatTo(event, builder);
+        Assert.assertEquals(expected, builder.toString());
+    }
+
+    private static Event event(final Instant instant, final Map<String, Object> data) {
+        return new Event() {
+            @Override
+            public String getSource() {
+                return "test";
+            }
+
+            @Override
+            public Instant getInstant() {
+                return instant;
+            }
+
+            @Override
+            public Map<String, Object> getData() {
+                return data;
+            }
+        };
+    }
+}
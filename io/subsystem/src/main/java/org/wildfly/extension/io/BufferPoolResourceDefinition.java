@@ -39,22 +39,31 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StopContext;
+import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.Pool;
 
 /**
@@ -109,6 +118,48 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
             .setAllowExpression(true)
             .build();
+    static final SimpleAttributeDefinition SIZING = new SimpleAttributeDefinitionBuilder(Constants.SIZING, ModelType.STRING, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(Constants.SIZING_DEFAULT))
+            .setValidator(new StringAllowedValuesValidator(Constants.SIZING_DEFAULT, Constants.SIZING_AUTO))
+            .build();
+    static final SimpleAttributeDefinition LEAK_DETECTION_SAMPLING_RATE = new SimpleAttributeDefinitionBuilder(Constants.LEAK_DETECTION_SAMPLING_RATE, ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.ZERO)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .build();
+    static final SimpleAttributeDefinition LEAK_DETECTION_THRESHOLD = new SimpleAttributeDefinitionBuilder(Constants.LEAK_DETECTION_THRESHOLD, ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(60_000L))
+            .setValidator(new LongRangeValidator(1L, Long.MAX_VALUE, true, true))
+            .build();
+
+    private static final AttributeDefinition ALLOCATED_SLICES = new SimpleAttributeDefinitionBuilder("allocated-slices", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition IN_USE_BUFFERS = new SimpleAttributeDefinitionBuilder("in-use-buffers", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition PEAK_IN_USE_BUFFERS = new SimpleAttributeDefinitionBuilder("peak-in-use-buffers", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition ALLOCATION_FAILURES = new SimpleAttributeDefinitionBuilder("allocation-failures", ModelType.LONG).setStorageRuntime().build();
+    private static final AttributeDefinition DIRECT_MEMORY_USED = new SimpleAttributeDefinitionBuilder("direct-memory-used", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+    private static final AttributeDefinition EFFECTIVE_BUFFER_SIZE = new SimpleAttributeDefinitionBuilder("effective-buffer-size", ModelType.INT)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+    private static final AttributeDefinition EFFECTIVE_BUFFERS_PER_SLICE = new SimpleAttributeDefinitionBuilder("effective-buffers-per-slice", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition EFFECTIVE_DIRECT_BUFFERS = new SimpleAttributeDefinitionBuilder("effective-direct-buffers", ModelType.BOOLEAN).setStorageRuntime().build();
+    private static final AttributeDefinition LEAK_SUSPECTS = new SimpleAttributeDefinitionBuilder("leak-suspects", ModelType.INT).setStorageRuntime().build();
+
+    private static final OperationDefinition LIST_LEAK_SUSPECTS = new SimpleOperationDefinitionBuilder("list-leak-suspects", IOExtension.getResolver(Constants.BUFFER_POOL))
+            .setReadOnly()
+            .setRuntimeOnly()
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .build();
 
 
     /*<buffer-pool name="default" buffer-size="1024" buffers-per-slice="1024"/>*/
@@ -116,7 +167,10 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
     static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             BUFFER_SIZE,
             BUFFER_PER_SLICE,
-            DIRECT_BUFFERS
+            DIRECT_BUFFERS,
+            SIZING,
+            LEAK_DETECTION_SAMPLING_RATE,
+            LEAK_DETECTION_THRESHOLD
     );
 
 
@@ -140,6 +194,99 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         return (Collection) ATTRIBUTES;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerReadOnlyAttribute(EFFECTIVE_BUFFER_SIZE, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.getBufferSize());
+            }
+        });
+        resourceRegistration.registerReadOnlyAttribute(EFFECTIVE_BUFFERS_PER_SLICE, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.getBuffersPerSlice());
+            }
+        });
+        resourceRegistration.registerReadOnlyAttribute(EFFECTIVE_DIRECT_BUFFERS, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.isDirectBuffers());
+            }
+        });
+        resourceRegistration.registerMetric(ALLOCATED_SLICES, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.getAllocatedSlices());
+            }
+        });
+        resourceRegistration.registerMetric(IN_USE_BUFFERS, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return pool.isLeakDetectionEnabled() ? new ModelNode(pool.getInUseBuffers()) : new ModelNode();
+            }
+        });
+        resourceRegistration.registerMetric(PEAK_IN_USE_BUFFERS, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return pool.isLeakDetectionEnabled() ? new ModelNode(pool.getPeakInUseBuffers()) : new ModelNode();
+            }
+        });
+        resourceRegistration.registerMetric(ALLOCATION_FAILURES, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.getAllocationFailures());
+            }
+        });
+        resourceRegistration.registerMetric(DIRECT_MEMORY_USED, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return new ModelNode(pool.getDirectMemoryUsed());
+            }
+        });
+        resourceRegistration.registerMetric(LEAK_SUSPECTS, new BufferPoolMetricsHandler() {
+            @Override
+            ModelNode getMetricValue(InstrumentedBufferPool pool) {
+                return pool.isLeakDetectionEnabled() ? new ModelNode(pool.getLeakSuspectCount()) : new ModelNode();
+            }
+        });
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(LIST_LEAK_SUSPECTS, (context, operation) -> context.addStep((ctx, op) -> {
+            InstrumentedBufferPool pool = getBufferPool(ctx);
+            ctx.getResult().set(pool != null ? pool.getLeakSuspects() : new ModelNode().setEmptyList());
+        }, OperationContext.Stage.RUNTIME));
+    }
+
+    private static InstrumentedBufferPool getBufferPool(OperationContext context) {
+        ServiceName serviceName = IO_POOL_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddress());
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        Object pool = controller.getValue();
+        return pool instanceof InstrumentedBufferPool ? (InstrumentedBufferPool) pool : null;
+    }
+
+    private abstract static class BufferPoolMetricsHandler implements OperationStepHandler {
+
+        abstract ModelNode getMetricValue(InstrumentedBufferPool pool);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            InstrumentedBufferPool pool = getBufferPool(context);
+            if (pool == null) {
+                context.getResult().set(IOExtension.NO_METRICS);
+                return;
+            }
+            context.getResult().set(getMetricValue(pool));
+        }
+    }
+
     private static class BufferPoolAdd extends AbstractAddStepHandler {
 
         private BufferPoolAdd() {
@@ -153,13 +300,26 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             final ModelNode bufferPerSliceModel = BUFFER_PER_SLICE.resolveModelAttribute(context, model);
             final ModelNode directModel = DIRECT_BUFFERS.resolveModelAttribute(context, model);
 
-            final int bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : defaultBufferSize;
-            final int bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : defaultBuffersPerRegion;
-            final boolean direct = directModel.isDefined() ? directModel.asBoolean() : defaultDirectBuffers;
+            final int bufferSize;
+            final int bufferPerSlice;
+            final boolean direct;
+            if (Constants.SIZING_AUTO.equals(SIZING.resolveModelAttribute(context, model).asString())) {
+                final AutoSizing sizing = new AutoSizing(Runtime.getRuntime().maxMemory(), ResourceLimits.getInstance().getMemoryLimit());
+                bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : sizing.bufferSize;
+                bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : sizing.buffersPerSlice;
+                direct = directModel.isDefined() ? directModel.asBoolean() : sizing.directBuffers;
+                IOLogger.ROOT_LOGGER.printBufferPoolDefaults(address.getLastElement().getValue(), bufferSize, bufferPerSlice, direct);
+            } else {
+                bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : defaultBufferSize;
+                bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : defaultBuffersPerRegion;
+                direct = directModel.isDefined() ? directModel.asBoolean() : defaultDirectBuffers;
+            }
+            final int leakDetectionSamplingRate = LEAK_DETECTION_SAMPLING_RATE.resolveModelAttribute(context, model).asInt();
+            final long leakDetectionThreshold = LEAK_DETECTION_THRESHOLD.resolveModelAttribute(context, model).asLong();
 
             CapabilityServiceBuilder<?> builder = context.getCapabilityServiceTarget().addCapability(IO_POOL_RUNTIME_CAPABILITY);
             final Consumer<Pool<ByteBuffer>> byteBufferConsumer = builder.provides(IO_POOL_RUNTIME_CAPABILITY);
-            builder.setInstance(new BufferPoolService(byteBufferConsumer, bufferSize, bufferPerSlice, direct));
+            builder.setInstance(new BufferPoolService(byteBufferConsumer, bufferSize, bufferPerSlice, direct, leakDetectionSamplingRate, leakDetectionThreshold));
             builder.setInitialMode(ServiceController.Mode.ON_DEMAND);
             builder.install();
 
@@ -172,6 +332,45 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
+    /**
+     * Buffer pool settings chosen from the memory limit of the process. Direct buffers are only used if the limit
+     * leaves at least 64MB outside of the heap, and the buffer size is chosen from the memory the buffers will be
+     * allocated from, using the same thresholds as the default settings.
+     */
+    static final class AutoSizing {
+        private static final long MIN_MEMORY = 64 * 1024 * 1024;
+
+        final int bufferSize;
+        final int buffersPerSlice;
+        final boolean directBuffers;
+
+        /**
+         * @param maxHeap the maximum heap size in bytes
+         * @param memoryLimit the memory limit of the process in bytes, or {@code -1} if there is none
+         */
+        AutoSizing(long maxHeap, long memoryLimit) {
+            final long memory;
+            if (memoryLimit < 0) {
+                memory = maxHeap;
+                directBuffers = maxHeap >= MIN_MEMORY;
+            } else {
+                final long nonHeap = memoryLimit - Math.min(maxHeap, memoryLimit);
+                directBuffers = nonHeap >= MIN_MEMORY;
+                memory = directBuffers ? nonHeap : Math.min(maxHeap, memoryLimit);
+            }
+            if (memory < MIN_MEMORY) {
+                bufferSize = 512;
+                buffersPerSlice = 10;
+            } else if (memory < 2 * MIN_MEMORY) {
+                bufferSize = 1024;
+                buffersPerSlice = 10;
+            } else {
+                bufferSize = 1024 * 16;
+                buffersPerSlice = 20;
+            }
+        }
+    }
+
     private static final class ByteBufferPoolService implements Service<ByteBufferPool> {
         private final Consumer<ByteBufferPool> poolConsumer;
         private final Supplier<Pool> poolSupplier;
@@ -30,8 +30,6 @@ import java.util.function.Consumer;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StopContext;
-import org.xnio.BufferAllocator;
-import org.xnio.ByteBufferSlicePool;
 import org.xnio.Pool;
 
 /**
@@ -41,29 +39,38 @@ import org.xnio.Pool;
  */
 public class BufferPoolService implements Service<Pool<ByteBuffer>> {
     private final Consumer<Pool<ByteBuffer>> byteBufferConsumer;
-    private volatile Pool<ByteBuffer> bufferPool;
+    private volatile InstrumentedBufferPool bufferPool;
     /*<buffer-pool name="default" buffer-size="2048" buffers-per-slice="512"/>*/
     private final int bufferSize;
     private final int buffersPerSlice;
     private final boolean directBuffers;
+    private final int leakDetectionSamplingRate;
+    private final long leakDetectionThreshold;
 
     public BufferPoolService(final Consumer<Pool<ByteBuffer>> byteBufferConsumer, final int bufferSize, final int buffersPerSlice, final boolean directBuffers) {
+        this(byteBufferConsumer, bufferSize, buffersPerSlice, directBuffers, 0, 0);
+    }
+
+    public BufferPoolService(final Consumer<Pool<ByteBuffer>> byteBufferConsumer, final int bufferSize, final int buffersPerSlice, final boolean directBuffers,
+                             final int leakDetectionSamplingRate, final long leakDetectionThreshold) {
         this.byteBufferConsumer = byteBufferConsumer;
         this.bufferSize = bufferSize;
         this.buffersPerSlice = buffersPerSlice;
         this.directBuffers = directBuffers;
+        this.leakDetectionSamplingRate = leakDetectionSamplingRate;
+        this.leakDetectionThreshold = leakDetectionThreshold;
     }
 
     @Override
     public void start(final StartContext context) {
-        bufferPool = new ByteBufferSlicePool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, buffersPerSlice * bufferSize);
+        bufferPool = new InstrumentedBufferPool(bufferSize, buffersPerSlice, directBuffers, leakDetectionSamplingRate, leakDetectionThreshold);
         byteBufferConsumer.accept(bufferPool);
     }
 
     @Override
     public void stop(final StopContext context) {
         byteBufferConsumer.accept(null);
-        ((ByteBufferSlicePool) bufferPool).clean();
+        bufferPool.clean();
         bufferPool = null;
     }
 
@@ -45,7 +45,7 @@ import org.wildfly.extension.io.logging.IOLogger;
 public class IOExtension implements Extension {
 
     public static final String SUBSYSTEM_NAME = "io";
-    static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(5);
+    static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(6);
     protected static final PathElement SUBSYSTEM_PATH = PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME);
     protected static final PathElement BUFFER_POOL_PATH = PathElement.pathElement(Constants.BUFFER_POOL);
     protected static final PathElement WORKER_PATH = PathElement.pathElement(Constants.WORKER);
@@ -67,6 +67,7 @@ public class IOExtension implements Extension {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.IO_1_1.getUriString(), IOSubsystemParser_1_1::new);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.IO_2_0.getUriString(), IOSubsystemParser_2_0::new);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.IO_3_0.getUriString(), new IOSubsystemParser_3_0());
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.IO_4_0.getUriString(), new IOSubsystemParser_4_0());
     }
 
     @Override
@@ -74,7 +75,7 @@ public class IOExtension implements Extension {
         final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, CURRENT_MODEL_VERSION);
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(IORootDefinition.INSTANCE);
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE, false);
-        subsystem.registerXMLElementWriter(new IOSubsystemParser_3_0());
+        subsystem.registerXMLElementWriter(new IOSubsystemParser_4_0());
     }
 
 
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import static org.jboss.as.controller.PersistentResourceXMLDescription.builder;
+
+import org.jboss.as.controller.PersistentResourceXMLDescription;
+import org.jboss.as.controller.PersistentResourceXMLParser;
+
+/**
+ * Parser and marshaller for the {@code urn:jboss:domain:io:4.0} namespace, which adds the sizing attribute of workers
+ * and buffer pools, and the leak detection attributes of buffer pools.
+ */
+class IOSubsystemParser_4_0 extends PersistentResourceXMLParser {
+
+    @Override
+    public PersistentResourceXMLDescription getParserDescription() {
+        return builder(IORootDefinition.INSTANCE.getPathElement(), Namespace.IO_4_0.getUriString())
+                .addChild(
+                        builder(WorkerResourceDefinition.INSTANCE.getPathElement())
+                                .addAttributes(
+                                        WorkerResourceDefinition.WORKER_IO_THREADS,
+                                        WorkerResourceDefinition.WORKER_TASK_KEEPALIVE,
+                                        WorkerResourceDefinition.WORKER_TASK_CORE_THREADS,
+                                        WorkerResourceDefinition.WORKER_TASK_MAX_THREADS,
+                                        WorkerResourceDefinition.STACK_SIZE,
+                                        WorkerResourceDefinition.SIZING)
+                                .addChild(
+                                        builder(OutboundBindAddressResourceDefinition.getInstance().getPathElement())
+                                                .addAttributes(
+                                                        OutboundBindAddressResourceDefinition.MATCH,
+                                                        OutboundBindAddressResourceDefinition.BIND_ADDRESS,
+                                                        OutboundBindAddressResourceDefinition.BIND_PORT
+                                                )
+                                )
+                )
+                .addChild(
+                        builder(BufferPoolResourceDefinition.INSTANCE.getPathElement())
+                                .addAttributes(BufferPoolResourceDefinition.BUFFER_SIZE,
+                                        BufferPoolResourceDefinition.BUFFER_PER_SLICE,
+                                        BufferPoolResourceDefinition.DIRECT_BUFFERS,
+                                        BufferPoolResourceDefinition.SIZING,
+                                        BufferPoolResourceDefinition.LEAK_DETECTION_SAMPLING_RATE,
+                                        BufferPoolResourceDefinition.LEAK_DETECTION_THRESHOLD)
+                )
+                .build();
+    }
+}
+
@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * A {@link ByteBufferSlicePool} that keeps track of how its buffers are used.
+ * <p>
+ * If leak detection is enabled one in every {@code samplingRate} allocations records the stack of the allocating
+ * thread. A sampled buffer that has not been freed or discarded after {@code leakThreshold} milliseconds is reported
+ * as a leak suspect. The buffers are wrapped to count the ones in use, and the peak count is updated on the sampled
+ * allocations and when it is read.
+ * <p>
+ * If leak detection is disabled the buffers of the underlying pool are handed out as they are, so allocating costs no
+ * more than it does without instrumentation, and the number of buffers in use is not known.
+ */
+final class InstrumentedBufferPool implements Pool<ByteBuffer> {
+
+    static final String AGE = "age";
+    static final String ALLOCATION_SITE = "allocation-site";
+    static final String THREAD = "thread";
+
+    /** The maximum number of sampled buffers tracked at once, so that a leak cannot grow the tracking without bound. */
+    static final int MAX_TRACKED_BUFFERS = 1024;
+
+    private final ByteBufferSlicePool delegate;
+    private final int bufferSize;
+    private final int buffersPerSlice;
+    private final boolean directBuffers;
+    private final int samplingRate;
+    private final long leakThreshold;
+
+    private final AtomicInteger allocatedSlices = new AtomicInteger();
+    private final LongAdder inUse = new LongAdder();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final LongAdder allocationFailures = new LongAdder();
+    private final AtomicInteger allocations = new AtomicInteger();
+    private final Set<TrackedBuffer> sampled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong allocatedMemory = new AtomicLong();
+
+    /**
+     * @param bufferSize the size of each buffer
+     * @param buffersPerSlice the number of buffers in each slice allocated by the pool
+     * @param directBuffers if the pool allocates direct buffers
+     * @param samplingRate one in this many allocations is tracked by the leak detector, or {@code 0} to disable it
+     * @param leakThreshold the time in milliseconds after which a tracked buffer that has not been returned is a leak suspect
+     */
+    InstrumentedBufferPool(final int bufferSize, final int buffersPerSlice, final boolean directBuffers, final int samplingRate, final long leakThreshold) {
+        final BufferAllocator<ByteBuffer> allocator = directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR;
+        this.delegate = new ByteBufferSlicePool(size -> {
+            final ByteBuffer slice = allocator.allocate(size);
+            allocatedSlices.incrementAndGet();
+            allocatedMemory.addAndGet(size);
+            return slice;
+        }, bufferSize, buffersPerSlice * bufferSize);
+        this.bufferSize = bufferSize;
+        this.buffersPerSlice = buffersPerSlice;
+        this.directBuffers = directBuffers;
+        this.samplingRate = samplingRate;
+        this.leakThreshold = leakThreshold;
+    }
+
+    @Override
+    public Pooled<ByteBuffer> allocate() {
+        final Pooled<ByteBuffer> pooled;
+        try {
+            pooled = delegate.allocate();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            allocationFailures.increment();
+            throw e;
+        }
+        if (samplingRate == 0) {
+            return pooled;
+        }
+        inUse.increment();
+        if (allocations.incrementAndGet() % samplingRate == 0) {
+            updatePeakInUse();
+            if (sampled.size() < MAX_TRACKED_BUFFERS) {
+                final TrackedBuffer tracked = new TrackedBuffer(this, pooled, new Throwable(), Thread.currentThread().getName());
+                sampled.add(tracked);
+                return tracked;
+            }
+        }
+        return new TrackedBuffer(this, pooled, null, null);
+    }
+
+    private int updatePeakInUse() {
+        final int current = (int) inUse.sum();
+        int peak;
+        while (current > (peak = peakInUse.get())) {
+            if (peakInUse.compareAndSet(peak, current)) {
+                return current;
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Frees the memory held by the pool. Buffers still in use are not affected.
+     */
+    void clean() {
+        delegate.clean();
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    int getBuffersPerSlice() {
+        return buffersPerSlice;
+    }
+
+    boolean isDirectBuffers() {
+        return directBuffers;
+    }
+
+    int getAllocatedSlices() {
+        return allocatedSlices.get();
+    }
+
+    /**
+     * @return the number of buffers in use, which is only counted if leak detection is enabled
+     */
+    int getInUseBuffers() {
+        return (int) inUse.sum();
+    }
+
+    /**
+     * @return the highest number of buffers in use seen by a sampled allocation or by a call to this method, which is
+     * only counted if leak detection is enabled
+     */
+    int getPeakInUseBuffers() {
+        return updatePeakInUse();
+    }
+
+    long getAllocationFailures() {
+        return allocationFailures.sum();
+    }
+
+    /**
+     * @return the number of bytes of direct memory allocated for the slices of this pool
+     */
+    long getDirectMemoryUsed() {
+        return directBuffers ? allocatedMemory.get() : 0;
+    }
+
+    boolean isLeakDetectionEnabled() {
+        return samplingRate > 0;
+    }
+
+    int getLeakSuspectCount() {
+        final long now = System.nanoTime();
+        int count = 0;
+        for (TrackedBuffer tracked : sampled) {
+            if (tracked.isSuspect(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return a description of each leak suspect, with its age in milliseconds, the name of the allocating thread and
+     * the allocation stack
+     */
+    ModelNode getLeakSuspects() {
+        final long now = System.nanoTime();
+        final List<TrackedBuffer> suspects = new ArrayList<>();
+        for (TrackedBuffer tracked : sampled) {
+            if (tracked.isSuspect(now)) {
+                suspects.add(tracked);
+            }
+        }
+        suspects.sort((a, b) -> Long.compare(a.allocationTime, b.allocationTime));
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (TrackedBuffer tracked : suspects) {
+            final ModelNode suspect = result.add();
+            suspect.get(AGE).set(TimeUnit.NANOSECONDS.toMillis(now - tracked.allocationTime));
+            suspect.get(THREAD).set(tracked.thread);
+            final ModelNode site = suspect.get(ALLOCATION_SITE).setEmptyList();
+            final StackTraceElement[] stack = tracked.allocationSite.getStackTrace();
+            // The first frame is our own allocate method
+            for (int i = 1; i < stack.length; i++) {
+                site.add(stack[i].toString());
+            }
+        }
+        return result;
+    }
+
+    private static final class TrackedBuffer implements Pooled<ByteBuffer> {
+
+        private static final AtomicIntegerFieldUpdater<TrackedBuffer> returnedUpdater = AtomicIntegerFieldUpdater.newUpdater(TrackedBuffer.class, "returned");
+
+        private final InstrumentedBufferPool pool;
+        private final Pooled<ByteBuffer> pooled;
+        private final Throwable allocationSite;
+        private final String thread;
+        private final long allocationTime;
+        @SuppressWarnings("unused")
+        private volatile int returned;
+
+        private TrackedBuffer(final InstrumentedBufferPool pool, final Pooled<ByteBuffer> pooled, final Throwable allocationSite, final String thread) {
+            this.pool = pool;
+            this.pooled = pooled;
+            this.allocationSite = allocationSite;
+            this.thread = thread;
+            this.allocationTime = allocationSite != null ? System.nanoTime() : 0;
+        }
+
+        boolean isSuspect(final long now) {
+            return returned == 0 && now - allocationTime > TimeUnit.MILLISECONDS.toNanos(pool.leakThreshold);
+        }
+
+        @Override
+        public void discard() {
+            if (returnedUpdater.compareAndSet(this, 0, 1)) {
+                returned();
+            }
+            pooled.discard();
+        }
+
+        @Override
+        public void free() {
+            if (returnedUpdater.compareAndSet(this, 0, 1)) {
+                returned();
+            }
+            pooled.free();
+        }
+
+        @Override
+        public ByteBuffer getResource() throws IllegalStateException {
+            return pooled.getResource();
+        }
+
+        @Override
+        public void close() {
+            free();
+        }
+
+        private void returned() {
+            pool.inUse.decrement();
+            if (allocationSite != null) {
+                pool.sampled.remove(this);
+            }
+        }
+    }
+}
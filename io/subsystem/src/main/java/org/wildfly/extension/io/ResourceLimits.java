@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.wildfly.common.cpu.ProcessorInfo;
+import org.wildfly.extension.io.logging.IOLogger;
+
+/**
+ * The processor and memory resources available to the process, taking the limits of its control group into account.
+ * <p>
+ * Both version 1 and version 2 control group hierarchies are supported. The limits are read from the root of the
+ * hierarchy as seen by the process, which in a container is the control group of the container. On systems without
+ * control groups only the processors available to the JVM are taken into account and the memory is unlimited.
+ */
+final class ResourceLimits {
+
+    /** Version 1 reports an unlimited memory limit as a page aligned value close to {@code Long.MAX_VALUE}. */
+    private static final long UNLIMITED_MEMORY = Long.MAX_VALUE / 2;
+
+    private static volatile ResourceLimits instance;
+
+    private final int processors;
+    private final long memoryLimit;
+    private final int sockets;
+
+    ResourceLimits(final Path sys, final int availableProcessors) {
+        final Path cgroup = sys.resolve("fs").resolve("cgroup");
+        final long quota;
+        final long period;
+        final long memory;
+        final String cpuMax = readFirstLine(cgroup.resolve("cpu.max"));
+        if (cpuMax != null) {
+            // cgroup v2, "<quota> <period>" where the quota may be "max"
+            final String[] values = cpuMax.split("\\s+");
+            quota = parseLimit(values[0]);
+            period = values.length > 1 ? parseLimit(values[1]) : -1;
+            memory = parseLimit(readFirstLine(cgroup.resolve("memory.max")));
+        } else {
+            quota = parseLimit(readFirstLine(cgroup.resolve("cpu").resolve("cpu.cfs_quota_us")));
+            period = parseLimit(readFirstLine(cgroup.resolve("cpu").resolve("cpu.cfs_period_us")));
+            memory = parseLimit(readFirstLine(cgroup.resolve("memory").resolve("memory.limit_in_bytes")));
+        }
+        if (quota > 0 && period > 0) {
+            this.processors = (int) Math.max(1, Math.min(availableProcessors, (quota + period - 1) / period));
+        } else {
+            this.processors = availableProcessors;
+        }
+        this.memoryLimit = memory > 0 && memory < UNLIMITED_MEMORY ? memory : -1;
+        this.sockets = countSockets(sys.resolve("devices").resolve("system").resolve("cpu"));
+    }
+
+    /**
+     * Gets the limits of this process. They are only read once.
+     *
+     * @return the limits. Will not return {@code null}
+     */
+    static ResourceLimits getInstance() {
+        ResourceLimits limits = instance;
+        if (limits == null) {
+            limits = new ResourceLimits(Paths.get("/sys"), ProcessorInfo.availableProcessors());
+            IOLogger.ROOT_LOGGER.tracef("Detected %d processors in %d sockets and a memory limit of %d bytes", limits.processors, limits.sockets, limits.memoryLimit);
+            instance = limits;
+        }
+        return limits;
+    }
+
+    /**
+     * @return the number of processors available to the JVM, reduced to the CPU quota of the control group if it has one
+     */
+    int getProcessors() {
+        return processors;
+    }
+
+    /**
+     * @return the memory limit of the control group in bytes, or {@code -1} if it is unlimited or unknown
+     */
+    long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * @return the number of processor sockets of the machine, or {@code 1} if it cannot be determined
+     */
+    int getSockets() {
+        return sockets;
+    }
+
+    private static int countSockets(final Path cpus) {
+        final Set<String> packages = new HashSet<>();
+        if (Files.isDirectory(cpus)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(cpus, "cpu[0-9]*")) {
+                for (Path cpu : stream) {
+                    final String id = readFirstLine(cpu.resolve("topology").resolve("physical_package_id"));
+                    if (id != null) {
+                        packages.add(id);
+                    }
+                }
+            } catch (IOException e) {
+                IOLogger.ROOT_LOGGER.tracef(e, "Cannot read the processor topology from %s", cpus);
+            }
+        }
+        return Math.max(1, packages.size());
+    }
+
+    private static long parseLimit(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            // "max" or something we don't understand
+            return -1;
+        }
+    }
+
+    private static String readFirstLine(final Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : lines.get(0).trim();
+        } catch (IOException e) {
+            IOLogger.ROOT_LOGGER.tracef(e, "Cannot read %s", file);
+            return null;
+        }
+    }
+}
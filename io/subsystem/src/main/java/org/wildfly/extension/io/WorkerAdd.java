@@ -26,8 +26,9 @@ package org.wildfly.extension.io;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
-import static org.wildfly.extension.io.WorkerResourceDefinition.ATTRIBUTES;
 import static org.wildfly.extension.io.WorkerResourceDefinition.IO_WORKER_RUNTIME_CAPABILITY;
+import static org.wildfly.extension.io.WorkerResourceDefinition.SIZING;
+import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_ATTRIBUTES;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_IO_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_CORE_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_MAX_THREADS;
@@ -66,8 +67,11 @@ import org.xnio.XnioWorker;
 class WorkerAdd extends AbstractAddStepHandler {
     static final WorkerAdd INSTANCE = new WorkerAdd();
 
+    /** The usual default thread stack size of 64-bit JVMs, used if the worker does not set a stack size. */
+    private static final long DEFAULT_STACK_SIZE = 1024 * 1024;
+
     private WorkerAdd() {
-        super(ATTRIBUTES);
+        super(WORKER_ATTRIBUTES);
     }
 
     private static int getMaxDescriptorCount() {
@@ -85,24 +89,48 @@ class WorkerAdd extends AbstractAddStepHandler {
         IOLogger.ROOT_LOGGER.tracef("We cannot get MaxFileDescriptorCount from system, not applying any limits");
         return -1;
     }
-    private static int getCpuCount(){
-        return ProcessorInfo.availableProcessors();
+    private static int getCpuCount(boolean autoSizing){
+        return autoSizing ? ResourceLimits.getInstance().getProcessors() : ProcessorInfo.availableProcessors();
     }
 
     private static int getMaxPossibleThreadCount(int maxFD) {
         return (maxFD - 600) / 3; //each thread uses two FDs + some overhead;
     }
 
-    private static int getSuggestedTaskCount() {
-        return getCpuCount() * 16;
+    private static int getSuggestedTaskCount(boolean autoSizing, long stackSize) {
+        int count = getCpuCount(autoSizing) * 16;
+        if (autoSizing) {
+            count = Math.min(count, getMaxThreadCountForMemory(stackSize));
+        }
+        return count;
+    }
+
+    private static int getSuggestedIoThreadCount(boolean autoSizing) {
+        int count = getCpuCount(autoSizing) * 2;
+        if (autoSizing) {
+            // round up so that the IO threads can be spread evenly across the sockets
+            int sockets = ResourceLimits.getInstance().getSockets();
+            count = ((count + sockets - 1) / sockets) * sockets;
+        }
+        return count;
     }
 
-    private static int getSuggestedIoThreadCount() {
-        return getCpuCount() * 2;
+    /**
+     * Gets the number of threads whose stacks fit in half of the memory that the memory limit leaves to everything but
+     * the heap, assuming at least an eighth of the limit is available.
+     */
+    private static int getMaxThreadCountForMemory(long stackSize) {
+        long limit = ResourceLimits.getInstance().getMemoryLimit();
+        if (limit < 0) {
+            return Integer.MAX_VALUE;
+        }
+        long nonHeap = Math.max(limit - Runtime.getRuntime().maxMemory(), limit / 8);
+        long threads = nonHeap / 2 / (stackSize > 0 ? stackSize : DEFAULT_STACK_SIZE);
+        return (int) Math.max(5, Math.min(Integer.MAX_VALUE, threads));
     }
 
-    private static int getWorkerThreads(String workerName, int totalWorkerCount) {
-        int suggestedCount = getSuggestedTaskCount();
+    private static int getWorkerThreads(String workerName, int totalWorkerCount, boolean autoSizing, long stackSize) {
+        int suggestedCount = getSuggestedTaskCount(autoSizing, stackSize);
         int count = suggestedCount;
         int maxFD = getMaxDescriptorCount();
         if (maxFD > -1) {
@@ -112,7 +140,7 @@ class WorkerAdd extends AbstractAddStepHandler {
                 count = 5;
             } else if (maxPossible < suggestedCount) {
                 count = maxPossible;
-                IOLogger.ROOT_LOGGER.lowFD(workerName, suggestedCount, getCpuCount());
+                IOLogger.ROOT_LOGGER.lowFD(workerName, suggestedCount, getCpuCount(autoSizing));
             }
         }
         return count;
@@ -127,20 +155,25 @@ class WorkerAdd extends AbstractAddStepHandler {
             ModelNode worker = property.getValue();
             ModelNode ioThreadsModel = WORKER_IO_THREADS.resolveModelAttribute(context, worker);
             ModelNode maxTaskThreadsModel = WORKER_TASK_MAX_THREADS.resolveModelAttribute(context, worker);
+            boolean autoSizing = isAutoSizing(context, worker);
             if (ioThreadsModel.isDefined()) {
                 count += ioThreadsModel.asInt();
             } else {
-                count += getSuggestedIoThreadCount();
+                count += getSuggestedIoThreadCount(autoSizing);
             }
             if (maxTaskThreadsModel.isDefined()) {
                 count += maxTaskThreadsModel.asInt();
             } else {
-                count += getSuggestedTaskCount();
+                count += getSuggestedTaskCount(autoSizing, STACK_SIZE.resolveModelAttribute(context, worker).asLong());
             }
         }
         return count;
     }
 
+    private static boolean isAutoSizing(final OperationContext context, final ModelNode worker) throws OperationFailedException {
+        return Constants.SIZING_AUTO.equals(SIZING.resolveModelAttribute(context, worker).asString());
+    }
+
     static void checkWorkerConfiguration(final OperationContext context, final ModelNode workers) throws OperationFailedException {
         IOLogger.ROOT_LOGGER.trace("Checking worker configuration");
         int requiredCount = getGlobalSuggestedCount(context, workers);
@@ -199,12 +232,13 @@ class WorkerAdd extends AbstractAddStepHandler {
         ModelNode ioThreadsModel = WORKER_IO_THREADS.resolveModelAttribute(context, model);
         ModelNode coreTaskThreadsModel = WORKER_TASK_CORE_THREADS.resolveModelAttribute(context, model);
         ModelNode maxTaskThreadsModel = WORKER_TASK_MAX_THREADS.resolveModelAttribute(context, model);
-        int cpuCount = getCpuCount();
-        int ioThreadsCalculated = getSuggestedIoThreadCount();
+        boolean autoSizing = isAutoSizing(context, model);
+        int cpuCount = getCpuCount(autoSizing);
+        int ioThreadsCalculated = getSuggestedIoThreadCount(autoSizing);
         int workerThreads = builder.getMaxWorkerPoolSize();
         int coreWorkerThreads = coreTaskThreadsModel.asInt();
         if (!ioThreadsModel.isDefined() && !maxTaskThreadsModel.isDefined()) {
-            workerThreads = getWorkerThreads(name, allWorkerCount);
+            workerThreads = getWorkerThreads(name, allWorkerCount, autoSizing, val.asLong());
             builder.setWorkerIoThreads(ioThreadsCalculated);
             builder.setCoreWorkerPoolSize(coreWorkerThreads);
             builder.setMaxWorkerPoolSize(workerThreads);
@@ -215,7 +249,7 @@ class WorkerAdd extends AbstractAddStepHandler {
                 IOLogger.ROOT_LOGGER.printDefaultsIoThreads(name, ioThreadsCalculated, cpuCount);
             }
             if (!maxTaskThreadsModel.isDefined()) {
-                workerThreads = getWorkerThreads(name, allWorkerCount);
+                workerThreads = getWorkerThreads(name, allWorkerCount, autoSizing, val.asLong());
                 builder.setCoreWorkerPoolSize(coreWorkerThreads);
                 builder.setMaxWorkerPoolSize(workerThreads);
                 IOLogger.ROOT_LOGGER.printDefaultsWorkerThreads(name, workerThreads, cpuCount);
@@ -27,10 +27,13 @@ package org.wildfly.extension.io;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -43,12 +46,16 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -113,12 +120,30 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             STACK_SIZE
     };
 
+    static final SimpleAttributeDefinition SIZING = new SimpleAttributeDefinitionBuilder(Constants.SIZING, ModelType.STRING, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(Constants.SIZING_DEFAULT))
+            .setValidator(new StringAllowedValuesValidator(Constants.SIZING_DEFAULT, Constants.SIZING_AUTO))
+            .build();
+
+    /**
+     * All attributes of a worker, including those that are not XNIO options.
+     */
+    static final List<AttributeDefinition> WORKER_ATTRIBUTES;
+
     private static final AttributeDefinition SHUTDOWN_REQUESTED = new SimpleAttributeDefinitionBuilder("shutdown-requested", ModelType.BOOLEAN).setStorageRuntime().build();
     private static final AttributeDefinition CORE_WORKER_POOL_SIZE = new SimpleAttributeDefinitionBuilder("core-pool-size", ModelType.INT).build();
     private static final AttributeDefinition MAX_WORKER_POOL_SIZE = new SimpleAttributeDefinitionBuilder("max-pool-size", ModelType.INT).build();
     private static final AttributeDefinition IO_THREAD_COUNT = new SimpleAttributeDefinitionBuilder("io-thread-count", ModelType.INT).build();
     private static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT).build();
     private static final AttributeDefinition BUSY_WORKER_THREAD_COUNT = new SimpleAttributeDefinitionBuilder("busy-task-thread-count", ModelType.INT).build();
+    private static final AttributeDefinition EFFECTIVE_PROCESSORS = new SimpleAttributeDefinitionBuilder("effective-processors", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition PROCESSOR_SOCKETS = new SimpleAttributeDefinitionBuilder("processor-sockets", ModelType.INT).setStorageRuntime().build();
+    private static final AttributeDefinition EFFECTIVE_MEMORY_LIMIT = new SimpleAttributeDefinitionBuilder("effective-memory-limit", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
 
     static final Map<String, OptionAttributeDefinition> ATTRIBUTES_BY_XMLNAME;
 
@@ -128,6 +153,9 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             attrs.put(attr.getXmlName(), (OptionAttributeDefinition) attr);
         }
         ATTRIBUTES_BY_XMLNAME = Collections.unmodifiableMap(attrs);
+        List<AttributeDefinition> all = new ArrayList<>(Arrays.asList(ATTRIBUTES));
+        all.add(SIZING);
+        WORKER_ATTRIBUTES = Collections.unmodifiableList(all);
     }
 
 
@@ -141,10 +169,9 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
                 .addCapabilities(IO_WORKER_RUNTIME_CAPABILITY));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return (Collection) ATTRIBUTES_BY_XMLNAME.values();
+        return WORKER_ATTRIBUTES;
     }
 
     @Override
@@ -198,6 +225,14 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         resourceRegistration.registerMetric(IO_THREAD_COUNT, metricsHandler);
         resourceRegistration.registerMetric(QUEUE_SIZE, metricsHandler);
         resourceRegistration.registerMetric(BUSY_WORKER_THREAD_COUNT, metricsHandler);
+
+        resourceRegistration.registerReadWriteAttribute(SIZING, null, new ReloadRequiredWriteAttributeHandler(SIZING));
+        resourceRegistration.registerReadOnlyAttribute(EFFECTIVE_PROCESSORS, (context, operation) -> context.getResult().set(ResourceLimits.getInstance().getProcessors()));
+        resourceRegistration.registerReadOnlyAttribute(PROCESSOR_SOCKETS, (context, operation) -> context.getResult().set(ResourceLimits.getInstance().getSockets()));
+        resourceRegistration.registerReadOnlyAttribute(EFFECTIVE_MEMORY_LIMIT, (context, operation) -> {
+            long limit = ResourceLimits.getInstance().getMemoryLimit();
+            context.getResult().set(limit > 0 ? new ModelNode(limit) : new ModelNode());
+        });
     }
 
     @Override
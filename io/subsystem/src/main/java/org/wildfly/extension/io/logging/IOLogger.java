@@ -79,4 +79,8 @@ public interface IOLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 8, value = "The stack-size value of %d bytes for IO worker %s is low and may result in problems. A value of at least 150,000 is recommended.")
     void wrongStackSize(long val, String workerName);
+
+    @LogMessage(level = INFO)
+    @Message(id = 9, value = "Buffer pool '%s' has auto-configured to %d byte buffers with %d buffers per slice, using direct buffers: %b")
+    void printBufferPoolDefaults(String bufferPoolName, int bufferSize, int buffersPerSlice, boolean directBuffers);
 }
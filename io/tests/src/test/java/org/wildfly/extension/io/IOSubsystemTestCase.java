@@ -60,12 +60,12 @@ public class IOSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("io-3.0.xml");
+        return readResource("io-4.0.xml");
     }
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-io_3_0.xsd";
+        return "schema/wildfly-io_4_0.xsd";
     }
 
     @Override
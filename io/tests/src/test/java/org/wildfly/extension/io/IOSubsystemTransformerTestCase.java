@@ -21,8 +21,12 @@ package org.wildfly.extension.io;
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_0_0;
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_1_0;
 import static org.junit.Assert.assertTrue;
+import static org.wildfly.extension.io.BufferPoolResourceDefinition.LEAK_DETECTION_SAMPLING_RATE;
+import static org.wildfly.extension.io.BufferPoolResourceDefinition.LEAK_DETECTION_THRESHOLD;
+import static org.wildfly.extension.io.IOExtension.BUFFER_POOL_PATH;
 import static org.wildfly.extension.io.IOExtension.SUBSYSTEM_PATH;
 import static org.wildfly.extension.io.IOExtension.WORKER_PATH;
+import static org.wildfly.extension.io.WorkerResourceDefinition.SIZING;
 import static org.wildfly.extension.io.WorkerResourceDefinition.STACK_SIZE;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_IO_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_CORE_THREADS;
@@ -110,7 +114,7 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
         PathAddress subsystemAddress = PathAddress.pathAddress(SUBSYSTEM_PATH);
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig()
                 .addFailedAttribute(subsystemAddress.append(WORKER_PATH),
-                        ChainedConfig.createBuilder(STACK_SIZE, WORKER_IO_THREADS, WORKER_TASK_KEEPALIVE, WORKER_TASK_MAX_THREADS, WORKER_TASK_CORE_THREADS)
+                        ChainedConfig.createBuilder(STACK_SIZE, WORKER_IO_THREADS, WORKER_TASK_KEEPALIVE, WORKER_TASK_MAX_THREADS, WORKER_TASK_CORE_THREADS, SIZING)
                             .addConfig(
                                     new FailedOperationTransformationConfig.RejectExpressionsConfig(
                                             STACK_SIZE,
@@ -119,11 +123,18 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
                                             WORKER_TASK_MAX_THREADS
                                     )
                             )
-                            .addConfig(new FailedOperationTransformationConfig.NewAttributesConfig(WORKER_TASK_CORE_THREADS))
+                            .addConfig(new FailedOperationTransformationConfig.NewAttributesConfig(WORKER_TASK_CORE_THREADS, SIZING))
                             .build()
                 )
                 .addFailedAttribute(subsystemAddress.append(PathElement.pathElement(WORKER_PATH.getKey(), "fourth-worker"), PathElement.pathElement("outbound-bind-address")),
                         FailedOperationTransformationConfig.REJECTED_RESOURCE
+                )
+                .addFailedAttribute(subsystemAddress.append(BUFFER_POOL_PATH),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                BufferPoolResourceDefinition.SIZING,
+                                LEAK_DETECTION_SAMPLING_RATE,
+                                LEAK_DETECTION_THRESHOLD
+                        )
                 );
         testRejectingTransformers(EAP_7_0_0, config);
     }
@@ -134,7 +145,15 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig()
                 .addFailedAttribute(subsystemAddress.append(WORKER_PATH),
                         new FailedOperationTransformationConfig.NewAttributesConfig(
-                                WORKER_TASK_CORE_THREADS
+                                WORKER_TASK_CORE_THREADS,
+                                SIZING
+                        )
+                )
+                .addFailedAttribute(subsystemAddress.append(BUFFER_POOL_PATH),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                BufferPoolResourceDefinition.SIZING,
+                                LEAK_DETECTION_SAMPLING_RATE,
+                                LEAK_DETECTION_THRESHOLD
                         )
                 );
         testRejectingTransformers(EAP_7_1_0, config);
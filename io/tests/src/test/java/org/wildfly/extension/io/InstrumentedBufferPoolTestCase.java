@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.xnio.Pooled;
+
+/**
+ * Unit tests of {@link InstrumentedBufferPool}.
+ */
+public class InstrumentedBufferPoolTestCase {
+
+    @Test
+    public void testUsage() {
+        // Buffers in use are only counted if leak detection is enabled
+        InstrumentedBufferPool pool = new InstrumentedBufferPool(1024, 4, false, 1, 60_000);
+        assertEquals(0, pool.getAllocatedSlices());
+        Pooled<ByteBuffer> first = pool.allocate();
+        Pooled<ByteBuffer> second = pool.allocate();
+        assertEquals(1, pool.getAllocatedSlices());
+        assertEquals(2, pool.getInUseBuffers());
+        assertEquals(1024, first.getResource().capacity());
+
+        first.free();
+        // Freeing twice must not be counted twice
+        first.free();
+        second.discard();
+        assertEquals(0, pool.getInUseBuffers());
+        assertEquals(2, pool.getPeakInUseBuffers());
+        assertEquals(0, pool.getDirectMemoryUsed());
+        assertEquals(0, pool.getAllocationFailures());
+        pool.clean();
+    }
+
+    @Test
+    public void testUninstrumentedBuffers() {
+        InstrumentedBufferPool pool = new InstrumentedBufferPool(1024, 4, false, 0, 60_000);
+        assertFalse(pool.isLeakDetectionEnabled());
+        Pooled<ByteBuffer> first = pool.allocate();
+        assertEquals(1, pool.getAllocatedSlices());
+        assertEquals(1024, first.getResource().capacity());
+        assertEquals(0, pool.getInUseBuffers());
+        first.free();
+        pool.clean();
+    }
+
+    @Test
+    public void testDirectMemory() {
+        InstrumentedBufferPool pool = new InstrumentedBufferPool(1024, 2, true, 0, 60_000);
+        Pooled<ByteBuffer> first = pool.allocate();
+        Pooled<ByteBuffer> second = pool.allocate();
+        Pooled<ByteBuffer> third = pool.allocate();
+        assertTrue(first.getResource().isDirect());
+        assertEquals(2, pool.getAllocatedSlices());
+        assertEquals(4096, pool.getDirectMemoryUsed());
+        first.close();
+        second.close();
+        third.close();
+        pool.clean();
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        InstrumentedBufferPool pool = new InstrumentedBufferPool(1024, 4, false, 2, 10);
+        assertTrue(pool.isLeakDetectionEnabled());
+        Pooled<ByteBuffer> untracked = pool.allocate();
+        Pooled<ByteBuffer> leaked = pool.allocate();
+        Pooled<ByteBuffer> returned = pool.allocate();
+        Pooled<ByteBuffer> alsoReturned = pool.allocate();
+        alsoReturned.free();
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertEquals(1, pool.getLeakSuspectCount());
+        ModelNode suspects = pool.getLeakSuspects();
+        assertEquals(1, suspects.asList().size());
+        ModelNode suspect = suspects.get(0);
+        assertTrue(suspect.get(InstrumentedBufferPool.AGE).asLong() >= 10);
+        assertEquals(Thread.currentThread().getName(), suspect.get(InstrumentedBufferPool.THREAD).asString());
+        assertTrue(suspect.get(InstrumentedBufferPool.ALLOCATION_SITE).get(0).asString().contains("testLeakDetection"));
+
+        leaked.free();
+        assertEquals(0, pool.getLeakSuspectCount());
+        untracked.free();
+        returned.free();
+        pool.clean();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of {@link ResourceLimits} and of the automatic sizing of buffer pools.
+ */
+public class ResourceLimitsTestCase {
+
+    private static final long MB = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCgroupV2() throws IOException {
+        Path sys = folder.getRoot().toPath();
+        write(sys, "fs/cgroup/cpu.max", "150000 100000");
+        write(sys, "fs/cgroup/memory.max", String.valueOf(512 * MB));
+        for (int i = 0; i < 4; i++) {
+            write(sys, "devices/system/cpu/cpu" + i + "/topology/physical_package_id", String.valueOf(i / 2));
+        }
+        ResourceLimits limits = new ResourceLimits(sys, 8);
+        assertEquals(2, limits.getProcessors());
+        assertEquals(512 * MB, limits.getMemoryLimit());
+        assertEquals(2, limits.getSockets());
+    }
+
+    @Test
+    public void testCgroupV2Unlimited() throws IOException {
+        Path sys = folder.getRoot().toPath();
+        write(sys, "fs/cgroup/cpu.max", "max 100000");
+        write(sys, "fs/cgroup/memory.max", "max");
+        ResourceLimits limits = new ResourceLimits(sys, 8);
+        assertEquals(8, limits.getProcessors());
+        assertEquals(-1, limits.getMemoryLimit());
+        assertEquals(1, limits.getSockets());
+    }
+
+    @Test
+    public void testCgroupV1() throws IOException {
+        Path sys = folder.getRoot().toPath();
+        write(sys, "fs/cgroup/cpu/cpu.cfs_quota_us", "50000");
+        write(sys, "fs/cgroup/cpu/cpu.cfs_period_us", "100000");
+        write(sys, "fs/cgroup/memory/memory.limit_in_bytes", "9223372036854771712");
+        ResourceLimits limits = new ResourceLimits(sys, 4);
+        assertEquals(1, limits.getProcessors());
+        assertEquals(-1, limits.getMemoryLimit());
+
+        write(sys, "fs/cgroup/cpu/cpu.cfs_quota_us", "-1");
+        write(sys, "fs/cgroup/memory/memory.limit_in_bytes", String.valueOf(256 * MB));
+        limits = new ResourceLimits(sys, 4);
+        assertEquals(4, limits.getProcessors());
+        assertEquals(256 * MB, limits.getMemoryLimit());
+    }
+
+    @Test
+    public void testNoCgroup() {
+        ResourceLimits limits = new ResourceLimits(folder.getRoot().toPath(), 3);
+        assertEquals(3, limits.getProcessors());
+        assertEquals(-1, limits.getMemoryLimit());
+        assertEquals(1, limits.getSockets());
+    }
+
+    @Test
+    public void testBufferPoolAutoSizing() {
+        BufferPoolResourceDefinition.AutoSizing sizing = new BufferPoolResourceDefinition.AutoSizing(1024 * MB, -1);
+        assertTrue(sizing.directBuffers);
+        assertEquals(16 * 1024, sizing.bufferSize);
+        assertEquals(20, sizing.buffersPerSlice);
+
+        // Only 112MB left outside of the heap
+        sizing = new BufferPoolResourceDefinition.AutoSizing(400 * MB, 512 * MB);
+        assertTrue(sizing.directBuffers);
+        assertEquals(1024, sizing.bufferSize);
+        assertEquals(10, sizing.buffersPerSlice);
+
+        // The heap takes nearly all of the memory
+        sizing = new BufferPoolResourceDefinition.AutoSizing(500 * MB, 512 * MB);
+        assertFalse(sizing.directBuffers);
+        assertEquals(16 * 1024, sizing.bufferSize);
+
+        sizing = new BufferPoolResourceDefinition.AutoSizing(1024 * MB, 48 * MB);
+        assertFalse(sizing.directBuffers);
+        assertEquals(512, sizing.bufferSize);
+    }
+
+    private static void write(Path sys, String path, String content) throws IOException {
+        Path file = sys.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A request limit that adjusts itself to the observed request latency, using a gradient algorithm.
+ * <p>
+ * Latency is not measured per request, as a request can begin and complete on different threads with nothing to
+ * link the two calls. Instead the total time all requests spent in the server is tracked as the sum of the times
+ * permits were returned, minus the sum of the times they were taken, plus the current time for each permit still held.
+ * The part of that total accumulated during a window, divided by the number of requests completed in the same window,
+ * is the average latency (Little's law). A permit handed straight to a queued task counts as still in use, so the
+ * result is the average latency of the requests themselves.
+ * <p>
+ * Both the sum of the times and the number of permits held are packed into a single {@link LongAdder}, so that taking
+ * or returning a permit is a single lock free addition, and any snapshot of the sum includes every change either
+ * completely or not at all. A change that reads the clock before a snapshot but is only added after it moves time
+ * between adjacent windows, but no time is ever lost or counted twice. The times are in microseconds, and all the arithmetic is modulo 2<sup>40</sup>, which is
+ * enough for about 550,000 permit-seconds per window.
+ * <p>
+ * At the end of each window the short term latency is compared to a long term average. While the two are close the
+ * limit grows additively, by the square root of the current limit, as long as at least half of it is in use. Once
+ * the short term latency exceeds the long term average by more than the tolerance the limit is decreased in
+ * proportion, down to half its size per window. Each change is smoothed, and the limit is kept between the configured
+ * minimum and maximum.
+ */
+final class AdaptiveLimit {
+
+    /** The limit used if no maximum is configured */
+    static final int DEFAULT_INITIAL_LIMIT = 100;
+
+    static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final int MIN_WINDOW_SAMPLES = 10;
+
+    /** How much the short term latency may exceed the long term average before the limit is reduced */
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    /** The number of windows the long term average latency is taken over */
+    private static final int LONG_TERM_WINDOWS = 600;
+
+    private final int minLimit;
+    private final LongSupplier clock;
+    private final long epoch;
+
+    /** The number of low bits of {@link #permitState} that hold the number of permits in use */
+    private static final int HELD_BITS = 24;
+
+    private final LongAdder completions = new LongAdder();
+    /** The number of permits in use, plus the sum of the return times minus the sum of the take times shifted left by {@link #HELD_BITS} */
+    private final LongAdder permitState = new LongAdder();
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    private volatile double latency;
+    private volatile long nextUpdate = WINDOW_NANOS;
+
+    //guarded by updateLock
+    private int maxLimit;
+    private double estimatedLimit;
+    private long lastTimeInServer;
+    private long lastCompletions;
+    private double longTermLatency;
+
+    AdaptiveLimit(int minLimit, int maxLimit) {
+        this(minLimit, maxLimit, System::nanoTime);
+    }
+
+    /**
+     * @param clock the source of the current time in nanoseconds, which only has to increase monotonically
+     */
+    AdaptiveLimit(int minLimit, int maxLimit, LongSupplier clock) {
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = maxLimit(maxLimit);
+        this.estimatedLimit = Math.max(this.minLimit, maxLimit > 0 ? maxLimit : DEFAULT_INITIAL_LIMIT);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return the current limit
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the latency of the last complete window in nanoseconds, or {@code -1} if there has not been one yet
+     */
+    long getLatencyEstimate() {
+        final double latency = this.latency;
+        return latency > 0 ? (long) latency : -1;
+    }
+
+    /**
+     * Sets the upper bound of the limit.
+     *
+     * @param maxLimit the maximum, or a value less than one for no maximum
+     */
+    void setMaxLimit(int maxLimit) {
+        updateLock.lock();
+        try {
+            this.maxLimit = maxLimit(maxLimit);
+            setEstimatedLimit(estimatedLimit);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Records that a request permit was taken.
+     */
+    void permitTaken() {
+        permitState.add(1 - (currentMicros() << HELD_BITS));
+    }
+
+    /**
+     * Records that a request permit was returned.
+     */
+    void permitReturned() {
+        permitState.add((currentMicros() << HELD_BITS) - 1);
+    }
+
+    /**
+     * @return the time in microseconds spent in the server by all requests so far, including the ones still running,
+     *         modulo 2<sup>40</sup>
+     */
+    private long getTimeInServer() {
+        final long state = permitState.sum();
+        //read the clock after the sum, so every permit it counts as held was taken before now
+        final long now = currentMicros();
+        //a return can be counted before the take on another thread that preceded it, so the count can be negative
+        final long held = (state << (Long.SIZE - HELD_BITS)) >> (Long.SIZE - HELD_BITS);
+        return held * now + ((state - held) >> HELD_BITS);
+    }
+
+    private long currentTime() {
+        return clock.getAsLong() - epoch;
+    }
+
+    private long currentMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(currentTime());
+    }
+
+    /**
+     * Records that a request completed, and updates the limit if the current window has ended.
+     *
+     * @param permitsInUse the number of permits currently taken
+     * @return {@code true} if the limit was updated
+     */
+    boolean requestCompleted(int permitsInUse) {
+        completions.increment();
+        final long now = currentTime();
+        if (now - nextUpdate < 0 || !updateLock.tryLock()) {
+            return false;
+        }
+        try {
+            return now - nextUpdate >= 0 && update(now, permitsInUse);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private boolean update(long now, int permitsInUse) {
+        final long completed = completions.sum();
+        final long samples = completed - lastCompletions;
+        if (samples < MIN_WINDOW_SAMPLES) {
+            //extend the window until there are enough samples
+            return false;
+        }
+        final long timeInServer = getTimeInServer();
+        //sign extend the difference of the two 40 bit values
+        final long elapsed = ((timeInServer - lastTimeInServer) << HELD_BITS) >> HELD_BITS;
+        if (elapsed <= 0) {
+            //a permit change that read the clock before the last snapshot but was only added after it moved time
+            //out of this window; extend the window until it is made up for
+            return false;
+        }
+        final double latency = Math.max(1, (double) TimeUnit.MICROSECONDS.toNanos(elapsed) / samples);
+        lastTimeInServer = timeInServer;
+        lastCompletions = completed;
+        nextUpdate = now + WINDOW_NANOS;
+        this.latency = latency;
+
+        if (longTermLatency == 0) {
+            longTermLatency = latency;
+        } else {
+            longTermLatency += (latency - longTermLatency) / LONG_TERM_WINDOWS;
+            if (longTermLatency / latency > 2) {
+                //latency has recovered from a long slow period, let the average catch up faster
+                longTermLatency *= 0.95;
+            }
+        }
+        if (permitsInUse < estimatedLimit / 2) {
+            //not enough load to tell whether a higher limit would be sustainable
+            return false;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longTermLatency / latency));
+        final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        return setEstimatedLimit(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private boolean setEstimatedLimit(double estimate) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimate));
+        final int limit = (int) estimatedLimit;
+        if (limit == this.limit) {
+            return false;
+        }
+        this.limit = limit;
+        return true;
+    }
+
+    private int maxLimit(int maxLimit) {
+        return maxLimit > 0 ? Math.max(minLimit, maxLimit) : Integer.MAX_VALUE;
+    }
+}
@@ -31,4 +31,16 @@ interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
+    String LIMIT_MODE = "limit-mode";
+    String MIN_REQUESTS = "min-requests";
+    String CURRENT_LIMIT = "current-limit";
+    String LATENCY_ESTIMATE = "latency-estimate";
+    String STATIC = "static";
+    String ADAPTIVE = "adaptive";
+    String QUOTA = "quota";
+    String DEPLOYMENT = "deployment";
+    String ENTRY_POINT = "entry-point";
+    String WEIGHT = "weight";
+    String STATISTICS_ENABLED = "statistics-enabled";
+    String REQUEST_STATISTICS = "request-statistics";
 }
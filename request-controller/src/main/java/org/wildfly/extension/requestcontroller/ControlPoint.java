@@ -36,7 +36,8 @@ import java.util.concurrent.Executor;
  * <p/>
  * Note that requests are tracked at two levels, both at the entry point level and the request controller level.
  * This allows for individual deployments/interfaces to be gracefully suspended, and also allows for the global
- * request controller to limit the total number of active requests.
+ * request controller to limit the total number of active requests. A {@link RequestQuota} can additionally limit the
+ * number of requests active through a group of control points.
  *
  * @author Stuart Douglas
  */
@@ -56,6 +57,22 @@ public class ControlPoint {
     @SuppressWarnings("unused")
     private volatile int activeRequestCount = 0;
 
+    /**
+     * The number of active requests if the controller uses striped counting, in which case {@link #activeRequestCount}
+     * is unused
+     */
+    private final StripedRequestCount stripedRequestCount;
+
+    /**
+     * The quota that applies to this control point, or {@code null} if there is none
+     */
+    private final RequestQuota quota;
+
+    /**
+     * Only updated if the request controller has statistics enabled
+     */
+    private final RequestStatistics statistics = new RequestStatistics();
+
     /**
      * If this entry point is paused
      */
@@ -71,10 +88,16 @@ public class ControlPoint {
     private int referenceCount = 0;
 
     ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints) {
+        this(controller, deployment, entryPoint, trackIndividualControlPoints, false, null);
+    }
+
+    ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints, boolean stripedCounting, RequestQuota quota) {
         this.controller = controller;
         this.deployment = deployment;
         this.entryPoint = entryPoint;
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.stripedRequestCount = trackIndividualControlPoints && stripedCounting ? new StripedRequestCount() : null;
+        this.quota = quota;
     }
 
     public String getEntryPoint() {
@@ -98,7 +121,7 @@ public class ControlPoint {
         }
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
-        if (activeRequestCountUpdater.get(this) == 0) {
+        if (getActiveRequestCount() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -125,16 +148,17 @@ public class ControlPoint {
      * must be called once the task is complete, usually via a try/finally construct.
      */
     public RunResult beginRequest() throws Exception {
-        if (paused) {
-            return RunResult.REJECTED;
-        }
-        if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+        if (paused || !acquireQuota(false)) {
+            return rejected();
         }
+        increaseRequestCount();
         RunResult runResult = controller.beginRequest(false);
         if (runResult == RunResult.REJECTED) {
             decreaseRequestCount();
+            releaseQuota();
+            return rejected();
         }
+        requestStarted();
         return runResult;
     }
 
@@ -150,19 +174,25 @@ public class ControlPoint {
      * must be called once the task is complete, usually via a try/finally construct.
      */
     public RunResult forceBeginRequest() throws Exception {
-        if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+        acquireQuota(true);
+        increaseRequestCount();
+        RunResult runResult = controller.beginRequest(true);
+        if (runResult == RunResult.REJECTED) {
+            releaseQuota();
+            return rejected();
         }
-        return controller.beginRequest(true);
+        requestStarted();
+        return runResult;
     }
 
     /**
      * Called when a queued task is executed.
+     *
+     * @return the begin time of the task's request, to be passed to {@link #requestComplete(long)}
      */
-    void beginExistingRequest() {
-        if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
-        }
+    long beginExistingRequest() {
+        increaseRequestCount();
+        return controller.isStatisticsEnabled() ? System.nanoTime() : RequestStatistics.NO_START_TIME;
     }
 
     /**
@@ -171,13 +201,110 @@ public class ControlPoint {
      * This cannot be done automatically when the handleRequest method completes, as some
      */
     public void requestComplete() {
+        if (controller.isStatisticsEnabled()) {
+            statistics.requestCompleted();
+        }
+        requestFinished();
+    }
+
+    /**
+     * Called when a queued task completes.
+     *
+     * @param startTime the begin time returned by {@link #beginExistingRequest()}
+     */
+    void requestComplete(long startTime) {
+        if (controller.isStatisticsEnabled()) {
+            statistics.requestCompleted(startTime);
+        }
+        requestFinished();
+    }
+
+    private void requestFinished() {
         decreaseRequestCount();
+        releaseQuota();
         controller.requestComplete();
     }
 
+    private void requestStarted() {
+        if (controller.isStatisticsEnabled()) {
+            statistics.requestStarted();
+        }
+    }
+
+    private RunResult rejected() {
+        if (controller.isStatisticsEnabled()) {
+            statistics.requestRejected();
+        }
+        return RunResult.REJECTED;
+    }
+
+    /**
+     * Called when a task queued through this control point could not run straight away.
+     */
+    void taskQueued() {
+        if (controller.isStatisticsEnabled()) {
+            statistics.requestQueued();
+        }
+    }
+
+    /**
+     * Called when a task queued through this control point is rejected, or times out before it can run.
+     */
+    void queuedTaskRejected() {
+        rejected();
+    }
+
+    RequestStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Takes a permit from the quota of this control point, if it has one.
+     *
+     * @param force if the permit should be taken even if the quota has been reached
+     * @return {@code true} if the request can run
+     */
+    boolean acquireQuota(boolean force) {
+        if (quota == null) {
+            return true;
+        }
+        if (force) {
+            quota.acquire();
+            return true;
+        }
+        return quota.tryAcquire();
+    }
+
+    void releaseQuota() {
+        if (quota != null) {
+            quota.release();
+        }
+    }
+
+    /**
+     * @return the weight of tasks queued through this control point relative to those of other control points
+     */
+    int getWeight() {
+        return quota != null ? quota.getWeight() : 1;
+    }
+
+    private void increaseRequestCount() {
+        if (stripedRequestCount != null) {
+            stripedRequestCount.increment();
+        } else if (trackIndividualControlPoints) {
+            activeRequestCountUpdater.incrementAndGet(this);
+        }
+    }
+
     private void decreaseRequestCount() {
         if (trackIndividualControlPoints) {
-            int result = activeRequestCountUpdater.decrementAndGet(this);
+            int result;
+            if (stripedRequestCount != null) {
+                stripedRequestCount.decrement();
+                result = paused ? stripedRequestCount.get() : -1;
+            } else {
+                result = activeRequestCountUpdater.decrementAndGet(this);
+            }
             if (paused && result == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
                 if (listener != null) {
@@ -209,7 +336,7 @@ public class ControlPoint {
      * @param rejectOnSuspend If the task should be rejected if the container is suspended, if this happens the timeout task is invoked immediately
      */
     public void queueTask(Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend) {
-        controller.queueTask(this, task, taskExecutor, timeout, timeoutTask, rejectOnSuspend, false);
+        controller.queueTask(this, task, taskExecutor, timeout, timeoutTask, rejectOnSuspend, false, false);
     }
 
     /**
@@ -225,7 +352,22 @@ public class ControlPoint {
      * @param taskExecutor    The executor to run the task in
      */
     public void forceQueueTask(Runnable task, Executor taskExecutor) {
-        controller.queueTask(this, task, taskExecutor, -1, null, false, true);
+        forceQueueTask(task, taskExecutor, false);
+    }
+
+    /**
+     * Queues a task to run when the request controller allows it, as {@link #forceQueueTask(Runnable, Executor)} does.
+     * <p/>
+     * If {@code priority} is {@code true} the task is run before any task queued without it, regardless of the
+     * weights of the control points they were queued through. This is meant for latency sensitive work, such as
+     * timers, and should not be used for ordinary requests.
+     *
+     * @param task            The task to run
+     * @param taskExecutor    The executor to run the task in
+     * @param priority        If the task should be run ahead of other queued tasks
+     */
+    public void forceQueueTask(Runnable task, Executor taskExecutor, boolean priority) {
+        controller.queueTask(this, task, taskExecutor, -1, null, false, true, priority);
     }
 
     public boolean isPaused() {
@@ -233,7 +375,7 @@ public class ControlPoint {
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCountUpdater.get(this);
+        return stripedRequestCount != null ? stripedRequestCount.get() : activeRequestCountUpdater.get(this);
     }
 
     synchronized int increaseReferenceCount() {
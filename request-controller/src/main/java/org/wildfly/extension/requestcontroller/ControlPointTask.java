@@ -41,11 +41,12 @@ public final class ControlPointTask implements Runnable {
 
     @Override
     public void run() {
+        long startTime = RequestStatistics.NO_START_TIME;
         try {
-            controlPoint.beginExistingRequest();
+            startTime = controlPoint.beginExistingRequest();
             originalTask.run();
         } finally {
-            controlPoint.requestComplete();
+            controlPoint.requestComplete(startTime);
         }
     }
 }
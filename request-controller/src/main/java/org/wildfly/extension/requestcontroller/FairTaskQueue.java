@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.wildfly.extension.requestcontroller.RequestController.QueuedTask;
+
+/**
+ * The queue of tasks waiting for a request permit.
+ * <p/>
+ * Tasks are kept in one FIFO lane per control point, and the lanes are served in weighted round robin order: each
+ * lane gets as many tasks run in a row as its control point's weight before the next lane gets its turn. A lane whose
+ * control point has reached its {@link RequestQuota quota} is skipped until a request through it completes, so
+ * tasks of one control point cannot keep the others waiting. Tasks queued with the priority hint go into a separate
+ * lane that is always served first.
+ */
+final class FairTaskQueue {
+
+    private final ArrayDeque<QueuedTask> priorityTasks = new ArrayDeque<>();
+    private final Map<ControlPoint, Lane> lanes = new HashMap<>();
+    /** The lanes that have tasks, in the order they will be served */
+    private final ArrayDeque<Lane> activeLanes = new ArrayDeque<>();
+
+    /** Only written while holding the lock, so the hot path can check for an empty queue without taking it */
+    private volatile int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    synchronized void add(QueuedTask task, boolean priority) {
+        if (priority) {
+            priorityTasks.add(task);
+        } else {
+            Lane lane = lanes.get(task.controlPoint);
+            if (lane == null) {
+                lane = new Lane(task.controlPoint);
+                lanes.put(task.controlPoint, lane);
+                activeLanes.add(lane);
+            }
+            lane.tasks.add(task);
+        }
+        size++;
+    }
+
+    /**
+     * Removes the next task that can be run, taking a permit from its control point's quota.
+     *
+     * @param forcedOnly if only tasks that run while the container is suspended can be returned
+     * @return the task, or {@code null} if there is none that can be run
+     */
+    QueuedTask poll(boolean forcedOnly) {
+        if (size == 0) {
+            return null;
+        }
+        synchronized (this) {
+            QueuedTask task = priorityTasks.poll();
+            if (task != null) {
+                size--;
+                task.controlPoint.acquireQuota(true);
+                return task;
+            }
+            for (int i = activeLanes.size(); i > 0; i--) {
+                Lane lane = activeLanes.peek();
+                task = lane.poll(forcedOnly);
+                if (lane.tasks.isEmpty()) {
+                    activeLanes.poll();
+                    lanes.remove(lane.controlPoint);
+                } else if (task == null || --lane.credits == 0) {
+                    //the lane has used up its turn, or cannot run anything now
+                    activeLanes.poll();
+                    lane.credits = lane.weight;
+                    activeLanes.add(lane);
+                }
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Removes all the tasks, whether they can be run or not.
+     */
+    synchronized List<QueuedTask> clear() {
+        final List<QueuedTask> tasks = new ArrayList<>(priorityTasks);
+        for (Lane lane : activeLanes) {
+            tasks.addAll(lane.tasks);
+        }
+        priorityTasks.clear();
+        activeLanes.clear();
+        lanes.clear();
+        size = 0;
+        return tasks;
+    }
+
+    private final class Lane {
+        private final ControlPoint controlPoint;
+        private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+        private final int weight;
+        private int credits;
+
+        private Lane(ControlPoint controlPoint) {
+            this.controlPoint = controlPoint;
+            this.weight = controlPoint.getWeight();
+            this.credits = weight;
+        }
+
+        private QueuedTask poll(boolean forcedOnly) {
+            QueuedTask task;
+            //tasks that timed out are not run, so they can be dropped without a permit
+            while ((task = tasks.peek()) != null && !task.isQueued()) {
+                tasks.poll();
+                size--;
+            }
+            if (task == null) {
+                return null;
+            }
+            if (!forcedOnly) {
+                if (!controlPoint.acquireQuota(task.forceRun)) {
+                    return null;
+                }
+                tasks.poll();
+                size--;
+                return task;
+            }
+            //the container is suspended, only forced tasks can run wherever they are in the lane
+            for (Iterator<QueuedTask> it = tasks.iterator(); it.hasNext(); ) {
+                task = it.next();
+                if (task.forceRun) {
+                    it.remove();
+                    size--;
+                    controlPoint.acquireQuota(true);
+                    return task;
+                }
+            }
+            return null;
+        }
+    }
+}
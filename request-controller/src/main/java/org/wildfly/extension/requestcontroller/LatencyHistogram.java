@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A lock-free histogram of request latencies in microseconds.
+ * <p/>
+ * As in an HDR histogram, each power of two range of values is split into {@value #SUB_BUCKETS} linear buckets, so
+ * every bucket is at most 12.5% wide relative to its values, at a fixed cost of a few kilobytes. Percentiles are
+ * reported as the upper bound of the bucket holding them.
+ */
+final class LatencyHistogram {
+
+    static final String COUNT = "count";
+    static final String MEAN = "mean";
+    static final String MAX = "max";
+    static final String P50 = "50th-percentile";
+    static final String P90 = "90th-percentile";
+    static final String P99 = "99th-percentile";
+    static final String P999 = "99.9th-percentile";
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Values of this many bits or more are recorded as the largest value that has fewer, about 12 days */
+    private static final int MAX_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    /** The number of elements {@link #addTo(long[], int)} adds to */
+    static final int SNAPSHOT_LENGTH = index(MAX_VALUE) + 3;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(SNAPSHOT_LENGTH - 2);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos) {
+        final long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        buckets.incrementAndGet(index(micros));
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    /**
+     * Adds the buckets of this histogram to a snapshot, so the histograms of several control points can be combined.
+     *
+     * @param snapshot the array holding the snapshot
+     * @param offset   the index of the snapshot in the array. The snapshot takes {@link #SNAPSHOT_LENGTH} elements:
+     *                 the buckets, followed by the sum and the maximum of the values
+     */
+    void addTo(long[] snapshot, int offset) {
+        final int buckets = this.buckets.length();
+        for (int i = 0; i < buckets; i++) {
+            snapshot[offset + i] += this.buckets.get(i);
+        }
+        snapshot[offset + buckets] += sum.sum();
+        snapshot[offset + buckets + 1] = Math.max(snapshot[offset + buckets + 1], max.get());
+    }
+
+    static ModelNode toModelNode(long[] snapshot, int offset) {
+        final int buckets = SNAPSHOT_LENGTH - 2;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            total += snapshot[offset + i];
+        }
+        final long maxValue = snapshot[offset + buckets + 1];
+        final ModelNode result = new ModelNode();
+        result.get(COUNT).set(total);
+        result.get(MEAN).set(total == 0 ? 0 : snapshot[offset + buckets] / total);
+        result.get(MAX).set(maxValue);
+        result.get(P50).set(percentile(snapshot, offset, total, 0.5, maxValue));
+        result.get(P90).set(percentile(snapshot, offset, total, 0.9, maxValue));
+        result.get(P99).set(percentile(snapshot, offset, total, 0.99, maxValue));
+        result.get(P999).set(percentile(snapshot, offset, total, 0.999, maxValue));
+        return result;
+    }
+
+    private static long percentile(long[] snapshot, int offset, long total, double percentile, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < SNAPSHOT_LENGTH - 2; i++) {
+            seen += snapshot[offset + i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -22,14 +22,12 @@
 package org.wildfly.extension.requestcontroller;
 
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.TreeMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -38,6 +36,7 @@ import org.jboss.as.server.suspend.CountingRequestCountCallback;
 import org.jboss.as.server.suspend.ServerActivity;
 import org.jboss.as.server.suspend.ServerActivityCallback;
 import org.jboss.as.server.suspend.SuspendController;
+import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -54,6 +53,16 @@ import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
  * 1) Graceful shutdown - When the number of active request reaches zero then the container can be gracefully shut down
  * 2) Request limiting - This allows the total number of requests that are active to be limited.
  * <p/>
+ * By default the number of active requests is held in a single counter that is updated with compare and set. If
+ * {@code stripedCounting} is enabled the count is instead spread over several cells, which removes the contention
+ * between threads beginning and completing requests at the same time. In that mode a request limit is applied
+ * optimistically: a request is counted first and backs out if the limit turns out to have been exceeded, so under
+ * contention a request may occasionally be rejected or queued although a permit was about to become free, but the
+ * limit itself is never exceeded.
+ * <p/>
+ * If an {@link AdaptiveLimit} is used, the limit is adjusted as requests complete, based on their observed latency,
+ * and the configured max request count only serves as its upper bound.
+ * <p/>
  *
  * @author Stuart Douglas
  */
@@ -62,6 +71,11 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Deprecated
     public static final ServiceName SERVICE_NAME = RequestControllerRootDefinition.REQUEST_CONTROLLER_CAPABILITY.getCapabilityServiceName();
 
+    /**
+     * System property that enables striped counting of active requests. Off by default.
+     */
+    public static final String STRIPED_COUNTING_PROPERTY = "org.wildfly.request-controller.striped-counting";
+
     private static final AtomicIntegerFieldUpdater<RequestController> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestController.class, "activeRequestCount");
     private static final AtomicReferenceFieldUpdater<RequestController, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(RequestController.class, ServerActivityCallback.class, "listener");
 
@@ -71,6 +85,8 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private volatile boolean paused = false;
 
+    private volatile boolean statisticsEnabled = false;
+
     private final Map<ControlPointIdentifier, ControlPoint> entryPoints = new HashMap<>();
 
     private final InjectedValue<SuspendController> shutdownControllerInjectedValue = new InjectedValue<>();
@@ -80,8 +96,32 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private final boolean trackIndividualControlPoints;
 
+    /**
+     * The active request count if striped counting is enabled, otherwise {@code null} and {@link #activeRequestCount}
+     * is used instead
+     */
+    private final StripedRequestCount stripedRequestCount;
+
+    /**
+     * The limit that replaces {@link #maxRequestCount} as requests complete, or {@code null} if the limit is static
+     */
+    private final AdaptiveLimit adaptiveLimit;
+
     public RequestController(boolean trackIndividualControlPoints) {
+        this(trackIndividualControlPoints, false);
+    }
+
+    public RequestController(boolean trackIndividualControlPoints, boolean stripedCounting) {
+        this(trackIndividualControlPoints, stripedCounting, null);
+    }
+
+    RequestController(boolean trackIndividualControlPoints, boolean stripedCounting, AdaptiveLimit adaptiveLimit) {
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.stripedRequestCount = stripedCounting ? new StripedRequestCount() : null;
+        this.adaptiveLimit = adaptiveLimit;
+        if (adaptiveLimit != null) {
+            this.maxRequestCount = adaptiveLimit.getLimit();
+        }
     }
 
     @Override
@@ -89,9 +129,11 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
+    private TimeoutWheel timeouts;
 
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    private final FairTaskQueue taskQueue = new FairTaskQueue();
+
+    private final List<RequestQuota> quotas = new ArrayList<>();
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -105,7 +147,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
 
-        if (activeRequestCountUpdater.get(this) == 0) {
+        if (getActiveRequestCount() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -122,8 +164,10 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            runQueuedTask(false);
+        while (!taskQueue.isEmpty() && (getActiveRequestCount() < maxRequestCount || maxRequestCount < 0)) {
+            if (!runQueuedTask(false)) {
+                break;
+            }
         }
     }
 
@@ -205,16 +249,22 @@ public class RequestController implements Service<RequestController>, ServerActi
         for (ControlPoint controlPoint : entryPoints.values()) {
             eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
         }
-        return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
+        return new RequestControllerState(paused, getActiveRequestCount(), maxRequestCount, eps);
     }
 
     RunResult beginRequest(boolean force) {
+        if (stripedRequestCount != null) {
+            return beginStripedRequest(force);
+        }
         int maxRequests = maxRequestCount;
         int active = activeRequestCountUpdater.get(this);
         boolean success = false;
         while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
             if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
                 success = true;
+                if (adaptiveLimit != null) {
+                    adaptiveLimit.permitTaken();
+                }
                 break;
             }
             active = activeRequestCountUpdater.get(this);
@@ -234,13 +284,55 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
+    private RunResult beginStripedRequest(boolean force) {
+        if (paused && !force) {
+            return RunResult.REJECTED;
+        }
+        stripedRequestCount.increment();
+        if (adaptiveLimit != null) {
+            adaptiveLimit.permitTaken();
+        }
+        int maxRequests = maxRequestCount;
+        if (maxRequests > 0 && stripedRequestCount.get() > maxRequests) {
+            //the limit was exceeded, possibly only by requests that are also about to back out
+            //whichever of them backs out last must make sure a task queued meanwhile does not wait for a permit
+            //that nobody holds
+            decrementRequestCount();
+            while (!taskQueue.isEmpty() && stripedRequestCount.get() < maxRequestCount) {
+                if (!runQueuedTask(false)) {
+                    break;
+                }
+            }
+            return RunResult.REJECTED;
+        }
+        //re-check the paused state, see beginRequest
+        if (!force && paused) {
+            requestComplete();
+            return RunResult.REJECTED;
+        }
+        return RunResult.RUN;
+    }
+
     void requestComplete() {
+        if (adaptiveLimit != null && adaptiveLimit.requestCompleted(getActiveRequestCount())) {
+            applyLimit(adaptiveLimit.getLimit());
+        }
         runQueuedTask(true);
     }
 
     private void decrementRequestCount() {
 
-        int result = activeRequestCountUpdater.decrementAndGet(this);
+        if (adaptiveLimit != null) {
+            adaptiveLimit.permitReturned();
+        }
+        int result;
+        if (stripedRequestCount != null) {
+            stripedRequestCount.decrement();
+            //only read the count if it is needed, it is more expensive than the update
+            result = paused ? stripedRequestCount.get() : -1;
+        } else {
+            result = activeRequestCountUpdater.decrementAndGet(this);
+        }
         if (paused) {
             if (paused && result == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
@@ -268,13 +360,35 @@ public class RequestController implements Service<RequestController>, ServerActi
         ControlPointIdentifier id = new ControlPointIdentifier(deploymentName, entryPointName);
         ControlPoint ep = entryPoints.get(id);
         if (ep == null) {
-            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints, stripedRequestCount != null, findQuota(deploymentName, entryPointName));
             entryPoints.put(id, ep);
         }
         ep.increaseReferenceCount();
         return ep;
     }
 
+    /**
+     * Adds a quota, which applies to control points created after this call.
+     *
+     * @param quota The quota
+     */
+    synchronized void addQuota(RequestQuota quota) {
+        quotas.add(quota);
+    }
+
+    private RequestQuota findQuota(final String deploymentName, final String entryPointName) {
+        RequestQuota result = null;
+        int best = -1;
+        for (RequestQuota quota : quotas) {
+            int match = quota.match(deploymentName, entryPointName);
+            if (match > best) {
+                best = match;
+                result = quota;
+            }
+        }
+        return result;
+    }
+
     /**
      * Removes the specified entry point
      *
@@ -288,7 +402,8 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     /**
-     * @return The maximum number of requests that can be active at a time
+     * @return The maximum number of requests that can be active at a time. If the limit is adaptive this is its
+     *         current value.
      */
     public int getMaxRequestCount() {
         return maxRequestCount;
@@ -299,18 +414,68 @@ public class RequestController implements Service<RequestController>, ServerActi
      * <p/>
      * If this is higher that the number of currently running requests the no new requests
      * will be able to run until the number of active requests has dropped below this level.
+     * <p/>
+     * If the limit is adaptive this sets its upper bound.
      *
      * @param maxRequestCount The max request count
      */
     public void setMaxRequestCount(int maxRequestCount) {
+        if (adaptiveLimit != null) {
+            adaptiveLimit.setMaxLimit(maxRequestCount);
+            applyLimit(adaptiveLimit.getLimit());
+        } else {
+            applyLimit(maxRequestCount);
+        }
+    }
+
+    private void applyLimit(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        while (!taskQueue.isEmpty() && (getActiveRequestCount() < maxRequestCount || maxRequestCount < 0)) {
             if(!runQueuedTask(false)) {
                 break;
             }
         }
     }
 
+    /**
+     * Sets whether control points record request counters and latencies.
+     *
+     * @param statisticsEnabled {@code true} to record statistics
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Gets the request statistics of the control points, keyed by deployment and then by entry point.
+     *
+     * @param deployment the deployment to get the statistics of, or {@code null} for all deployments
+     * @return the statistics. If a deployment is given, only its entry points are included, without the enclosing
+     *         deployment key.
+     */
+    public synchronized ModelNode getStatistics(String deployment) {
+        final Map<String, Map<String, long[]>> totals = new TreeMap<>();
+        for (ControlPoint controlPoint : entryPoints.values()) {
+            if (deployment == null || deployment.equals(controlPoint.getDeployment())) {
+                final long[] total = totals.computeIfAbsent(controlPoint.getDeployment(), d -> new TreeMap<>())
+                        .computeIfAbsent(controlPoint.getEntryPoint(), e -> RequestStatistics.newTotals());
+                controlPoint.getStatistics().addTo(total);
+            }
+        }
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, Map<String, long[]>> deploymentTotals : totals.entrySet()) {
+            final ModelNode node = deployment == null ? result.get(deploymentTotals.getKey()) : result;
+            for (Map.Entry<String, long[]> entry : deploymentTotals.getValue().entrySet()) {
+                node.get(entry.getKey()).set(RequestStatistics.toModelNode(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
     /**
      * @return <code>true</code> If the server is currently pause
      */
@@ -321,19 +486,17 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Override
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        timeouts = new TimeoutWheel("request-controller-timeouts", 10, TimeUnit.MILLISECONDS, 512);
+        timeouts.start();
     }
 
     @Override
     public void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
-        timer = null;
-        while (!taskQueue.isEmpty()) {
-            QueuedTask t = taskQueue.poll();
-            if(t != null) {
-                t.run();
-            }
+        timeouts.stop();
+        timeouts = null;
+        for (QueuedTask t : taskQueue.clear()) {
+            t.run();
         }
     }
 
@@ -346,23 +509,33 @@ public class RequestController implements Service<RequestController>, ServerActi
         return shutdownControllerInjectedValue;
     }
 
+    /**
+     * @return the average latency of recently completed requests in nanoseconds, or {@code -1} if the limit is not
+     *         adaptive or there is no estimate yet
+     */
+    public long getLatencyEstimate() {
+        return adaptiveLimit != null ? adaptiveLimit.getLatencyEstimate() : -1;
+    }
+
     public int getActiveRequestCount() {
-        return activeRequestCount;
+        return stripedRequestCount != null ? stripedRequestCount.get() : activeRequestCount;
     }
 
-    void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
+    void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun, boolean priority) {
         if(paused) {
             if(rejectOnSuspend && !forceRun) {
+                controlPoint.queuedTaskRejected();
                 taskExecutor.execute(timeoutTask);
                 return;
             }
         }
         QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint, forceRun);
-        taskQueue.add(queuedTask);
+        taskQueue.add(queuedTask, priority);
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
+            controlPoint.taskQueued();
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                timeouts.schedule(queuedTask, timeout, TimeUnit.MILLISECONDS);
             }
         }
     }
@@ -378,15 +551,11 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (!hasPermit && beginRequest(paused) == RunResult.REJECTED) {
             return false;
         }
-        QueuedTask task = null;
-        if (!paused) {
-            task = taskQueue.poll();
-        } else {
-            //the container is suspended, but we still need to run any force queued tasks
-            task = findForcedTask();
-        }
+        //if the container is suspended we still need to run any force queued tasks
+        QueuedTask task = taskQueue.poll(paused);
         if (task != null) {
             if(!task.runRequest()) {
+                task.controlPoint.releaseQuota();
                 decrementRequestCount();
             }
             return true;
@@ -396,23 +565,6 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
-    private QueuedTask findForcedTask() {
-        QueuedTask forcedTask = null;
-        QueuedTask task;
-        List<QueuedTask> storage = new ArrayList<>();
-        while (forcedTask == null && (task = taskQueue.poll()) != null) {
-            if (task.forceRun) {
-                forcedTask = task;
-            } else {
-                storage.add(task);
-            }
-        }
-        // this screws the order somewhat, but the container is suspending anyway, and the order
-        // was never guarenteed. if we push them back onto the front we will need to just go through them again
-        taskQueue.addAll(storage);
-        return forcedTask;
-    }
-
     private static final class ControlPointIdentifier {
         private final String deployment, name;
 
@@ -448,13 +600,13 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    static final class QueuedTask extends TimeoutWheel.Timeout implements Runnable {
 
         private final Executor executor;
         private final Runnable task;
         private final Runnable cancelTask;
-        private final ControlPoint controlPoint;
-        private final boolean forceRun;
+        final ControlPoint controlPoint;
+        final boolean forceRun;
 
         //0 == queued
         //1 == run
@@ -469,9 +621,15 @@ public class RequestController implements Service<RequestController>, ServerActi
             this.forceRun = forceRun;
         }
 
+        @Override
+        void expire() {
+            run();
+        }
+
         @Override
         public void run() {
             if(state.compareAndSet(0, 2)) {
+                controlPoint.queuedTaskRejected();
                 if(cancelTask != null) {
                     try {
                         executor.execute(cancelTask);
@@ -485,7 +643,7 @@ public class RequestController implements Service<RequestController>, ServerActi
 
         public boolean runRequest() {
             if (state.compareAndSet(0, 1)) {
-                cancel();
+                cancelTimeout();
                 executor.execute(new ControlPointTask(task, controlPoint));
                 return true;
             } else {
@@ -21,6 +21,7 @@
  */
 package org.wildfly.extension.requestcontroller;
 
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -32,7 +33,12 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 public class RequestControllerDeploymentUnitProcessor implements DeploymentUnitProcessor {
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        RequestControllerActivationMarker.mark(phaseContext.getDeploymentUnit());
+        DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        RequestControllerActivationMarker.mark(deploymentUnit);
+        if (deploymentUnit.getParent() == null) {
+            // control points are named after the top level deployment, so the statistics are only exposed there
+            deploymentUnit.getAttachment(Attachments.DEPLOYMENT_RESOURCE_SUPPORT).getDeploymentSubsystemModel(RequestControllerExtension.SUBSYSTEM_NAME);
+        }
     }
 
     @Override
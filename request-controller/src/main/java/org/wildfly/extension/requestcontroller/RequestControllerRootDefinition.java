@@ -37,6 +37,9 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -60,9 +63,41 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    public static final SimpleAttributeDefinition LIMIT_MODE = SimpleAttributeDefinitionBuilder.create(Constants.LIMIT_MODE, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(Constants.STATIC))
+            .setValidator(new StringAllowedValuesValidator(Constants.STATIC, Constants.ADAPTIVE))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition MIN_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.MIN_REQUESTS, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(1))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition STATISTICS_ENABLED = SimpleAttributeDefinitionBuilder.create(Constants.STATISTICS_ENABLED, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition CURRENT_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.CURRENT_LIMIT, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition LATENCY_ESTIMATE = SimpleAttributeDefinitionBuilder.create(Constants.LATENCY_ESTIMATE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REQUEST_STATISTICS = SimpleAttributeDefinitionBuilder.create(Constants.REQUEST_STATISTICS, ModelType.OBJECT, true)
+            .setStorageRuntime()
+            .build();
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -86,15 +121,15 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, LIMIT_MODE, MIN_REQUESTS, STATISTICS_ENABLED, ACTIVE_REQUESTS, CURRENT_LIMIT, LATENCY_ESTIMATE, REQUEST_STATISTICS});
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, LIMIT_MODE, MIN_REQUESTS, STATISTICS_ENABLED});
         }
     }
 
     @Override
     protected List<? extends PersistentResourceDefinition> getChildren() {
-        return Collections.emptyList();
+        return Collections.singletonList(RequestQuotaDefinition.INSTANCE);
     }
 
     @Override
@@ -102,8 +137,15 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
+        resourceRegistration.registerReadWriteAttribute(LIMIT_MODE, null, new ReloadRequiredWriteAttributeHandler(LIMIT_MODE));
+        resourceRegistration.registerReadWriteAttribute(MIN_REQUESTS, null, new ReloadRequiredWriteAttributeHandler(MIN_REQUESTS));
+        resourceRegistration.registerReadWriteAttribute(STATISTICS_ENABLED, null, new StatisticsEnabledWriteHandler(STATISTICS_ENABLED));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            LimitMetricsReadHandler limitHandler = new LimitMetricsReadHandler();
+            resourceRegistration.registerMetric(CURRENT_LIMIT, limitHandler);
+            resourceRegistration.registerMetric(LATENCY_ESTIMATE, limitHandler);
+            resourceRegistration.registerMetric(REQUEST_STATISTICS, RequestStatisticsReadHandler.INSTANCE);
         }
     }
 }
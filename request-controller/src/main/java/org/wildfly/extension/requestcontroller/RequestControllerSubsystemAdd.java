@@ -36,6 +36,7 @@ import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.suspend.SuspendController;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 import java.util.Collection;
 
@@ -68,10 +69,21 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
         int maxRequests = RequestControllerRootDefinition.MAX_REQUESTS.resolveModelAttribute(context, resource.getModel()).asInt();
         boolean trackIndividual = RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS.resolveModelAttribute(context, resource.getModel()).asBoolean();
+        String limitMode = RequestControllerRootDefinition.LIMIT_MODE.resolveModelAttribute(context, resource.getModel()).asString();
+        int minRequests = RequestControllerRootDefinition.MIN_REQUESTS.resolveModelAttribute(context, resource.getModel()).asInt();
+        boolean statisticsEnabled = RequestControllerRootDefinition.STATISTICS_ENABLED.resolveModelAttribute(context, resource.getModel()).asBoolean();
 
-        RequestController requestController = new RequestController(trackIndividual);
+        boolean stripedCounting = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(RequestController.STRIPED_COUNTING_PROPERTY, "false"));
+
+        AdaptiveLimit adaptiveLimit = Constants.ADAPTIVE.equals(limitMode) ? new AdaptiveLimit(minRequests, maxRequests) : null;
+
+        RequestController requestController = new RequestController(trackIndividual, stripedCounting, adaptiveLimit);
 
         requestController.setMaxRequestCount(maxRequests);
+        requestController.setStatisticsEnabled(statisticsEnabled);
+        for (Resource.ResourceEntry quota : resource.getChildren(Constants.QUOTA)) {
+            requestController.addQuota(RequestQuotaDefinition.createQuota(context, quota));
+        }
 
         context.getServiceTarget().addService(RequestController.SERVICE_NAME, requestController)
                 .addDependency(JBOSS_SUSPEND_CONTROLLER, SuspendController.class, requestController.getShutdownControllerInjectedValue())
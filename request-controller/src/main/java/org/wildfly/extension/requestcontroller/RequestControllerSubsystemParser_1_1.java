@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.jboss.as.controller.PersistentResourceXMLDescription.builder;
+
+import org.jboss.as.controller.PersistentResourceXMLDescription;
+import org.jboss.as.controller.PersistentResourceXMLParser;
+
+/**
+ * Parser and marshaller for the {@code urn:jboss:domain:request-controller:1.1} namespace, which adds the adaptive
+ * request limit, request quotas and request statistics.
+ */
+class RequestControllerSubsystemParser_1_1 extends PersistentResourceXMLParser {
+
+    @Override
+    public PersistentResourceXMLDescription getParserDescription() {
+        return builder(RequestControllerRootDefinition.INSTANCE, Namespace.REQUEST_CONTROLLER_1_1.getUriString())
+                .addAttributes(RequestControllerRootDefinition.MAX_REQUESTS, RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS,
+                        RequestControllerRootDefinition.LIMIT_MODE, RequestControllerRootDefinition.MIN_REQUESTS,
+                        RequestControllerRootDefinition.STATISTICS_ENABLED)
+                .addChild(builder(RequestQuotaDefinition.PATH)
+                        .addAttributes(RequestQuotaDefinition.DEPLOYMENT, RequestQuotaDefinition.ENTRY_POINT,
+                                RequestQuotaDefinition.MAX_REQUESTS, RequestQuotaDefinition.WEIGHT))
+                .build();
+    }
+}
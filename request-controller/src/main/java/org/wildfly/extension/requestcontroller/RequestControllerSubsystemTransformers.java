@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.wildfly.extension.requestcontroller.RequestControllerExtension.CURRENT_MODEL_VERSION;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
+import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
+import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+
+/**
+ * Transformers of the request-controller subsystem to its earlier model versions.
+ */
+public class RequestControllerSubsystemTransformers implements ExtensionTransformerRegistration {
+
+    static final ModelVersion VERSION_1_1 = ModelVersion.create(1, 1);
+
+    @Override
+    public String getSubsystemName() {
+        return RequestControllerExtension.SUBSYSTEM_NAME;
+    }
+
+    @Override
+    public void registerTransformers(SubsystemTransformerRegistration registration) {
+        ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(registration.getCurrentSubsystemVersion());
+
+        buildTransformers_1_1(chainedBuilder.createBuilder(CURRENT_MODEL_VERSION, VERSION_1_1));
+
+        chainedBuilder.buildAndRegister(registration, new ModelVersion[]{ VERSION_1_1 });
+    }
+
+    private void buildTransformers_1_1(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, RequestControllerRootDefinition.LIMIT_MODE, RequestControllerRootDefinition.MIN_REQUESTS, RequestControllerRootDefinition.STATISTICS_ENABLED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, RequestControllerRootDefinition.LIMIT_MODE, RequestControllerRootDefinition.MIN_REQUESTS, RequestControllerRootDefinition.STATISTICS_ENABLED);
+        builder.rejectChildResource(RequestQuotaDefinition.PATH);
+    }
+}
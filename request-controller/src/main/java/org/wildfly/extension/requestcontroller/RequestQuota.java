@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A limit on the number of requests that can be active at a time through the control points of a deployment, an
+ * entry point, or a single entry point of a deployment, and the weight those control points get when tasks queued
+ * through them compete for permits.
+ * <p/>
+ * The quota is shared by all matching control points. If more than one quota matches a control point, the one
+ * naming both the deployment and the entry point wins, followed by one only naming the deployment.
+ */
+final class RequestQuota {
+
+    private static final AtomicIntegerFieldUpdater<RequestQuota> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestQuota.class, "activeRequestCount");
+
+    private final String name;
+    private final String deployment;
+    private final String entryPoint;
+    private final int maxRequests;
+    private final int weight;
+
+    @SuppressWarnings("unused")
+    private volatile int activeRequestCount = 0;
+
+    /**
+     * @param name        the name of the quota
+     * @param deployment  the deployment the quota applies to, or {@code null} for all deployments
+     * @param entryPoint  the entry point the quota applies to, or {@code null} for all entry points
+     * @param maxRequests the maximum number of active requests, or a value less than one for no maximum
+     * @param weight      the share of permits given to queued tasks relative to control points with a weight of one
+     */
+    RequestQuota(String name, String deployment, String entryPoint, int maxRequests, int weight) {
+        this.name = name;
+        this.deployment = deployment;
+        this.entryPoint = entryPoint;
+        this.maxRequests = maxRequests;
+        this.weight = Math.max(1, weight);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    int getActiveRequestCount() {
+        return activeRequestCount;
+    }
+
+    /**
+     * @return how closely the quota matches the given control point, or {@code -1} if it does not match
+     */
+    int match(String deployment, String entryPoint) {
+        if (this.deployment != null && !this.deployment.equals(deployment)) {
+            return -1;
+        }
+        if (this.entryPoint != null && !this.entryPoint.equals(entryPoint)) {
+            return -1;
+        }
+        return (this.deployment != null ? 2 : 0) + (this.entryPoint != null ? 1 : 0);
+    }
+
+    /**
+     * Takes a permit if the quota has not been reached.
+     *
+     * @return {@code true} if a permit was taken
+     */
+    boolean tryAcquire() {
+        int active;
+        do {
+            active = activeRequestCount;
+            if (maxRequests > 0 && active >= maxRequests) {
+                return false;
+            }
+        } while (!activeRequestCountUpdater.compareAndSet(this, active, active + 1));
+        return true;
+    }
+
+    /**
+     * Takes a permit even if the quota has been reached.
+     */
+    void acquire() {
+        activeRequestCountUpdater.incrementAndGet(this);
+    }
+
+    void release() {
+        activeRequestCountUpdater.decrementAndGet(this);
+    }
+}
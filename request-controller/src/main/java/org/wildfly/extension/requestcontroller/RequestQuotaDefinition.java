@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ReloadRequiredAddStepHandler;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Definition of a {@link RequestQuota}
+ */
+class RequestQuotaDefinition extends PersistentResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement(Constants.QUOTA);
+
+    static final SimpleAttributeDefinition DEPLOYMENT = SimpleAttributeDefinitionBuilder.create(Constants.DEPLOYMENT, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition ENTRY_POINT = SimpleAttributeDefinitionBuilder.create(Constants.ENTRY_POINT, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition MAX_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUESTS, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(-1))
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition WEIGHT = SimpleAttributeDefinitionBuilder.create(Constants.WEIGHT, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(1))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
+    static final Collection<AttributeDefinition> ATTRIBUTES = Arrays.asList(DEPLOYMENT, ENTRY_POINT, MAX_REQUESTS, WEIGHT);
+
+    static final RequestQuotaDefinition INSTANCE = new RequestQuotaDefinition();
+
+    private RequestQuotaDefinition() {
+        super(new SimpleResourceDefinition.Parameters(PATH, RequestControllerExtension.getResolver(Constants.QUOTA))
+                .setAddHandler(new ReloadRequiredAddStepHandler(ATTRIBUTES))
+                .setRemoveHandler(ReloadRequiredRemoveStepHandler.INSTANCE));
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return ATTRIBUTES;
+    }
+
+    static RequestQuota createQuota(OperationContext context, Resource.ResourceEntry entry) throws OperationFailedException {
+        final ModelNode model = entry.getModel();
+        final ModelNode deployment = DEPLOYMENT.resolveModelAttribute(context, model);
+        final ModelNode entryPoint = ENTRY_POINT.resolveModelAttribute(context, model);
+        return new RequestQuota(entry.getName(),
+                deployment.isDefined() ? deployment.asString() : null,
+                entryPoint.isDefined() ? entryPoint.asString() : null,
+                MAX_REQUESTS.resolveModelAttribute(context, model).asInt(),
+                WEIGHT.resolveModelAttribute(context, model).asInt());
+    }
+}
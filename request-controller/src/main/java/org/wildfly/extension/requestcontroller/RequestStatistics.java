@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The request counters and latency histogram of a {@link ControlPoint}.
+ * <p/>
+ * Queued tasks carry the begin time of their request with them, so their latency is exact. Nothing passed to
+ * {@link ControlPoint#requestComplete()} identifies the request that completed, so the latency of other requests is
+ * measured between the completion of a request and the last begin through the same control point on the same thread,
+ * and each begin time is used at most once. This is exact for requests that run on one thread and do not nest requests
+ * of the same control point. The latency of a request that completes on another thread than it began on is not
+ * recorded, although the request is counted.
+ */
+final class RequestStatistics {
+
+    static final String COMPLETED = "completed";
+    static final String REJECTED = "rejected";
+    static final String QUEUED = "queued";
+    static final String LATENCY = "latency";
+
+    static final long NO_START_TIME = Long.MIN_VALUE;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    /**
+     * The begin time of the last request begun on each thread that has not completed on it yet. This only holds a
+     * time, so a thread that outlives the control point does not keep it reachable.
+     */
+    private final ThreadLocal<long[]> startTime = ThreadLocal.withInitial(() -> new long[] { NO_START_TIME });
+
+    /**
+     * Records that a request began on the current thread.
+     */
+    void requestStarted() {
+        startTime.get()[0] = System.nanoTime();
+    }
+
+    /**
+     * Records that a request completed on the current thread.
+     */
+    void requestCompleted() {
+        final long[] startTime = this.startTime.get();
+        final long start = startTime[0];
+        startTime[0] = NO_START_TIME;
+        requestCompleted(start);
+    }
+
+    /**
+     * Records that a request whose begin time is known completed.
+     *
+     * @param startTime the begin time of the request from {@link System#nanoTime()}, or {@link #NO_START_TIME}
+     */
+    void requestCompleted(long startTime) {
+        completed.increment();
+        if (startTime != NO_START_TIME) {
+            latency.record(System.nanoTime() - startTime);
+        }
+    }
+
+    void requestRejected() {
+        rejected.increment();
+    }
+
+    void requestQueued() {
+        queued.increment();
+    }
+
+    /**
+     * Adds these statistics to a running total.
+     *
+     * @param totals the totals, which must have been created by {@link #newTotals()}
+     */
+    void addTo(long[] totals) {
+        totals[0] += completed.sum();
+        totals[1] += rejected.sum();
+        totals[2] += queued.sum();
+        latency.addTo(totals, 3);
+    }
+
+    static long[] newTotals() {
+        return new long[3 + LatencyHistogram.SNAPSHOT_LENGTH];
+    }
+
+    static ModelNode toModelNode(long[] totals) {
+        final ModelNode result = new ModelNode();
+        result.get(COMPLETED).set(totals[0]);
+        result.get(REJECTED).set(totals[1]);
+        result.get(QUEUED).set(totals[2]);
+        result.get(LATENCY).set(LatencyHistogram.toModelNode(totals, 3));
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of active requests that is spread over several cells, so concurrent threads beginning and completing
+ * requests do not all contend on a single memory location.
+ * <p>
+ * Begun and completed requests are counted separately, and neither count ever decreases. {@link #get()} reads the
+ * completed count before the begun count. A request whose completion is included in the first read must have begun
+ * before it completed, so its beginning is included in the second read. The result is therefore never less than the
+ * number of requests that began before the call and are still active, and a result of zero can be relied upon to mean
+ * that no such request exists. The result may be higher than the actual count if requests begin or complete
+ * concurrently with the call; callers waiting for zero re-check each time a request completes.
+ */
+final class StripedRequestCount {
+
+    private final LongAdder begun = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    void increment() {
+        begun.increment();
+    }
+
+    void decrement() {
+        completed.increment();
+    }
+
+    int get() {
+        final long done = completed.sum();
+        return (int) (begun.sum() - done);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+
+/**
+ * A hashed wheel timer for the timeouts of queued tasks.
+ * <p/>
+ * Unlike {@link java.util.Timer}, scheduling and cancelling a timeout take constant time whatever the number of
+ * pending timeouts, and a cancelled timeout is unlinked straight away rather than kept until it would have expired.
+ * The timeouts are the nodes of the wheel's lists, so scheduling one does not allocate.
+ * <p/>
+ * Time is divided into ticks, and each timeout is linked into the bucket of the tick it expires in, modulo the number
+ * of buckets. A single thread visits one bucket per tick and expires the timeouts in it that are due; the others are
+ * due in a later rotation. Each bucket has its own lock, so threads scheduling and cancelling timeouts only contend
+ * if they use the same bucket. Timeouts expire up to one tick late, never early.
+ */
+final class TimeoutWheel {
+
+    /** How long the thread sleeps when there are no timeouts at all, after which it catches up with the empty ticks */
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Bucket[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime = System.nanoTime();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * The last tick the thread has expired timeouts for. Written while holding the lock of the tick's bucket, so a
+     * thread that reads a lower value while holding the lock of a bucket knows that the bucket has not been visited
+     * for any later tick.
+     */
+    private volatile long expiredTick;
+
+    /**
+     * @param threadName the name of the thread that expires timeouts
+     * @param tick       the duration of a tick
+     * @param unit       the unit of {@code tick}
+     * @param size       the number of buckets, rounded up to a power of two
+     */
+    TimeoutWheel(String threadName, long tick, TimeUnit unit, int size) {
+        int buckets = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.buckets = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new Bucket();
+        }
+        this.mask = buckets - 1;
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the thread. Pending timeouts do not expire.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * @return the number of pending timeouts
+     */
+    int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Schedules a timeout. A timeout can only be scheduled once.
+     *
+     * @param timeout the timeout
+     * @param delay   the time after which the timeout expires
+     * @param unit    the unit of {@code delay}
+     */
+    void schedule(Timeout timeout, long delay, TimeUnit unit) {
+        final long deadline = System.nanoTime() - startTime + unit.toNanos(delay);
+        //round up, so the timeout never expires early
+        long tick = (deadline + tickNanos - 1) / tickNanos;
+        for (;;) {
+            final long expired = expiredTick;
+            if (tick <= expired) {
+                tick = expired + 1;
+            }
+            final Bucket bucket = buckets[(int) (tick & mask)];
+            synchronized (bucket) {
+                if (tick > expiredTick) {
+                    timeout.deadline = tick;
+                    bucket.add(timeout);
+                    break;
+                }
+            }
+            //the thread visited the bucket meanwhile, try the next tick
+        }
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        final List<Timeout> expired = new ArrayList<>();
+        long tick = 0;
+        while (running) {
+            final long now = System.nanoTime() - startTime;
+            final long currentTick = now / tickNanos;
+            while (tick < currentTick) {
+                tick++;
+                final Bucket bucket = buckets[(int) (tick & mask)];
+                synchronized (bucket) {
+                    expiredTick = tick;
+                    bucket.removeExpired(tick, expired);
+                }
+                for (Timeout timeout : expired) {
+                    pending.decrementAndGet();
+                    try {
+                        timeout.expire();
+                    } catch (Throwable t) {
+                        RequestControllerLogger.ROOT_LOGGER.failedToExpireTimeout(timeout, t);
+                    }
+                }
+                expired.clear();
+            }
+            if (pending.get() == 0) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            } else {
+                LockSupport.parkNanos(this, (tick + 1) * tickNanos - now);
+            }
+        }
+    }
+
+    /**
+     * A timeout that can be scheduled on a {@link TimeoutWheel}.
+     */
+    abstract static class Timeout {
+
+        private volatile Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private long deadline;
+
+        /**
+         * Called by the timer thread once the timeout has expired.
+         */
+        abstract void expire();
+
+        /**
+         * Cancels the timeout if it is scheduled and has not expired yet.
+         *
+         * @return {@code true} if the timeout was cancelled
+         */
+        boolean cancelTimeout() {
+            final Bucket bucket = this.bucket;
+            if (bucket == null) {
+                return false;
+            }
+            synchronized (bucket) {
+                if (this.bucket != bucket) {
+                    //expired meanwhile
+                    return false;
+                }
+                bucket.remove(this);
+            }
+            bucket.wheel().pending.decrementAndGet();
+            return true;
+        }
+    }
+
+    private final class Bucket {
+        private Timeout head;
+
+        TimeoutWheel wheel() {
+            return TimeoutWheel.this;
+        }
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+            timeout.bucket = this;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void removeExpired(long tick, List<Timeout> expired) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.deadline <= tick) {
+                    remove(timeout);
+                    expired.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Tests of a {@link RequestController} using an {@link AdaptiveLimit}.
+ */
+public class AdaptiveLimitTestCase {
+
+    @Test
+    public void testBounds() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, -1);
+        assertEquals(AdaptiveLimit.DEFAULT_INITIAL_LIMIT, limit.getLimit());
+        limit.setMaxLimit(50);
+        assertEquals(50, limit.getLimit());
+        limit.setMaxLimit(5);
+        assertEquals(10, limit.getLimit());
+        assertEquals(-1, limit.getLatencyEstimate());
+    }
+
+    @Test
+    public void testLimitDecreasesWhenLatencyRises() {
+        final int threads = 20;
+        final AtomicLong clock = new AtomicLong(Long.MAX_VALUE - TimeUnit.HOURS.toNanos(1));
+        final AdaptiveLimit limit = new AdaptiveLimit(1, threads, clock::get);
+        runWindows(limit, clock, TimeUnit.MILLISECONDS.toNanos(1), 10);
+        assertEquals(threads, limit.getLimit());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), limit.getLatencyEstimate());
+
+        runWindows(limit, clock, TimeUnit.MILLISECONDS.toNanos(20), 5);
+        assertTrue(String.valueOf(limit.getLimit()), limit.getLimit() < threads);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), limit.getLatencyEstimate());
+    }
+
+    @Test
+    public void testConcurrentPermitChanges() throws Exception {
+        final int threads = 8;
+        final long requestTime = TimeUnit.MICROSECONDS.toNanos(100);
+        //a large offset makes any request time that is lost or counted twice visible
+        final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1000));
+        final AdaptiveLimit limit = new AdaptiveLimit(1, threads, clock::get);
+        final AtomicInteger inUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < 20000; j++) {
+                        limit.permitTaken();
+                        inUse.incrementAndGet();
+                        clock.addAndGet(requestTime);
+                        limit.requestCompleted(inUse.get());
+                        inUse.decrementAndGet();
+                        limit.permitReturned();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+        assertTrue(limit.getLatencyEstimate() > 0);
+
+        //concurrent changes can move time between adjacent windows, but once they stop the estimate must be
+        //exact again, which it would not be if any permit had been lost or counted twice
+        runWindows(limit, clock, TimeUnit.MILLISECONDS.toNanos(1), 5);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), limit.getLatencyEstimate());
+    }
+
+    /**
+     * Runs requests with the given latency for the given number of windows, using as many permits as the limit
+     * allows.
+     */
+    private static void runWindows(AdaptiveLimit limit, AtomicLong clock, long latency, int windows) {
+        final long end = clock.get() + windows * AdaptiveLimit.WINDOW_NANOS;
+        while (clock.get() - end < 0) {
+            final int permits = limit.getLimit();
+            for (int i = 0; i < permits; i++) {
+                limit.permitTaken();
+            }
+            clock.addAndGet(latency);
+            for (int i = permits; i > 0; i--) {
+                limit.requestCompleted(i);
+                limit.permitReturned();
+            }
+        }
+    }
+}
@@ -56,7 +56,17 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("request-controller-1.0.xml");
+        return readResource("request-controller-1.1.xml");
+    }
+
+    @Override
+    protected String getSubsystemXsdPath() throws Exception {
+        return "schema/wildfly-request-controller_1_1.xsd";
+    }
+
+    @Test
+    public void testParse_1_0() throws Exception {
+        standardSubsystemTest("request-controller-1.0.xml", false);
     }
 
     @Test
@@ -72,6 +82,8 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
         workerServiceController.awaitValue();
         RequestController controller = workerServiceController.getService().getValue();
         Assert.assertEquals(100, controller.getMaxRequestCount());
+        Assert.assertEquals(-1, controller.getLatencyEstimate());
+        Assert.assertTrue(controller.isStatisticsEnabled());
     }
 
     @Override
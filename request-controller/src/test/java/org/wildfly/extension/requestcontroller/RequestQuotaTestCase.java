@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RequestQuota request quotas} and the {@link FairTaskQueue}.
+ */
+public class RequestQuotaTestCase {
+
+    private final Deque<Runnable> executed = new ArrayDeque<>();
+    private final Executor executor = executed::add;
+    private final List<String> order = new ArrayList<>();
+
+    @Test
+    public void testQuota() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.addQuota(new RequestQuota("a", "a.war", null, 1, 1));
+        ControlPoint a = controller.getControlPoint("a.war", "web");
+        ControlPoint otherA = controller.getControlPoint("a.war", "ejb");
+        ControlPoint b = controller.getControlPoint("b.war", "web");
+
+        assertEquals(RunResult.RUN, a.beginRequest());
+        assertEquals(RunResult.REJECTED, a.beginRequest());
+        assertEquals(RunResult.REJECTED, otherA.beginRequest());
+        assertEquals(RunResult.RUN, b.beginRequest());
+        assertEquals(2, controller.getActiveRequestCount());
+        a.requestComplete();
+        assertEquals(RunResult.RUN, otherA.beginRequest());
+        otherA.requestComplete();
+        b.requestComplete();
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testMostSpecificQuotaWins() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.addQuota(new RequestQuota("web", null, "web", 1, 1));
+        controller.addQuota(new RequestQuota("a", "a.war", "web", 2, 1));
+        ControlPoint a = controller.getControlPoint("a.war", "web");
+        assertEquals(RunResult.RUN, a.beginRequest());
+        assertEquals(RunResult.RUN, a.beginRequest());
+        assertEquals(RunResult.REJECTED, a.beginRequest());
+        ControlPoint b = controller.getControlPoint("b.war", "web");
+        assertEquals(RunResult.RUN, b.beginRequest());
+        assertEquals(RunResult.REJECTED, b.beginRequest());
+    }
+
+    @Test
+    public void testWeightedFairQueue() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.setMaxRequestCount(1);
+        controller.addQuota(new RequestQuota("ejb", null, "ejb", -1, 3));
+        ControlPoint web = controller.getControlPoint("test.war", "web");
+        ControlPoint ejb = controller.getControlPoint("test.war", "ejb");
+
+        assertEquals(RunResult.RUN, web.beginRequest());
+        for (int i = 0; i < 6; i++) {
+            web.queueTask(record("web"), executor, -1, null, false);
+        }
+        for (int i = 0; i < 6; i++) {
+            ejb.queueTask(record("ejb"), executor, -1, null, false);
+        }
+        web.requestComplete();
+        runAll();
+        assertEquals(Arrays.asList("web", "ejb", "ejb", "ejb", "web", "ejb", "ejb", "ejb", "web", "web", "web", "web"), order);
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testQueuedTasksRespectQuota() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.setMaxRequestCount(2);
+        controller.addQuota(new RequestQuota("web", null, "web", 1, 1));
+        ControlPoint web = controller.getControlPoint("test.war", "web");
+        ControlPoint ejb = controller.getControlPoint("test.war", "ejb");
+
+        assertEquals(RunResult.RUN, web.beginRequest());
+        web.queueTask(record("web"), executor, -1, null, false);
+        //the global limit is not reached, but the web quota is
+        assertEquals(0, executed.size());
+        ejb.queueTask(record("ejb"), executor, -1, null, false);
+        assertEquals(1, executed.size());
+        executed.poll().run();
+        assertEquals(Arrays.asList("ejb"), order);
+        web.requestComplete();
+        runAll();
+        assertEquals(Arrays.asList("ejb", "web"), order);
+    }
+
+    @Test
+    public void testPriority() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.setMaxRequestCount(1);
+        ControlPoint web = controller.getControlPoint("test.war", "web");
+        ControlPoint timer = controller.getControlPoint("test.war", "timer");
+
+        assertEquals(RunResult.RUN, web.beginRequest());
+        web.queueTask(record("web"), executor, -1, null, false);
+        timer.forceQueueTask(record("timer"), executor);
+        timer.forceQueueTask(record("priority"), executor, true);
+        web.requestComplete();
+        runAll();
+        assertEquals(Arrays.asList("priority", "web", "timer"), order);
+    }
+
+    private Runnable record(String name) {
+        return () -> order.add(name);
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = executed.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link RequestStatistics} of control points and their {@link LatencyHistogram}.
+ */
+public class RequestStatisticsTestCase {
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.index(value);
+            assertFalse(value > LatencyHistogram.upperBound(index));
+            if (index > 0) {
+                assertFalse(value <= LatencyHistogram.upperBound(index - 1));
+            }
+        }
+        assertEquals(LatencyHistogram.SNAPSHOT_LENGTH - 3, LatencyHistogram.index((1L << 40) - 1));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        long[] snapshot = new long[LatencyHistogram.SNAPSHOT_LENGTH];
+        histogram.addTo(snapshot, 0);
+        ModelNode result = LatencyHistogram.toModelNode(snapshot, 0);
+        assertEquals(1000, result.get(LatencyHistogram.COUNT).asLong());
+        assertEquals(500, result.get(LatencyHistogram.MEAN).asLong());
+        assertEquals(1000, result.get(LatencyHistogram.MAX).asLong());
+        assertWithinBucket(500, result.get(LatencyHistogram.P50).asLong());
+        assertWithinBucket(900, result.get(LatencyHistogram.P90).asLong());
+        assertWithinBucket(990, result.get(LatencyHistogram.P99).asLong());
+        assertEquals(1000, result.get(LatencyHistogram.P999).asLong());
+    }
+
+    @Test
+    public void testCounters() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.setMaxRequestCount(1);
+        ControlPoint web = controller.getControlPoint("a.war", "web");
+        ControlPoint ejb = controller.getControlPoint("a.war", "ejb");
+        ControlPoint other = controller.getControlPoint("b.war", "web");
+
+        assertEquals(RunResult.RUN, web.beginRequest());
+        web.requestComplete();
+        // nothing is recorded until statistics are enabled
+        assertEquals(0, controller.getStatistics("a.war").get("web", RequestStatistics.COMPLETED).asLong());
+
+        controller.setStatisticsEnabled(true);
+        assertEquals(RunResult.RUN, web.beginRequest());
+        assertEquals(RunResult.REJECTED, ejb.beginRequest());
+        ejb.queueTask(() -> { }, Runnable::run, -1, () -> { }, false);
+        web.requestComplete();
+        other.queueTask(() -> { }, Runnable::run, -1, () -> { }, false);
+
+        ModelNode all = controller.getStatistics(null);
+        ModelNode webStatistics = all.get("a.war", "web");
+        assertEquals(1, webStatistics.get(RequestStatistics.COMPLETED).asLong());
+        assertEquals(1, webStatistics.get(RequestStatistics.LATENCY, LatencyHistogram.COUNT).asLong());
+        ModelNode ejbStatistics = all.get("a.war", "ejb");
+        assertEquals(1, ejbStatistics.get(RequestStatistics.REJECTED).asLong());
+        assertEquals(1, ejbStatistics.get(RequestStatistics.QUEUED).asLong());
+        assertEquals(1, ejbStatistics.get(RequestStatistics.COMPLETED).asLong());
+        assertEquals(1, ejbStatistics.get(RequestStatistics.LATENCY, LatencyHistogram.COUNT).asLong());
+        ModelNode otherStatistics = all.get("b.war", "web");
+        assertEquals(0, otherStatistics.get(RequestStatistics.QUEUED).asLong());
+        assertEquals(1, otherStatistics.get(RequestStatistics.COMPLETED).asLong());
+
+        assertEquals(webStatistics, controller.getStatistics("a.war").get("web"));
+    }
+
+    @Test
+    public void testRequestsCompletedOnAnotherThread() throws Exception {
+        RequestController controller = new RequestController(false);
+        controller.setStatisticsEnabled(true);
+        ControlPoint web = controller.getControlPoint("a.war", "web");
+
+        assertEquals(RunResult.RUN, web.beginRequest());
+        runOnAnotherThread(() -> {
+            web.requestComplete();
+            return null;
+        });
+        assertEquals(RunResult.RUN, web.beginRequest());
+        web.requestComplete();
+        assertEquals(RunResult.RUN, runOnAnotherThread(web::beginRequest));
+        web.requestComplete();
+
+        ModelNode statistics = controller.getStatistics("a.war").get("web");
+        assertEquals(3, statistics.get(RequestStatistics.COMPLETED).asLong());
+        // only the request that began and completed on this thread has a latency
+        assertEquals(1, statistics.get(RequestStatistics.LATENCY, LatencyHistogram.COUNT).asLong());
+    }
+
+    private static <T> T runOnAnotherThread(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        new Thread(future).start();
+        return future.get();
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertFalse(actual < expected);
+        assertFalse(actual > expected + expected / 8);
+    }
+}
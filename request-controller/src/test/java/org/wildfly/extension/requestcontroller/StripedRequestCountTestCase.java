@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.server.suspend.ServerActivityCallback;
+import org.junit.Test;
+
+/**
+ * Tests of a {@link RequestController} using {@link StripedRequestCount striped counting}.
+ */
+public class StripedRequestCountTestCase {
+
+    @Test
+    public void testCounting() throws Exception {
+        RequestController controller = new RequestController(true, true);
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        assertEquals(2, controller.getActiveRequestCount());
+        assertEquals(2, controlPoint.getActiveRequestCount());
+        controlPoint.requestComplete();
+        controlPoint.requestComplete();
+        assertEquals(0, controller.getActiveRequestCount());
+        assertEquals(0, controlPoint.getActiveRequestCount());
+    }
+
+    @Test
+    public void testMaxRequestCount() throws Exception {
+        RequestController controller = new RequestController(false, true);
+        controller.setMaxRequestCount(1);
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        assertEquals(1, controller.getActiveRequestCount());
+        controlPoint.requestComplete();
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testSuspendWaitsForConcurrentRequests() throws Exception {
+        final int threads = 8;
+        final RequestController controller = new RequestController(true, true);
+        final ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        final CountDownLatch running = new CountDownLatch(threads);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger done = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        for (int j = 0; j < 1000; j++) {
+                            if (controlPoint.beginRequest() == RunResult.RUN) {
+                                controlPoint.requestComplete();
+                            }
+                        }
+                        if (controlPoint.beginRequest() == RunResult.RUN) {
+                            running.countDown();
+                            release.await();
+                            controlPoint.requestComplete();
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+            final CountDownLatch suspended = new CountDownLatch(1);
+            controller.suspended(new ServerActivityCallback() {
+                @Override
+                public void done() {
+                    done.incrementAndGet();
+                    suspended.countDown();
+                }
+            });
+            assertEquals(threads, controller.getActiveRequestCount());
+            assertEquals(0, done.get());
+            release.countDown();
+            assertTrue(suspended.await(10, TimeUnit.SECONDS));
+            assertEquals(1, done.get());
+            assertEquals(0, controlPoint.getActiveRequestCount());
+            assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
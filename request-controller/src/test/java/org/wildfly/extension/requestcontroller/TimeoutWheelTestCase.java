@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link TimeoutWheel}.
+ */
+public class TimeoutWheelTestCase {
+
+    @Test
+    public void testExpiry() throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel("test", 5, TimeUnit.MILLISECONDS, 8);
+        wheel.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(3);
+            final long start = System.nanoTime();
+            final long[] expired = new long[3];
+            // 100ms is more than a full rotation of the wheel
+            final long[] delays = {100, 1, 30};
+            for (int i = 0; i < delays.length; i++) {
+                final int index = i;
+                wheel.schedule(new TimeoutWheel.Timeout() {
+                    @Override
+                    void expire() {
+                        expired[index] = System.nanoTime() - start;
+                        latch.countDown();
+                    }
+                }, delays[i], TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < delays.length; i++) {
+                assertTrue(expired[i] >= TimeUnit.MILLISECONDS.toNanos(delays[i]));
+            }
+            assertTrue(expired[1] < expired[2]);
+            assertTrue(expired[2] < expired[0]);
+            assertEquals(0, wheel.getPendingCount());
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel("test", 5, TimeUnit.MILLISECONDS, 8);
+        wheel.start();
+        try {
+            final AtomicInteger expired = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(1);
+            TimeoutWheel.Timeout[] timeouts = new TimeoutWheel.Timeout[1000];
+            for (int i = 0; i < timeouts.length; i++) {
+                timeouts[i] = new TimeoutWheel.Timeout() {
+                    @Override
+                    void expire() {
+                        expired.incrementAndGet();
+                    }
+                };
+                wheel.schedule(timeouts[i], 20 + i % 50, TimeUnit.MILLISECONDS);
+            }
+            assertEquals(timeouts.length, wheel.getPendingCount());
+            for (int i = 0; i < timeouts.length; i += 2) {
+                assertTrue(timeouts[i].cancelTimeout());
+                assertFalse(timeouts[i].cancelTimeout());
+            }
+            assertEquals(timeouts.length / 2, wheel.getPendingCount());
+            wheel.schedule(new TimeoutWheel.Timeout() {
+                @Override
+                void expire() {
+                    latch.countDown();
+                }
+            }, 100, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(timeouts.length / 2, expired.get());
+            assertEquals(0, wheel.getPendingCount());
+            assertFalse(timeouts[1].cancelTimeout());
+        } finally {
+            wheel.stop();
+        }
+    }
+}
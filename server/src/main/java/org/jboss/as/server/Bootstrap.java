@@ -22,6 +22,7 @@
 
 package org.jboss.as.server;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -36,11 +37,13 @@ import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.RuntimeHostControllerInfoAccessor;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.server.controller.git.GitConfigurationPersister;
 import org.jboss.as.controller.persistence.XmlConfigurationPersister;
 import org.jboss.as.server.parsing.StandaloneXml;
+import org.jboss.as.version.Version;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.msc.service.ServiceActivator;
@@ -214,8 +217,15 @@ public interface Bootstrap {
                             persister = new GitConfigurationPersister(serverEnvironment.getGitRepository(), configurationFile, rootElement, parser, parser,
                                     runningModeControl.isReloaded());
                         } else {
-                            persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser,
-                                    runningModeControl.isReloaded(), serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED);
+                            BackupXmlConfigurationPersister backupPersister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser,
+                                    runningModeControl.isReloaded(), serverEnvironment.getLaunchType() == ServerEnvironment.LaunchType.EMBEDDED,
+                                    serverEnvironment.getServerConfigurationFlushInterval());
+                            File bootCacheFile = serverEnvironment.getBootOperationCacheFile();
+                            if (bootCacheFile != null) {
+                                String environment = Version.AS_VERSION + '|' + serverEnvironment.getProductConfig().getPrettyVersionString() + '|' + rootElement;
+                                backupPersister.setBootOperationCache(new BootOperationCache(bootCacheFile, environment, Module.getBootModuleLoader()));
+                            }
+                            persister = backupPersister;
                         }
                         for (Namespace namespace : Namespace.domainValues()) {
                             if (!namespace.equals(Namespace.CURRENT)) {
@@ -272,6 +272,40 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
     @Deprecated
     public static final String JBOSS_PERSIST_SERVER_CONFIG = "jboss.server.persist.config";
 
+    /**
+     * The system property used to enable batched writing of the server configuration file. If set to a number of
+     * milliseconds greater than zero, configuration changes committed within that time of each other are written
+     * to the configuration file together, no later than that time after the first of them was committed. Each change
+     * is synced to a write log before the operation making it completes, so it survives a crash. If not set, the
+     * configuration file is written before each operation that changes it completes.
+     */
+    public static final String JBOSS_SERVER_CONFIG_FLUSH_INTERVAL = "jboss.server.config.flush-interval";
+
+    /**
+     * The system property used to enable caching of the boot operations parsed from the server configuration file.
+     * If set to {@code true}, the operations are stored in the server data directory after a successful boot and
+     * are used instead of parsing the configuration file on the next boot, unless the file, the server version
+     * or any extension module it uses have changed since.
+     */
+    public static final String JBOSS_SERVER_BOOT_CACHE = "jboss.server.boot-cache";
+
+    /**
+     * The system property used to enable boot profiling. If set to {@code true}, the start of every service installed
+     * by a management operation and every deployment unit processor executed during boot is timed, and a report of
+     * the critical path and of the time spent by each subsystem is written to the server log directory once the server
+     * has started. The report can also be read using the {@code read-boot-profile} operation.
+     */
+    public static final String JBOSS_SERVER_BOOT_PROFILE = "jboss.server.boot-profile";
+
+    /**
+     * The system property used to enable caching of the annotation indexes of deployed jars. If set to a number of
+     * megabytes greater than zero, the index of each jar is stored in the server data directory under the hash of the
+     * classes it contains, and is used instead of indexing the jar again when a jar with the same classes is deployed,
+     * whether by another deployment, a redeployment or after a restart. The least recently used indexes are removed
+     * once the cached indexes take more than that space.
+     */
+    public static final String JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE = "jboss.server.annotation-index-cache-size";
+
     public static final String DOMAIN_BASE_DIR = "jboss.domain.base.dir";
     public static final String DOMAIN_CONFIG_DIR = "jboss.domain.config.dir";
 
@@ -279,7 +313,9 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
     private static final Set<String> ILLEGAL_PROPERTIES = new HashSet<String>(Arrays.asList(DOMAIN_BASE_DIR,
             DOMAIN_CONFIG_DIR, JAVA_EXT_DIRS, HOME_DIR, "modules.path", SERVER_BASE_DIR, SERVER_CONFIG_DIR,
             SERVER_DATA_DIR, SERVER_DEPLOY_DIR, SERVER_LOG_DIR, BOOTSTRAP_MAX_THREADS, CONTROLLER_TEMP_DIR,
-            JBOSS_SERVER_DEFAULT_CONFIG, JBOSS_PERSIST_SERVER_CONFIG, JBOSS_SERVER_MANAGEMENT_UUID));
+            JBOSS_SERVER_DEFAULT_CONFIG, JBOSS_PERSIST_SERVER_CONFIG, JBOSS_SERVER_MANAGEMENT_UUID,
+            JBOSS_SERVER_CONFIG_FLUSH_INTERVAL, JBOSS_SERVER_BOOT_CACHE, JBOSS_SERVER_BOOT_PROFILE,
+            JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE));
     /** Properties that can only be set via {@link #systemPropertyUpdated(String, String)} during server boot. */
     private static final Set<String> BOOT_PROPERTIES = new HashSet<String>(Arrays.asList(BUNDLES_DIR, SERVER_TEMP_DIR,
             NODE_NAME, SERVER_NAME, HOST_NAME, QUALIFIED_HOST_NAME));
@@ -326,6 +362,10 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
     private final long startTime;
     private final boolean startSuspended;
     private final boolean startGracefully;
+    private final long serverConfigurationFlushInterval;
+    private final boolean bootOperationCacheEnabled;
+    private final boolean bootProfilingEnabled;
+    private final long annotationIndexCacheSize;
     private GitRepository repository;
 
     public ServerEnvironment(final String hostControllerName, final Properties props, final Map<String, String> env, final String serverConfig,
@@ -585,6 +625,28 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
             }
         }
         allowModelControllerExecutor = allowExecutor;
+        long flushInterval = 0;
+        String flushIntervalProp = props.getProperty(JBOSS_SERVER_CONFIG_FLUSH_INTERVAL);
+        if (flushIntervalProp != null && flushIntervalProp.length() > 0) {
+            try {
+                flushInterval = Math.max(0, Long.decode(flushIntervalProp));
+            } catch (NumberFormatException ex) {
+                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(JBOSS_SERVER_CONFIG_FLUSH_INTERVAL, flushIntervalProp);
+            }
+        }
+        serverConfigurationFlushInterval = flushInterval;
+        bootOperationCacheEnabled = Boolean.parseBoolean(props.getProperty(JBOSS_SERVER_BOOT_CACHE, "false"));
+        bootProfilingEnabled = Boolean.parseBoolean(props.getProperty(JBOSS_SERVER_BOOT_PROFILE, "false"));
+        long indexCacheSize = 0;
+        String indexCacheSizeProp = props.getProperty(JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE);
+        if (indexCacheSizeProp != null && indexCacheSizeProp.length() > 0) {
+            try {
+                indexCacheSize = Math.max(0, Long.decode(indexCacheSizeProp)) * 1024 * 1024;
+            } catch (NumberFormatException ex) {
+                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE, indexCacheSizeProp);
+            }
+        }
+        annotationIndexCacheSize = indexCacheSize;
         final Path filePath = this.serverDataDir.toPath().resolve(KERNEL_DIR).resolve(UUID_FILE);
         UUID uuid;
         try {
@@ -995,6 +1057,68 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
         return startGracefully;
     }
 
+    /**
+     * Gets the maximum time in milliseconds between a configuration change being committed and the server
+     * configuration file being written.
+     *
+     * @return the flush interval, or {@code 0} if the configuration file is written as part of each change
+     *
+     * @see #JBOSS_SERVER_CONFIG_FLUSH_INTERVAL
+     */
+    public long getServerConfigurationFlushInterval() {
+        return serverConfigurationFlushInterval;
+    }
+
+    /**
+     * Gets the file in which the boot operations parsed from the server configuration file should be cached.
+     *
+     * @return the cache file, or {@code null} if boot operations should not be cached
+     *
+     * @see #JBOSS_SERVER_BOOT_CACHE
+     */
+    public File getBootOperationCacheFile() {
+        if (!bootOperationCacheEnabled || serverConfigurationFile == null) {
+            return null;
+        }
+        return serverDataDir.toPath().resolve(KERNEL_DIR).resolve(serverConfigurationFile.getMainFile().getName() + ".boot-ops").toFile();
+    }
+
+    /**
+     * Gets whether the timing of services and deployment unit processors should be recorded during boot.
+     *
+     * @return {@code true} if boot profiling is enabled
+     *
+     * @see #JBOSS_SERVER_BOOT_PROFILE
+     */
+    public boolean isBootProfilingEnabled() {
+        return bootProfilingEnabled;
+    }
+
+    /**
+     * Gets the directory in which the annotation indexes of deployed jars should be cached.
+     *
+     * @return the cache directory, or {@code null} if annotation indexes should not be cached
+     *
+     * @see #JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE
+     */
+    public File getAnnotationIndexCacheDir() {
+        if (annotationIndexCacheSize <= 0) {
+            return null;
+        }
+        return new File(serverDataDir, "annotation-index-cache");
+    }
+
+    /**
+     * Gets the maximum space the cached annotation indexes of deployed jars may take.
+     *
+     * @return the maximum size in bytes, or {@code 0} if annotation indexes should not be cached
+     *
+     * @see #JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE
+     */
+    public long getAnnotationIndexCacheSize() {
+        return annotationIndexCacheSize;
+    }
+
     private File configureServerTempDir(String path, Properties providedProps) {
         File tmp = getFileFromPath(path);
         if (tmp == null) {
@@ -26,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAM
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.SERVER_ENVIRONMENT;
 
 import java.io.File;
+import java.util.Locale;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
@@ -41,6 +42,7 @@ import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.services.path.PathInfoHandler;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
 import org.jboss.dmr.ModelNode;
@@ -59,6 +61,13 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
     static final AttributeDefinition BASE_DIR = SimpleAttributeDefinitionBuilder.create("base-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     static final AttributeDefinition CONFIG_DIR = SimpleAttributeDefinitionBuilder.create("config-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     static final AttributeDefinition CONFIG_FILE = SimpleAttributeDefinitionBuilder.create("config-file", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    static final AttributeDefinition CONFIG_DURABILITY = SimpleAttributeDefinitionBuilder.create("config-durability", ModelType.STRING)
+            .setRequired(false)
+            .setAllowedValues(ConfigDurability.SYNCHRONOUS.toString(), ConfigDurability.WRITE_LOG.toString(), ConfigDurability.NONE.toString())
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    static final AttributeDefinition CONFIG_FLUSH_INTERVAL = SimpleAttributeDefinitionBuilder.create("config-flush-interval", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     static final AttributeDefinition CONTENT_DIR = SimpleAttributeDefinitionBuilder.create("content-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     static final AttributeDefinition DATA_DIR = SimpleAttributeDefinitionBuilder.create("data-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     static final AttributeDefinition DEPLOY_DIR = SimpleAttributeDefinitionBuilder.create("deploy-dir", ModelType.STRING).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
@@ -80,10 +89,25 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
     public static final AttributeDefinition START_SUSPENDED = SimpleAttributeDefinitionBuilder.create("start-suspended", ModelType.BOOLEAN).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final AttributeDefinition GRACEFUL_STARTUP = SimpleAttributeDefinitionBuilder.create("start-gracefully", ModelType.BOOLEAN).setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
 
-    private static final AttributeDefinition[] SERVER_ENV_ATTRIBUTES = {BASE_DIR, CONFIG_DIR, CONFIG_FILE, CONTENT_DIR, DATA_DIR,
+    private static final AttributeDefinition[] SERVER_ENV_ATTRIBUTES = {BASE_DIR, CONFIG_DIR, CONFIG_FILE, CONFIG_DURABILITY, CONFIG_FLUSH_INTERVAL, CONTENT_DIR, DATA_DIR,
             DEPLOY_DIR, EXT_DIRS, HOME_DIR, HOST_NAME, INITIAL_RUNNING_MODE, LAUNCH_TYPE, LOG_DIR, MODULES_DIR, NODE_NAME,
             QUALIFIED_HOST_NAME, SERVER_NAME, TEMP_DIR, START_SUSPENDED, GRACEFUL_STARTUP};
 
+    /** What happens to a configuration change before the operation making it completes */
+    private enum ConfigDurability {
+        /** The configuration file is written */
+        SYNCHRONOUS,
+        /** The change is synced to a write log, and the configuration file is written later */
+        WRITE_LOG,
+        /** Changes do not survive a restart */
+        NONE;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+        }
+    }
+
     private final ServerEnvironmentReadHandler osh;
 
     /**
@@ -153,6 +177,21 @@ public class ServerEnvironmentResourceDescription extends SimpleResourceDefiniti
             if (equals(name, CONFIG_FILE)) {
                 set(result, environment.getServerConfigurationFile());
             }
+            if (equals(name, CONFIG_DURABILITY)) {
+                final ConfigurationFile configurationFile = environment.getServerConfigurationFile();
+                if (configurationFile != null) {
+                    if (configurationFile.getInteractionPolicy().isReadOnly()) {
+                        result.set(ConfigDurability.NONE.toString());
+                    } else if (environment.getServerConfigurationFlushInterval() > 0) {
+                        result.set(ConfigDurability.WRITE_LOG.toString());
+                    } else {
+                        result.set(ConfigDurability.SYNCHRONOUS.toString());
+                    }
+                }
+            }
+            if (equals(name, CONFIG_FLUSH_INTERVAL)) {
+                result.set(environment.getServerConfigurationFlushInterval());
+            }
             if (equals(name, DATA_DIR)) {
                 set(result, environment.getServerDataDir());
             }
@@ -30,6 +30,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.domain.http.server.ConsoleAvailability.CONSOLE_AVAILABILITY_CAPABILITY;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,6 +51,7 @@ import java.util.function.Supplier;
 
 import org.jboss.as.controller.AbstractControllerService;
 import org.jboss.as.controller.BootContext;
+import org.jboss.as.controller.BootProfiler;
 import org.jboss.as.controller.CapabilityRegistry;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.DelegatingResourceDefinition;
@@ -96,6 +101,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.deployment.ServiceLoaderProcessor;
 import org.jboss.as.server.deployment.SubDeploymentProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CleanupAnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndexProcessor;
@@ -306,6 +312,9 @@ public final class ServerService extends AbstractControllerService {
         boolean ok;
         try {
             final ServerEnvironment serverEnvironment = configuration.getServerEnvironment();
+            if (serverEnvironment.isBootProfilingEnabled()) {
+                BootProfiler.getInstance().start();
+            }
             final ServiceTarget serviceTarget = context.getServiceTarget();
             final File[] extDirs = serverEnvironment.getJavaExtDirs();
             final File[] newExtDirs = Arrays.copyOf(extDirs, extDirs.length + 1);
@@ -358,7 +367,8 @@ public final class ServerService extends AbstractControllerService {
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_DEFERRED_DEPLOYMENT_OVERLAY, new DeferredDeploymentOverlayDeploymentUnitProcessor(injectedContentRepository.getValue()));
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_SUB_DEPLOYMENT, new SubDeploymentProcessor());
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_MODULE_IDENTIFIERS, new ModuleIdentifierProcessor());
-            DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor());
+            DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_ANNOTATION_INDEX,
+                    new AnnotationIndexProcessor(AnnotationIndexCache.create(configuration.getServerEnvironment())));
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_PARSE_JBOSS_ALL_XML, new JBossAllXMLParsingProcessor());
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_JBOSS_DEPLOYMENT_STRUCTURE, new DeploymentStructureDescriptorParser());
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_CLASS_PATH, new ManifestClassPathProcessor());
@@ -428,7 +438,9 @@ public final class ServerService extends AbstractControllerService {
                     PathElement.pathElement(SERVICE, MANAGEMENT_OPERATIONS)), ServerLogger.AS_ROOT_LOGGER.bootComplete());
             getNotificationSupport().emit(notification);
             bootstrapListener.printBootStatistics();
+            writeBootProfile(BootProfiler.getInstance().complete());
         } else {
+            BootProfiler.getInstance().complete();
             // Die!
             final String message = ServerLogger.ROOT_LOGGER.unsuccessfulBoot();
             bootstrapListener.bootFailure(message);
@@ -441,6 +453,19 @@ public final class ServerService extends AbstractControllerService {
         }
     }
 
+    private void writeBootProfile(final ModelNode report) {
+        if (report == null) {
+            return;
+        }
+        final File file = new File(configuration.getServerEnvironment().getServerLogDir(), "boot-profile.json");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(report.toJSONString(false));
+            ServerLogger.ROOT_LOGGER.bootProfileWritten(file.getAbsolutePath());
+        } catch (IOException e) {
+            ServerLogger.ROOT_LOGGER.failedToWriteBootProfile(e, file.getAbsolutePath());
+        }
+    }
+
     protected void finishBoot(boolean suspend) throws ConfigurationPersistenceException {
         super.finishBoot();
         if (!suspend) {
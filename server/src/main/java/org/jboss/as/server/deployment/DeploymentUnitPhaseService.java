@@ -30,6 +30,7 @@ import java.util.ListIterator;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.jboss.as.controller.BootProfiler;
 import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.modules.ModuleIdentifier;
@@ -116,6 +117,8 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         runOnce.set(true);
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
+        final BootProfiler profiler = BootProfiler.getInstance();
+        profiler.serviceStarting(context.getController(), deploymentUnit.getName());
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
         final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
@@ -179,7 +182,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
+                    final long processorStart = System.nanoTime();
                     processor.getProcessor().deploy(processorContext);
+                    profiler.processorExecuted(deploymentUnit.getName(), phase.name(), processor.getProcessor(), processor.getSubsystemName(), processorStart);
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -0,0 +1,356 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+
+/**
+ * A cache of the annotation indexes of jars, shared by all deployments. Indexes are stored in a directory under the
+ * hash of the classes of the jar, so that a jar is only indexed once for as long as its index stays in the cache, no
+ * matter how many deployments include it or how often they are redeployed. The least recently used indexes are
+ * removed once the stored indexes take more than the maximum size. Recently used indexes are also kept in memory as
+ * long as memory allows.
+ * <p>
+ * The key of an index also starts with a fingerprint of the names and sizes of the classes, which can be computed
+ * without reading them. A jar whose fingerprint is not known is not in the cache, so its classes only need to be read
+ * once, to both hash and index them.
+ *
+ * @see ServerEnvironment#JBOSS_SERVER_ANNOTATION_INDEX_CACHE_SIZE
+ */
+public final class AnnotationIndexCache {
+
+    /** Changing this invalidates all stored indexes */
+    private static final String CACHE_VERSION = "2";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char FINGERPRINT_SEPARATOR = '-';
+    private static final int MAX_MEMORY_ENTRIES = 128;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path dir;
+    private final long maxSize;
+    private final byte[] keySalt;
+
+    /** Guarded by this - the size of each stored index, least recently used first */
+    private final LinkedHashMap<String, Long> storedIndexes = new LinkedHashMap<>(16, 0.75f, true);
+    /** Guarded by this */
+    private long storedSize;
+    /** Guarded by this - the key of the index last added for each fingerprint */
+    private final Map<String, String> keysByFingerprint = new HashMap<>();
+    /** Guarded by this - the indexes last used, least recently used first */
+    private final Map<String, SoftReference<Index>> loadedIndexes = new LinkedHashMap<String, SoftReference<Index>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Index>> eldest) {
+            return size() > MAX_MEMORY_ENTRIES;
+        }
+    };
+
+    AnnotationIndexCache(final Path dir, final long maxSize) throws IOException {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        // Indexes written by a different version of Jandex may hold less information
+        final String jandexVersion = Index.class.getPackage() == null ? null : Index.class.getPackage().getImplementationVersion();
+        this.keySalt = (CACHE_VERSION + ':' + jandexVersion).getBytes(StandardCharsets.UTF_8);
+        Files.createDirectories(dir);
+        loadStoredIndexes();
+    }
+
+    /**
+     * Creates the cache configured for the server.
+     *
+     * @param environment the server environment, may be {@code null}
+     * @return the cache, or {@code null} if annotation indexes should not be cached
+     */
+    public static AnnotationIndexCache create(final ServerEnvironment environment) {
+        final File dir = environment == null ? null : environment.getAnnotationIndexCacheDir();
+        if (dir == null) {
+            return null;
+        }
+        try {
+            return new AnnotationIndexCache(dir.toPath(), environment.getAnnotationIndexCacheSize());
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotReadCachedAnnotationIndex(e, dir.getAbsolutePath());
+            return null;
+        }
+    }
+
+    /**
+     * Creates a digest to compute the key or the fingerprint of an index. For the key, the digest should be updated
+     * with the content of all the classes the index is created from, and for the fingerprint with their names and
+     * sizes.
+     *
+     * @return the digest
+     */
+    MessageDigest newKeyDigest() {
+        final MessageDigest digest = newDigest();
+        digest.update(keySalt);
+        return digest;
+    }
+
+    /**
+     * Creates a digest of the algorithm used for the keys, to hash parts of the content.
+     *
+     * @return the digest
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the fingerprint of an index from the digest of the names and sizes of its classes.
+     *
+     * @param digest the digest created by {@link #newKeyDigest()}
+     * @return the fingerprint
+     */
+    static String getFingerprint(final MessageDigest digest) {
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Gets the key of an index from its fingerprint and the digest of its classes.
+     *
+     * @param fingerprint the fingerprint of the index
+     * @param digest      the digest created by {@link #newKeyDigest()}
+     * @return the key
+     */
+    static String getKey(final String fingerprint, final MessageDigest digest) {
+        return fingerprint + FINGERPRINT_SEPARATOR + toHex(digest.digest());
+    }
+
+    private static String toHex(final byte[] hash) {
+        final char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Finds the key of the index last added with a fingerprint. The index may no longer be cached, or may be the
+     * index of different classes with the same names and sizes, so its key still has to be checked.
+     *
+     * @param fingerprint the fingerprint
+     * @return the key, or {@code null} if no index with the fingerprint is cached
+     */
+    synchronized String findKey(final String fingerprint) {
+        return keysByFingerprint.get(fingerprint);
+    }
+
+    /**
+     * Gets a cached index.
+     *
+     * @param key the key of the index
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index get(final String key) {
+        synchronized (this) {
+            final SoftReference<Index> ref = loadedIndexes.get(key);
+            final Index index = ref == null ? null : ref.get();
+            // Either way this marks the stored index as used
+            final boolean stored = storedIndexes.get(key) != null;
+            if (index != null) {
+                return index;
+            }
+            if (!stored) {
+                return null;
+            }
+        }
+        final Path file = getFile(key);
+        final Index index;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            index = new IndexReader(in).read();
+        } catch (NoSuchFileException e) {
+            // Removed since
+            return null;
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotReadCachedAnnotationIndex(e, file.toString());
+            remove(key);
+            return null;
+        }
+        try {
+            // The modification time orders the indexes by use when the server is restarted
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects which index is removed first
+        }
+        synchronized (this) {
+            loadedIndexes.put(key, new SoftReference<>(index));
+        }
+        return index;
+    }
+
+    /**
+     * Adds an index to the cache, removing the least recently used indexes if the cache has become too large.
+     *
+     * @param key   the key of the index
+     * @param index the index
+     * @throws IOException if the index could not be stored
+     */
+    void put(final String key, final Index index) throws IOException {
+        synchronized (this) {
+            loadedIndexes.put(key, new SoftReference<>(index));
+            addFingerprint(key);
+            if (storedIndexes.get(key) != null) {
+                return;
+            }
+        }
+        final Path file = getFile(key);
+        // Write to a temporary file first, so that a concurrent get or a crash never sees a partial index
+        final Path tempFile = Files.createTempFile(dir, key, TEMP_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                new IndexWriter(out).write(index);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        final long size = Files.size(file);
+        synchronized (this) {
+            final Long previous = storedIndexes.put(key, size);
+            storedSize += size - (previous == null ? 0 : previous);
+            removeLeastRecentlyUsed();
+        }
+    }
+
+    private synchronized void remove(final String key) {
+        final Long size = storedIndexes.remove(key);
+        if (size != null) {
+            storedSize -= size;
+            loadedIndexes.remove(key);
+            removeFingerprint(key);
+            deleteFile(key);
+        }
+    }
+
+    /** Call with the lock taken */
+    private void removeLeastRecentlyUsed() {
+        final Iterator<Map.Entry<String, Long>> iterator = storedIndexes.entrySet().iterator();
+        while (storedSize > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+            iterator.remove();
+            storedSize -= entry.getValue();
+            loadedIndexes.remove(entry.getKey());
+            removeFingerprint(entry.getKey());
+            deleteFile(entry.getKey());
+        }
+    }
+
+    /** Call with the lock taken */
+    private void addFingerprint(final String key) {
+        final int separator = key.indexOf(FINGERPRINT_SEPARATOR);
+        if (separator > 0) {
+            keysByFingerprint.put(key.substring(0, separator), key);
+        }
+    }
+
+    /** Call with the lock taken */
+    private void removeFingerprint(final String key) {
+        final int separator = key.indexOf(FINGERPRINT_SEPARATOR);
+        if (separator > 0) {
+            keysByFingerprint.remove(key.substring(0, separator), key);
+        }
+    }
+
+    private void loadStoredIndexes() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // Left over by a crash
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(INDEX_SUFFIX)) {
+                    files.add(file);
+                }
+            }
+        }
+        final Map<Path, FileTime> lastModified = new LinkedHashMap<>();
+        for (Path file : files) {
+            lastModified.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort((a, b) -> lastModified.get(a).compareTo(lastModified.get(b)));
+        synchronized (this) {
+            for (Path file : files) {
+                final String name = file.getFileName().toString();
+                final String key = name.substring(0, name.length() - INDEX_SUFFIX.length());
+                final long size = Files.size(file);
+                storedIndexes.put(key, size);
+                storedSize += size;
+                addFingerprint(key);
+            }
+            removeLeastRecentlyUsed();
+        }
+    }
+
+    private void deleteFile(final String key) {
+        try {
+            Files.deleteIfExists(getFile(key));
+        } catch (IOException ignored) {
+            // It is no longer used either way
+        }
+    }
+
+    private Path getFile(final String key) {
+        return dir.resolve(key + INDEX_SUFFIX);
+    }
+
+    synchronized long getStoredSize() {
+        return storedSize;
+    }
+}
@@ -37,6 +37,19 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final AnnotationIndexCache cache;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * @param cache the cache of the indexes of jars, or {@code null} if every resource root should be indexed
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache) {
+        this.cache = cache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -48,7 +61,7 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+            ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
         }
     }
 
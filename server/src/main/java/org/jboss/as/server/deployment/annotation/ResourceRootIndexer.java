@@ -22,7 +22,11 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -50,6 +54,18 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If the
+     * resource root is a jar, and a cache is given, the index is taken from the cache if it holds the index of a jar
+     * with the same classes, and is added to the cache otherwise.
+     *
+     * @param resourceRoot the resource root
+     * @param cache the cache of the indexes of jars, or {@code null} if indexes should not be cached
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final AnnotationIndexCache cache) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -92,22 +108,131 @@ public class ResourceRootIndexer {
             });
 
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            final String fingerprint = cache != null && virtualFile.getName().endsWith(".jar") ? getFingerprint(cache, virtualFile, classChildren) : null;
+            final boolean likelyCached = fingerprint != null && cache.findKey(fingerprint) != null;
+            String cacheKey = null;
+            if (likelyCached) {
+                // Likely cached, so only hash the classes, and index them in a second pass if it was not
+                cacheKey = getCacheKey(cache, fingerprint, virtualFile, classChildren);
+                final Index index = cacheKey == null ? null : cache.get(cacheKey);
+                if (index != null) {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                    ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index %s for archive %s", cacheKey, virtualFile);
+                    return;
+                }
+            }
+            // Not cached, so hash the classes while indexing them, unless they were hashed already
+            final MessageDigest digest = fingerprint != null && !likelyCached ? cache.newKeyDigest() : null;
+            final MessageDigest classDigest = digest != null ? AnnotationIndexCache.newDigest() : null;
+            boolean hashed = digest != null;
             for (VirtualFile classFile : classChildren) {
                 InputStream inputStream = null;
                 try {
                     inputStream = classFile.openStream();
+                    if (hashed) {
+                        inputStream = new DigestInputStream(inputStream, classDigest);
+                    }
                     indexer.index(inputStream);
                 } catch (Exception e) {
                     ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
                 } finally {
+                    // The indexer need not read the whole class
+                    hashed = hashed && readFully(inputStream);
                     VFSUtils.safeClose(inputStream);
                 }
+                if (hashed) {
+                    updateKeyDigest(digest, classDigest, virtualFile, classFile);
+                }
+            }
+            if (hashed) {
+                cacheKey = AnnotationIndexCache.getKey(fingerprint, digest);
             }
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cacheKey != null) {
+                try {
+                    cache.put(cacheKey, index);
+                } catch (IOException e) {
+                    ServerLogger.DEPLOYMENT_LOGGER.cannotCacheAnnotationIndex(e, virtualFile.getPathName());
+                }
+            }
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Computes the fingerprint of the index of a resource root in the cache, from the names and the sizes of its
+     * classes. Unlike their content, the sizes of the classes of a jar are known without reading them.
+     */
+    private static String getFingerprint(final AnnotationIndexCache cache, final VirtualFile virtualFile, final List<VirtualFile> classChildren) {
+        final MessageDigest digest = cache.newKeyDigest();
+        for (VirtualFile classFile : classChildren) {
+            digest.update(classFile.getPathNameRelativeTo(virtualFile).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            final long size = classFile.getSize();
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                digest.update((byte) (size >>> shift));
+            }
+        }
+        return AnnotationIndexCache.getFingerprint(digest);
+    }
+
+    /**
+     * Computes the key of the index of a resource root in the cache, from the names and the content of its classes.
+     *
+     * @return the key, or {@code null} if a class could not be read, in which case the index should not be cached
+     */
+    private static String getCacheKey(final AnnotationIndexCache cache, final String fingerprint, final VirtualFile virtualFile, final List<VirtualFile> classChildren) {
+        final MessageDigest digest = cache.newKeyDigest();
+        final MessageDigest classDigest = AnnotationIndexCache.newDigest();
+        for (VirtualFile classFile : classChildren) {
+            final InputStream inputStream;
+            try {
+                inputStream = new DigestInputStream(classFile.openStream(), classDigest);
+            } catch (IOException e) {
+                // Reported when the class is indexed
+                return null;
+            }
+            try {
+                if (!readFully(inputStream)) {
+                    return null;
+                }
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+            updateKeyDigest(digest, classDigest, virtualFile, classFile);
+        }
+        return AnnotationIndexCache.getKey(fingerprint, digest);
+    }
+
+    private static void updateKeyDigest(final MessageDigest digest, final MessageDigest classDigest, final VirtualFile virtualFile, final VirtualFile classFile) {
+        // The name is terminated, and the hash of the content has a fixed length, so no two sets of classes
+        // produce the same input
+        digest.update(classFile.getPathNameRelativeTo(virtualFile).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(classDigest.digest());
+    }
+
+    /**
+     * Reads the rest of a stream, so that a digest of it is complete.
+     *
+     * @return {@code false} if the stream could not be read
+     */
+    private static boolean readFully(final InputStream inputStream) {
+        if (inputStream == null) {
+            return false;
+        }
+        final byte[] buffer = new byte[8192];
+        try {
+            while (inputStream.read(buffer) != -1) {
+                // the stream updates the digest
+            }
+            return true;
+        } catch (IOException e) {
+            // The index is then not cached
+            return false;
+        }
+    }
 }
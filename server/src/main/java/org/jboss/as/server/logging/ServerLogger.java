@@ -1379,6 +1379,22 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 284, value = "Failed to restore the configuration after failing to initialize the repository %s")
     RuntimeException failedToRestoreConfiguration(@Cause Exception cause, String repository);
 
+    @LogMessage(level = INFO)
+    @Message(id = 285, value = "Boot profile written to %s")
+    void bootProfileWritten(String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 286, value = "Failed to write boot profile to %s")
+    void failedToWriteBootProfile(@Cause Throwable cause, String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 287, value = "Failed to read the cached annotation index %s")
+    void cannotReadCachedAnnotationIndex(@Cause Throwable cause, String file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 288, value = "Failed to store the annotation index of %s in the cache")
+    void cannotCacheAnnotationIndex(@Cause Throwable cause, String resourceRoot);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
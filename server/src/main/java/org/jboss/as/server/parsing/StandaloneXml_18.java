@@ -55,7 +55,6 @@ import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 import static org.jboss.as.server.controller.resources.ServerRootResourceDefinition.ORGANIZATION_IDENTIFIER;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -64,7 +63,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -77,6 +75,7 @@ import org.jboss.as.controller.parsing.Element;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.parsing.ProfileParsingCompletionHandler;
+import org.jboss.as.controller.parsing.SubsystemParsingContext;
 import org.jboss.as.controller.parsing.WriteUtils;
 import org.jboss.as.controller.persistence.ModelMarshallingContext;
 import org.jboss.as.domain.management.access.AccessAuthorizationResourceDefinition;
@@ -659,6 +658,8 @@ final class StandaloneXml_18 extends CommonXml implements ManagementXmlDelegate
 
         // Content
         final Map<String, List<ModelNode>> profileOps = new LinkedHashMap<String, List<ModelNode>>();
+        final SubsystemParsingContext subsystemParsing = new SubsystemParsingContext(deferredExtensionContext.getBootExecutor(),
+                StandaloneXml.ParsingOption.IGNORE_SUBSYSTEM_FAILURES.isSet(this.parsingOptions));
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             if (Element.forName(reader.getLocalName()) != Element.SUBSYSTEM) {
                 throw unexpectedElement(reader);
@@ -668,22 +669,9 @@ final class StandaloneXml_18 extends CommonXml implements ManagementXmlDelegate
                 throw ControllerLogger.ROOT_LOGGER.duplicateDeclaration("subsystem", reader.getLocation());
             }
             // parse subsystem
-            final List<ModelNode> subsystems = new ArrayList<ModelNode>();
-            try {
-                reader.handleAny(subsystems);
-            } catch (XMLStreamException e) {
-                if(StandaloneXml.ParsingOption.IGNORE_SUBSYSTEM_FAILURES.isSet(this.parsingOptions)) {
-                    QName element = new QName(reader.getNamespaceURI(), reader.getLocalName());
-                    ControllerLogger.ROOT_LOGGER.failedToParseElementLenient(e, element.toString());
-                    reader.discardRemainder();
-                }
-                else {
-                    throw e;
-                }
-            }
-
-            profileOps.put(namespace, subsystems);
+            profileOps.put(namespace, subsystemParsing.parse(reader));
         }
+        subsystemParsing.complete();
 
         // Let extensions modify the profile
         Set<ProfileParsingCompletionHandler> completionHandlers = extensionHandler.getProfileParsingCompletionHandlers();
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    private Path dir;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("annotation-index-cache");
+    }
+
+    @After
+    public void deleteDir() {
+        for (File file : dir.toFile().listFiles()) {
+            file.delete();
+        }
+        dir.toFile().delete();
+    }
+
+    @Test
+    public void testIndexStored() throws IOException {
+        final Index index = indexOf(AnnotationIndexCacheTestCase.class);
+        AnnotationIndexCache cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        Assert.assertNull(cache.get("first"));
+        cache.put("first", index);
+        Assert.assertSame(index, cache.get("first"));
+
+        // As after a restart
+        cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        final Index stored = cache.get("first");
+        Assert.assertNotNull(stored);
+        Assert.assertNotNull(stored.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+        Assert.assertNull(cache.get("second"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRemoved() throws IOException {
+        final Index index = indexOf(AnnotationIndexCacheTestCase.class);
+        AnnotationIndexCache cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        cache.put("first", index);
+        final long size = cache.getStoredSize();
+        Assert.assertTrue(size > 0);
+
+        // Room for two indexes
+        cache = new AnnotationIndexCache(dir, size * 2 + size / 2);
+        cache.put("second", index);
+        Assert.assertNotNull(cache.get("first"));
+        cache.put("third", index);
+
+        Assert.assertNotNull(cache.get("first"));
+        Assert.assertNull(cache.get("second"));
+        Assert.assertNotNull(cache.get("third"));
+        Assert.assertEquals(size * 2, cache.getStoredSize());
+        Assert.assertFalse(Files.exists(dir.resolve("second.idx")));
+
+        // Smaller than a single index
+        cache = new AnnotationIndexCache(dir, size / 2);
+        Assert.assertEquals(0, cache.getStoredSize());
+        Assert.assertEquals(0, dir.toFile().list().length);
+    }
+
+    @Test
+    public void testUnreadableIndexRemoved() throws IOException {
+        AnnotationIndexCache cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        cache.put("first", indexOf(AnnotationIndexCacheTestCase.class));
+        Files.write(dir.resolve("first.idx"), "not an index".getBytes(StandardCharsets.UTF_8));
+
+        cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        Assert.assertNull(cache.get("first"));
+        Assert.assertEquals(0, cache.getStoredSize());
+        Assert.assertFalse(Files.exists(dir.resolve("first.idx")));
+    }
+
+    @Test
+    public void testKeyFoundByFingerprint() throws IOException {
+        final Index index = indexOf(AnnotationIndexCacheTestCase.class);
+        AnnotationIndexCache cache = new AnnotationIndexCache(dir, MAX_SIZE);
+        Assert.assertNull(cache.findKey("jar"));
+        cache.put("jar-first", index);
+        Assert.assertEquals("jar-first", cache.findKey("jar"));
+        final long size = cache.getStoredSize();
+
+        // As after a restart, with room for two indexes
+        cache = new AnnotationIndexCache(dir, size * 2 + size / 2);
+        Assert.assertEquals("jar-first", cache.findKey("jar"));
+        cache.put("jar-second", index);
+        Assert.assertEquals("jar-second", cache.findKey("jar"));
+        cache.put("other-first", index);
+        Assert.assertEquals("jar-second", cache.findKey("jar"));
+        cache.put("other-second", index);
+        Assert.assertNull(cache.findKey("jar"));
+        Assert.assertEquals("other-second", cache.findKey("other"));
+    }
+
+    private static Index indexOf(Class<?> clazz) throws IOException {
+        final Indexer indexer = new Indexer();
+        try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}
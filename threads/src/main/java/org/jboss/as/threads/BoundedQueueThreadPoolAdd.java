@@ -44,13 +44,15 @@ public class BoundedQueueThreadPoolAdd extends AbstractAddStepHandler {
     static final AttributeDefinition[] BLOCKING_ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
         PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.THREAD_FACTORY,
         PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.QUEUE_LENGTH,
-        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT};
+        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT,
+        PoolAttributeDefinitions.STATISTICS_ENABLED};
 
     static final AttributeDefinition[] NON_BLOCKING_ATTRIBUTES = new AttributeDefinition[BLOCKING_ATTRIBUTES.length + 1] ;
 
     static final AttributeDefinition[] RW_ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
         PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.QUEUE_LENGTH,
-        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT};
+        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT,
+        PoolAttributeDefinitions.STATISTICS_ENABLED};
 
     static {
         System.arraycopy(BLOCKING_ATTRIBUTES, 0, NON_BLOCKING_ATTRIBUTES, 0, BLOCKING_ATTRIBUTES.length);
@@ -90,6 +92,7 @@ public class BoundedQueueThreadPoolAdd extends AbstractAddStepHandler {
                 blocking,
                 params.getKeepAliveTime(),
                 params.isAllowCoreTimeout());
+        service.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
 
         ThreadPoolManagementUtils.installThreadPoolService(service, params.getName(), capability, context.getCurrentAddress(),
                 serviceNameBase, params.getThreadFactory(), threadFactoryResolver, service.getThreadFactoryInjector(),
@@ -42,7 +42,8 @@ public class BoundedQueueThreadPoolMetricsHandler extends ThreadPoolMetricsHandl
 
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
             PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.REJECTED_COUNT,
-            PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.QUEUE_SIZE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.EXECUTION_TIME);
 
     public BoundedQueueThreadPoolMetricsHandler(final ServiceName serviceNameBase) {
         this(null, serviceNameBase);
@@ -79,6 +79,8 @@ public class BoundedQueueThreadPoolWriteAttributeHandler extends ThreadsWriteAtt
             }
         } else if (PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT.getName().equals(attributeName)) {
             pool.setAllowCoreTimeout(PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT.resolveModelAttribute(context, model).asBoolean());
+        } else if (PoolAttributeDefinitions.STATISTICS_ENABLED.getName().equals(attributeName)) {
+            pool.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
         } else if (!forRollback) {
             // Programming bug. Throw a RuntimeException, not OFE, as this is not a client error
             throw ThreadsLogger.ROOT_LOGGER.unsupportedBoundedQueueThreadPoolAttribute(attributeName);
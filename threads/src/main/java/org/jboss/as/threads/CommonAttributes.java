@@ -27,6 +27,10 @@ package org.jboss.as.threads;
 public interface CommonAttributes {
     String ACTIVE_COUNT = "active-count";
     String ALLOW_CORE_TIMEOUT = "allow-core-timeout";
+    String AUTOSCALING = "autoscaling";
+    String AUTOSCALING_INTERVAL = "autoscaling-interval";
+    String AUTOSCALING_MIN_THREADS = "autoscaling-min-threads";
+    String AUTOSCALING_TARGET_QUEUE_WAIT = "autoscaling-target-queue-wait";
     String BLOCKING = "blocking";
     String BLOCKING_BOUNDED_QUEUE_THREAD_POOL = "blocking-bounded-queue-thread-pool";
     String BLOCKING_QUEUELESS_THREAD_POOL = "blocking-queueless-thread-pool";
@@ -35,12 +39,17 @@ public interface CommonAttributes {
     String CORE_THREADS = "core-threads";
     String COUNT = "count";
     String CURRENT_THREAD_COUNT = "current-thread-count";
+    String EXECUTION_TIME = "execution-time";
     String PER_CPU = "per-cpu";
+    String PINNED_COUNT = "pinned-count";
+    String PINNING_DIAGNOSTICS = "pinning-diagnostics";
     String HANDOFF_EXECUTOR = "handoff-executor";
     String LARGEST_THREAD_COUNT = "largest-thread-count";
     String NAME = "name";
     String GROUP_NAME = "group-name";
     String KEEPALIVE_TIME = "keepalive-time";
+    String LAST_SCALING_DECISION = "last-scaling-decision";
+    String MAX_CONCURRENCY = "max-concurrency";
     String MAX_THREADS = "max-threads";
     String PRIORITY = "priority";
     String PROPERTIES = "properties";
@@ -48,8 +57,12 @@ public interface CommonAttributes {
     String QUEUELESS_THREAD_POOL = "queueless-thread-pool";
     String QUEUE_LENGTH = "queue-length";
     String QUEUE_SIZE = "queue-size";
+    String QUEUE_WAIT_TIME = "queue-wait-time";
     String REJECTED_COUNT = "rejected-count";
     String SCHEDULED_THREAD_POOL = "scheduled-thread-pool";
+    String STATISTICS_ENABLED = "statistics-enabled";
+    String TARGET_CORE_THREADS = "target-core-threads";
+    String TARGET_MAX_THREADS = "target-max-threads";
     String TASK_COUNT = "task-count";
     String THREADS = "threads";
     String TIME = "time";
@@ -59,4 +72,5 @@ public interface CommonAttributes {
     String ENHANCED_QUEUE_THREAD_POOL = "enhanced-queue-thread-pool";
     String UNIT = "unit";
     String VALUE = "value";
+    String VIRTUAL_THREAD_EXECUTOR = "virtual-thread-executor";
 }
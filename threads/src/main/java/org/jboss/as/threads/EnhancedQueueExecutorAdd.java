@@ -37,10 +37,16 @@ import org.jboss.msc.service.ServiceName;
 class EnhancedQueueExecutorAdd extends AbstractAddStepHandler {
 
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[]{PoolAttributeDefinitions.KEEPALIVE_TIME,
-            PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.THREAD_FACTORY};
+            PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.THREAD_FACTORY,
+            PoolAttributeDefinitions.STATISTICS_ENABLED, PoolAttributeDefinitions.AUTOSCALING,
+            PoolAttributeDefinitions.AUTOSCALING_MIN_THREADS, PoolAttributeDefinitions.AUTOSCALING_INTERVAL,
+            PoolAttributeDefinitions.AUTOSCALING_TARGET_QUEUE_WAIT};
 
     static final AttributeDefinition[] RW_ATTRIBUTES = new AttributeDefinition[]{PoolAttributeDefinitions.KEEPALIVE_TIME,
-            PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS};
+            PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS,
+            PoolAttributeDefinitions.STATISTICS_ENABLED, PoolAttributeDefinitions.AUTOSCALING,
+            PoolAttributeDefinitions.AUTOSCALING_MIN_THREADS, PoolAttributeDefinitions.AUTOSCALING_INTERVAL,
+            PoolAttributeDefinitions.AUTOSCALING_TARGET_QUEUE_WAIT};
 
     private final ThreadFactoryResolver threadFactoryResolver;
     private final ServiceName serviceNameBase;
@@ -63,7 +69,12 @@ class EnhancedQueueExecutorAdd extends AbstractAddStepHandler {
     protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
         final EnhancedQueueThreadPoolParameters params = ThreadPoolManagementUtils.parseEnhancedQueueThreadPoolParameters(context, operation, model);
 
-        final EnhancedQueueExecutorService service = new EnhancedQueueExecutorService(allowCoreThreadTimeout, params.getMaxThreads(), params.getCoreThreads(), params.getKeepAliveTime());
+        final EnhancedQueueExecutorService service = new EnhancedQueueExecutorService(params.getName(), allowCoreThreadTimeout, params.getMaxThreads(), params.getCoreThreads(), params.getKeepAliveTime());
+        service.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
+        service.setAutoscalingMinThreads(PoolAttributeDefinitions.AUTOSCALING_MIN_THREADS.resolveModelAttribute(context, model).asInt());
+        service.setAutoscalingInterval(PoolAttributeDefinitions.AUTOSCALING_INTERVAL.resolveModelAttribute(context, model).asLong());
+        service.setAutoscalingTargetQueueWait(PoolAttributeDefinitions.AUTOSCALING_TARGET_QUEUE_WAIT.resolveModelAttribute(context, model).asLong());
+        service.setAutoscaling(PoolAttributeDefinitions.AUTOSCALING.resolveModelAttribute(context, model).asBoolean());
 
         ThreadPoolManagementUtils.installThreadPoolService(service, params.getName(), capability, context.getCurrentAddress(),
                 serviceNameBase, params.getThreadFactory(), threadFactoryResolver, service.getThreadFactoryInjector(),
@@ -40,7 +40,10 @@ class EnhancedQueueExecutorMetricsHandler extends ThreadPoolMetricsHandler {
     private static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.ACTIVE_COUNT,
             PoolAttributeDefinitions.COMPLETED_TASK_COUNT, PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
             PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.REJECTED_COUNT,
-            PoolAttributeDefinitions.TASK_COUNT, PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.TASK_COUNT, PoolAttributeDefinitions.QUEUE_SIZE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.EXECUTION_TIME,
+            PoolAttributeDefinitions.TARGET_CORE_THREADS, PoolAttributeDefinitions.TARGET_MAX_THREADS,
+            PoolAttributeDefinitions.LAST_SCALING_DECISION);
 
     EnhancedQueueExecutorMetricsHandler(final RuntimeCapability capability, final ServiceName serviceNameBase) {
         super(METRICS, capability, serviceNameBase);
@@ -71,6 +74,15 @@ class EnhancedQueueExecutorMetricsHandler extends ThreadPoolMetricsHandler {
             case CommonAttributes.QUEUE_SIZE:
                 context.getResult().set(pool.getQueueSize());
                 break;
+            case CommonAttributes.TARGET_CORE_THREADS:
+                context.getResult().set(pool.getTargetCoreThreads());
+                break;
+            case CommonAttributes.TARGET_MAX_THREADS:
+                context.getResult().set(pool.getTargetMaxThreads());
+                break;
+            case CommonAttributes.LAST_SCALING_DECISION:
+                context.getResult().set(pool.getLastScalingDecision());
+                break;
             default:
                 // Programming bug. Throw a RuntimeException, not OFE, as this is not a client error
                 throw ThreadsLogger.ROOT_LOGGER.unsupportedEnhancedQueueExecutorMetric(attributeName);
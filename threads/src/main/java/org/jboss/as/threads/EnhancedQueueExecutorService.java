@@ -22,9 +22,12 @@
 
 package org.jboss.as.threads;
 
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import org.jboss.dmr.ModelNode;
+
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -38,14 +41,24 @@ import org.jboss.threads.EnhancedQueueExecutor;
 class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecutor> {
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
 
+    private final String name;
+
     private ManagedEnhancedQueueExecutor executor;
+    private ThreadPoolAutoscaler autoscaler;
+    private ScheduledFuture<?> autoscalerTask;
 
     private int maxThreads;
     private int coreThreads;
     private TimeSpec keepAlive;
     private boolean allowCoreThreadTimeout;
+    private boolean statisticsEnabled;
+    private boolean autoscaling;
+    private int autoscalingMinThreads = 1;
+    private long autoscalingInterval = 10000;
+    private long autoscalingTargetQueueWait = 100;
 
-    EnhancedQueueExecutorService(boolean allowCoreThreadTimeout, int maxThreads, int coreThreads, TimeSpec keepAlive) {
+    EnhancedQueueExecutorService(String name, boolean allowCoreThreadTimeout, int maxThreads, int coreThreads, TimeSpec keepAlive) {
+        this.name = name;
         this.maxThreads = maxThreads;
         this.coreThreads = coreThreads;
         this.keepAlive = keepAlive;
@@ -64,6 +77,10 @@ class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecut
                 .allowCoreThreadTimeOut(allowCoreThreadTimeout)
                 .build();
         executor = new ManagedEnhancedQueueExecutor(enhancedQueueExecutor);
+        executor.getTaskTimings().setEnabled(statisticsEnabled);
+        if (autoscaling) {
+            startAutoscaler();
+        }
     }
 
     public void stop(final StopContext context) {
@@ -71,6 +88,7 @@ class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecut
         synchronized (this) {
             executor = this.executor;
             this.executor = null;
+            stopAutoscaler();
         }
         context.asynchronous();
         executor.internalShutdown();
@@ -91,6 +109,11 @@ class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecut
 
     synchronized void setMaxThreads(final int maxThreads) {
         final ManagedEnhancedQueueExecutor executor = this.executor;
+        if (autoscaler != null) {
+            this.maxThreads = maxThreads;
+            autoscaler.setBounds(getConfiguredCoreThreads(), maxThreads, autoscalingMinThreads);
+            return;
+        }
         if (executor != null) {
             executor.setMaxThreads(maxThreads);
         }
@@ -99,6 +122,11 @@ class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecut
 
     synchronized void setCoreThreads(final int coreThreads) {
         final ManagedEnhancedQueueExecutor executor = this.executor;
+        if (autoscaler != null) {
+            this.coreThreads = coreThreads;
+            autoscaler.setBounds(getConfiguredCoreThreads(), maxThreads, autoscalingMinThreads);
+            return;
+        }
         if (executor != null) {
             executor.setCoreThreads(coreThreads);
         }
@@ -113,6 +141,119 @@ class EnhancedQueueExecutorService implements Service<ManagedEnhancedQueueExecut
         }
     }
 
+    synchronized void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        final ManagedEnhancedQueueExecutor executor = this.executor;
+        if (executor != null) {
+            executor.getTaskTimings().setEnabled(statisticsEnabled);
+        }
+    }
+
+    synchronized void setAutoscaling(final boolean autoscaling) {
+        if (autoscaling == this.autoscaling) {
+            return;
+        }
+        this.autoscaling = autoscaling;
+        if (executor != null) {
+            if (autoscaling) {
+                startAutoscaler();
+            } else {
+                stopAutoscaler();
+                resize(executor, getConfiguredCoreThreads(), maxThreads);
+            }
+        }
+    }
+
+    synchronized void setAutoscalingMinThreads(final int autoscalingMinThreads) {
+        this.autoscalingMinThreads = autoscalingMinThreads;
+        if (autoscaler != null) {
+            autoscaler.setBounds(getConfiguredCoreThreads(), maxThreads, autoscalingMinThreads);
+        }
+    }
+
+    synchronized void setAutoscalingInterval(final long autoscalingInterval) {
+        this.autoscalingInterval = autoscalingInterval;
+        if (autoscaler != null) {
+            autoscalerTask.cancel(false);
+            autoscalerTask = scheduleAutoscaler(autoscaler);
+        }
+    }
+
+    synchronized void setAutoscalingTargetQueueWait(final long autoscalingTargetQueueWait) {
+        this.autoscalingTargetQueueWait = autoscalingTargetQueueWait;
+        if (autoscaler != null) {
+            autoscaler.setTargetQueueWait(autoscalingTargetQueueWait);
+        }
+    }
+
+    private void startAutoscaler() {
+        final ManagedEnhancedQueueExecutor executor = this.executor;
+        autoscaler = new ThreadPoolAutoscaler(name, new ThreadPoolAutoscaler.Pool() {
+            @Override
+            public int getActiveCount() {
+                return executor.getActiveCount();
+            }
+
+            @Override
+            public int getQueueSize() {
+                return executor.getQueueSize();
+            }
+
+            @Override
+            public long getCompletedTaskCount() {
+                return executor.getCompletedTaskCount();
+            }
+
+            @Override
+            public void resize(int coreThreads, int maxThreads) {
+                EnhancedQueueExecutorService.resize(executor, coreThreads, maxThreads);
+            }
+        }, getConfiguredCoreThreads(), maxThreads, autoscalingMinThreads, autoscalingTargetQueueWait);
+        autoscalerTask = scheduleAutoscaler(autoscaler);
+    }
+
+    private ScheduledFuture<?> scheduleAutoscaler(ThreadPoolAutoscaler autoscaler) {
+        return ThreadPoolAutoscaler.timer().scheduleWithFixedDelay(autoscaler, autoscalingInterval, autoscalingInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopAutoscaler() {
+        if (autoscaler != null) {
+            autoscaler.stop();
+            autoscalerTask.cancel(false);
+            autoscalerTask = null;
+            autoscaler = null;
+        }
+    }
+
+    private int getConfiguredCoreThreads() {
+        return coreThreads > 0 ? coreThreads : maxThreads;
+    }
+
+    /**
+     * Changes both sizes of the executor, in the order that keeps the core size no larger than the maximum size.
+     */
+    private static void resize(ManagedEnhancedQueueExecutor executor, int coreThreads, int maxThreads) {
+        if (maxThreads >= executor.getMaxThreads()) {
+            executor.setMaxThreads(maxThreads);
+            executor.setCoreThreads(coreThreads);
+        } else {
+            executor.setCoreThreads(coreThreads);
+            executor.setMaxThreads(maxThreads);
+        }
+    }
+
+    synchronized int getTargetCoreThreads() {
+        return autoscaler != null ? autoscaler.getCoreThreads() : getValue().getCoreThreads();
+    }
+
+    synchronized int getTargetMaxThreads() {
+        return autoscaler != null ? autoscaler.getMaxThreads() : getValue().getMaxThreads();
+    }
+
+    synchronized ModelNode getLastScalingDecision() {
+        return autoscaler != null ? autoscaler.getLastDecision() : new ModelNode();
+    }
+
     int getActiveCount() {
         final ManagedEnhancedQueueExecutor executor = getValue();
         return executor.getActiveCount();
@@ -58,6 +58,16 @@ class EnhancedQueueExecutorWriteAttributeHandler extends ThreadsWriteAttributeOp
             pool.setMaxThreads(PoolAttributeDefinitions.MAX_THREADS.resolveModelAttribute(context, model).asInt());
         } else if (PoolAttributeDefinitions.CORE_THREADS.getName().equals(attributeName)) {
             pool.setCoreThreads(PoolAttributeDefinitions.CORE_THREADS.resolveModelAttribute(context, model).asInt());
+        } else if (PoolAttributeDefinitions.STATISTICS_ENABLED.getName().equals(attributeName)) {
+            pool.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
+        } else if (PoolAttributeDefinitions.AUTOSCALING.getName().equals(attributeName)) {
+            pool.setAutoscaling(PoolAttributeDefinitions.AUTOSCALING.resolveModelAttribute(context, model).asBoolean());
+        } else if (PoolAttributeDefinitions.AUTOSCALING_MIN_THREADS.getName().equals(attributeName)) {
+            pool.setAutoscalingMinThreads(PoolAttributeDefinitions.AUTOSCALING_MIN_THREADS.resolveModelAttribute(context, model).asInt());
+        } else if (PoolAttributeDefinitions.AUTOSCALING_INTERVAL.getName().equals(attributeName)) {
+            pool.setAutoscalingInterval(PoolAttributeDefinitions.AUTOSCALING_INTERVAL.resolveModelAttribute(context, model).asLong());
+        } else if (PoolAttributeDefinitions.AUTOSCALING_TARGET_QUEUE_WAIT.getName().equals(attributeName)) {
+            pool.setAutoscalingTargetQueueWait(PoolAttributeDefinitions.AUTOSCALING_TARGET_QUEUE_WAIT.resolveModelAttribute(context, model).asLong());
         } else if (!forRollback) {
             // Programming bug. Throw a RuntimeException, not OFE, as this is not a client error
             throw ThreadsLogger.ROOT_LOGGER.unsupportedEnhancedQueueExecutorAttribute(attributeName);
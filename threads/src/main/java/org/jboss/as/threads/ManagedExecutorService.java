@@ -41,6 +41,7 @@ import org.wildfly.common.Assert;
 public abstract class ManagedExecutorService implements ExecutorService {
 
     private final ExecutorService executor;
+    private final TaskTimings taskTimings = new TaskTimings();
 
     public ManagedExecutorService(ExecutorService executor) {
         Assert.checkNotNullParam("executor", executor);
@@ -53,13 +54,22 @@ public abstract class ManagedExecutorService implements ExecutorService {
 
     abstract void internalShutdown();
 
+    /**
+     * Gets the queue wait and execution times of the tasks submitted to this executor.
+     *
+     * @return the task timings
+     */
+    TaskTimings getTaskTimings() {
+        return taskTimings;
+    }
+
     /**
      * {@inheritDoc}
      * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
      */
     @Override
     public void execute(Runnable command) {
-        this.executor.execute(command);
+        this.executor.execute(taskTimings.wrap(command));
     }
 
     /**
@@ -114,7 +124,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return this.executor.submit(task);
+        return this.executor.submit(taskTimings.wrap(task));
     }
 
     /**
@@ -123,7 +133,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return this.executor.submit(task, result);
+        return this.executor.submit(taskTimings.wrap(task), result);
     }
 
     /**
@@ -132,7 +142,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public Future<?> submit(Runnable task) {
-        return this.executor.submit(task);
+        return this.executor.submit(taskTimings.wrap(task));
     }
 
     /**
@@ -141,7 +151,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return this.executor.invokeAll(tasks);
+        return this.executor.invokeAll(taskTimings.wrap(tasks));
     }
 
     /**
@@ -150,7 +160,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return this.executor.invokeAll(tasks, timeout, unit);
+        return this.executor.invokeAll(taskTimings.wrap(tasks), timeout, unit);
     }
 
     /**
@@ -159,7 +169,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return this.executor.invokeAny(tasks);
+        return this.executor.invokeAny(taskTimings.wrap(tasks));
     }
 
     /**
@@ -168,6 +178,6 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return this.executor.invokeAny(tasks, timeout, unit);
+        return this.executor.invokeAny(taskTimings.wrap(tasks), timeout, unit);
     }
 }
@@ -117,18 +117,18 @@ public class ManagedQueueExecutorService extends ManagedExecutorService implemen
     @Override
     public void executeBlocking(Runnable task)
             throws RejectedExecutionException, InterruptedException {
-        executor.executeBlocking(task);
+        executor.executeBlocking(getTaskTimings().wrap(task));
     }
 
     @Override
     public void executeBlocking(Runnable task, long timeout, TimeUnit unit)
             throws RejectedExecutionException, InterruptedException {
-        executor.executeBlocking(task, timeout, unit);
+        executor.executeBlocking(getTaskTimings().wrap(task), timeout, unit);
     }
 
     @Override
     public void executeNonBlocking(Runnable task)
             throws RejectedExecutionException {
-        executor.executeNonBlocking(task);
+        executor.executeNonBlocking(getTaskTimings().wrap(task));
     }
 }
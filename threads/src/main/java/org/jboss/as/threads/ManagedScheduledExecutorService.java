@@ -55,22 +55,22 @@ public class ManagedScheduledExecutorService extends ManagedExecutorService impl
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-       return executor.schedule(command, delay, unit);
+       return executor.schedule(getTaskTimings().wrap(command, unit.toNanos(delay), 0), delay, unit);
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-       return executor.schedule(callable, delay, unit);
+       return executor.schedule(getTaskTimings().wrap(callable, unit.toNanos(delay)), delay, unit);
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-       return executor.scheduleAtFixedRate(command, initialDelay, period, unit);
+       return executor.scheduleAtFixedRate(getTaskTimings().wrap(command, unit.toNanos(initialDelay), unit.toNanos(period)), initialDelay, period, unit);
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-       return executor.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+       return executor.scheduleWithFixedDelay(getTaskTimings().wrap(command, unit.toNanos(initialDelay), -unit.toNanos(delay)), initialDelay, delay, unit);
     }
 
    public int getActiveCount() {
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import org.jboss.threads.EventListener;
+import org.jboss.threads.SimpleShutdownListenable;
+
+/**
+ * {@link ManagedExecutorService} for a {@link VirtualThreadExecutor}.
+ */
+class ManagedVirtualThreadExecutor extends ManagedExecutorService {
+    private final VirtualThreadExecutor executor;
+    private final SimpleShutdownListenable shutdownListenable = new SimpleShutdownListenable();
+
+    ManagedVirtualThreadExecutor(VirtualThreadExecutor executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    @Override
+    void internalShutdown() {
+        executor.shutdown();
+        shutdownListenable.shutdown();
+    }
+
+    int getMaxConcurrency() {
+        return executor.getMaxConcurrency();
+    }
+
+    // Package protected for subsys write-attribute handlers
+    void setMaxConcurrency(int maxConcurrency) {
+        executor.setMaxConcurrency(maxConcurrency);
+    }
+
+    boolean isVirtual() {
+        return executor.isVirtual();
+    }
+
+    int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    int getCurrentThreadCount() {
+        return executor.getCurrentThreadCount();
+    }
+
+    int getLargestThreadCount() {
+        return executor.getLargestThreadCount();
+    }
+
+    int getRejectedCount() {
+        return (int) executor.getRejectedCount();
+    }
+
+    long getTaskCount() {
+        return executor.getTaskCount();
+    }
+
+    int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    <A> void addShutdownListener(final EventListener<A> shutdownListener, final A attachment) {
+        shutdownListenable.addShutdownListener(shutdownListener, attachment);
+    }
+}
@@ -25,7 +25,9 @@ package org.jboss.as.threads;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -77,6 +79,46 @@ public interface PoolAttributeDefinitions {
             .setAllowExpression(true)
             .build();
 
+    SimpleAttributeDefinition MAX_CONCURRENCY = new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_CONCURRENCY, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setAllowExpression(true)
+            .build();
+
+    SimpleAttributeDefinition PINNING_DIAGNOSTICS = new SimpleAttributeDefinitionBuilder(CommonAttributes.PINNING_DIAGNOSTICS, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
+    SimpleAttributeDefinition STATISTICS_ENABLED = new SimpleAttributeDefinitionBuilder(CommonAttributes.STATISTICS_ENABLED, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
+    SimpleAttributeDefinition AUTOSCALING = new SimpleAttributeDefinitionBuilder(CommonAttributes.AUTOSCALING, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .build();
+
+    SimpleAttributeDefinition AUTOSCALING_MIN_THREADS = new SimpleAttributeDefinitionBuilder(CommonAttributes.AUTOSCALING_MIN_THREADS, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(1))
+            .build();
+
+    SimpleAttributeDefinition AUTOSCALING_INTERVAL = new SimpleAttributeDefinitionBuilder(CommonAttributes.AUTOSCALING_INTERVAL, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(100, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(10000L))
+            .build();
+
+    SimpleAttributeDefinition AUTOSCALING_TARGET_QUEUE_WAIT = new SimpleAttributeDefinitionBuilder(CommonAttributes.AUTOSCALING_TARGET_QUEUE_WAIT, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(100L))
+            .build();
+
     // Metrics
     AttributeDefinition CURRENT_THREAD_COUNT = new SimpleAttributeDefinitionBuilder(CommonAttributes.CURRENT_THREAD_COUNT, ModelType.INT)
             .setUndefinedMetricValue(ModelNode.ZERO)
@@ -99,4 +141,19 @@ public interface PoolAttributeDefinitions {
     AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_SIZE, ModelType.INT)
             .setUndefinedMetricValue(ModelNode.ZERO)
             .build();
+    AttributeDefinition PINNED_COUNT = new SimpleAttributeDefinitionBuilder(CommonAttributes.PINNED_COUNT, ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+    AttributeDefinition TARGET_CORE_THREADS = new SimpleAttributeDefinitionBuilder(CommonAttributes.TARGET_CORE_THREADS, ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+    AttributeDefinition TARGET_MAX_THREADS = new SimpleAttributeDefinitionBuilder(CommonAttributes.TARGET_MAX_THREADS, ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .build();
+    AttributeDefinition LAST_SCALING_DECISION = new SimpleAttributeDefinitionBuilder(CommonAttributes.LAST_SCALING_DECISION, ModelType.OBJECT, true)
+            .build();
+    AttributeDefinition QUEUE_WAIT_TIME = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_WAIT_TIME, ModelType.OBJECT, true)
+            .build();
+    AttributeDefinition EXECUTION_TIME = new SimpleAttributeDefinitionBuilder(CommonAttributes.EXECUTION_TIME, ModelType.OBJECT, true)
+            .build();
 }
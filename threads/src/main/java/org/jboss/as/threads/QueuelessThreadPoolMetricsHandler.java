@@ -40,7 +40,8 @@ import org.jboss.msc.service.ServiceName;
 public class QueuelessThreadPoolMetricsHandler extends ThreadPoolMetricsHandler {
 
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.CURRENT_THREAD_COUNT, PoolAttributeDefinitions.LARGEST_THREAD_COUNT,
-            PoolAttributeDefinitions.REJECTED_COUNT,PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.REJECTED_COUNT,PoolAttributeDefinitions.QUEUE_SIZE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.EXECUTION_TIME);
 
     public QueuelessThreadPoolMetricsHandler(final ServiceName serviceBaseName) {
         this(null, serviceBaseName);
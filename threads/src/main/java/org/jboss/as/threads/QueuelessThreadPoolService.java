@@ -49,6 +49,7 @@ public class QueuelessThreadPoolService implements Service<ManagedQueuelessExecu
 
     private int maxThreads;
     private TimeSpec keepAlive;
+    private boolean statisticsEnabled;
 
     public QueuelessThreadPoolService(int maxThreads, boolean blocking, TimeSpec keepAlive) {
         this.maxThreads = maxThreads;
@@ -63,6 +64,7 @@ public class QueuelessThreadPoolService implements Service<ManagedQueuelessExecu
         queuelessExecutor.setMaxThreads(maxThreads);
         queuelessExecutor.setBlocking(blocking);
         executor = new ManagedQueuelessExecutorService(queuelessExecutor);
+        executor.getTaskTimings().setEnabled(statisticsEnabled);
     }
 
     public void stop(final StopContext context) {
@@ -112,6 +114,14 @@ public class QueuelessThreadPoolService implements Service<ManagedQueuelessExecu
         }
     }
 
+    public synchronized void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        final ManagedQueuelessExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.getTaskTimings().setEnabled(statisticsEnabled);
+        }
+    }
+
     public int getCurrentThreadCount() {
         final ManagedQueuelessExecutorService executor = getValue();
         return executor.getCurrentThreadCount();
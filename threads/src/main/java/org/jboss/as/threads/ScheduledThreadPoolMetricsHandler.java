@@ -42,7 +42,8 @@ public class ScheduledThreadPoolMetricsHandler extends ThreadPoolMetricsHandler
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.ACTIVE_COUNT,
             PoolAttributeDefinitions.COMPLETED_TASK_COUNT, PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
             PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.TASK_COUNT,
-            PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.QUEUE_SIZE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.EXECUTION_TIME);
 
     public ScheduledThreadPoolMetricsHandler(final ServiceName serviceNameBase) {
         this(null, serviceNameBase);
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A lock-free histogram of task times in microseconds.
+ * <p>
+ * Each power of two range of values is split into {@value #SUB_BUCKETS} linear buckets, so every bucket is at most
+ * 12.5% wide relative to its values, at a fixed cost of a few kilobytes. Percentiles are reported as the upper bound
+ * of the bucket holding them.
+ */
+final class TaskTimeHistogram {
+
+    static final String COUNT = "count";
+    static final String MEAN = "mean";
+    static final String MAX = "max";
+    static final String P50 = "50th-percentile";
+    static final String P90 = "90th-percentile";
+    static final String P99 = "99th-percentile";
+    static final String RATE = "rate";
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Values of this many bits or more are recorded as the largest value that has fewer, about 12 days */
+    private static final int MAX_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records a time.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    void record(long nanos) {
+        final long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        buckets.incrementAndGet(index(micros));
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    /**
+     * Discards all recorded times. Times recorded concurrently with this call may or may not be kept.
+     */
+    void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Describes the recorded times.
+     *
+     * @param elapsedNanos the time over which the times were recorded, used to compute the rate in tasks per second
+     * @return the description
+     */
+    ModelNode toModelNode(long elapsedNanos) {
+        final long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        final long maxValue = max.get();
+        final ModelNode result = new ModelNode();
+        result.get(COUNT).set(total);
+        result.get(MEAN).set(total == 0 ? 0 : sum.sum() / total);
+        result.get(MAX).set(maxValue);
+        result.get(P50).set(percentile(counts, total, 0.5, maxValue));
+        result.get(P90).set(percentile(counts, total, 0.9, maxValue));
+        result.get(P99).set(percentile(counts, total, 0.99, maxValue));
+        result.get(RATE).set(elapsedNanos <= 0 ? 0.0 : total * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        return result;
+    }
+
+    private static long percentile(long[] counts, long total, double percentile, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
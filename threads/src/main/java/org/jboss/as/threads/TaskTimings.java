@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Measures how long the tasks submitted to an executor wait before they start, and how long they then take to run.
+ * <p>
+ * Measuring is off by default. While it is off tasks are submitted as they are; while it is on each task is wrapped
+ * so that it records its times in a {@link TaskTimeHistogram} when it runs.
+ */
+final class TaskTimings {
+
+    private final TaskTimeHistogram queueWaitTime = new TaskTimeHistogram();
+    private final TaskTimeHistogram executionTime = new TaskTimeHistogram();
+
+    private volatile boolean enabled;
+    /** When measuring was last turned on, used to compute rates */
+    private volatile long enabledAt;
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns measuring on or off. Turning it on discards the times recorded before.
+     *
+     * @param enabled {@code true} to measure the times of tasks submitted from now on
+     */
+    synchronized void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            queueWaitTime.reset();
+            executionTime.reset();
+            enabledAt = System.nanoTime();
+        }
+        this.enabled = enabled;
+    }
+
+    ModelNode getQueueWaitTime() {
+        return queueWaitTime.toModelNode(elapsed());
+    }
+
+    ModelNode getExecutionTime() {
+        return executionTime.toModelNode(elapsed());
+    }
+
+    private long elapsed() {
+        return enabled ? System.nanoTime() - enabledAt : 0;
+    }
+
+    Runnable wrap(Runnable task) {
+        return enabled && task != null ? new TimedRunnable(task, System.nanoTime(), 0) : task;
+    }
+
+    /**
+     * Wraps a task that is due to start after a delay, and possibly repeatedly.
+     *
+     * @param task        the task
+     * @param delayNanos  the delay before the first run
+     * @param periodNanos zero if the task runs once, positive for a fixed rate and negative for a fixed delay between runs
+     * @return the task to submit
+     */
+    Runnable wrap(Runnable task, long delayNanos, long periodNanos) {
+        return enabled && task != null ? new TimedRunnable(task, System.nanoTime() + Math.max(0, delayNanos), periodNanos) : task;
+    }
+
+    <T> Callable<T> wrap(Callable<T> task) {
+        return wrap(task, 0);
+    }
+
+    <T> Callable<T> wrap(Callable<T> task, long delayNanos) {
+        return enabled && task != null ? new TimedCallable<>(task, System.nanoTime() + Math.max(0, delayNanos)) : task;
+    }
+
+    <T> Collection<? extends Callable<T>> wrap(Collection<? extends Callable<T>> tasks) {
+        if (!enabled || tasks == null) {
+            return tasks;
+        }
+        final long now = System.nanoTime();
+        final List<Callable<T>> result = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            result.add(task == null ? null : new TimedCallable<>(task, now));
+        }
+        return result;
+    }
+
+    private long started(long due) {
+        final long start = System.nanoTime();
+        if (enabled) {
+            queueWaitTime.record(start - due);
+        }
+        return start;
+    }
+
+    private long finished(long start) {
+        final long end = System.nanoTime();
+        if (enabled) {
+            executionTime.record(end - start);
+        }
+        return end;
+    }
+
+    private final class TimedRunnable implements Runnable {
+
+        private final Runnable task;
+        private final long period;
+        /** Only accessed by the thread running the task, and the executor orders successive runs */
+        private long due;
+
+        TimedRunnable(Runnable task, long due, long period) {
+            this.task = task;
+            this.due = due;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            final long start = started(due);
+            try {
+                task.run();
+            } finally {
+                final long end = finished(start);
+                if (period > 0) {
+                    due += period;
+                } else if (period < 0) {
+                    due = end - period;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final class TimedCallable<T> implements Callable<T> {
+
+        private final Callable<T> task;
+        private final long due;
+
+        TimedCallable(Callable<T> task, long due) {
+            this.task = task;
+            this.due = due;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long start = started(due);
+            try {
+                return task.call();
+            } finally {
+                finished(start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Periodically samples the utilisation and queue of a thread pool, and moves its core and maximum sizes within
+ * configured bounds to follow the load.
+ * <p>
+ * The time tasks wait in the queue is estimated from the queue size and the rate at which tasks complete, by Little's
+ * law, so measuring it does not add any cost to the tasks themselves. Whenever the estimate exceeds the target the
+ * maximum size grows by a quarter. When the queue has been empty and fewer than half the threads were active for
+ * {@value #SCALE_DOWN_SAMPLES} samples in a row, the maximum size shrinks by an eighth, but not below twice the
+ * largest number of active threads seen. The core size follows the maximum size, keeping the configured ratio.
+ */
+final class ThreadPoolAutoscaler implements Runnable {
+
+    static final String ACTION = "action";
+    static final String SCALE_UP = "scale-up";
+    static final String SCALE_DOWN = "scale-down";
+    static final String TIME = "time";
+    static final String PREVIOUS_CORE_THREADS = "previous-core-threads";
+    static final String PREVIOUS_MAX_THREADS = "previous-max-threads";
+    static final String QUEUE_WAIT = "estimated-queue-wait";
+    static final String UTILISATION = "utilisation";
+
+    static final int SCALE_DOWN_SAMPLES = 3;
+    private static final double SCALE_DOWN_UTILISATION = 0.5;
+
+    /**
+     * The pool being scaled.
+     */
+    interface Pool {
+
+        int getActiveCount();
+
+        int getQueueSize();
+
+        long getCompletedTaskCount();
+
+        void resize(int coreThreads, int maxThreads);
+    }
+
+    private final String name;
+    private final Pool pool;
+
+    private double coreRatio;
+    private int minThreads;
+    private int maxThreads;
+    private long targetQueueWait;
+
+    private int coreTarget;
+    private int maxTarget;
+
+    private long lastSample;
+    private long lastCompleted;
+    private int idleSamples;
+    private int peakActive;
+    private ModelNode lastDecision = new ModelNode();
+    private boolean stopped;
+
+    /**
+     * Creates an autoscaler, which starts from the configured sizes of the pool.
+     *
+     * @param name            the name of the pool, for logging
+     * @param pool            the pool
+     * @param coreThreads     the configured core size
+     * @param maxThreads      the configured maximum size, which is the upper bound
+     * @param minThreads      the lower bound of the maximum size
+     * @param targetQueueWait the estimated queue wait, in milliseconds, above which the pool grows
+     */
+    ThreadPoolAutoscaler(String name, Pool pool, int coreThreads, int maxThreads, int minThreads, long targetQueueWait) {
+        this.name = name;
+        this.pool = pool;
+        this.coreTarget = coreThreads;
+        this.maxTarget = maxThreads;
+        setTargetQueueWait(targetQueueWait);
+        setBounds(coreThreads, maxThreads, minThreads);
+        this.lastSample = System.nanoTime();
+        this.lastCompleted = pool.getCompletedTaskCount();
+    }
+
+    /**
+     * Changes the configured sizes, resizing the pool right away if its current sizes are out of the new bounds.
+     */
+    synchronized void setBounds(int coreThreads, int maxThreads, int minThreads) {
+        this.maxThreads = maxThreads;
+        this.minThreads = Math.min(minThreads, maxThreads);
+        this.coreRatio = maxThreads == 0 ? 1 : Math.min(1, (double) coreThreads / maxThreads);
+        final int max = Math.max(this.minThreads, Math.min(maxThreads, maxTarget));
+        resize(coreThreads(max), max);
+    }
+
+    synchronized void setTargetQueueWait(long targetQueueWait) {
+        this.targetQueueWait = TimeUnit.MILLISECONDS.toNanos(targetQueueWait);
+    }
+
+    synchronized int getCoreThreads() {
+        return coreTarget;
+    }
+
+    synchronized int getMaxThreads() {
+        return maxTarget;
+    }
+
+    /**
+     * @return the last scaling decision, undefined if none was made
+     */
+    synchronized ModelNode getLastDecision() {
+        return lastDecision.clone();
+    }
+
+    /**
+     * Stops the autoscaler from resizing the pool. A sample that is already running completes before this returns,
+     * so the caller can restore the configured sizes without them being overwritten.
+     */
+    synchronized void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void run() {
+        sample(System.nanoTime());
+    }
+
+    synchronized void sample(long now) {
+        final long elapsed = now - lastSample;
+        if (stopped || elapsed <= 0) {
+            return;
+        }
+        final long completed = pool.getCompletedTaskCount();
+        final long throughput = completed - lastCompleted;
+        final int queued = pool.getQueueSize();
+        final int active = pool.getActiveCount();
+        lastSample = now;
+        lastCompleted = completed;
+        peakActive = Math.max(peakActive, active);
+
+        final long queueWait;
+        if (queued == 0) {
+            queueWait = 0;
+        } else if (throughput <= 0) {
+            queueWait = Long.MAX_VALUE;
+        } else {
+            queueWait = (long) ((double) queued * elapsed / throughput);
+        }
+        final double utilisation = maxTarget == 0 ? 1 : (double) active / maxTarget;
+
+        if (queueWait > targetQueueWait && maxTarget < maxThreads) {
+            idleSamples = 0;
+            peakActive = active;
+            final int max = Math.min(maxThreads, maxTarget + Math.max(1, maxTarget / 4));
+            decide(SCALE_UP, max, queueWait, utilisation);
+        } else if (queued == 0 && utilisation < SCALE_DOWN_UTILISATION) {
+            if (++idleSamples >= SCALE_DOWN_SAMPLES && maxTarget > minThreads) {
+                final int max = Math.max(minThreads, Math.max(2 * peakActive, maxTarget - Math.max(1, maxTarget / 8)));
+                idleSamples = 0;
+                peakActive = 0;
+                if (max < maxTarget) {
+                    decide(SCALE_DOWN, max, queueWait, utilisation);
+                }
+            }
+        } else {
+            idleSamples = 0;
+        }
+    }
+
+    private void decide(String action, int max, long queueWait, double utilisation) {
+        final int previousCore = coreTarget;
+        final int previousMax = maxTarget;
+        final int core = coreThreads(max);
+        resize(core, max);
+        final long queueWaitMillis = queueWait == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(queueWait);
+        final int utilisationPercent = (int) Math.round(utilisation * 100);
+        final ModelNode decision = new ModelNode();
+        decision.get(ACTION).set(action);
+        decision.get(TIME).set(System.currentTimeMillis());
+        decision.get(CommonAttributes.CORE_THREADS).set(core);
+        decision.get(CommonAttributes.MAX_THREADS).set(max);
+        decision.get(PREVIOUS_CORE_THREADS).set(previousCore);
+        decision.get(PREVIOUS_MAX_THREADS).set(previousMax);
+        decision.get(QUEUE_WAIT).set(queueWaitMillis);
+        decision.get(UTILISATION).set(utilisationPercent);
+        lastDecision = decision;
+        ThreadsLogger.ROOT_LOGGER.threadPoolResized(name, previousCore, previousMax, core, max, queueWaitMillis, utilisationPercent);
+    }
+
+    private int coreThreads(int max) {
+        return Math.max(coreRatio > 0 ? 1 : 0, Math.min(max, (int) Math.round(max * coreRatio)));
+    }
+
+    private void resize(int core, int max) {
+        if (!stopped && (core != coreTarget || max != maxTarget)) {
+            pool.resize(core, max);
+            coreTarget = core;
+            maxTarget = max;
+        }
+    }
+
+    /**
+     * The timer that runs the autoscalers of all pools.
+     */
+    static ScheduledExecutorService timer() {
+        return Timer.INSTANCE;
+    }
+
+    private static final class Timer {
+        static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "Thread pool autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            INSTANCE.setRemoveOnCancelPolicy(true);
+            INSTANCE.setKeepAliveTime(1, TimeUnit.MINUTES);
+            INSTANCE.allowCoreThreadTimeOut(true);
+        }
+    }
+}
@@ -68,7 +68,11 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
         if (context.getRunningMode() == RunningMode.NORMAL) {
             ServiceController<?> serviceController = getService(context, operation);
             final Service<?> service = serviceController.getService();
-            setResult(context, attributeName, service);
+            if (CommonAttributes.QUEUE_WAIT_TIME.equals(attributeName) || CommonAttributes.EXECUTION_TIME.equals(attributeName)) {
+                setTaskTimingResult(context, attributeName, service);
+            } else {
+                setResult(context, attributeName, service);
+            }
         }
 
         context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
@@ -76,6 +80,20 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
 
     protected abstract void setResult(OperationContext context, String attributeName, Service<?> service) throws OperationFailedException;
 
+    /**
+     * Sets the result for the task time metrics that every {@link ManagedExecutorService} records, which stays
+     * undefined unless statistics are enabled for the pool.
+     */
+    private static void setTaskTimingResult(OperationContext context, String attributeName, Service<?> service) {
+        final Object value = service.getValue();
+        if (value instanceof ManagedExecutorService) {
+            final TaskTimings timings = ((ManagedExecutorService) value).getTaskTimings();
+            if (timings.isEnabled()) {
+                context.getResult().set(CommonAttributes.QUEUE_WAIT_TIME.equals(attributeName) ? timings.getQueueWaitTime() : timings.getExecutionTime());
+            }
+        }
+    }
+
     protected ServiceController<?> getService(final OperationContext context, final ModelNode operation)
             throws OperationFailedException {
         final String name = Util.getNameFromAddress(operation.require(OP_ADDR));
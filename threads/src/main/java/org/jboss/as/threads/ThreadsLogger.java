@@ -32,6 +32,7 @@ import javax.xml.stream.XMLStreamException;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
@@ -157,4 +158,32 @@ interface ThreadsLogger extends BasicLogger {
     IllegalStateException unsupportedEnhancedQueueExecutorMetric(String attributeName);
 
     // id = 35; redundant parameter null check message
+
+    @Message(id = 36, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorAttribute(String attributeName);
+
+    @Message(id = 37, value = "Service '%s' not found.")
+    OperationFailedException virtualThreadExecutorServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 38, value = "The executor service hasn't been initialized.")
+    IllegalStateException virtualThreadExecutorUninitialized();
+
+    @Message(id = 39, value = "Unsupported metric '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorMetric(String attributeName);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 40, value = "Virtual threads are not available on this Java runtime; executor '%s' will run tasks in at most %d platform threads")
+    void virtualThreadsUnavailable(String name, int maxThreads);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 41, value = "Pinned thread diagnostics are not available for executor '%s'")
+    void pinningDiagnosticsUnavailable(String name, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 42, value = "A virtual thread of executor '%s' pinned its carrier thread: %s")
+    void virtualThreadPinned(String name, Object event);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 43, value = "Resized thread pool '%s' from %d core and %d maximum threads to %d core and %d maximum threads; estimated queue wait %d ms, utilisation %d%%")
+    void threadPoolResized(String name, int previousCoreThreads, int previousMaxThreads, int coreThreads, int maxThreads, long queueWait, int utilisation);
 }
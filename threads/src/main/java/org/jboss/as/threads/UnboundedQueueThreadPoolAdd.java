@@ -41,10 +41,12 @@ import org.jboss.msc.service.ServiceName;
 public class UnboundedQueueThreadPoolAdd extends AbstractAddStepHandler {
 
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
-        PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.THREAD_FACTORY};
+        PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.THREAD_FACTORY,
+        PoolAttributeDefinitions.STATISTICS_ENABLED};
 
     static final AttributeDefinition[] RW_ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
-        PoolAttributeDefinitions.MAX_THREADS};
+        PoolAttributeDefinitions.MAX_THREADS,
+        PoolAttributeDefinitions.STATISTICS_ENABLED};
 
     private final ThreadFactoryResolver threadFactoryResolver;
     private final ServiceName serviceNameBase;
@@ -69,6 +71,7 @@ public class UnboundedQueueThreadPoolAdd extends AbstractAddStepHandler {
         final BaseThreadPoolParameters params = ThreadPoolManagementUtils.parseUnboundedQueueThreadPoolParameters(context, operation, model);
 
         final UnboundedQueueThreadPoolService service = new UnboundedQueueThreadPoolService(allowCoreThreadTimeout, params.getMaxThreads(), params.getKeepAliveTime());
+        service.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
 
         ThreadPoolManagementUtils.installThreadPoolService(service, params.getName(), capability, context.getCurrentAddress(),
                 serviceNameBase, params.getThreadFactory(), threadFactoryResolver, service.getThreadFactoryInjector(),
@@ -47,6 +47,7 @@ public class UnboundedQueueThreadPoolService implements Service<ManagedJBossThre
     private int maxThreads;
     private TimeSpec keepAlive;
     private boolean allowCoreThreadTimeout;
+    private boolean statisticsEnabled;
 
     public UnboundedQueueThreadPoolService(boolean allowCoreThreadTimeout, int maxThreads, TimeSpec keepAlive) {
         this.maxThreads = maxThreads;
@@ -60,6 +61,7 @@ public class UnboundedQueueThreadPoolService implements Service<ManagedJBossThre
         final JBossThreadPoolExecutor jbossExecutor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAliveTime, TimeUnit.NANOSECONDS, new LinkedBlockingQueue<Runnable>(), threadFactoryValue.getValue());
         jbossExecutor.setAllowCoreThreadTimeout(allowCoreThreadTimeout);
         executor = new ManagedJBossThreadPoolExecutorService(jbossExecutor);
+        executor.getTaskTimings().setEnabled(statisticsEnabled);
     }
 
     public void stop(final StopContext context) {
@@ -107,6 +109,14 @@ public class UnboundedQueueThreadPoolService implements Service<ManagedJBossThre
         }
     }
 
+    public synchronized void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        final ManagedJBossThreadPoolExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.getTaskTimings().setEnabled(statisticsEnabled);
+        }
+    }
+
     public int getActiveCount() {
         final ManagedJBossThreadPoolExecutorService executor = getValue();
         return executor.getActiveCount();
@@ -0,0 +1,347 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An executor that runs each task in a new virtual thread.
+ * <p>
+ * Virtual threads are only available on Java 21 and later; on older runtimes tasks run in daemon platform threads
+ * instead, and as those are too expensive to start one per task without limit, at most
+ * {@link #PLATFORM_MAX_CONCURRENCY} tasks run at a time unless a lower limit is set. Tasks over the limit wait in a
+ * queue without a thread of their own, and a thread that completes a task runs the next queued one, so submitting a
+ * task never blocks.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    /** The maximum number of tasks that run at a time in platform threads, if virtual threads are not available */
+    static final int PLATFORM_MAX_CONCURRENCY = Math.max(64, 16 * Runtime.getRuntime().availableProcessors());
+
+    private final ThreadFactory threadFactory;
+    private final boolean virtual;
+    private final LimitSemaphore permits;
+    private int maxConcurrency;
+    private int permitLimit;
+
+    /** The tasks that have been accepted and are waiting for a permit */
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    /** The threads running tasks, each of which holds a permit */
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAccumulator largest = new LongAccumulator(Math::max, 0);
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Object terminationLock = new Object();
+    private volatile boolean shutdown;
+    private volatile boolean stopped;
+
+    /**
+     * @param name           the name of the executor, used as the prefix of the names of its threads
+     * @param maxConcurrency the maximum number of tasks that run at a time, or a value less than one for no limit
+     */
+    VirtualThreadExecutor(String name, int maxConcurrency) {
+        final ThreadFactory virtualThreadFactory = createVirtualThreadFactory(name + "-");
+        this.virtual = virtualThreadFactory != null;
+        this.threadFactory = virtual ? virtualThreadFactory : createPlatformThreadFactory(name + "-");
+        this.maxConcurrency = maxConcurrency > 0 ? maxConcurrency : -1;
+        this.permitLimit = permitLimit(maxConcurrency);
+        this.permits = new LimitSemaphore(permitLimit);
+    }
+
+    private int permitLimit(int maxConcurrency) {
+        if (virtual) {
+            return maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+        }
+        return maxConcurrency > 0 ? Math.min(maxConcurrency, PLATFORM_MAX_CONCURRENCY) : PLATFORM_MAX_CONCURRENCY;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        live.incrementAndGet();
+        if (shutdown) {
+            taskRejected();
+            throw new RejectedExecutionException();
+        }
+        submitted.increment();
+        queue.add(command);
+        startThreads();
+    }
+
+    /**
+     * Starts a thread for each queued task that a permit is available for. If a thread cannot be created the task that
+     * was to run in it is rejected, and the error is thrown to the caller.
+     */
+    private void startThreads() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            final Runnable task = queue.poll();
+            if (task == null) {
+                // another thread took it, so check again whether anything is left for this permit
+                permits.release();
+                continue;
+            }
+            Thread thread = null;
+            try {
+                thread = threadFactory.newThread(new Worker(task));
+                threads.add(thread);
+                largest.accumulate(threads.size());
+                thread.start();
+            } catch (RuntimeException | Error e) {
+                if (thread != null) {
+                    threads.remove(thread);
+                }
+                permits.release();
+                taskRejected();
+                throw e;
+            }
+        }
+    }
+
+    private void taskRejected() {
+        rejected.increment();
+        taskFinished();
+    }
+
+    private void taskFinished() {
+        if (live.decrementAndGet() == 0 && shutdown) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (live.get() == 0) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        stopped = true;
+        final List<Runnable> waiting = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            waiting.add(task);
+            taskFinished();
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        return waiting;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && live.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + remaining;
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes the number of tasks that run at a time. Tasks that are already running are not affected, so the number
+     * of running tasks can remain over a lowered limit until enough of them complete.
+     *
+     * @param maxConcurrency the new limit, or a value less than one for no limit
+     */
+    void setMaxConcurrency(int maxConcurrency) {
+        synchronized (this) {
+            final int newLimit = permitLimit(maxConcurrency);
+            final int delta = newLimit - permitLimit;
+            if (delta > 0) {
+                permits.release(delta);
+            } else if (delta < 0) {
+                permits.reducePermits(-delta);
+            }
+            this.permitLimit = newLimit;
+            this.maxConcurrency = maxConcurrency > 0 ? maxConcurrency : -1;
+        }
+        startThreads();
+    }
+
+    synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return {@code true} if tasks run in virtual threads, {@code false} if the runtime does not support them
+     */
+    boolean isVirtual() {
+        return virtual;
+    }
+
+    int getActiveCount() {
+        return active.get();
+    }
+
+    int getCurrentThreadCount() {
+        return threads.size();
+    }
+
+    int getLargestThreadCount() {
+        return (int) largest.get();
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    long getTaskCount() {
+        return submitted.sum();
+    }
+
+    long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Runs the task it was started for, then queued tasks for as long as there are any and the executor is not over
+     * its limit.
+     */
+    private final class Worker implements Runnable {
+        private final Runnable first;
+
+        Worker(Runnable first) {
+            this.first = first;
+        }
+
+        @Override
+        public void run() {
+            Runnable task = first;
+            try {
+                for (;;) {
+                    runTask(task);
+                    if (permits.availablePermits() < 0 || (task = queue.poll()) == null) {
+                        break;
+                    }
+                    taskFinished();
+                    // an interrupt aimed at the previous task must not reach this one, unless it came from shutdownNow()
+                    if (Thread.interrupted() && stopped) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } finally {
+                threads.remove(Thread.currentThread());
+                permits.release();
+                taskFinished();
+                // a task may have been queued after the last poll, when no permit was free for it
+                startThreads();
+            }
+        }
+
+        private void runTask(Runnable task) {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        }
+    }
+
+    /**
+     * Creates a factory of virtual threads through reflection, as they are only available on Java 21 and later.
+     *
+     * @return the factory, or {@code null} if virtual threads are not available
+     */
+    static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available, or a preview feature that has not been enabled
+            return null;
+        }
+    }
+
+    private static ThreadFactory createPlatformThreadFactory(String namePrefix) {
+        final AtomicLong count = new AtomicLong();
+        return task -> {
+            final Thread thread = new Thread(task, namePrefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class LimitSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        LimitSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
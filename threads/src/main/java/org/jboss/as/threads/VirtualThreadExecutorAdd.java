@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Adds a {@link VirtualThreadExecutor}.
+ */
+class VirtualThreadExecutorAdd extends AbstractAddStepHandler {
+
+    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[]{PoolAttributeDefinitions.MAX_CONCURRENCY,
+            PoolAttributeDefinitions.PINNING_DIAGNOSTICS,
+            PoolAttributeDefinitions.STATISTICS_ENABLED};
+
+    static final AttributeDefinition[] RW_ATTRIBUTES = ATTRIBUTES;
+
+    private final ServiceName serviceNameBase;
+    private final RuntimeCapability<Void> capability;
+
+    VirtualThreadExecutorAdd(ServiceName serviceNameBase, RuntimeCapability<Void> capability) {
+        super(ATTRIBUTES);
+        this.serviceNameBase = serviceNameBase;
+        this.capability = capability;
+    }
+
+    @Override
+    protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
+        final String name = context.getCurrentAddressValue();
+        final ModelNode maxConcurrency = PoolAttributeDefinitions.MAX_CONCURRENCY.resolveModelAttribute(context, model);
+        final boolean pinningDiagnostics = PoolAttributeDefinitions.PINNING_DIAGNOSTICS.resolveModelAttribute(context, model).asBoolean();
+
+        final VirtualThreadExecutorService service = new VirtualThreadExecutorService(name,
+                maxConcurrency.isDefined() ? maxConcurrency.asInt() : -1, pinningDiagnostics);
+        service.setStatisticsEnabled(PoolAttributeDefinitions.STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean());
+
+        final ServiceBuilder<?> serviceBuilder;
+        if (capability != null) {
+            serviceBuilder = context.getServiceTarget().addService(capability.getCapabilityServiceName(context.getCurrentAddress()), service);
+            if (serviceNameBase != null) {
+                serviceBuilder.addAliases(serviceNameBase.append(name));
+            }
+        } else {
+            serviceBuilder = context.getServiceTarget().addService(serviceNameBase.append(name), service);
+        }
+        serviceBuilder.install();
+    }
+
+    ServiceName getServiceNameBase() {
+        return serviceNameBase;
+    }
+
+    RuntimeCapability<Void> getCapability() {
+        return capability;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.jboss.as.threads.CommonAttributes.VIRTUAL_THREAD_EXECUTOR;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for an executor that runs each task in a new virtual thread.
+ * Its service provides an {@link ExecutorService}, so it can be used wherever another thread pool can.
+ */
+public final class VirtualThreadExecutorResourceDefinition extends PersistentResourceDefinition {
+    private final VirtualThreadExecutorWriteAttributeHandler writeAttributeHandler;
+    private final VirtualThreadExecutorMetricsHandler metricsHandler;
+    private final boolean registerRuntimeOnly;
+
+    public static VirtualThreadExecutorResourceDefinition create(boolean registerRuntimeOnly) {
+        return create(VIRTUAL_THREAD_EXECUTOR, ThreadsServices.EXECUTOR, registerRuntimeOnly);
+    }
+
+    public static VirtualThreadExecutorResourceDefinition create(String type, ServiceName serviceNameBase, boolean registerRuntimeOnly) {
+        return create(PathElement.pathElement(type), serviceNameBase, registerRuntimeOnly,
+                ThreadsServices.createCapability(type, ExecutorService.class));
+    }
+
+    public static VirtualThreadExecutorResourceDefinition create(PathElement path, ServiceName serviceNameBase, boolean registerRuntimeOnly,
+                                                                 RuntimeCapability<Void> capability) {
+        VirtualThreadExecutorAdd addHandler = new VirtualThreadExecutorAdd(serviceNameBase, capability);
+        return new VirtualThreadExecutorResourceDefinition(path, addHandler, capability, serviceNameBase, registerRuntimeOnly);
+    }
+
+    private VirtualThreadExecutorResourceDefinition(PathElement path, VirtualThreadExecutorAdd addHandler,
+                                                    RuntimeCapability<Void> capability, ServiceName serviceNameBase,
+                                                    boolean registerRuntimeOnly) {
+        super(new SimpleResourceDefinition.Parameters(path,
+                new ThreadPoolResourceDescriptionResolver(VIRTUAL_THREAD_EXECUTOR, ThreadsExtension.RESOURCE_NAME,
+                        ThreadsExtension.class.getClassLoader()))
+                .setAddHandler(addHandler)
+                .setRemoveHandler(new VirtualThreadExecutorRemove(addHandler))
+                .setCapabilities(capability));
+        this.registerRuntimeOnly = registerRuntimeOnly;
+        this.writeAttributeHandler = new VirtualThreadExecutorWriteAttributeHandler(capability, serviceNameBase);
+        this.metricsHandler = new VirtualThreadExecutorMetricsHandler(capability, serviceNameBase);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(PoolAttributeDefinitions.NAME, ReadResourceNameOperationStepHandler.INSTANCE);
+        writeAttributeHandler.registerAttributes(resourceRegistration);
+        if (registerRuntimeOnly) {
+            metricsHandler.registerAttributes(resourceRegistration);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(writeAttributeHandler.attributes);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service responsible for creating, starting and stopping a {@link VirtualThreadExecutor}.
+ */
+class VirtualThreadExecutorService implements Service<ManagedVirtualThreadExecutor> {
+
+    private final String name;
+    private final LongAdder pinned = new LongAdder();
+
+    private ManagedVirtualThreadExecutor executor;
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    private int maxConcurrency;
+    private boolean pinningDiagnostics;
+    private boolean statisticsEnabled;
+
+    VirtualThreadExecutorService(String name, int maxConcurrency, boolean pinningDiagnostics) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.pinningDiagnostics = pinningDiagnostics;
+    }
+
+    public synchronized void start(final StartContext context) {
+        final VirtualThreadExecutor virtualThreadExecutor = new VirtualThreadExecutor(name, maxConcurrency);
+        if (!virtualThreadExecutor.isVirtual()) {
+            ThreadsLogger.ROOT_LOGGER.virtualThreadsUnavailable(name, VirtualThreadExecutor.PLATFORM_MAX_CONCURRENCY);
+        }
+        executor = new ManagedVirtualThreadExecutor(virtualThreadExecutor);
+        executor.getTaskTimings().setEnabled(statisticsEnabled);
+        if (pinningDiagnostics) {
+            pinningMonitor = VirtualThreadPinningMonitor.start(name, pinned);
+        }
+    }
+
+    public void stop(final StopContext context) {
+        final ManagedVirtualThreadExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+            stopPinningMonitor();
+        }
+        context.asynchronous();
+        executor.internalShutdown();
+        executor.addShutdownListener(StopContextEventListener.getInstance(), context);
+    }
+
+    public synchronized ManagedVirtualThreadExecutor getValue() throws IllegalStateException {
+        final ManagedVirtualThreadExecutor value = this.executor;
+        if (value == null) {
+            throw ThreadsLogger.ROOT_LOGGER.virtualThreadExecutorUninitialized();
+        }
+        return value;
+    }
+
+    synchronized void setMaxConcurrency(final int maxConcurrency) {
+        final ManagedVirtualThreadExecutor executor = this.executor;
+        if (executor != null) {
+            executor.setMaxConcurrency(maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    synchronized void setPinningDiagnostics(final boolean pinningDiagnostics) {
+        final ManagedVirtualThreadExecutor executor = this.executor;
+        if (executor != null && pinningDiagnostics != this.pinningDiagnostics) {
+            if (pinningDiagnostics) {
+                pinningMonitor = VirtualThreadPinningMonitor.start(name, pinned);
+            } else {
+                stopPinningMonitor();
+            }
+        }
+        this.pinningDiagnostics = pinningDiagnostics;
+    }
+
+    synchronized void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+        final ManagedVirtualThreadExecutor executor = this.executor;
+        if (executor != null) {
+            executor.getTaskTimings().setEnabled(statisticsEnabled);
+        }
+    }
+
+    private void stopPinningMonitor() {
+        if (pinningMonitor != null) {
+            pinningMonitor.close();
+            pinningMonitor = null;
+        }
+    }
+
+    int getActiveCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getActiveCount();
+    }
+
+    long getCompletedTaskCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getCompletedTaskCount();
+    }
+
+    int getCurrentThreadCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getCurrentThreadCount();
+    }
+
+    int getLargestThreadCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getLargestThreadCount();
+    }
+
+    int getRejectedCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getRejectedCount();
+    }
+
+    long getTaskCount() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getTaskCount();
+    }
+
+    int getQueueSize() {
+        final ManagedVirtualThreadExecutor executor = getValue();
+        return executor.getQueueSize();
+    }
+
+    long getPinnedCount() {
+        return pinned.sum();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Reports virtual threads of a {@link VirtualThreadExecutor} that pin their carrier thread, for example by blocking
+ * inside a {@code synchronized} block, using the {@code jdk.VirtualThreadPinned} JFR event.
+ * <p>
+ * JFR streaming is accessed through reflection as it is not available on every supported runtime.
+ */
+final class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    /** The same threshold the JDK uses for the event by default */
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+
+    private final AutoCloseable stream;
+
+    private VirtualThreadPinningMonitor(AutoCloseable stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Starts reporting pinned threads of an executor. The threads of the executor are recognized by their name, as
+     * a thread may have finished, and its id been reused, by the time its event is consumed.
+     *
+     * @param name   the name of the executor, which its threads are named after
+     * @param pinned the counter of pinned events
+     * @return the monitor, or {@code null} if JFR streaming is not available
+     */
+    static VirtualThreadPinningMonitor start(String name, LongAdder pinned) {
+        try {
+            final Class<?> streamType = Class.forName("jdk.jfr.consumer.RecordingStream");
+            final Class<?> settingsType = Class.forName("jdk.jfr.EventSettings");
+            final Method getThread = Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getThread");
+            final Method getJavaName = Class.forName("jdk.jfr.consumer.RecordedThread").getMethod("getJavaName");
+
+            final AutoCloseable stream = (AutoCloseable) streamType.getConstructor().newInstance();
+            try {
+                final Object settings = streamType.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+                settingsType.getMethod("withThreshold", Duration.class).invoke(settings, THRESHOLD);
+                settingsType.getMethod("withStackTrace").invoke(settings);
+                final Consumer<Object> handler = event -> {
+                    try {
+                        final Object thread = getThread.invoke(event);
+                        if (thread != null && isExecutorThread(name, (String) getJavaName.invoke(thread))) {
+                            pinned.increment();
+                            ThreadsLogger.ROOT_LOGGER.virtualThreadPinned(name, event);
+                        }
+                    } catch (ReflectiveOperationException e) {
+                        ThreadsLogger.ROOT_LOGGER.tracef(e, "Failed to read %s event", PINNED_EVENT);
+                    }
+                };
+                streamType.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, handler);
+                streamType.getMethod("startAsync").invoke(stream);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                stream.close();
+                throw e;
+            }
+            return new VirtualThreadPinningMonitor(stream);
+        } catch (Exception e) {
+            ThreadsLogger.ROOT_LOGGER.pinningDiagnosticsUnavailable(name, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the thread name is one given by {@link VirtualThreadExecutor} to the threads of the named
+     * executor, that is the name of the executor followed by a dash and a counter
+     */
+    static boolean isExecutorThread(String executorName, String threadName) {
+        if (threadName == null || threadName.length() <= executorName.length() + 1
+                || !threadName.startsWith(executorName) || threadName.charAt(executorName.length()) != '-') {
+            return false;
+        }
+        for (int i = executorName.length() + 1; i < threadName.length(); i++) {
+            if (!Character.isDigit(threadName.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            stream.close();
+        } catch (Exception e) {
+            ThreadsLogger.ROOT_LOGGER.debugf(e, "Failed to stop %s event stream", PINNED_EVENT);
+        }
+    }
+}
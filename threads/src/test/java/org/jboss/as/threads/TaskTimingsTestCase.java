@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link TaskTimings} and {@link TaskTimeHistogram}.
+ */
+public class TaskTimingsTestCase {
+
+    @Test
+    public void testDisabled() throws Exception {
+        TaskTimings timings = new TaskTimings();
+        Runnable task = () -> { };
+        Callable<String> callable = () -> "done";
+        assertFalse(timings.isEnabled());
+        assertSame(task, timings.wrap(task));
+        assertSame(callable, timings.wrap(callable));
+        List<Callable<String>> tasks = Arrays.asList(callable, callable);
+        assertSame(tasks, timings.wrap(tasks));
+    }
+
+    @Test
+    public void testTimes() throws Exception {
+        TaskTimings timings = new TaskTimings();
+        timings.setEnabled(true);
+        Runnable original = () -> sleep(20);
+        Runnable task = timings.wrap(original);
+        assertNotSame(original, task);
+        sleep(10);
+        task.run();
+        assertEquals("done", timings.wrap(() -> "done").call());
+
+        ModelNode wait = timings.getQueueWaitTime();
+        ModelNode execution = timings.getExecutionTime();
+        assertEquals(2, wait.get(TaskTimeHistogram.COUNT).asLong());
+        assertEquals(2, execution.get(TaskTimeHistogram.COUNT).asLong());
+        assertTrue(wait.get(TaskTimeHistogram.MAX).asLong() >= TimeUnit.MILLISECONDS.toMicros(10));
+        assertTrue(execution.get(TaskTimeHistogram.MAX).asLong() >= TimeUnit.MILLISECONDS.toMicros(20));
+        assertTrue(execution.get(TaskTimeHistogram.P99).asLong() >= TimeUnit.MILLISECONDS.toMicros(20));
+        assertTrue(execution.get(TaskTimeHistogram.RATE).asDouble() > 0);
+
+        // Re-enabling discards the times recorded before
+        timings.setEnabled(false);
+        assertSame(task, timings.wrap(task));
+        timings.setEnabled(true);
+        assertEquals(0, timings.getExecutionTime().get(TaskTimeHistogram.COUNT).asLong());
+    }
+
+    @Test
+    public void testScheduledWaitCountsFromDueTime() throws Exception {
+        TaskTimings timings = new TaskTimings();
+        timings.setEnabled(true);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, Executors.defaultThreadFactory());
+        try {
+            executor.schedule(timings.wrap(() -> { }, TimeUnit.MILLISECONDS.toNanos(100), 0), 100, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+            executor.scheduleWithFixedDelay(timings.wrap(() -> { }, TimeUnit.MILLISECONDS.toNanos(10), -TimeUnit.MILLISECONDS.toNanos(10)), 10, 10, TimeUnit.MILLISECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (timings.getQueueWaitTime().get(TaskTimeHistogram.COUNT).asLong() < 5 && System.nanoTime() < deadline) {
+                sleep(10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ModelNode wait = timings.getQueueWaitTime();
+        assertTrue(wait.get(TaskTimeHistogram.COUNT).asLong() >= 5);
+        // Neither the initial delay nor the delay between runs counts as waiting
+        assertTrue(wait.get(TaskTimeHistogram.MEAN).asLong() < TimeUnit.MILLISECONDS.toMicros(50));
+    }
+
+    @Test
+    public void testHistogram() {
+        TaskTimeHistogram histogram = new TaskTimeHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        ModelNode result = histogram.toModelNode(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(1000, result.get(TaskTimeHistogram.COUNT).asLong());
+        assertEquals(500, result.get(TaskTimeHistogram.MEAN).asLong());
+        assertEquals(1000, result.get(TaskTimeHistogram.MAX).asLong());
+        assertWithinBucket(500, result.get(TaskTimeHistogram.P50).asLong());
+        assertWithinBucket(900, result.get(TaskTimeHistogram.P90).asLong());
+        assertWithinBucket(990, result.get(TaskTimeHistogram.P99).asLong());
+        assertEquals(100.0, result.get(TaskTimeHistogram.RATE).asDouble(), 0.001);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(TaskTimeHistogram.upperBound(TaskTimeHistogram.index(i)) >= i);
+        }
+        histogram.reset();
+        assertEquals(0, histogram.toModelNode(0).get(TaskTimeHistogram.COUNT).asLong());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected, actual <= expected * 1.125);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
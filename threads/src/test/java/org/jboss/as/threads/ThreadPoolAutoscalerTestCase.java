@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ThreadPoolAutoscaler}.
+ */
+public class ThreadPoolAutoscalerTestCase {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private long now = System.nanoTime();
+
+    @Test
+    public void testScaleUpOnQueueWait() {
+        TestPool pool = new TestPool();
+        ThreadPoolAutoscaler autoscaler = new ThreadPoolAutoscaler("test", pool, 5, 20, 2, 100);
+        sample(autoscaler, 8 * ThreadPoolAutoscaler.SCALE_DOWN_SAMPLES);
+        assertEquals(9, autoscaler.getMaxThreads());
+        assertEquals(2, autoscaler.getCoreThreads());
+
+        // 100 tasks completed per second with 50 queued is a wait of 500ms
+        pool.active = 9;
+        pool.queued = 50;
+        pool.completed += 100;
+        sample(autoscaler, 1);
+        assertEquals(11, autoscaler.getMaxThreads());
+        assertEquals(3, autoscaler.getCoreThreads());
+        assertEquals(11, pool.maxThreads);
+        assertEquals(3, pool.coreThreads);
+        ModelNode decision = autoscaler.getLastDecision();
+        assertEquals(ThreadPoolAutoscaler.SCALE_UP, decision.get(ThreadPoolAutoscaler.ACTION).asString());
+        assertEquals(9, decision.get(ThreadPoolAutoscaler.PREVIOUS_MAX_THREADS).asInt());
+        assertEquals(500, decision.get(ThreadPoolAutoscaler.QUEUE_WAIT).asLong());
+        assertEquals(100, decision.get(ThreadPoolAutoscaler.UTILISATION).asInt());
+
+        // No task completing at all is an unbounded wait, but the pool never grows above the configured maximum
+        sample(autoscaler, 20);
+        assertEquals(20, autoscaler.getMaxThreads());
+        assertEquals(5, autoscaler.getCoreThreads());
+        assertEquals(-1, autoscaler.getLastDecision().get(ThreadPoolAutoscaler.QUEUE_WAIT).asLong());
+
+        // A short wait is within the target
+        autoscaler.setBounds(5, 40, 2);
+        pool.queued = 5;
+        pool.completed += 100;
+        sample(autoscaler, 1);
+        assertEquals(20, autoscaler.getMaxThreads());
+    }
+
+    @Test
+    public void testScaleDownWhenIdle() {
+        TestPool pool = new TestPool();
+        ThreadPoolAutoscaler autoscaler = new ThreadPoolAutoscaler("test", pool, 16, 16, 4, 100);
+        pool.active = 3;
+        sample(autoscaler, ThreadPoolAutoscaler.SCALE_DOWN_SAMPLES - 1);
+        assertEquals(16, autoscaler.getMaxThreads());
+        assertFalse(autoscaler.getLastDecision().isDefined());
+        sample(autoscaler, 1);
+        assertEquals(14, autoscaler.getMaxThreads());
+        assertEquals(14, autoscaler.getCoreThreads());
+        assertEquals(ThreadPoolAutoscaler.SCALE_DOWN, autoscaler.getLastDecision().get(ThreadPoolAutoscaler.ACTION).asString());
+
+        // Not below twice the number of active threads
+        sample(autoscaler, 20 * ThreadPoolAutoscaler.SCALE_DOWN_SAMPLES);
+        assertEquals(6, autoscaler.getMaxThreads());
+
+        // Nor below the minimum
+        pool.active = 0;
+        sample(autoscaler, 20 * ThreadPoolAutoscaler.SCALE_DOWN_SAMPLES);
+        assertEquals(4, autoscaler.getMaxThreads());
+    }
+
+    @Test
+    public void testBounds() {
+        TestPool pool = new TestPool();
+        ThreadPoolAutoscaler autoscaler = new ThreadPoolAutoscaler("test", pool, 10, 10, 1, 100);
+        autoscaler.setBounds(4, 8, 1);
+        assertEquals(8, pool.maxThreads);
+        assertEquals(4, pool.coreThreads);
+        autoscaler.setBounds(4, 8, 12);
+        assertEquals(8, autoscaler.getMaxThreads());
+    }
+
+    @Test
+    public void testStop() {
+        TestPool pool = new TestPool();
+        ThreadPoolAutoscaler autoscaler = new ThreadPoolAutoscaler("test", pool, 10, 10, 1, 100);
+        autoscaler.stop();
+        sample(autoscaler, 20 * ThreadPoolAutoscaler.SCALE_DOWN_SAMPLES);
+        assertEquals(10, autoscaler.getMaxThreads());
+        assertFalse(autoscaler.getLastDecision().isDefined());
+        autoscaler.setBounds(4, 8, 1);
+        assertEquals(0, pool.maxThreads);
+    }
+
+    private void sample(ThreadPoolAutoscaler autoscaler, int samples) {
+        for (int i = 0; i < samples; i++) {
+            now += INTERVAL;
+            autoscaler.sample(now);
+        }
+    }
+
+    private static final class TestPool implements ThreadPoolAutoscaler.Pool {
+        int active;
+        int queued;
+        long completed;
+        int coreThreads;
+        int maxThreads;
+
+        @Override
+        public int getActiveCount() {
+            return active;
+        }
+
+        @Override
+        public int getQueueSize() {
+            return queued;
+        }
+
+        @Override
+        public long getCompletedTaskCount() {
+            return completed;
+        }
+
+        @Override
+        public void resize(int coreThreads, int maxThreads) {
+            this.coreThreads = coreThreads;
+            this.maxThreads = maxThreads;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.junit.Test;
 
 /**
  * @author <a href="mailto:tomaz.cerar@redhat.com">Tomaz Cerar</a> (c) 2012 Red Hat Inc.
@@ -41,12 +42,17 @@ public class ThreadsSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("threads-subsystem-2_0.xml");
+        return readResource("threads-subsystem-3_0.xml");
     }
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-threads_2_0.xsd";
+        return "schema/wildfly-threads_3_0.xsd";
+    }
+
+    @Test
+    public void testParse2_0() throws Exception {
+        standardSubsystemTest("threads-subsystem-2_0.xml", false);
     }
 
     // TODO WFCORE-1353 means this doesn't have to always fail now; consider just deleting this
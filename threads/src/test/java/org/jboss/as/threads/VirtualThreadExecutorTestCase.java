@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2022, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests of {@link VirtualThreadExecutor}.
+ */
+public class VirtualThreadExecutorTestCase {
+
+    @Test
+    public void testRunsTasks() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("test", -1);
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(done::countDown);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, executor.getTaskCount());
+        assertEquals(100, executor.getCompletedTaskCount());
+        assertEquals(0, executor.getCurrentThreadCount());
+        assertEquals(-1, executor.getMaxConcurrency());
+    }
+
+    @Test
+    public void testMaxConcurrency() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("test", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        awaitCounts(executor, 2, 3);
+        // tasks over the limit wait without a thread
+        assertEquals(2, executor.getCurrentThreadCount());
+
+        executor.setMaxConcurrency(3);
+        awaitCounts(executor, 3, 2);
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(3, executor.getLargestThreadCount());
+    }
+
+    @Test
+    public void testPlatformThreadsAreBounded() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("test", -1);
+        Assume.assumeFalse(executor.isVirtual());
+        final int limit = VirtualThreadExecutor.PLATFORM_MAX_CONCURRENCY;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(limit + 10);
+        for (int i = 0; i < limit + 10; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        awaitCounts(executor, limit, 10);
+        assertEquals(limit, executor.getCurrentThreadCount());
+        assertEquals(-1, executor.getMaxConcurrency());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(limit, executor.getLargestThreadCount());
+        assertEquals(limit + 10, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("test", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Runnable notStarted = () -> fail("should not run");
+        executor.execute(notStarted);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        awaitCounts(executor, 1, 1);
+
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        assertFalse(executor.isTerminated());
+        try {
+            executor.execute(() -> { });
+            fail("task accepted after shutdown");
+        } catch (RejectedExecutionException expected) {
+        }
+        List<Runnable> waiting = executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, waiting.size());
+        assertSame(notStarted, waiting.get(0));
+        // the task submitted after shutdown; the one that never got a permit was handed back instead
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(1, executor.getCompletedTaskCount());
+    }
+
+    private static void awaitCounts(VirtualThreadExecutor executor, int active, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.getActiveCount() != active || executor.getQueueSize() != queued) {
+            assertTrue("Timed out waiting for " + active + " active and " + queued + " queued tasks", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPinnedThreadNames() {
+        assertTrue(VirtualThreadPinningMonitor.isExecutorThread("test", "test-0"));
+        assertTrue(VirtualThreadPinningMonitor.isExecutorThread("test", "test-42"));
+        assertFalse(VirtualThreadPinningMonitor.isExecutorThread("test", "test-"));
+        assertFalse(VirtualThreadPinningMonitor.isExecutorThread("test", "test-other-0"));
+        assertFalse(VirtualThreadPinningMonitor.isExecutorThread("test", "other-0"));
+        assertFalse(VirtualThreadPinningMonitor.isExecutorThread("test", ""));
+        assertFalse(VirtualThreadPinningMonitor.isExecutorThread("test", null));
+    }
+}